@@ -11,6 +11,7 @@ import javax.transaction.Transactional;
 
 import org.carlspring.strongbox.data.criteria.DetachQueryTemplate;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.PageToken;
 import org.carlspring.strongbox.data.criteria.QueryTemplate;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.dependency.snippet.CodeSnippet;
@@ -69,6 +70,9 @@ public class AqlSearchServiceImpl implements AqlSearchService
             r.setSnippets(snippets);
         }
 
+        PageToken nextPageToken = selector.getPaginator().getNextPageToken();
+        result.setNextPageToken(nextPageToken == null ? null : nextPageToken.encode());
+
         return result;
     }
 
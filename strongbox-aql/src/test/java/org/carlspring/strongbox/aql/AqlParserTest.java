@@ -2,6 +2,8 @@ package org.carlspring.strongbox.aql;
 
 import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.PageToken;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.QueryParserException;
 import org.carlspring.strongbox.data.criteria.Selector;
@@ -196,6 +198,48 @@ public class AqlParserTest
                      parameterMap);
     }
 
+    @Test
+    public void testKeysetPagination()
+    {
+        String query = "storage:storage-common-proxies +repository:carlspring desc: version";
+
+        Selector<ArtifactEntry> selector = new AqlQueryParser(query).parseQuery();
+        Paginator paginator = selector.getPaginator();
+        String property = paginator.getProperty();
+
+        OQueryTemplate<Object, ArtifactEntry> queryTemplate = new OQueryTemplate<>(null);
+
+        paginator.setKeyset(true);
+        String sqlQuery = queryTemplate.calculateQueryString(selector);
+        assertTrue(sqlQuery.endsWith(String.format(" ORDER BY %s DESC, @rid DESC LIMIT 25", property)), sqlQuery);
+
+        PageToken pageToken = PageToken.decode(new PageToken("1.2.3", "#12:34").encode());
+        assertEquals("1.2.3", pageToken.getValue());
+        assertEquals("#12:34", pageToken.getRid());
+
+        paginator.setSkip(50);
+        paginator.setPageToken(pageToken);
+        sqlQuery = queryTemplate.calculateQueryString(selector);
+
+        logger.debug(String.format("Query [%s] parse result:\n[%s]", query, sqlQuery));
+
+        assertTrue(sqlQuery.contains(String.format(") AND (%s < :pageValue OR (%s = :pageValue AND @rid < :pageRid) " +
+                                                   "OR %s IS NULL) ORDER BY",
+                                                   property, property, property)),
+                   sqlQuery);
+        assertFalse(sqlQuery.contains("SKIP"), sqlQuery);
+
+        Map<String, Object> parameterMap = queryTemplate.exposeParameterMap(selector);
+        assertEquals("1.2.3", parameterMap.get("pageValue"));
+        assertEquals("#12:34", parameterMap.get("pageRid").toString());
+
+        assertThrows(IllegalArgumentException.class, () -> PageToken.decode("not a token"));
+        assertThrows(IllegalArgumentException.class,
+                     () -> PageToken.decode(new PageToken("1.2.3", "#abc").encode()));
+        assertThrows(IllegalArgumentException.class,
+                     () -> PageToken.decode(new PageToken("1.2.3", "#12:34:56").encode()));
+    }
+
     @Test
     public void testInvalidQuery()
     {
@@ -4,6 +4,7 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Feature;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import java.io.Closeable;
 
@@ -94,6 +95,35 @@ public class RestArtifactResolver
         return new CloseableRestResponse(response);
     }
 
+    /**
+     * Performs a conditional GET. The remote is expected to answer with {@code 304 Not Modified}
+     * if the resource still matches the given validators.
+     */
+    public CloseableRestResponse getIfModified(String path,
+                                               String eTag,
+                                               String lastModified)
+    {
+        String url = escapeUrl(path);
+
+        logger.debug("Conditionally getting " + url + "...");
+
+        WebTarget resource = new WebTargetBuilder(url).withAuthentication()
+                                                      .customRequestConfig()
+                                                      .build();
+
+        Invocation.Builder request = resource.request();
+        if (eTag != null)
+        {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, eTag);
+        }
+        if (lastModified != null)
+        {
+            request = request.header(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+
+        return new CloseableRestResponse(request.get());
+    }
+
     public CloseableRestResponse head(String path)
     {
         String url = escapeUrl(path);
@@ -1,138 +1,262 @@
 package org.carlspring.strongbox.io;
 
-import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Deque;
-import java.util.Iterator;
-import java.util.LinkedList;
 
 /**
  * This {@link InputStream} decorates a source {@link InputStream} with ability to replace a target chain of bytes with
  * another specified chain of bytes.<br>
- * 
+ *
  * For example it can be used as Mulitpart Stream Adapter to change boundary bytes.
- * 
+ * <p>
+ * The source is read in blocks into the byte buffer, which is scanned for the target chain and copied into the
+ * caller's array in bulk, so that the large streams (like package uploads) are not processed byte by byte. Only the
+ * last `search.length - 1` bytes of the block, which can be the beginning of the target chain, are kept until the
+ * next block is read.
+ *
  * @author Sergey Bespalov
- * 
+ *
  */
 public class ReplacingInputStream
-        extends BufferedInputStream
+        extends FilterInputStream
 {
 
-    Deque<Integer> inQueue = new LinkedList<Integer>();
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
 
-    Deque<Integer> outQueue = new LinkedList<Integer>();
+    private final byte[] search;
 
-    final byte[] search, replacement;
+    private final byte[] replacement;
+
+    private final byte[] buffer;
+
+    /**
+     * Position of the first byte within the {@link #buffer} which wasn't read yet.
+     */
+    private int start;
+
+    /**
+     * Position after the last byte within the {@link #buffer} which was read from the source.
+     */
+    private int end;
+
+    private boolean eof;
+
+    /**
+     * Position of the next {@link #replacement} byte to be read, if equals to it's length then there is no pending
+     * replacement.
+     */
+    private int replacementPosition;
+
+    private final byte[] singleByte = new byte[1];
 
     public ReplacingInputStream(InputStream in,
                                 byte[] search,
                                 byte[] replacement)
     {
-        super(in);
-        this.search = search;
-        this.replacement = replacement;
+        this(in, search, replacement, DEFAULT_BUFFER_SIZE);
     }
 
-    private boolean isMatchFound()
+    public ReplacingInputStream(InputStream in,
+                                byte[] search,
+                                byte[] replacement,
+                                int bufferSize)
     {
-        Iterator<Integer> inIter = inQueue.iterator();
-        for (int i = 0; i < search.length; i++)
+        super(in);
+
+        if (search.length == 0)
         {
-            if (!inIter.hasNext() || search[i] != inIter.next())
-            {
-                return false;
-            }
+            throw new IllegalArgumentException("Search bytes should not be empty.");
         }
-        return true;
+
+        this.search = search.clone();
+        this.replacement = replacement.clone();
+        this.buffer = new byte[Math.max(bufferSize, search.length * 2)];
+        this.replacementPosition = this.replacement.length;
     }
 
-    private void readAhead()
+    @Override
+    public int read()
         throws IOException
     {
-        // Work up some look-ahead.
-        while (inQueue.size() < search.length)
-        {
-            int next = super.read();
-            inQueue.offer(next);
-            if (next == -1)
-            {
-                break;
-            }
-        }
+        int n = read(singleByte, 0, 1);
+
+        return n == -1 ? -1 : singleByte[0] & 0xFF;
     }
 
     @Override
-    public int read()
+    public int read(byte[] b)
+        throws IOException
+    {
+        return read(b, 0, b.length);
+    }
+
+    /**
+     * Reads from the stream into the provided array. The source is only read when there is nothing to return yet.
+     */
+    @Override
+    public int read(byte[] b,
+                    int off,
+                    int len)
         throws IOException
     {
+        if (off < 0 || len < 0 || len > b.length - off)
+        {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0)
+        {
+            return 0;
+        }
 
-        // Next byte already determined.
-        if (outQueue.isEmpty())
+        int n = 0;
+        while (n < len)
         {
+            if (replacementPosition < replacement.length)
+            {
+                int count = Math.min(replacement.length - replacementPosition, len - n);
+                System.arraycopy(replacement, replacementPosition, b, off + n, count);
+                replacementPosition += count;
+                n += count;
 
-            readAhead();
+                continue;
+            }
 
-            if (isMatchFound())
+            int decidable = decidable();
+            if (decidable <= 0)
             {
-                for (int i = 0; i < search.length; i++)
+                if (eof || n > 0)
                 {
-                    inQueue.remove();
+                    break;
                 }
 
-                for (byte b : replacement)
-                {
-                    outQueue.offer((int) b);
-                }
+                fill();
+
+                continue;
             }
-            else
+
+            int limit = start + Math.min(decidable, len - n);
+            int i = start;
+            while (i < limit && !matchesAt(i))
             {
-                outQueue.add(inQueue.remove());
+                i++;
+            }
+
+            System.arraycopy(buffer, start, b, off + n, i - start);
+            n += i - start;
+            start = i;
+
+            if (i < limit)
+            {
+                start += search.length;
+                replacementPosition = 0;
             }
         }
 
-        return outQueue.remove();
+        return n == 0 ? -1 : n;
     }
 
     /**
-     * Returns false. REFilterInputStream does not support mark() and reset() methods.
+     * @return the number of buffered bytes for which it's known whether they begin the target chain or not
      */
-    @Override
-    public boolean markSupported()
+    private int decidable()
     {
-        return false;
+        int available = end - start;
+
+        return eof ? available : available - search.length + 1;
+    }
+
+    private boolean matchesAt(int position)
+    {
+        if (buffer[position] != search[0] || position + search.length > end)
+        {
+            return false;
+        }
+
+        for (int i = 1; i < search.length; i++)
+        {
+            if (buffer[position + i] != search[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void fill()
+        throws IOException
+    {
+        if (start > 0)
+        {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+
+        int n = in.read(buffer, end, buffer.length - end);
+        if (n == -1)
+        {
+            eof = true;
+        }
+        else
+        {
+            end += n;
+        }
     }
 
-    /**
-     * Reads from the stream into the provided array.
-     */
     @Override
-    public int read(byte[] b,
-                    int off,
-                    int len)
+    public long skip(long n)
         throws IOException
     {
-        int i;
-        int ok = 0;
-        while (len-- > 0)
+        if (n <= 0)
+        {
+            return 0;
+        }
+
+        byte[] skipBuffer = new byte[(int) Math.min(n, DEFAULT_BUFFER_SIZE)];
+
+        long remaining = n;
+        while (remaining > 0)
         {
-            i = read();
-            if (i == -1)
+            int count = read(skipBuffer, 0, (int) Math.min(remaining, skipBuffer.length));
+            if (count == -1)
             {
-                return (ok == 0) ? -1 : ok;
+                break;
             }
-            b[off++] = (byte) i;
-            ok++;
+            remaining -= count;
         }
-        return ok;
+
+        return n - remaining;
     }
 
     @Override
-    public int read(byte[] buffer)
+    public int available()
         throws IOException
     {
+        return (replacement.length - replacementPosition) + Math.max(decidable(), 0);
+    }
 
-        return read(buffer, 0, buffer.length);
+    /**
+     * Returns false. ReplacingInputStream does not support mark() and reset() methods.
+     */
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit)
+    {
+        // mark() is not supported.
     }
+
+    @Override
+    public synchronized void reset()
+        throws IOException
+    {
+        throw new IOException("mark/reset not supported");
+    }
+
 }
@@ -0,0 +1,216 @@
+package org.carlspring.strongbox.io;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Compares the throughput of the {@link ReplacingInputStream} with the byte by byte implementation it replaced, on
+ * the NuGet boundary rewrite of a large upload.
+ * <p>
+ * It's skipped by default, run it with:
+ * <pre>
+ * mvn test -pl strongbox-commons -Dtest=ReplacingInputStreamBenchmarkTest -Dstrongbox.benchmark=true
+ * </pre>
+ * The size of the data (in MB) can be changed with `-Dstrongbox.benchmark.size`.
+ */
+@EnabledIfSystemProperty(named = "strongbox.benchmark", matches = "true")
+public class ReplacingInputStreamBenchmarkTest
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplacingInputStreamBenchmarkTest.class);
+
+    private static final byte[] NUGET_BOUNDARY_PREFIX = { 0x00, 0x0A, 0x2D, 0x2D };
+
+    private static final byte[] FIXED_BOUNDARY_PREFIX = { 0x00, 0x0D, 0x0A, 0x2D, 0x2D };
+
+    private static final int READ_SIZE = 4096;
+
+    private static final int WARMUP_ROUNDS = 2;
+
+    private static final int ROUNDS = 3;
+
+    @Test
+    public void compareWithByteByByteReplacement()
+        throws IOException, NoSuchAlgorithmException
+    {
+        byte[] source = createSource(Integer.getInteger("strongbox.benchmark.size", 64) * 1024 * 1024);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++)
+        {
+            digest(new ReplacingInputStream(new ByteArrayInputStream(source), NUGET_BOUNDARY_PREFIX,
+                                            FIXED_BOUNDARY_PREFIX));
+            digest(new LegacyReplacingInputStream(new ByteArrayInputStream(source), NUGET_BOUNDARY_PREFIX,
+                                                  FIXED_BOUNDARY_PREFIX));
+        }
+
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            long start = System.nanoTime();
+            byte[] blocks = digest(new ReplacingInputStream(new ByteArrayInputStream(source), NUGET_BOUNDARY_PREFIX,
+                                                            FIXED_BOUNDARY_PREFIX));
+            long blocksMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            start = System.nanoTime();
+            byte[] bytes = digest(new LegacyReplacingInputStream(new ByteArrayInputStream(source),
+                                                                 NUGET_BOUNDARY_PREFIX, FIXED_BOUNDARY_PREFIX));
+            long bytesMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertThat(blocks, equalTo(bytes));
+
+            logger.info("[{}] bytes with [{}] bytes reads: blocks [{}] ms, byte by byte [{}] ms.", source.length,
+                        READ_SIZE, blocksMillis, bytesMillis);
+        }
+    }
+
+    /**
+     * @return random bytes, with a boundary to be fixed every 64 KB
+     */
+    private static byte[] createSource(int size)
+    {
+        byte[] result = new byte[size];
+        new Random(42).nextBytes(result);
+        for (int i = 0; i + NUGET_BOUNDARY_PREFIX.length < size; i += 64 * 1024)
+        {
+            System.arraycopy(NUGET_BOUNDARY_PREFIX, 0, result, i, NUGET_BOUNDARY_PREFIX.length);
+        }
+
+        return result;
+    }
+
+    private static byte[] digest(InputStream is)
+        throws IOException, NoSuchAlgorithmException
+    {
+        MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        byte[] buffer = new byte[READ_SIZE];
+        try (InputStream in = is)
+        {
+            int n;
+            while ((n = in.read(buffer)) != -1)
+            {
+                digest.update(buffer, 0, n);
+            }
+        }
+
+        return digest.digest();
+    }
+
+    /**
+     * The previous implementation of the {@link ReplacingInputStream}, which is kept as the baseline.
+     */
+    private static class LegacyReplacingInputStream
+            extends BufferedInputStream
+    {
+
+        private final Deque<Integer> inQueue = new LinkedList<>();
+
+        private final Deque<Integer> outQueue = new LinkedList<>();
+
+        private final byte[] search;
+
+        private final byte[] replacement;
+
+        private LegacyReplacingInputStream(InputStream in,
+                                           byte[] search,
+                                           byte[] replacement)
+        {
+            super(in);
+            this.search = search;
+            this.replacement = replacement;
+        }
+
+        private boolean isMatchFound()
+        {
+            Iterator<Integer> inIter = inQueue.iterator();
+            for (byte b : search)
+            {
+                if (!inIter.hasNext() || b != inIter.next())
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void readAhead()
+            throws IOException
+        {
+            while (inQueue.size() < search.length)
+            {
+                int next = super.read();
+                inQueue.offer(next);
+                if (next == -1)
+                {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            if (outQueue.isEmpty())
+            {
+                readAhead();
+
+                if (isMatchFound())
+                {
+                    for (int i = 0; i < search.length; i++)
+                    {
+                        inQueue.remove();
+                    }
+
+                    for (byte b : replacement)
+                    {
+                        outQueue.offer((int) b);
+                    }
+                }
+                else
+                {
+                    outQueue.add(inQueue.remove());
+                }
+            }
+
+            return outQueue.remove();
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+            throws IOException
+        {
+            int i;
+            int ok = 0;
+            while (len-- > 0)
+            {
+                i = read();
+                if (i == -1)
+                {
+                    return (ok == 0) ? -1 : ok;
+                }
+                b[off++] = (byte) i;
+                ok++;
+            }
+            return ok;
+        }
+
+    }
+
+}
@@ -0,0 +1,127 @@
+package org.carlspring.strongbox.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ReplacingInputStreamTest
+{
+
+    private static final byte[] NUGET_BOUNDARY_PREFIX = { 0x00, 0x0A, 0x2D, 0x2D };
+
+    private static final byte[] FIXED_BOUNDARY_PREFIX = { 0x00, 0x0D, 0x0A, 0x2D, 0x2D };
+
+    @Test
+    public void brokenNugetBoundaryPrefixShouldBeFixed()
+        throws IOException
+    {
+        byte[] source = { 0x41, 0x00, 0x0A, 0x2D, 0x2D, 0x42, 0x00, 0x0A, 0x2D, 0x2D };
+        byte[] expected = { 0x41, 0x00, 0x0D, 0x0A, 0x2D, 0x2D, 0x42, 0x00, 0x0D, 0x0A, 0x2D, 0x2D };
+
+        InputStream is = new ReplacingInputStream(new ByteArrayInputStream(source),
+                                                  NUGET_BOUNDARY_PREFIX,
+                                                  FIXED_BOUNDARY_PREFIX);
+
+        assertThat(readFully(is, 4096), equalTo(expected));
+    }
+
+    @Test
+    public void matchesSplitBetweenSourceReadsShouldBeReplaced()
+        throws IOException
+    {
+        String source = "--boundary-abc--boundary--boundar";
+
+        // Small buffer, and the source which returns one byte per read.
+        InputStream is = new ReplacingInputStream(new TricklingInputStream(toStream(source)),
+                                                  bytes("--boundary"),
+                                                  bytes("##"),
+                                                  4);
+
+        assertThat(new String(readFully(is, 3), StandardCharsets.UTF_8), equalTo("##-abc##--boundar"));
+    }
+
+    @Test
+    public void bulkAndSingleByteReadsShouldBeEqual()
+        throws IOException
+    {
+        byte[] source = new byte[100000];
+        for (int i = 0; i < source.length; i++)
+        {
+            source[i] = (byte) (i % 7 == 0 ? 0xFF : i % 5);
+        }
+        byte[] search = { (byte) 0xFF, 0x01 };
+        byte[] replacement = { (byte) 0xFE };
+
+        byte[] bulk = readFully(new ReplacingInputStream(new ByteArrayInputStream(source), search, replacement),
+                                8192);
+
+        ByteArrayOutputStream singleBytes = new ByteArrayOutputStream();
+        try (InputStream is = new ReplacingInputStream(new ByteArrayInputStream(source), search, replacement))
+        {
+            int b;
+            while ((b = is.read()) != -1)
+            {
+                singleBytes.write(b);
+            }
+        }
+
+        assertThat(singleBytes.toByteArray(), equalTo(bulk));
+        assertThat(bulk.length < source.length, equalTo(true));
+    }
+
+    private static byte[] readFully(InputStream is,
+                                    int chunkSize)
+        throws IOException
+    {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[chunkSize];
+        try (InputStream in = is)
+        {
+            int n;
+            while ((n = in.read(buffer)) != -1)
+            {
+                result.write(buffer, 0, n);
+            }
+        }
+
+        return result.toByteArray();
+    }
+
+    private static InputStream toStream(String value)
+    {
+        return new ByteArrayInputStream(bytes(value));
+    }
+
+    private static byte[] bytes(String value)
+    {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class TricklingInputStream
+            extends FilterInputStream
+    {
+
+        private TricklingInputStream(InputStream in)
+        {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+            throws IOException
+        {
+            return super.read(b, off, Math.min(len, 1));
+        }
+
+    }
+
+}
@@ -5,6 +5,7 @@ import org.carlspring.strongbox.cron.jobs.fields.*;
 import org.carlspring.strongbox.providers.repository.proxied.LocalStorageProxyRepositoryExpiredArtifactsCleaner;
 
 import javax.inject.Inject;
+import java.time.Duration;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableSet;
@@ -20,11 +21,23 @@ public class CleanupExpiredArtifactsFromProxyRepositoriesCronJob
 
     private static final String PROPERTY_MIN_SIZE_IN_BYTES = "minSizeInBytes";
 
+    private static final String PROPERTY_BATCH_SIZE = "batchSize";
+
+    private static final String PROPERTY_PARALLELISM = "parallelism";
+
+    private static final String PROPERTY_MAX_RUN_DURATION_IN_SECONDS = "maxRunDurationInSeconds";
+
     private static final Set<CronJobField> FIELDS = ImmutableSet.of(
             new CronJobIntegerTypeField(
                     new CronJobRequiredField(new CronJobNamedField(PROPERTY_LAST_ACCESSED_TIME_IN_DAYS))),
             new CronJobIntegerTypeField(
-                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MIN_SIZE_IN_BYTES))));
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MIN_SIZE_IN_BYTES))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_BATCH_SIZE))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_PARALLELISM))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MAX_RUN_DURATION_IN_SECONDS))));
 
     @Inject
     private LocalStorageProxyRepositoryExpiredArtifactsCleaner proxyRepositoryObsoleteArtifactsCleaner;
@@ -63,7 +76,44 @@ public class CleanupExpiredArtifactsFromProxyRepositoriesCronJob
             }
         }
 
-        proxyRepositoryObsoleteArtifactsCleaner.cleanup(lastAccessedTimeInDays, minSizeInBytes);
+        final Integer batchSize = getIntegerProperty(config, PROPERTY_BATCH_SIZE,
+                                                     LocalStorageProxyRepositoryExpiredArtifactsCleaner.DEFAULT_BATCH_SIZE);
+        final Integer parallelism = getIntegerProperty(config, PROPERTY_PARALLELISM,
+                                                       LocalStorageProxyRepositoryExpiredArtifactsCleaner.DEFAULT_PARALLELISM);
+        final Integer maxRunDurationInSeconds = getIntegerProperty(config, PROPERTY_MAX_RUN_DURATION_IN_SECONDS, 0);
+        if (batchSize == null || parallelism == null || maxRunDurationInSeconds == null)
+        {
+            return;
+        }
+
+        proxyRepositoryObsoleteArtifactsCleaner.cleanup(lastAccessedTimeInDays,
+                                                        minSizeInBytes,
+                                                        batchSize,
+                                                        parallelism,
+                                                        maxRunDurationInSeconds > 0 ?
+                                                        Duration.ofSeconds(maxRunDurationInSeconds) : null);
+    }
+
+    private Integer getIntegerProperty(final CronTaskConfigurationDto config,
+                                       final String name,
+                                       final int defaultValue)
+    {
+        final String text = config.getProperty(name);
+        if (text == null)
+        {
+            return defaultValue;
+        }
+
+        try
+        {
+            return Integer.valueOf(text);
+        }
+        catch (NumberFormatException ex)
+        {
+            logger.error("Invalid integer value [" + text + "] of '" + name + "' property. Cron job won't be fired.",
+                         ex);
+            return null;
+        }
     }
 
     @Override
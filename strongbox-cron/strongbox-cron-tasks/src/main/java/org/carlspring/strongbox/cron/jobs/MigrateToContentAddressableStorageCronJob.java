@@ -0,0 +1,100 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.providers.datastore.ContentAddressableStorageProvider;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts the existing files of the repositories, which use the {@link ContentAddressableStorageProvider}, in place,
+ * so that their content is deduplicated.
+ */
+public class MigrateToContentAddressableStorageCronJob
+        extends JavaCronJob
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrateToContentAddressableStorageCronJob.class);
+
+    private static final String PROPERTY_STORAGE_ID = "storageId";
+
+    private static final String PROPERTY_REPOSITORY_ID = "repositoryId";
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of(
+            new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
+            new CronJobRepositoryIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))));
+
+    @Inject
+    private ContentAddressableStorageProvider contentAddressableStorageProvider;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        String storageId = config.getProperty(PROPERTY_STORAGE_ID);
+        String repositoryId = config.getProperty(PROPERTY_REPOSITORY_ID);
+
+        for (Storage storage : configurationManager.getConfiguration().getStorages().values())
+        {
+            if (storageId != null && !storageId.equals(storage.getId()))
+            {
+                continue;
+            }
+
+            Collection<? extends Repository> repositories = repositoryId == null ?
+                                                            storage.getRepositories().values() :
+                                                            Collections.singleton(storage.getRepository(repositoryId));
+            for (Repository repository : repositories)
+            {
+                migrate(repository);
+            }
+        }
+    }
+
+    private void migrate(Repository repository)
+            throws IOException
+    {
+        if (repository == null || !ContentAddressableStorageProvider.ALIAS.equals(repository.getImplementation()))
+        {
+            return;
+        }
+
+        int migrated = contentAddressableStorageProvider.migrate(repositoryPathResolver.resolve(repository)
+                                                                                       .toFile()
+                                                                                       .toPath());
+
+        logger.info("Migrated [{}] files of [{}:{}].", migrated, repository.getStorage().getId(), repository.getId());
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(MigrateToContentAddressableStorageCronJob.class.getName())
+                                .name("Migrate To Content Addressable Storage Cron Job")
+                                .description("Migrate To Content Addressable Storage Cron Job")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+}
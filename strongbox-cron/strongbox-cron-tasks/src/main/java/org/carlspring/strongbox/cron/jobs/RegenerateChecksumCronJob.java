@@ -29,6 +29,8 @@ public class RegenerateChecksumCronJob
 
     private static final String PROPERTY_FORCE_REGENERATION = "forceRegeneration";
 
+    private static final String PROPERTY_FULL_REGENERATION = "fullRegeneration";
+
     private static final Set<CronJobField> FIELDS = ImmutableSet.of(
             new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
                     new CronJobOptionalField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
@@ -36,6 +38,8 @@ public class RegenerateChecksumCronJob
                     new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))),
             new CronJobBooleanTypeField(
                     new CronJobOptionalField(new CronJobNamedField(PROPERTY_FORCE_REGENERATION))),
+            new CronJobBooleanTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_FULL_REGENERATION))),
             new CronJobStringTypeField(
                     new CronJobOptionalField(new CronJobNamedField(PROPERTY_BASE_PATH))));
 
@@ -56,25 +60,31 @@ public class RegenerateChecksumCronJob
         /**
          * The values of forceRegeneration are:
          * - true  - to re-write existing checksum and to regenerate missing checksum,
+         *           the artifacts which didn't change since their last regeneration are skipped
          * - false - to regenerate missing checksum only
+         *
+         * The fullRegeneration must be requested explicitly to re-write all the checksums, regardless of the recorded
+         * state of the artifacts.
          */
         boolean forceRegeneration = Boolean.valueOf(config.getProperty(PROPERTY_FORCE_REGENERATION));
+        boolean fullRegeneration = Boolean.valueOf(config.getProperty(PROPERTY_FULL_REGENERATION));
 
         if (storageId == null)
         {
             Map<String, Storage> storages = getStorages();
             for (String storage : storages.keySet())
             {
-                regenerateRepositoriesChecksum(storage, forceRegeneration);
+                regenerateRepositoriesChecksum(storage, forceRegeneration, fullRegeneration);
             }
         }
         else if (repositoryId == null)
         {
-            regenerateRepositoriesChecksum(storageId, forceRegeneration);
+            regenerateRepositoriesChecksum(storageId, forceRegeneration, fullRegeneration);
         }
         else
         {
-            checksumService.regenerateChecksum(storageId, repositoryId, basePath, forceRegeneration);
+            checksumService.regenerateChecksum(storageId, repositoryId, basePath, forceRegeneration,
+                                               fullRegeneration);
         }
     }
 
@@ -95,17 +105,19 @@ public class RegenerateChecksumCronJob
      * @param storageId         path of storage
      * @param forceRegeneration true - to re-write existing checksum and to regenerate missing checksum,
      *                          false - to regenerate missing checksum only
+     * @param fullRegeneration  true - to re-write all the checksums, regardless of the recorded state
      * @throws IOException
      */
     private void regenerateRepositoriesChecksum(String storageId,
-                                                boolean forceRegeneration)
+                                                boolean forceRegeneration,
+                                                boolean fullRegeneration)
             throws IOException
     {
         Map<String, ? extends Repository> repositories = getRepositories(storageId);
 
         for (String repositoryId : repositories.keySet())
         {
-            checksumService.regenerateChecksum(storageId, repositoryId, null, forceRegeneration);
+            checksumService.regenerateChecksum(storageId, repositoryId, null, forceRegeneration, fullRegeneration);
         }
     }
 
@@ -0,0 +1,153 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.providers.datastore.ContentAddressableStorageProvider;
+import org.carlspring.strongbox.providers.datastore.FileSystemStorageProvider;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MigrateToContentAddressableStorageCronJobTest
+{
+
+    private static final String STORAGE_ONE = "storage-one";
+
+    private static final String STORAGE_TWO = "storage-two";
+
+    @Mock
+    private ContentAddressableStorageProvider contentAddressableStorageProvider;
+
+    @Mock
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @InjectMocks
+    private MigrateToContentAddressableStorageCronJob cronJob;
+
+    private final Map<String, Storage> storages = new LinkedHashMap<>();
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        Configuration configuration = Mockito.mock(Configuration.class);
+        when(configuration.getStorages()).thenReturn(storages);
+        when(configurationManager.getConfiguration()).thenReturn(configuration);
+
+        mockStorage(STORAGE_ONE, "releases", "snapshots");
+        mockStorage(STORAGE_TWO, "releases");
+    }
+
+    @Test
+    public void contentAddressableRepositoriesShouldBeMigrated()
+            throws Throwable
+    {
+        cronJob.executeTask(new CronTaskConfigurationDto());
+
+        verify(contentAddressableStorageProvider).migrate(path(STORAGE_ONE, "releases"));
+        verify(contentAddressableStorageProvider).migrate(path(STORAGE_TWO, "releases"));
+        verify(contentAddressableStorageProvider, never()).migrate(path(STORAGE_ONE, "snapshots-fs"));
+        verify(contentAddressableStorageProvider, never()).migrate(path(STORAGE_TWO, "releases-fs"));
+    }
+
+    @Test
+    public void onlyTheGivenRepositoryShouldBeMigrated()
+            throws Throwable
+    {
+        CronTaskConfigurationDto configuration = new CronTaskConfigurationDto();
+        configuration.addProperty("storageId", STORAGE_ONE);
+        configuration.addProperty("repositoryId", "snapshots");
+
+        cronJob.executeTask(configuration);
+
+        verify(contentAddressableStorageProvider).migrate(path(STORAGE_ONE, "snapshots"));
+        verify(contentAddressableStorageProvider, never()).migrate(path(STORAGE_ONE, "releases"));
+        verify(contentAddressableStorageProvider, never()).migrate(path(STORAGE_TWO, "releases"));
+    }
+
+    @Test
+    public void unknownRepositoryShouldBeIgnored()
+            throws Throwable
+    {
+        CronTaskConfigurationDto configuration = new CronTaskConfigurationDto();
+        configuration.addProperty("storageId", STORAGE_TWO);
+        configuration.addProperty("repositoryId", "unknown");
+
+        cronJob.executeTask(configuration);
+
+        verify(contentAddressableStorageProvider, never()).migrate(any(Path.class));
+    }
+
+    /**
+     * Each of the given repositories is mocked twice: with the content-addressable implementation, and with the
+     * file system implementation and the `-fs` suffix.
+     */
+    private void mockStorage(String storageId,
+                             String... repositoryIds)
+    {
+        Storage storage = Mockito.mock(Storage.class);
+        when(storage.getId()).thenReturn(storageId);
+
+        Map<String, Repository> repositories = new LinkedHashMap<>();
+        for (String repositoryId : repositoryIds)
+        {
+            repositories.put(repositoryId, mockRepository(storage, storageId, repositoryId,
+                                                          ContentAddressableStorageProvider.ALIAS));
+            repositories.put(repositoryId + "-fs", mockRepository(storage, storageId, repositoryId + "-fs",
+                                                                  FileSystemStorageProvider.ALIAS));
+        }
+        repositories.forEach((id, repository) -> when(storage.getRepository(id)).thenReturn(repository));
+        doReturn(repositories).when(storage).getRepositories();
+
+        storages.put(storageId, storage);
+    }
+
+    private Repository mockRepository(Storage storage,
+                                      String storageId,
+                                      String repositoryId,
+                                      String implementation)
+    {
+        Repository repository = Mockito.mock(Repository.class);
+        when(repository.getId()).thenReturn(repositoryId);
+        when(repository.getStorage()).thenReturn(storage);
+        when(repository.getImplementation()).thenReturn(implementation);
+
+        RootRepositoryPath rootPath = Mockito.mock(RootRepositoryPath.class);
+        File file = path(storageId, repositoryId).toFile();
+        when(rootPath.toFile()).thenReturn(file);
+        when(repositoryPathResolver.resolve(repository)).thenReturn(rootPath);
+
+        return repository;
+    }
+
+    private static Path path(String storageId,
+                             String repositoryId)
+    {
+        return Paths.get("storages", storageId, repositoryId).toAbsolutePath();
+    }
+
+}
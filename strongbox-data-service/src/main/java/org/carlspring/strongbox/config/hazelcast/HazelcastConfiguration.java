@@ -45,6 +45,27 @@ public class HazelcastConfiguration
                                                                                      .setTimeToLiveSeconds(authenticationsCacheInvalidateInterval));
     }
 
+    @Value("${cacheManagerConfiguration.caches.externalUsers.timeToLiveSeconds:${users.external.cache.seconds:300}}")
+    public int externalUsersCacheTimeToLiveSeconds;
+
+    @Value("${cacheManagerConfiguration.caches.externalUsers.evictionConfigSize:10000}")
+    public int externalUsersCacheEvictionConfigSize;
+
+    /**
+     * External users are read on every authentication, so the entries are kept in the near cache of every member
+     * and are invalidated there as soon as they are changed anywhere in the cluster.
+     */
+    public MapConfig externalUsersCacheConfig(String name)
+    {
+        return new MapConfig().setName(name)
+                              .setTimeToLiveSeconds(externalUsersCacheTimeToLiveSeconds)
+                              .setNearCacheConfig(new NearCacheConfig().setCacheLocalEntries(true)
+                                                                       .setEvictionConfig(new EvictionConfig().setMaximumSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                                                                                                              .setSize(externalUsersCacheEvictionConfigSize))
+                                                                       .setInvalidateOnChange(true)
+                                                                       .setTimeToLiveSeconds(externalUsersCacheTimeToLiveSeconds));
+    }
+
     @Value("${cacheManagerConfiguration.caches.remoteRepositoryAliveness.maxSizeLimit:1000}")
     public int remoteRepositoryAlivenessMaxSizeLimit;
 
@@ -127,7 +148,8 @@ public class HazelcastConfiguration
                                                                             tagsMaxSizeLimit,
                                                                             tagsMaxSizePolicy,
                                                                             tagsEvictionPolicy))
-                                          .addMapConfig(authenticationCacheConfig(CacheName.User.AUTHENTICATIONS));
+                                          .addMapConfig(authenticationCacheConfig(CacheName.User.AUTHENTICATIONS))
+                                          .addMapConfig(externalUsersCacheConfig(CacheName.User.EXTERNAL_USERS));
         config.setGroupConfig(new GroupConfig(groupConfigName, groupConfigPassword));
         config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(enableMulticastConfig);
 
@@ -2,6 +2,7 @@ package org.carlspring.strongbox.data.criteria;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.persistence.EntityManager;
@@ -11,6 +12,7 @@ import org.carlspring.strongbox.data.domain.GenericEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
@@ -25,6 +27,10 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 {
     private static final Logger logger = LoggerFactory.getLogger(OQueryTemplate.class);
 
+    private static final String PAGE_VALUE_PARAMETER = "pageValue";
+
+    private static final String PAGE_RID_PARAMETER = "pageRid";
+
     protected EntityManager entityManager;
 
     public OQueryTemplate()
@@ -48,12 +54,14 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         String sQuery = calculateQueryString(s);
 
         OSQLSynchQuery<T> oQuery = new OSQLSynchQuery<>(sQuery);
-        Map<String, Object> parameterMap = exposeParameterMap(s.getPredicate());
+        Map<String, Object> parameterMap = exposeParameterMap(s);
 
         logger.debug(String.format("Executing SQL query:%n\t[%s]%nWith parameters:%n\t[%s]", sQuery, parameterMap));
 
         Object result = getEmDelegate().command(oQuery)
                                        .execute(parameterMap);
+        calculateNextPageToken(s, result);
+
         if (result instanceof Collection && !((Collection) result).isEmpty()
                 && ((Collection) result).iterator().next() instanceof ODocument)
         {
@@ -72,6 +80,24 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         return (OObjectDatabaseTx) entityManager.getDelegate();
     }
 
+    public Map<String, Object> exposeParameterMap(Selector<T> s)
+    {
+        Map<String, Object> result = s.getPredicate() == null ? new HashMap<>() : exposeParameterMap(s.getPredicate());
+
+        Paginator paginator = s.getPaginator();
+        PageToken pageToken = paginator == null ? null : paginator.getPageToken();
+        if (pageToken != null && pageToken.getValue() != null)
+        {
+            result.put(PAGE_VALUE_PARAMETER, pageToken.getValue());
+        }
+        if (pageToken != null)
+        {
+            result.put(PAGE_RID_PARAMETER, new ORecordId(pageToken.getRid()));
+        }
+
+        return result;
+    }
+
     public Map<String, Object> exposeParameterMap(Predicate p)
     {
         return exposeParameterMap(p, 0);
@@ -101,22 +127,48 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         sb.append("SELECT ").append(selector.getProjection());
         sb.append(" FROM ").append(selector.getTargetClass().getSimpleName());
 
+        Paginator paginator = selector.getPaginator();
+        boolean keyset = paginator != null && paginator.isKeyset();
+
         Predicate p = selector.getPredicate();
-        if (p.isEmpty())
+        boolean emptyPredicate = p == null || p.isEmpty();
+        if (emptyPredicate && !keyset)
         {
             return sb.toString();
         }
 
-        sb.append(" WHERE ");
-        sb.append(predicateToken(p, 0));
+        String pageTokenCondition = keyset ? pageTokenToken(paginator) : "";
+        if (!emptyPredicate && !pageTokenCondition.isEmpty())
+        {
+            sb.append(String.format(" WHERE (%s) AND %s", predicateToken(p, 0), pageTokenCondition));
+        }
+        else if (!emptyPredicate)
+        {
+            sb.append(" WHERE ");
+            sb.append(predicateToken(p, 0));
+        }
+        else if (!pageTokenCondition.isEmpty())
+        {
+            sb.append(" WHERE ").append(pageTokenCondition);
+        }
 
-        Paginator paginator = selector.getPaginator();
-        if (paginator != null && paginator.getProperty() != null && !paginator.getProperty().trim().isEmpty())
+        String orderProperty = getOrderProperty(paginator);
+        if (keyset && orderProperty != null)
+        {
+            sb.append(String.format(" ORDER BY %s %s, @rid %s", orderProperty, paginator.getOrder(),
+                                    paginator.getOrder()));
+        }
+        else if (keyset)
         {
-            sb.append(String.format(" ORDER BY %s %s", paginator.getProperty(), paginator.getOrder()));
+            sb.append(String.format(" ORDER BY @rid %s", paginator.getOrder()));
+        }
+        else if (orderProperty != null)
+        {
+            sb.append(String.format(" ORDER BY %s %s", orderProperty, paginator.getOrder()));
         }
 
-        if (paginator != null && paginator.getSkip() > 0)
+        // The page token replaces the skip, only the first keyset page can be skipped.
+        if (paginator != null && paginator.getSkip() > 0 && paginator.getPageToken() == null)
         {
             sb.append(String.format(" SKIP %s", paginator.getSkip()));
         }
@@ -133,6 +185,94 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         return sb.toString();
     }
 
+    /**
+     * Selects the records, which follow the {@link Paginator#getPageToken()} within the order property and record
+     * id ordering. The `null` values are expected to come first in the ascending order.
+     */
+    protected String pageTokenToken(Paginator paginator)
+    {
+        PageToken pageToken = paginator.getPageToken();
+        if (pageToken == null)
+        {
+            return "";
+        }
+
+        boolean asc = Paginator.Order.ASC.equals(paginator.getOrder());
+        String operator = asc ? ">" : "<";
+
+        String property = getOrderProperty(paginator);
+        if (property == null)
+        {
+            return String.format("@rid %s :%s", operator, PAGE_RID_PARAMETER);
+        }
+        else if (pageToken.getValue() == null && asc)
+        {
+            return String.format("((%s IS NULL AND @rid > :%s) OR %s IS NOT NULL)", property, PAGE_RID_PARAMETER,
+                                 property);
+        }
+        else if (pageToken.getValue() == null)
+        {
+            return String.format("(%s IS NULL AND @rid < :%s)", property, PAGE_RID_PARAMETER);
+        }
+
+        String result = String.format("%s %s :%s OR (%s = :%s AND @rid %s :%s)", property, operator,
+                                      PAGE_VALUE_PARAMETER, property, PAGE_VALUE_PARAMETER, operator,
+                                      PAGE_RID_PARAMETER);
+
+        return asc ? String.format("(%s)", result) : String.format("(%s OR %s IS NULL)", result, property);
+    }
+
+    /**
+     * Remembers the position of the last record of the full keyset page, within the {@link Paginator}, so that the
+     * next page can be requested.
+     */
+    protected void calculateNextPageToken(Selector<T> s,
+                                          Object result)
+    {
+        Paginator paginator = s.getPaginator();
+        if (paginator == null || !paginator.isKeyset())
+        {
+            return;
+        }
+
+        paginator.setNextPageToken(null);
+        if (!(result instanceof List) || ((List<?>) result).isEmpty()
+                || ((List<?>) result).size() < paginator.getLimit())
+        {
+            return;
+        }
+
+        Object last = ((List<?>) result).get(((List<?>) result).size() - 1);
+        ODocument document = last instanceof ODocument ? (ODocument) last
+                : getEmDelegate().getRecordByUserObject(last, false);
+        if (document == null || !document.getIdentity().isPersistent())
+        {
+            return;
+        }
+
+        String property = getOrderProperty(paginator);
+        Object value = property == null ? null : document.field(property);
+        if (!PageToken.supports(value))
+        {
+            logger.debug(String.format("Can't use [%s] value of [%s] as a page token.", property,
+                                       value.getClass().getName()));
+
+            return;
+        }
+
+        paginator.setNextPageToken(new PageToken(value, document.getIdentity().toString()));
+    }
+
+    private String getOrderProperty(Paginator paginator)
+    {
+        if (paginator == null || paginator.getProperty() == null || paginator.getProperty().trim().isEmpty())
+        {
+            return null;
+        }
+
+        return paginator.getProperty();
+    }
+
     protected String predicateToken(Predicate p,
                                     int tokenCount)
     {
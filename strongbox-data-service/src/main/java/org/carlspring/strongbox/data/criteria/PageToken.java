@@ -0,0 +1,180 @@
+package org.carlspring.strongbox.data.criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.regex.Pattern;
+
+/**
+ * Position of the last record of a page within the "keyset" ordering (see {@link Paginator#isKeyset()}): it's value
+ * of the {@link Paginator} order property, along with it's record id, which is used as a tie breaker.
+ * <p>
+ * The token is exposed to the clients as an opaque string (see {@link #encode()} and {@link #decode(String)}), so
+ * that the next page can be requested without the SKIP, which takes time proportional to the offset.
+ */
+public class PageToken
+{
+
+    /**
+     * `#clusterId:clusterPosition`, the cluster id is a short
+     */
+    private static final Pattern RID_PATTERN = Pattern.compile("#-?\\d{1,5}:-?\\d{1,18}");
+
+    private final Object value;
+
+    private final String rid;
+
+    public PageToken(Object value,
+                     String rid)
+    {
+        this.value = value;
+        this.rid = rid;
+    }
+
+    public Object getValue()
+    {
+        return value;
+    }
+
+    public String getRid()
+    {
+        return rid;
+    }
+
+    /**
+     * @return `true` if the given value can be kept within the token
+     */
+    public static boolean supports(Object value)
+    {
+        return value == null || value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Date || value instanceof Boolean;
+    }
+
+    public String encode()
+    {
+        String s = String.format("%s%s|%s", typeOf(value), valueToString(value), rid);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *             if the token is malformed
+     */
+    public static PageToken decode(String token)
+    {
+        String s;
+        try
+        {
+            s = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException(String.format("Invalid page token [%s].", token), e);
+        }
+
+        int ridIndex = s.lastIndexOf('|');
+        if (s.isEmpty() || ridIndex < 1 || !isRid(s.substring(ridIndex + 1)))
+        {
+            throw new IllegalArgumentException(String.format("Invalid page token [%s].", token));
+        }
+
+        return new PageToken(valueOf(s.charAt(0), s.substring(1, ridIndex), token), s.substring(ridIndex + 1));
+    }
+
+    private static boolean isRid(String rid)
+    {
+        if (!RID_PATTERN.matcher(rid).matches())
+        {
+            return false;
+        }
+
+        int clusterId = Integer.parseInt(rid.substring(1, rid.indexOf(':')));
+
+        return clusterId >= Short.MIN_VALUE && clusterId <= Short.MAX_VALUE;
+    }
+
+    private static char typeOf(Object value)
+    {
+        if (value == null)
+        {
+            return 'n';
+        }
+        else if (value instanceof Integer)
+        {
+            return 'i';
+        }
+        else if (value instanceof Long)
+        {
+            return 'l';
+        }
+        else if (value instanceof Date)
+        {
+            return 'd';
+        }
+        else if (value instanceof Boolean)
+        {
+            return 'b';
+        }
+        else if (value instanceof String)
+        {
+            return 's';
+        }
+
+        throw new IllegalArgumentException(String.format("Unsupported page token value type [%s].",
+                                                         value.getClass().getName()));
+    }
+
+    private static String valueToString(Object value)
+    {
+        if (value == null)
+        {
+            return "";
+        }
+        else if (value instanceof Date)
+        {
+            return String.valueOf(((Date) value).getTime());
+        }
+
+        return value.toString();
+    }
+
+    private static Object valueOf(char type,
+                                  String value,
+                                  String token)
+    {
+        try
+        {
+            switch (type)
+            {
+            case 'n':
+                return null;
+            case 'i':
+                return Integer.valueOf(value);
+            case 'l':
+                return Long.valueOf(value);
+            case 'd':
+                return new Date(Long.parseLong(value));
+            case 'b':
+                return Boolean.valueOf(value);
+            case 's':
+                return value;
+            default:
+                break;
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException(String.format("Invalid page token [%s].", token), e);
+        }
+
+        throw new IllegalArgumentException(String.format("Invalid page token [%s].", token));
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("PageToken{value=%s, rid=%s}", value, rid);
+    }
+
+}
@@ -11,6 +11,10 @@ public class Paginator
     private String property;
     private Order order = Order.ASC;
 
+    private boolean keyset;
+    private PageToken pageToken;
+    private PageToken nextPageToken;
+
     public Integer getSkip()
     {
         return skip == null ? Integer.valueOf(0) : skip;
@@ -51,6 +55,48 @@ public class Paginator
         this.order = order;
     }
 
+    /**
+     * With the "keyset" pagination the records are ordered by the order property along with the record id, and the
+     * next page is selected with the {@link #getPageToken()} of the last record of the previous page, instead of
+     * the skip. So it takes the same time to get any page, regardless of it's depth.
+     */
+    public boolean isKeyset()
+    {
+        return keyset || pageToken != null;
+    }
+
+    public void setKeyset(boolean keyset)
+    {
+        this.keyset = keyset;
+    }
+
+    /**
+     * @return the position of the last record of the previous page, if any
+     */
+    public PageToken getPageToken()
+    {
+        return pageToken;
+    }
+
+    public void setPageToken(PageToken pageToken)
+    {
+        this.pageToken = pageToken;
+    }
+
+    /**
+     * @return the position of the last record of the selected page, if the page was full, so that there can be a
+     *         next page (set by the {@link QueryTemplate})
+     */
+    public PageToken getNextPageToken()
+    {
+        return nextPageToken;
+    }
+
+    public void setNextPageToken(PageToken nextPageToken)
+    {
+        this.nextPageToken = nextPageToken;
+    }
+
     public static enum Order
     {
         ASC, DESC;
@@ -0,0 +1,82 @@
+package org.carlspring.strongbox.data.criteria;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+
+/**
+ * {@link QueryTemplate} implementation, which maps the projected fields (see {@link Selector#project(String...)})
+ * onto the flat objects of the given class, instead of loading the entities. The results aren't entities, so they
+ * don't need to be detached from OrientDB session, which makes them cheap for the read only queries.
+ * <p>
+ * The fields are mapped by name onto the writable properties of the projection class, the fields which have no such
+ * property are ignored.
+ */
+public class ProjectionQueryTemplate<P, T extends GenericEntity> extends OQueryTemplate<List<P>, T>
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectionQueryTemplate.class);
+
+    private final Class<P> projectionClass;
+
+    public ProjectionQueryTemplate(EntityManager entityManager,
+                                   Class<P> projectionClass)
+    {
+        super(entityManager);
+        this.projectionClass = projectionClass;
+    }
+
+    @Override
+    public List<P> select(Selector<T> s)
+    {
+        String sQuery = calculateQueryString(s);
+
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+        Map<String, Object> parameterMap = exposeParameterMap(s);
+
+        logger.debug(String.format("Executing SQL query:%n\t[%s]%nWith parameters:%n\t[%s]", sQuery, parameterMap));
+
+        Object result = getEmDelegate().command(oQuery)
+                                       .execute(parameterMap);
+        if (!(result instanceof Collection))
+        {
+            return Collections.emptyList();
+        }
+
+        return ((Collection<?>) result).stream()
+                                       .filter(ODocument.class::isInstance)
+                                       .map(d -> project((ODocument) d))
+                                       .collect(Collectors.toList());
+    }
+
+    protected P project(ODocument document)
+    {
+        P result = BeanUtils.instantiateClass(projectionClass);
+        BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(result);
+
+        for (String fieldName : document.fieldNames())
+        {
+            if (beanWrapper.isWritableProperty(fieldName))
+            {
+                beanWrapper.setPropertyValue(fieldName, document.field(fieldName));
+            }
+        }
+
+        return result;
+    }
+
+}
@@ -1,5 +1,8 @@
 package org.carlspring.strongbox.data.criteria;
 
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
 import org.carlspring.strongbox.data.domain.GenericEntity;
 
 /**
@@ -51,6 +54,19 @@ public class Selector<T extends GenericEntity>
         return this;
     }
 
+    /**
+     * Selects only the given properties, each one aliased with it's last name segment (so, for example,
+     * "artifactCoordinates.path" becomes "path"). Such a query should be performed with
+     * {@link ProjectionQueryTemplate} to get the flat results, instead of the entities.
+     */
+    public Selector<T> project(String... properties)
+    {
+        this.projection = Arrays.stream(properties)
+                                .map(p -> String.format("%s AS %s", p, p.substring(p.lastIndexOf(".") + 1)))
+                                .collect(Collectors.joining(", "));
+        return this;
+    }
+
     public Predicate where(Expression e)
     {
         return this.predicate = Predicate.of(e);
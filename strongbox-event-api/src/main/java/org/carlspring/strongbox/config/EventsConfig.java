@@ -2,6 +2,8 @@ package org.carlspring.strongbox.config;
 
 import javax.servlet.ServletContext;
 
+import org.carlspring.strongbox.event.AsyncEventListenerBeanPostProcessor;
+import org.carlspring.strongbox.event.EventDispatcher;
 import org.carlspring.strongbox.event.EventExecutorFactoryBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -16,9 +18,21 @@ public class EventsConfig
 {
 
     @Bean
-    public EventExecutorFactoryBean eventTaskExecutor(@Autowired(required = false) ServletContext servletContext)
+    public static AsyncEventListenerBeanPostProcessor asyncEventListenerBeanPostProcessor()
     {
-        return new EventExecutorFactoryBean(servletContext);
+        return new AsyncEventListenerBeanPostProcessor();
+    }
+
+    @Bean
+    public EventDispatcher eventDispatcher(@Autowired(required = false) ServletContext servletContext)
+    {
+        return new EventDispatcher(servletContext);
+    }
+
+    @Bean
+    public EventExecutorFactoryBean eventTaskExecutor(EventDispatcher eventDispatcher)
+    {
+        return new EventExecutorFactoryBean(eventDispatcher);
     }
 
 }
@@ -6,17 +6,36 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+/**
+ * Asynchronous event listener, the events are handled by the {@link EventDispatcher} threads (see
+ * {@link AsyncEventListenerBeanPostProcessor}) with a bounded queue per listener.
+ */
 @Target({ ElementType.METHOD, ElementType.ANNOTATION_TYPE })
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 // TransactionalEventListener.fallbackExecution() needed only for test environment
 @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
-@Async("eventTaskExecutor")
 public @interface AsyncEventListener
 {
 
+    /**
+     * What to do with the event when the queue of the listener is full. The events are mostly published by the HTTP
+     * request threads, so by default they don't wait for the queue and the oldest event is dropped instead.
+     */
+    EventOverflowPolicyEnum overflowPolicy() default EventOverflowPolicyEnum.DROP_OLDEST;
+
+    /**
+     * The queue capacity, `0` means `strongbox.event.dispatch.queueCapacity`.
+     */
+    int queueCapacity() default 0;
+
+    /**
+     * How many events of the listener can be handled at a time, `0` means
+     * `strongbox.event.dispatch.listenerConcurrency`.
+     */
+    int concurrency() default 0;
+
 }
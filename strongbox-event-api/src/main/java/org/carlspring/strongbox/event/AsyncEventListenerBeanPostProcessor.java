@@ -0,0 +1,30 @@
+package org.carlspring.strongbox.event;
+
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+
+/**
+ * Proxies the beans with {@link AsyncEventListener} methods, so that the events are handled by the
+ * {@link EventDispatcher} instead of the publishing thread.
+ */
+public class AsyncEventListenerBeanPostProcessor
+        extends AbstractBeanFactoryAwareAdvisingPostProcessor
+{
+
+    public AsyncEventListenerBeanPostProcessor()
+    {
+        setBeforeExistingAdvisors(true);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory)
+    {
+        super.setBeanFactory(beanFactory);
+
+        this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(null, AsyncEventListener.class, true),
+                                                  new AsyncEventListenerInterceptor(beanFactory));
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.carlspring.strongbox.event;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.expression.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+/**
+ * Hands the {@link AsyncEventListener} invocations over to the {@link EventDispatcher}, with the queue of the listener
+ * method configured by the annotation.
+ *
+ * @see AsyncEventListenerBeanPostProcessor
+ */
+class AsyncEventListenerInterceptor
+        implements MethodInterceptor
+{
+
+    private final BeanFactory beanFactory;
+
+    private volatile EventDispatcher eventDispatcher;
+
+    private final Map<MethodClassKey, EventListenerQueue> queues = new ConcurrentHashMap<>();
+
+    AsyncEventListenerInterceptor(BeanFactory beanFactory)
+    {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation)
+    {
+        Method method = invocation.getMethod();
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis())
+                                                            : method.getDeclaringClass();
+        // The same method can be inherited by several listeners, so the queue is per listener class.
+        EventDispatcher dispatcher = getEventDispatcher();
+        EventListenerQueue queue = queues.computeIfAbsent(new MethodClassKey(method, targetClass),
+                                                          k -> createQueue(dispatcher, targetClass, method));
+
+        Object key = Arrays.stream(invocation.getArguments())
+                           .filter(Event.class::isInstance)
+                           .map(e -> ((Event) e).getCoalescingKey())
+                           .findFirst()
+                           .orElse(null);
+
+        dispatcher.dispatch(queue, key, () -> {
+            try
+            {
+                invocation.proceed();
+            }
+            catch (RuntimeException | Error e)
+            {
+                throw e;
+            }
+            catch (Throwable e)
+            {
+                throw new UndeclaredThrowableException(e);
+            }
+        });
+
+        return null;
+    }
+
+    private EventListenerQueue createQueue(EventDispatcher dispatcher,
+                                           Class<?> targetClass,
+                                           Method method)
+    {
+        AsyncEventListener listener = AnnotatedElementUtils.findMergedAnnotation(method, AsyncEventListener.class);
+
+        // The overloaded listener methods have their own queues.
+        String name = String.format("%s#%s(%s)", targetClass.getName(), method.getName(),
+                                    Arrays.stream(method.getParameterTypes())
+                                          .map(Class::getName)
+                                          .collect(Collectors.joining(",")));
+
+        return dispatcher.getQueue(name,
+                                   listener.overflowPolicy(),
+                                   listener.queueCapacity(),
+                                   listener.concurrency());
+    }
+
+    private EventDispatcher getEventDispatcher()
+    {
+        EventDispatcher result = eventDispatcher;
+        if (result == null)
+        {
+            // Resolved lazily, the dispatcher is not available yet when the listener beans are post processed.
+            result = eventDispatcher = beanFactory.getBean(EventDispatcher.class);
+        }
+
+        return result;
+    }
+
+}
@@ -19,4 +19,13 @@ public class Event extends ApplicationEvent
         return (int) getSource();
     }
 
+    /**
+     * @return the key of the event, the queued events with the same key can be handled only once by the listeners
+     *         which allow it (see {@link EventOverflowPolicyEnum#COALESCE}), or `null` if the event can't be coalesced
+     */
+    public Object getCoalescingKey()
+    {
+        return null;
+    }
+
 }
@@ -0,0 +1,232 @@
+package org.carlspring.strongbox.event;
+
+import javax.servlet.ServletContext;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Dispatches the asynchronous events (see {@link AsyncEventListener}) to the dedicated threads, so that they don't
+ * compete with the HTTP requests for the servlet container threads.
+ * <p>
+ * Every listener has it's own bounded {@link EventListenerQueue}, which are drained by the shared pool of
+ * {@link #threadsNumber} threads. On shutdown the queued events are handled before the threads are stopped, within the
+ * configured timeout.
+ * <p>
+ * Outside of the servlet container (for example in tests) the events are handled synchronously, within the publishing
+ * thread.
+ */
+public class EventDispatcher
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(EventDispatcher.class);
+
+    @Value("${strongbox.event.dispatch.threads:8}")
+    private int threadsNumber;
+
+    @Value("${strongbox.event.dispatch.queueCapacity:1024}")
+    private int queueCapacity;
+
+    @Value("${strongbox.event.dispatch.listenerConcurrency:2}")
+    private int listenerConcurrency;
+
+    @Value("${strongbox.event.dispatch.shutdownTimeoutSeconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    private final ServletContext servletContext;
+
+    private boolean async;
+
+    private ThreadPoolExecutor executor;
+
+    private volatile boolean shutdown;
+
+    private final Map<String, EventListenerQueue> queues = new ConcurrentHashMap<>();
+
+    private final List<Consumer<EventListenerQueue>> queueObservers = new CopyOnWriteArrayList<>();
+
+    public EventDispatcher(ServletContext servletContext)
+    {
+        this.servletContext = servletContext;
+    }
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        async = servletContext != null && servletContext.getAttribute("org.eclipse.jetty.server.Executor") != null;
+        if (!async)
+        {
+            logger.info("Async events will be handled synchronously.");
+
+            return;
+        }
+
+        logger.info("Jetty environment detected.");
+
+        executor = new ThreadPoolExecutor(threadsNumber,
+                                          threadsNumber,
+                                          60L,
+                                          TimeUnit.SECONDS,
+                                          new LinkedBlockingQueue<>(),
+                                          new EventDispatcherThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+
+        logger.info("Async events dispatcher initialized with [{}] threads, listener queue capacity [{}] " +
+                    "and listener concurrency [{}].",
+                    threadsNumber, queueCapacity, listenerConcurrency);
+    }
+
+    @Override
+    public void destroy()
+        throws InterruptedException
+    {
+        shutdown = true;
+        if (executor == null)
+        {
+            return;
+        }
+
+        executor.shutdown();
+        if (executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS))
+        {
+            logger.info("Async events dispatcher stopped.");
+
+            return;
+        }
+
+        executor.shutdownNow();
+
+        long pending = queues.values().stream().mapToLong(EventListenerQueue::getDepth).sum();
+        logger.warn("Async events dispatcher didn't stop in [{}] seconds, [{}] queued events abandoned.",
+                    shutdownTimeoutSeconds, pending);
+    }
+
+    /**
+     * Hands the task over to the listener queue, or runs it in the current thread if the dispatcher is synchronous or
+     * has been shut down already.
+     *
+     * @param queue the listener queue, see {@link #getQueue(String, EventOverflowPolicyEnum, int, int)}
+     * @param key the key to coalesce the event with, see {@link Event#getCoalescingKey()}
+     * @param task the listener invocation
+     */
+    public void dispatch(EventListenerQueue queue,
+                         Object key,
+                         Runnable task)
+    {
+        if (!async || shutdown)
+        {
+            queue.execute(task);
+
+            return;
+        }
+
+        queue.submit(key, task);
+    }
+
+    /**
+     * @param name the listener name
+     * @param overflowPolicy what to do when the queue is full
+     * @param capacity the queue capacity, or `0` to use the default one
+     * @param concurrency the number of threads which can handle the events of the listener at a time, or `0` to use
+     *        the default
+     * @return the queue of the listener, which is created with the given settings on first call
+     */
+    public EventListenerQueue getQueue(String name,
+                                       EventOverflowPolicyEnum overflowPolicy,
+                                       int capacity,
+                                       int concurrency)
+    {
+        EventListenerQueue queue = queues.get(name);
+        if (queue != null)
+        {
+            return queue;
+        }
+
+        boolean[] created = new boolean[1];
+        queue = queues.computeIfAbsent(name, n -> {
+            created[0] = true;
+
+            return new EventListenerQueue(n,
+                                          capacity > 0 ? capacity : queueCapacity,
+                                          concurrency > 0 ? concurrency : listenerConcurrency,
+                                          overflowPolicy,
+                                          this::execute);
+        });
+        if (created[0])
+        {
+            logger.debug("Created [{}] queue of [{}] with capacity [{}].",
+                         queue.getOverflowPolicy(), name, queue.getCapacity());
+
+            EventListenerQueue newQueue = queue;
+            queueObservers.forEach(o -> o.accept(newQueue));
+        }
+
+        return queue;
+    }
+
+    /**
+     * @return plain {@link Executor}, which dispatches the tasks with the {@link EventOverflowPolicyEnum#DROP_OLDEST}
+     *         queue of the given name, so that the submitting (usually HTTP request) thread never waits for it
+     */
+    public Executor getExecutor(String name)
+    {
+        return task -> dispatch(getQueue(name, EventOverflowPolicyEnum.DROP_OLDEST, 0, 0), null, task);
+    }
+
+    /**
+     * Calls the observer for every existing listener queue, and for the ones which will be created later on (used to
+     * expose the queue metrics).
+     */
+    public void observeQueues(Consumer<EventListenerQueue> observer)
+    {
+        queueObservers.add(observer);
+        queues.values().forEach(observer);
+    }
+
+    public Collection<EventListenerQueue> getQueues()
+    {
+        return Collections.unmodifiableCollection(queues.values());
+    }
+
+    public boolean isAsync()
+    {
+        return async;
+    }
+
+    private void execute(Runnable drain)
+    {
+        executor.execute(drain);
+    }
+
+    private static class EventDispatcherThreadFactory
+            implements ThreadFactory
+    {
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r)
+        {
+            return new Thread(r, String.format("strongbox-event-%s", threadNumber.incrementAndGet()));
+        }
+
+    }
+
+}
@@ -3,57 +3,36 @@ package org.carlspring.strongbox.event;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.FactoryBean;
-import org.springframework.core.task.SyncTaskExecutor;
 
-import javax.servlet.ServletContext;
-import java.util.Optional;
 import java.util.concurrent.Executor;
 
+/**
+ * Provides the `eventTaskExecutor`, which runs the tasks with the {@link EventDispatcher} threads, instead of the
+ * servlet container ones.
+ */
 public class EventExecutorFactoryBean implements FactoryBean<Executor>
 {
 
     private static final Logger logger = LoggerFactory.getLogger(EventExecutorFactoryBean.class);
 
-    private final ServletContext servletContext;
+    private static final String EXECUTOR_QUEUE_NAME = "eventTaskExecutor";
 
-    public EventExecutorFactoryBean(ServletContext servletContext)
+    private final EventDispatcher eventDispatcher;
+
+    public EventExecutorFactoryBean(EventDispatcher eventDispatcher)
     {
         super();
-        this.servletContext = servletContext;
+        this.eventDispatcher = eventDispatcher;
     }
 
     @Override
     public Executor getObject()
         throws Exception
     {
-        Executor executor = Optional.ofNullable(servletContext)
-                                    .flatMap(c -> Optional.ofNullable(lookupExecutor()))
-                                    .orElse(new SyncTaskExecutor());
-        
-        logger.info(String.format("Using [%s] executor for Async events.", executor.getClass()));
-        
-        return executor;
-    }
-
-    private Executor lookupExecutor()
-    {
-        Executor result;
-        if ((result = lookupJettyExecutor()) != null)
-        {
-            return result;
-        }
-        return null;
-    }
-
-    private Executor lookupJettyExecutor()
-    {
-        Executor executor = (Executor) servletContext.getAttribute("org.eclipse.jetty.server.Executor");
-        if (executor == null)
-        {
-            return null;
-        }
+        Executor executor = eventDispatcher.getExecutor(EXECUTOR_QUEUE_NAME);
 
-        logger.info("Jetty environment detected.");
+        logger.info(String.format("Using [%s] executor for Async events.",
+                                  eventDispatcher.isAsync() ? EventDispatcher.class : "synchronous"));
 
         return executor;
     }
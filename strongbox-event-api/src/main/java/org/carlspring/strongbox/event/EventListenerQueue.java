@@ -0,0 +1,408 @@
+package org.carlspring.strongbox.event;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue of the events of a single asynchronous listener. The events are handled by at most
+ * {@link #getConcurrency()} threads of the {@link EventDispatcher} at a time, so one busy listener can't take all of
+ * them, and what happens when the queue is full is defined by the {@link EventOverflowPolicyEnum}.
+ *
+ * @see EventDispatcher
+ */
+public class EventListenerQueue
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(EventListenerQueue.class);
+
+    /**
+     * Set while the current thread handles the events of this queue, so that an event published by the listener
+     * itself doesn't wait for the queue which only this thread can drain.
+     */
+    private final ThreadLocal<Boolean> draining = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final String name;
+
+    private final int capacity;
+
+    private final int concurrency;
+
+    private final EventOverflowPolicyEnum overflowPolicy;
+
+    private final Executor executor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notFull = lock.newCondition();
+
+    private final Deque<EventTask> tasks = new ArrayDeque<>();
+
+    /**
+     * Queued tasks by their coalescing key, used only with {@link EventOverflowPolicyEnum#COALESCE}.
+     */
+    private final Map<Object, EventTask> pendingTasks = new HashMap<>();
+
+    private int activeWorkers;
+
+    private final LongAdder submittedCount = new LongAdder();
+
+    private final LongAdder startedCount = new LongAdder();
+
+    private final LongAdder completedCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder coalescedCount = new LongAdder();
+
+    private final LongAdder queueLatencyNanos = new LongAdder();
+
+    private final LongAdder processingNanos = new LongAdder();
+
+    public EventListenerQueue(String name,
+                              int capacity,
+                              int concurrency,
+                              EventOverflowPolicyEnum overflowPolicy,
+                              Executor executor)
+    {
+        if (capacity <= 0 || concurrency <= 0)
+        {
+            throw new IllegalArgumentException(
+                    String.format("Invalid capacity [%s] or concurrency [%s] of [%s].", capacity, concurrency, name));
+        }
+
+        this.name = name;
+        this.capacity = capacity;
+        this.concurrency = concurrency;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues the task, and starts a worker for it if the listener has less than {@link #getConcurrency()} workers.
+     *
+     * @param key the key to coalesce the task with the queued one, can be `null`
+     * @param task the listener invocation
+     */
+    public void submit(Object key,
+                       Runnable task)
+    {
+        submittedCount.increment();
+
+        boolean startWorker;
+        lock.lock();
+        try
+        {
+            if (overflowPolicy == EventOverflowPolicyEnum.COALESCE && key != null)
+            {
+                EventTask pendingTask = pendingTasks.get(key);
+                if (pendingTask != null)
+                {
+                    pendingTask.task = task;
+                    coalescedCount.increment();
+
+                    return;
+                }
+            }
+
+            while (tasks.size() >= capacity)
+            {
+                if (overflowPolicy == EventOverflowPolicyEnum.DROP_OLDEST)
+                {
+                    dropOldest();
+                }
+                else if (draining.get())
+                {
+                    lock.unlock();
+                    try
+                    {
+                        logger.debug("Queue of [{}] is full, the event is handled by the publishing listener.", name);
+                        run(new EventTask(key, task));
+                    }
+                    finally
+                    {
+                        lock.lock();
+                    }
+
+                    return;
+                }
+                else if (!awaitNotFull())
+                {
+                    droppedCount.increment();
+                    logger.warn("Interrupted while waiting for the queue of [{}], the event was dropped.", name);
+
+                    return;
+                }
+            }
+
+            EventTask eventTask = new EventTask(key, task);
+            tasks.addLast(eventTask);
+            if (overflowPolicy == EventOverflowPolicyEnum.COALESCE && key != null)
+            {
+                pendingTasks.put(key, eventTask);
+            }
+
+            startWorker = activeWorkers < concurrency;
+            if (startWorker)
+            {
+                activeWorkers++;
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        if (!startWorker)
+        {
+            return;
+        }
+
+        try
+        {
+            executor.execute(this::drain);
+        }
+        catch (RejectedExecutionException e)
+        {
+            // The dispatcher has been shut down in the meantime.
+            drain();
+        }
+    }
+
+    /**
+     * Runs the task in the current thread, counting it as if it was queued.
+     */
+    public void execute(Runnable task)
+    {
+        submittedCount.increment();
+
+        run(new EventTask(null, task));
+    }
+
+    private void dropOldest()
+    {
+        EventTask droppedTask = tasks.pollFirst();
+        if (droppedTask.key != null)
+        {
+            pendingTasks.remove(droppedTask.key, droppedTask);
+        }
+        droppedCount.increment();
+
+        logger.debug("Queue of [{}] is full, the oldest event was dropped.", name);
+    }
+
+    private boolean awaitNotFull()
+    {
+        try
+        {
+            notFull.await();
+
+            return true;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            return false;
+        }
+    }
+
+    private void drain()
+    {
+        boolean nested = draining.get();
+        draining.set(Boolean.TRUE);
+        try
+        {
+            EventTask eventTask;
+            while ((eventTask = poll()) != null)
+            {
+                run(eventTask);
+            }
+        }
+        finally
+        {
+            draining.set(nested);
+        }
+    }
+
+    private EventTask poll()
+    {
+        lock.lock();
+        try
+        {
+            EventTask eventTask = tasks.pollFirst();
+            if (eventTask == null)
+            {
+                activeWorkers--;
+
+                return null;
+            }
+
+            if (eventTask.key != null)
+            {
+                pendingTasks.remove(eventTask.key, eventTask);
+            }
+            notFull.signal();
+
+            return eventTask;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void run(EventTask eventTask)
+    {
+        long startNanos = System.nanoTime();
+        startedCount.increment();
+        queueLatencyNanos.add(startNanos - eventTask.queuedNanos);
+
+        try
+        {
+            eventTask.task.run();
+
+            completedCount.increment();
+        }
+        catch (Throwable e)
+        {
+            failedCount.increment();
+
+            logger.error(String.format("Failed to handle async event by [%s].", name), e);
+        }
+        finally
+        {
+            processingNanos.add(System.nanoTime() - startNanos);
+        }
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public int getConcurrency()
+    {
+        return concurrency;
+    }
+
+    public EventOverflowPolicyEnum getOverflowPolicy()
+    {
+        return overflowPolicy;
+    }
+
+    public int getDepth()
+    {
+        lock.lock();
+        try
+        {
+            return tasks.size();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return how long the oldest queued event has been waiting, or `0` if the queue is empty
+     */
+    public long getOldestEventAgeNanos()
+    {
+        lock.lock();
+        try
+        {
+            EventTask eventTask = tasks.peekFirst();
+
+            return eventTask == null ? 0 : System.nanoTime() - eventTask.queuedNanos;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    public long getSubmittedCount()
+    {
+        return submittedCount.sum();
+    }
+
+    public long getStartedCount()
+    {
+        return startedCount.sum();
+    }
+
+    public long getCompletedCount()
+    {
+        return completedCount.sum();
+    }
+
+    public long getFailedCount()
+    {
+        return failedCount.sum();
+    }
+
+    public long getDroppedCount()
+    {
+        return droppedCount.sum();
+    }
+
+    public long getCoalescedCount()
+    {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * @return total time the started events have been waiting in the queue
+     */
+    public long getQueueLatencyNanos()
+    {
+        return queueLatencyNanos.sum();
+    }
+
+    /**
+     * @return total time the listener has been handling the events
+     */
+    public long getProcessingNanos()
+    {
+        return processingNanos.sum();
+    }
+
+    private static class EventTask
+    {
+
+        private final Object key;
+
+        private final long queuedNanos = System.nanoTime();
+
+        /**
+         * Replaced, under the queue lock, with the task of the coalesced event.
+         */
+        private volatile Runnable task;
+
+        private EventTask(Object key,
+                          Runnable task)
+        {
+            this.key = key;
+            this.task = task;
+        }
+
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.carlspring.strongbox.event;
+
+/**
+ * What to do with an event which comes to the full listener queue (see {@link EventListenerQueue}).
+ */
+public enum EventOverflowPolicyEnum
+{
+
+    /**
+     * The publishing thread waits until the queue has room for the event. It should be used only for the events which
+     * are not published by the HTTP request threads, as these would be parked by a busy listener.
+     */
+    BLOCK,
+
+    /**
+     * The oldest queued event is discarded to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The event replaces the queued event with the same key (see {@link Event#getCoalescingKey()}), so the listener
+     * handles it only once. If there is no such event and the queue is full, the publishing thread waits as with
+     * {@link #BLOCK}.
+     */
+    COALESCE
+
+}
@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.event;
 
 import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * @author carlspring
@@ -27,4 +28,10 @@ public class RepositoryBasedEvent<T extends Path> extends Event
         this.path = path;
     }
 
+    @Override
+    public Object getCoalescingKey()
+    {
+        return path == null ? null : Arrays.asList(getType(), path);
+    }
+
 }
@@ -0,0 +1,40 @@
+package org.carlspring.strongbox.event.artifact;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.carlspring.strongbox.event.RepositoryBasedEvent;
+
+/**
+ * Aggregated {@link ArtifactEvent}s of the same type, which occurred for the files of one artifact coordinate (like
+ * the JAR, POM and checksums within the Maven version directory) during the coalescing window.
+ * <p>
+ * The {@link #getPath()} is the artifact coordinate directory, and {@link #getArtifactPaths()} are the files in the
+ * order of their events.
+ *
+ * @see ArtifactEventCoalescer
+ */
+public class ArtifactCoordinateEvent<T extends Path> extends RepositoryBasedEvent<T>
+{
+
+    private final Set<T> artifactPaths = new LinkedHashSet<>();
+
+    public ArtifactCoordinateEvent(T coordinatePath,
+                                   int type)
+    {
+        super(coordinatePath, type);
+    }
+
+    public Set<T> getArtifactPaths()
+    {
+        return Collections.unmodifiableSet(artifactPaths);
+    }
+
+    void addArtifactPath(T artifactPath)
+    {
+        artifactPaths.add(artifactPath);
+    }
+
+}
@@ -0,0 +1,185 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.event.AbstractEventListenerRegistry;
+import org.carlspring.strongbox.event.EventDispatcher;
+import org.carlspring.strongbox.event.EventOverflowPolicyEnum;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Groups the {@link ArtifactEvent}s of the files within the same artifact coordinate directory, and dispatches one
+ * {@link ArtifactCoordinateEvent} for them when the coalescing window, which starts with the first event, is over.
+ * <p>
+ * So the listeners which update the metadata of the artifact (see {@link ArtifactCoordinateEvent}) do it once for the
+ * JAR, POM and all the checksums, instead of once for every file.
+ * <p>
+ * The coordinate events are published by the {@link EventDispatcher} threads, so that the single coalescer thread
+ * never waits for the full listener queues, and the other windows are closed in time. The closed windows stay in the
+ * pending events by their coordinate until they are published, the later files of the coordinate are added to them,
+ * so nothing is dropped when the publishing falls behind. The publishing is requested through the
+ * {@link EventOverflowPolicyEnum#COALESCE} queue, with a single key, which therefore never gets full.
+ * <p>
+ * If the events are handled synchronously (see {@link EventDispatcher#isAsync()}), the coordinate events are
+ * dispatched immediately, one for every file.
+ */
+@Component
+public class ArtifactEventCoalescer
+        extends AbstractEventListenerRegistry
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactEventCoalescer.class);
+
+    private static final String QUEUE_NAME = "artifact-event-coalescer";
+
+    private static final String PUBLISH_KEY = "publish";
+
+    private static final Set<ArtifactEventTypeEnum> COALESCED_EVENT_TYPES = EnumSet.of(
+            ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED,
+            ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED,
+            ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_FETCHED_FROM_REMOTE);
+
+    @Value("${strongbox.event.coalescing.windowMillis:500}")
+    private long windowMillis;
+
+    @Inject
+    private EventDispatcher eventDispatcher;
+
+    private ScheduledExecutorService scheduler;
+
+    private final Map<List<Object>, ArtifactCoordinateEvent<Path>> pendingEvents = new ConcurrentHashMap<>();
+
+    /**
+     * The keys of the pending events, which windows are over, in the order they should be published.
+     */
+    private final Queue<List<Object>> closedWindows = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "strongbox-event-coalescer");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy()
+    {
+        // Don't lose the events of the current windows.
+        closedWindows.addAll(pendingEvents.keySet());
+        publishClosedWindows();
+
+        scheduler.shutdownNow();
+    }
+
+    // TransactionalEventListener.fallbackExecution() needed only for test environment
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handle(final ArtifactEvent<Path> event)
+    {
+        if (COALESCED_EVENT_TYPES.stream().noneMatch(t -> t.getType() == event.getType()))
+        {
+            return;
+        }
+
+        Path artifactPath = event.getPath();
+        Path coordinatePath = artifactPath.getParent();
+        if (coordinatePath == null)
+        {
+            return;
+        }
+
+        if (!eventDispatcher.isAsync() || windowMillis <= 0)
+        {
+            ArtifactCoordinateEvent<Path> coordinateEvent = new ArtifactCoordinateEvent<>(coordinatePath,
+                                                                                          event.getType());
+            coordinateEvent.addArtifactPath(artifactPath);
+            dispatchEvent(coordinateEvent);
+
+            return;
+        }
+
+        List<Object> key = Arrays.asList(event.getType(), coordinatePath);
+        boolean[] windowStarted = new boolean[1];
+        pendingEvents.compute(key, (k, coordinateEvent) -> {
+            if (coordinateEvent == null)
+            {
+                coordinateEvent = new ArtifactCoordinateEvent<>(coordinatePath, event.getType());
+                windowStarted[0] = true;
+            }
+            coordinateEvent.addArtifactPath(artifactPath);
+
+            return coordinateEvent;
+        });
+
+        if (windowStarted[0])
+        {
+            scheduler.schedule(() -> closeWindow(key), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void closeWindow(List<Object> key)
+    {
+        closedWindows.add(key);
+
+        // The queued request publishes this window as well, so the request is coalesced with it.
+        eventDispatcher.dispatch(eventDispatcher.getQueue(QUEUE_NAME, EventOverflowPolicyEnum.COALESCE, 0, 0),
+                                 PUBLISH_KEY,
+                                 this::publishClosedWindows);
+    }
+
+    private void publishClosedWindows()
+    {
+        List<Object> key;
+        while ((key = closedWindows.poll()) != null)
+        {
+            ArtifactCoordinateEvent<Path> coordinateEvent = pendingEvents.remove(key);
+            if (coordinateEvent == null)
+            {
+                continue;
+            }
+
+            logger.debug("Dispatching coordinate event [{}] for [{}] files of [{}].",
+                         coordinateEvent.getType(), coordinateEvent.getArtifactPaths().size(),
+                         coordinateEvent.getPath());
+
+            publish(coordinateEvent);
+        }
+    }
+
+    private void publish(ArtifactCoordinateEvent<Path> coordinateEvent)
+    {
+        try
+        {
+            dispatchEvent(coordinateEvent);
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to dispatch coordinate event for [%s].", coordinateEvent.getPath()), e);
+        }
+    }
+
+}
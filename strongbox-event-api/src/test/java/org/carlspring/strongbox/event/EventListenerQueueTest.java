@@ -0,0 +1,169 @@
+package org.carlspring.strongbox.event;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventListenerQueueTest
+{
+
+    private ExecutorService executor;
+
+    private CountDownLatch release;
+
+    private List<String> handled;
+
+
+    @BeforeEach
+    public void setUp()
+    {
+        executor = Executors.newSingleThreadExecutor();
+        release = new CountDownLatch(1);
+        handled = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void oldestEventsShouldBeDroppedWhenQueueIsFull()
+        throws InterruptedException
+    {
+        EventListenerQueue queue = new EventListenerQueue("test", 2, 1, EventOverflowPolicyEnum.DROP_OLDEST, executor);
+        blockWorker(queue);
+
+        queue.submit(null, handle("a"));
+        queue.submit(null, handle("b"));
+        queue.submit(null, handle("c"));
+
+        assertThat(queue.getDepth(), equalTo(2));
+        assertThat(queue.getDroppedCount(), equalTo(1L));
+
+        awaitHandled(queue, 3);
+
+        assertThat(handled, contains("blocker", "b", "c"));
+    }
+
+    @Test
+    public void eventsWithSameKeyShouldBeCoalesced()
+        throws InterruptedException
+    {
+        EventListenerQueue queue = new EventListenerQueue("test", 10, 1, EventOverflowPolicyEnum.COALESCE, executor);
+        blockWorker(queue);
+
+        queue.submit("x", handle("x1"));
+        queue.submit("y", handle("y1"));
+        queue.submit("x", handle("x2"));
+
+        assertThat(queue.getDepth(), equalTo(2));
+        assertThat(queue.getCoalescedCount(), equalTo(1L));
+
+        awaitHandled(queue, 3);
+
+        // The latest event is handled at the position of the first one.
+        assertThat(handled, contains("blocker", "x2", "y1"));
+    }
+
+    @Test
+    public void publisherShouldWaitWhenQueueIsFull()
+        throws InterruptedException
+    {
+        EventListenerQueue queue = new EventListenerQueue("test", 1, 1, EventOverflowPolicyEnum.BLOCK, executor);
+        blockWorker(queue);
+
+        queue.submit(null, handle("a"));
+
+        CountDownLatch submitted = new CountDownLatch(1);
+        Thread publisher = new Thread(() -> {
+            queue.submit(null, handle("b"));
+            submitted.countDown();
+        });
+        publisher.start();
+
+        assertThat(submitted.await(200, TimeUnit.MILLISECONDS), equalTo(false));
+
+        awaitHandled(queue, 3);
+
+        assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        publisher.join();
+
+        assertThat(handled, contains("blocker", "a", "b"));
+        assertThat(queue.getDroppedCount(), equalTo(0L));
+    }
+
+    @Test
+    public void failedEventsShouldBeCounted()
+        throws InterruptedException
+    {
+        EventListenerQueue queue = new EventListenerQueue("test", 10, 1, EventOverflowPolicyEnum.BLOCK, executor);
+        blockWorker(queue);
+
+        queue.submit(null, () -> {
+            throw new IllegalStateException("Expected.");
+        });
+        queue.submit(null, handle("a"));
+
+        awaitHandled(queue, 3);
+
+        assertThat(queue.getFailedCount(), equalTo(1L));
+        assertThat(queue.getCompletedCount(), equalTo(2L));
+        assertThat(queue.getStartedCount(), equalTo(3L));
+    }
+
+    /**
+     * Occupies the only worker of the queue, so that the following events stay in the queue until {@link #release}.
+     */
+    private void blockWorker(EventListenerQueue queue)
+        throws InterruptedException
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        queue.submit(null, () -> {
+            started.countDown();
+            try
+            {
+                release.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            handled.add("blocker");
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitHandled(EventListenerQueue queue,
+                              long count)
+        throws InterruptedException
+    {
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queue.getCompletedCount() + queue.getFailedCount() < count && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+    }
+
+    private Runnable handle(String event)
+    {
+        return () -> handled.add(event);
+    }
+
+}
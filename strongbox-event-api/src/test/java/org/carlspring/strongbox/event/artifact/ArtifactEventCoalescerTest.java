@@ -0,0 +1,137 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.event.EventDispatcher;
+import org.carlspring.strongbox.event.EventOverflowPolicyEnum;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ArtifactEventCoalescerTest
+{
+
+    private static final long WINDOW_MILLIS = 200;
+
+    private static final Path COORDINATE_PATH = Paths.get("org", "carlspring", "strongbox", "coalesced", "1.0");
+
+    private static final Path OTHER_COORDINATE_PATH = Paths.get("org", "carlspring", "strongbox", "coalesced", "1.1");
+
+    private EventDispatcher eventDispatcher;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private ArtifactEventCoalescer coalescer;
+
+    @BeforeEach
+    public void setUp()
+    {
+        eventDispatcher = Mockito.mock(EventDispatcher.class);
+        when(eventDispatcher.isAsync()).thenReturn(true);
+        // The dispatcher threads are replaced by the calling thread.
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+
+            return null;
+        }).when(eventDispatcher).dispatch(any(), any(), any(Runnable.class));
+
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+
+        coalescer = new ArtifactEventCoalescer();
+        ReflectionTestUtils.setField(coalescer, "eventDispatcher", eventDispatcher);
+        ReflectionTestUtils.setField(coalescer, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(coalescer, "windowMillis", WINDOW_MILLIS);
+        coalescer.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        coalescer.destroy();
+    }
+
+    @Test
+    public void filesOfCoordinateShouldBeDispatchedAtOnce()
+    {
+        int type = ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType();
+        List<Path> artifactPaths = Arrays.asList(COORDINATE_PATH.resolve("coalesced-1.0.jar"),
+                                                 COORDINATE_PATH.resolve("coalesced-1.0.pom"),
+                                                 COORDINATE_PATH.resolve("coalesced-1.0.jar.sha1"));
+        Path otherArtifactPath = OTHER_COORDINATE_PATH.resolve("coalesced-1.1.jar");
+
+        artifactPaths.forEach(p -> coalescer.handle(new ArtifactEvent<>(p, type)));
+        coalescer.handle(new ArtifactEvent<>(otherArtifactPath, type));
+        // Not handled by the coalescer.
+        coalescer.handle(new ArtifactEvent<>(COORDINATE_PATH.resolve("coalesced-1.0.jar"),
+                                             ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType()));
+
+        ArgumentCaptor<ApplicationEvent> events = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(eventPublisher, timeout(WINDOW_MILLIS * 10).times(2)).publishEvent(events.capture());
+        // Nothing else is dispatched after the window.
+        verify(eventPublisher, after(WINDOW_MILLIS * 2).times(2)).publishEvent(any(ApplicationEvent.class));
+
+        List<ArtifactCoordinateEvent<Path>> coordinateEvents = events.getAllValues()
+                                                                     .stream()
+                                                                     .map(e -> (ArtifactCoordinateEvent<Path>) e)
+                                                                     .collect(Collectors.toList());
+        assertThat(coordinateEvents.stream().map(ArtifactCoordinateEvent::getPath).collect(Collectors.toList()),
+                   containsInAnyOrder(COORDINATE_PATH, OTHER_COORDINATE_PATH));
+
+        ArtifactCoordinateEvent<Path> coordinateEvent = coordinateEvents.stream()
+                                                                        .filter(e -> COORDINATE_PATH.equals(
+                                                                                e.getPath()))
+                                                                        .findFirst()
+                                                                        .get();
+        assertThat(coordinateEvent.getType(), equalTo(type));
+        assertThat(coordinateEvent.getArtifactPaths(), contains(artifactPaths.toArray()));
+
+        // The coalescer thread hands the publishing over without waiting for the full listener queues.
+        verify(eventDispatcher, times(2)).getQueue(anyString(), eq(EventOverflowPolicyEnum.COALESCE), anyInt(),
+                                                   anyInt());
+        verify(eventDispatcher, never()).getQueue(anyString(), eq(EventOverflowPolicyEnum.DROP_OLDEST), anyInt(),
+                                                  anyInt());
+    }
+
+    @Test
+    public void pendingEventsShouldBePublishedOnDestroy()
+    {
+        int type = ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType();
+        Path artifactPath = COORDINATE_PATH.resolve("coalesced-1.0.jar");
+
+        coalescer.handle(new ArtifactEvent<>(artifactPath, type));
+        coalescer.destroy();
+
+        ArgumentCaptor<ApplicationEvent> events = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(events.capture());
+        assertThat(((ArtifactCoordinateEvent<Path>) events.getValue()).getArtifactPaths(), contains(artifactPath));
+
+        // Nothing else is published later on.
+        verify(eventPublisher, after(WINDOW_MILLIS * 2).times(1)).publishEvent(any(ApplicationEvent.class));
+    }
+
+}
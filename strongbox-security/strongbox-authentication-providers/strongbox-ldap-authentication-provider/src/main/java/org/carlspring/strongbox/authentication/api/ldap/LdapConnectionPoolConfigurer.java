@@ -0,0 +1,96 @@
+package org.carlspring.strongbox.authentication.api.ldap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Configures the JNDI LDAP connection pool, which is used by the pooled context sources for the searches made with
+ * the manager (or anonymous) credentials.
+ * <p>
+ * The pool is configured with the `com.sun.jndi.ldap.connect.pool.*` system properties. These are JVM-global: they
+ * apply to every pooled LDAP connection of the JVM, not only to the ones of Strongbox, and they are read by the JDK
+ * only once, when the first LDAP context is created. That's why the context source depends on this bean. The
+ * properties which were already set (like, for example: from the command line, or by a previous load of the
+ * authentication configuration) are left as they are, so changing the pool settings requires a restart.
+ */
+public class LdapConnectionPoolConfigurer
+        implements InitializingBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(LdapConnectionPoolConfigurer.class);
+
+    static final String POOL_PREFERRED_SIZE = "com.sun.jndi.ldap.connect.pool.prefsize";
+
+    static final String POOL_MAX_SIZE = "com.sun.jndi.ldap.connect.pool.maxsize";
+
+    static final String POOL_TIMEOUT = "com.sun.jndi.ldap.connect.pool.timeout";
+
+    static final String POOL_PROTOCOL = "com.sun.jndi.ldap.connect.pool.protocol";
+
+    private int minSize = 1;
+
+    private int maxSize = 16;
+
+    private long idleTimeoutMillis = 300000;
+
+    public int getMinSize()
+    {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize)
+    {
+        this.minSize = minSize;
+    }
+
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize)
+    {
+        this.maxSize = maxSize;
+    }
+
+    public long getIdleTimeoutMillis()
+    {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis)
+    {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        setDefault(POOL_PREFERRED_SIZE, String.valueOf(minSize));
+        setDefault(POOL_MAX_SIZE, String.valueOf(maxSize));
+        setDefault(POOL_TIMEOUT, String.valueOf(idleTimeoutMillis));
+        // Only the plain connections are pooled by default, the TLS handshake is the most expensive part though.
+        setDefault(POOL_PROTOCOL, "plain ssl");
+
+        logger.info("LDAP connection pool: preferred size [{}], max size [{}], idle timeout [{}] ms, protocols [{}].",
+                    System.getProperty(POOL_PREFERRED_SIZE), System.getProperty(POOL_MAX_SIZE),
+                    System.getProperty(POOL_TIMEOUT), System.getProperty(POOL_PROTOCOL));
+    }
+
+    private static void setDefault(String name,
+                                   String value)
+    {
+        String current = System.getProperty(name);
+        if (current == null)
+        {
+            System.setProperty(name, value);
+        }
+        else if (!current.equals(value))
+        {
+            logger.warn("The JVM-global [{}] is already set to [{}], the configured [{}] is ignored.", name, current,
+                        value);
+        }
+    }
+
+}
@@ -1,24 +1,40 @@
 package org.carlspring.strongbox.authentication.api.ldap;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.ldap.core.DirContextOperations;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
 import org.springframework.security.ldap.authentication.NullLdapAuthoritiesPopulator;
 import org.springframework.security.ldap.userdetails.LdapAuthoritiesPopulator;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 /**
+ * The mapped authorities are cached by the user DN, so that the group search isn't repeated for every login
+ * (see {@link #setCacheSeconds(long)}). The concurrent logins of the same user wait for a single search.
+ * <p>
+ * The cache is dropped when the authentication configuration is reloaded, as the context which owns this bean is
+ * closed then.
+ *
  * @author sbespalov
  *
  */
-public class MappedAuthoritiesPopulator implements LdapAuthoritiesPopulator
+public class MappedAuthoritiesPopulator implements LdapAuthoritiesPopulator, DisposableBean
 {
 
     private final GrantedAuthoritiesMapper authoritiesMapper;
 
     private LdapAuthoritiesPopulator delegate = new NullLdapAuthoritiesPopulator();
 
+    private Cache<String, Collection<? extends GrantedAuthority>> authoritiesCache;
+
     public MappedAuthoritiesPopulator(GrantedAuthoritiesMapper authoritiesMapper)
     {
         super();
@@ -35,11 +51,60 @@ public class MappedAuthoritiesPopulator implements LdapAuthoritiesPopulator
         this.delegate = delegate;
     }
 
+    /**
+     * @param cacheSeconds how long the authorities of the user are reused, `0` to search them every time
+     */
+    public void setCacheSeconds(long cacheSeconds)
+    {
+        authoritiesCache = cacheSeconds > 0 ? CacheBuilder.newBuilder()
+                                                          .maximumSize(10000)
+                                                          .expireAfterWrite(cacheSeconds, TimeUnit.SECONDS)
+                                                          .build() : null;
+    }
+
+    public void invalidateCache()
+    {
+        if (authoritiesCache != null)
+        {
+            authoritiesCache.invalidateAll();
+        }
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getGrantedAuthorities(DirContextOperations userData,
                                                                         String username)
     {
-        return authoritiesMapper.mapAuthorities(getDelegate().getGrantedAuthorities(userData, username));
+        if (authoritiesCache == null)
+        {
+            return mapAuthorities(userData, username);
+        }
+
+        String userDn = userData.getNameInNamespace();
+        try
+        {
+            return authoritiesCache.get(userDn, () -> mapAuthorities(userData, username));
+        }
+        catch (UncheckedExecutionException e)
+        {
+            throw (RuntimeException) e.getCause();
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy()
+    {
+        invalidateCache();
+    }
+
+    private Collection<? extends GrantedAuthority> mapAuthorities(DirContextOperations userData,
+                                                                  String username)
+    {
+        return Collections.unmodifiableCollection(
+                authoritiesMapper.mapAuthorities(getDelegate().getGrantedAuthorities(userData, username)));
     }
 
 }
@@ -4,14 +4,26 @@ import static org.hamcrest.MatcherAssert.assertThat;
 
 import java.io.InputStream;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
+import javax.naming.ldap.LdapName;
 
+import org.carlspring.strongbox.authentication.api.ldap.MappedAuthoritiesPopulator;
 import org.carlspring.strongbox.authentication.support.AuthenticationContextInitializer;
 import org.carlspring.strongbox.config.UsersConfig;
 import org.carlspring.strongbox.users.domain.SystemRole;
 import org.hamcrest.CoreMatchers;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,10 +33,12 @@ import org.springframework.core.env.PropertySource;
 import org.springframework.ldap.core.ContextSource;
 import org.springframework.ldap.core.DirContextAdapter;
 import org.springframework.ldap.core.LdapTemplate;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.ldap.userdetails.LdapUserDetails;
 import org.springframework.security.ldap.userdetails.LdapUserDetailsImpl;
+import org.springframework.security.ldap.userdetails.LdapAuthoritiesPopulator;
 import org.springframework.security.ldap.userdetails.LdapUserDetailsService;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
@@ -50,6 +64,9 @@ public class LdapAuthenticationProviderTest
     @Inject
     private LdapUserDetailsService ldapUserDetailsService;
 
+    @Inject
+    private MappedAuthoritiesPopulator ldapAuthoritiesPopulator;
+
     @Test
     public void embeddedLdapServerCreationContainsExpectedContextSourceAndData()
         throws Exception
@@ -81,6 +98,60 @@ public class LdapAuthenticationProviderTest
                                          CoreMatchers.equalTo(new SimpleGrantedAuthority("USER_ROLE"))));
     }
 
+    @Test
+    public void concurrentLoginsShouldReuseCachedAuthorities()
+        throws Exception
+    {
+        String username = "przemyslaw.fusik";
+        DirContextAdapter userData = new DirContextAdapter(
+                new LdapName("uid=przemyslaw.fusik,ou=Users,dc=carlspring,dc=com"));
+
+        // Counts the group searches, which are made against the LDAP server.
+        AtomicInteger lookups = new AtomicInteger();
+        LdapAuthoritiesPopulator delegate = ldapAuthoritiesPopulator.getDelegate();
+        ldapAuthoritiesPopulator.setDelegate((data, name) -> {
+            lookups.incrementAndGet();
+
+            return delegate.getGrantedAuthorities(data, name);
+        });
+        ldapAuthoritiesPopulator.invalidateCache();
+
+        int logins = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            Collection<? extends GrantedAuthority> authorities = ldapAuthoritiesPopulator.getGrantedAuthorities(
+                    userData, username);
+            assertThat(ldapAuthoritiesPopulator.getGrantedAuthorities(userData, username),
+                       CoreMatchers.sameInstance(authorities));
+            assertThat(lookups.get(), CoreMatchers.equalTo(1));
+
+            long start = System.nanoTime();
+
+            List<Future<UserDetails>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++)
+            {
+                results.add(executor.submit(() -> ldapUserDetailsService.loadUserByUsername(username)));
+            }
+            for (Future<UserDetails> result : results)
+            {
+                assertThat(new HashSet<>(result.get().getAuthorities()), CoreMatchers.equalTo(new HashSet<>(authorities)));
+            }
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            logger.info("[{}] concurrent LDAP logins took [{}] ms.", logins, millis);
+
+            // The concurrent logins wait for a single search, the DN found by the user search may be spelled
+            // differently from the one above though.
+            assertThat(lookups.get(), Matchers.lessThanOrEqualTo(2));
+        }
+        finally
+        {
+            executor.shutdown();
+            ldapAuthoritiesPopulator.setDelegate(delegate);
+        }
+    }
+
     public static class TestContextInitializer extends AuthenticationContextInitializer
     {
 
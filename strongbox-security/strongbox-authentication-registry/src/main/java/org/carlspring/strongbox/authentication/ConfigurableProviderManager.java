@@ -1,14 +1,20 @@
 package org.carlspring.strongbox.authentication;
 
 import java.io.IOException;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -23,12 +29,18 @@ import org.carlspring.strongbox.authentication.api.CustomAuthenticationItemMappe
 import org.carlspring.strongbox.authentication.registry.AuthenticationProvidersRegistry;
 import org.carlspring.strongbox.authentication.registry.AuthenticationProvidersRegistry.MergePropertiesContext;
 import org.carlspring.strongbox.authentication.support.AuthenticationConfigurationContext;
+import org.carlspring.strongbox.data.CacheName;
+import org.carlspring.strongbox.users.domain.UserData;
 import org.carlspring.strongbox.users.dto.User;
+import org.carlspring.strongbox.users.dto.UserDto;
 import org.carlspring.strongbox.users.userdetails.StrongboxExternalUsersCacheManager;
 import org.carlspring.strongbox.users.userdetails.UserDetailsMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.event.ContextRefreshedEvent;
@@ -47,14 +59,24 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
  *
  */
 @Primary
-public class ConfigurableProviderManager extends ProviderManager implements UserDetailsService, AuthenticationItemConfigurationManager
+public class ConfigurableProviderManager extends ProviderManager
+        implements UserDetailsService, AuthenticationItemConfigurationManager, DisposableBean
 {
 
     private static final Logger logger = LoggerFactory.getLogger(ConfigurableProviderManager.class);
 
     @Value("${users.external.cache.seconds:300}")
     private int externalUsersInvalidateSeconds;
-    
+
+    /**
+     * The part of the external user validity period, after which the user is reloaded in background.
+     */
+    @Value("${users.external.cache.refreshAheadFactor:0.8}")
+    private double externalUsersRefreshAheadFactor;
+
+    @Inject
+    private CacheManager cacheManager;
+
     @Inject
     private AuthenticationProvidersRegistry authenticationProvidersRegistry;
 
@@ -68,6 +90,10 @@ public class ConfigurableProviderManager extends ProviderManager implements User
 
     private final Map<String, UserDetailsService> userProviderMap = new HashMap<>();
 
+    private final Set<String> refreshingUsers = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+
     public ConfigurableProviderManager()
     {
         super(new ArrayList<>(), new EmptyAuthenticationManager());
@@ -112,29 +138,66 @@ public class ConfigurableProviderManager extends ProviderManager implements User
         return user.map(userDetailsMapper).get();
     }
 
+    /**
+     * External users are served from the {@link CacheName.User#EXTERNAL_USERS} cache, without any access to the
+     * users storage or the external source, while they are valid. The users which are close to expire are reloaded
+     * from their source in background.
+     */
     private Optional<User> loadUserDetails(String username)
     {
-        User user = strongboxUserManager.findByUsername(username);
-        Date userLastUpdate = Optional.ofNullable(user)
-                                      .flatMap(u -> Optional.ofNullable(u.getLastUpdate()))
-                                      .orElse(Date.from(Instant.EPOCH));
-        
-        Date userExpireDate = Date.from(Instant.ofEpochMilli(userLastUpdate.getTime())
-                                               .plusSeconds(externalUsersInvalidateSeconds));
-        Date nowDate = new Date();
-        if (user != null && (StringUtils.isBlank(user.getSourceId()) || nowDate.before(userExpireDate)))
+        Cache externalUsersCache = getExternalUsersCache();
+
+        User user = externalUsersCache.get(username, User.class);
+        boolean cached = user != null;
+        if (!cached)
+        {
+            user = strongboxUserManager.findByUsername(username);
+        }
+
+        if (user != null && StringUtils.isBlank(user.getSourceId()))
         {
             return Optional.of(user);
         }
-       
+
+        long userAge = Optional.ofNullable(user)
+                               .flatMap(u -> Optional.ofNullable(u.getLastUpdate()))
+                               .map(d -> System.currentTimeMillis() - d.getTime())
+                               .orElse(Long.MAX_VALUE);
+        long userExpireAge = TimeUnit.SECONDS.toMillis(externalUsersInvalidateSeconds);
+        if (userAge >= userExpireAge)
+        {
+            return loadExternalUser(username);
+        }
+
+        if (userAge >= userExpireAge * externalUsersRefreshAheadFactor)
+        {
+            refreshExternalUser(username);
+        }
+
+        if (!cached)
+        {
+            user = toCachedUser(user, user.getLastUpdate());
+            externalUsersCache.put(username, user);
+        }
+
+        return Optional.of(user);
+    }
+
+    private Optional<User> loadExternalUser(String username)
+    {
         for (Entry<String, UserDetailsService> userDetailsServiceEntry : userProviderMap.entrySet())
         {
             String sourceId = userDetailsServiceEntry.getKey();
             UserDetailsService userDetailsService = userDetailsServiceEntry.getValue();
             try
             {
-                return Optional.of(strongboxUserManager.cacheExternalUserDetails(sourceId,
-                                                                                  userDetailsService.loadUserByUsername(username)));
+                User user = strongboxUserManager.cacheExternalUserDetails(sourceId,
+                                                                          userDetailsService.loadUserByUsername(username));
+
+                User cachedUser = toCachedUser(user, new Date());
+                getExternalUsersCache().put(username, cachedUser);
+
+                return Optional.of(cachedUser);
             }
             catch (UsernameNotFoundException e)
             {
@@ -147,6 +210,62 @@ public class ConfigurableProviderManager extends ProviderManager implements User
         return Optional.empty();
     }
 
+    private void refreshExternalUser(String username)
+    {
+        if (!refreshingUsers.add(username))
+        {
+            return;
+        }
+
+        try
+        {
+            refreshExecutor.execute(() -> {
+                try
+                {
+                    loadExternalUser(username);
+                }
+                catch (Exception e)
+                {
+                    logger.warn(String.format("Failed to refresh external user [%s].", username), e);
+                }
+                finally
+                {
+                    refreshingUsers.remove(username);
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            refreshingUsers.remove(username);
+        }
+    }
+
+    private User toCachedUser(User user,
+                              Date lastUpdate)
+    {
+        UserDto userDto = new UserDto();
+        userDto.setUsername(user.getUsername());
+        userDto.setPassword(user.getPassword());
+        userDto.setEnabled(user.isEnabled());
+        userDto.setRoles(user.getRoles() != null ? new HashSet<>(user.getRoles()) : null);
+        userDto.setSecurityTokenKey(user.getSecurityTokenKey());
+        userDto.setSourceId(user.getSourceId());
+        userDto.setLastUpdate(lastUpdate);
+
+        return new UserData(userDto);
+    }
+
+    private Cache getExternalUsersCache()
+    {
+        return cacheManager.getCache(CacheName.User.EXTERNAL_USERS);
+    }
+
+    @Override
+    public void destroy()
+    {
+        refreshExecutor.shutdownNow();
+    }
+
     public void reorder(String first,
                         String second)
         throws IOException
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.authentication;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -13,6 +14,7 @@ import javax.persistence.PersistenceContext;
 
 import org.carlspring.strongbox.config.hazelcast.HazelcastConfiguration;
 import org.carlspring.strongbox.config.hazelcast.HazelcastInstanceId;
+import org.carlspring.strongbox.data.CacheName;
 import org.carlspring.strongbox.domain.UserEntry;
 import org.carlspring.strongbox.users.dto.User;
 import org.carlspring.strongbox.users.dto.UserDto;
@@ -21,9 +23,11 @@ import org.carlspring.strongbox.users.service.impl.EncodedPasswordUser;
 import org.carlspring.strongbox.users.service.impl.OrientDbUserService.OrientDb;
 import org.carlspring.strongbox.users.service.impl.YamlUserService.Yaml;
 import org.carlspring.strongbox.users.userdetails.StrongboxExternalUsersCacheManager;
+import org.carlspring.strongbox.users.userdetails.StrongboxUserDetails;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -68,6 +72,9 @@ public class ConfigurableProviderManagerTest
     @Inject
     private PasswordEncoder passwordEncoder;
 
+    @Inject
+    private CacheManager cacheManager;
+
     @PersistenceContext
     protected EntityManager entityManager;
 
@@ -88,6 +95,11 @@ public class ConfigurableProviderManagerTest
         User externalUser = strongboxUserManager.findByUsername(TEST_USER);
         assertNotNull(externalUser);
 
+        // Check that unchanged external user is not written again
+        assertNotNull(strongboxUserManager.cacheExternalUserDetails(externalUser.getSourceId(),
+                                                                    new StrongboxUserDetails(externalUser)));
+        assertEquals(externalUser.getLastUpdate(), strongboxUserManager.findByUsername(TEST_USER).getLastUpdate());
+
         // Check that external user can't be modyfied
         User externalUserToSave = externalUser;
         assertThrows(IllegalStateException.class, () -> orientDbUserService.save(externalUserToSave),
@@ -104,6 +116,7 @@ public class ConfigurableProviderManagerTest
         UserEntry externalUserEntry = (UserEntry) orientDbUserService.findByUsername(TEST_USER);
         externalUserEntry.setLastUpdate(null);
         entityManager.persist(externalUserEntry);
+        cacheManager.getCache(CacheName.User.EXTERNAL_USERS).evict(TEST_USER);
 
         // Update user cahce
         assertNotNull(userDetailsService.loadUserByUsername(TEST_USER));
@@ -1,13 +1,18 @@
 package org.carlspring.strongbox.authentication;
 
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.Collections;
+
 import javax.inject.Inject;
 
 import org.carlspring.strongbox.authentication.api.jwt.JwtAuthentication;
 import org.carlspring.strongbox.config.hazelcast.HazelcastConfiguration;
 import org.carlspring.strongbox.config.hazelcast.HazelcastInstanceId;
 import org.carlspring.strongbox.domain.UserEntry;
+import org.carlspring.strongbox.security.exceptions.InvalidTokenException;
 import org.carlspring.strongbox.users.dto.UserDto;
 import org.carlspring.strongbox.users.security.JwtAuthenticationClaimsProvider;
 import org.carlspring.strongbox.users.security.JwtClaimsProvider;
@@ -17,6 +22,7 @@ import org.carlspring.strongbox.users.service.impl.EncodedPasswordUser;
 import org.carlspring.strongbox.users.service.impl.OrientDbUserService;
 import org.carlspring.strongbox.users.service.impl.YamlUserService.Yaml;
 import org.carlspring.strongbox.users.userdetails.SpringSecurityUser;
+import org.jose4j.jwt.JwtClaims;
 import org.jose4j.lang.JoseException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
@@ -105,6 +111,23 @@ public class JwtAuthenticationProviderTest
         authenticationManager.authenticate(getAuthentication(TEST_USER));
     }
 
+    @Test
+    public void testVerifiedTokenIsReused()
+        throws Exception
+    {
+        String token = securityTokenProvider.getToken(TEST_USER, Collections.emptyMap(), 3600, null);
+
+        JwtClaims claims = securityTokenProvider.getClaims(token, true);
+        assertSame(claims, securityTokenProvider.getClaims(token, true));
+        assertSame(claims, securityTokenProvider.getClaims(token));
+
+        //Token should be forgotten when it doesn't match the user claims anymore
+        assertThrows(InvalidTokenException.class,
+                     () -> securityTokenProvider.verifyToken(token, TEST_USER,
+                                                             Collections.singletonMap("key", "value")));
+        assertNotSame(claims, securityTokenProvider.getClaims(token, true));
+    }
+
     protected JwtAuthentication getAuthentication(String username)
         throws JoseException
     {
@@ -5,9 +5,14 @@ import org.carlspring.strongbox.security.exceptions.ExpiredTokenException;
 
 import javax.inject.Inject;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import org.jose4j.jws.AlgorithmIdentifiers;
 import org.jose4j.jws.JsonWebSignature;
 import org.jose4j.jwt.JwtClaims;
@@ -37,6 +42,20 @@ public class SecurityTokenProvider
      */
     private Key key;
 
+    private JwtConsumer jwtConsumer;
+
+    private final JwtConsumer unverifiedJwtConsumer = new JwtConsumerBuilder().setRequireSubject()
+                                                                              .setRelaxVerificationKeyValidation()
+                                                                              .setSkipSignatureVerification()
+                                                                              .setSkipAllValidators()
+                                                                              .build();
+
+    /**
+     * The claims of the already verified tokens, by token hash. The expiration time of the token is checked on
+     * every use, so the cached token is never valid longer than the token itself.
+     */
+    private Cache<String, VerifiedToken> verifiedTokens;
+
     /**
      * Creates {@link Key} instance using Secret string from application configuration.
      *
@@ -49,6 +68,25 @@ public class SecurityTokenProvider
             throws UnsupportedEncodingException
     {
         key = new HmacKey(secret.getBytes("UTF-8"));
+        jwtConsumer = new JwtConsumerBuilder().setRequireSubject()
+                                              .setRelaxVerificationKeyValidation()
+                                              .setVerificationKey(key)
+                                              .build();
+
+        if (verifiedTokens != null)
+        {
+            verifiedTokens.invalidateAll();
+        }
+    }
+
+    @Inject
+    public void initVerifiedTokens(@Value("${strongbox.security.jwt.verifiedTokens.maxSize:10000}") long maxSize,
+                                   @Value("${strongbox.security.jwt.verifiedTokens.expireSeconds:600}") long expireSeconds)
+    {
+        verifiedTokens = CacheBuilder.newBuilder()
+                                     .maximumSize(maxSize)
+                                     .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                                     .build();
     }
 
     /**
@@ -118,25 +156,53 @@ public class SecurityTokenProvider
         return getClaims(token, false);
     }
     
+    /**
+     * @param token  the token to parse
+     * @param verify true - to verify the signature and the validity of the token, false - to only parse it
+     * @return the token claims, which must not be modified as they may be shared between the calls
+     */
     public JwtClaims getClaims(String token, boolean verify)
     {
-        JwtConsumerBuilder builder = new JwtConsumerBuilder().setRequireSubject()
-                                                             .setRelaxVerificationKeyValidation();
-        if (!verify)
+        String tokenHash = hash(token);
+        if (verify)
+        {
+            return getVerifiedClaims(token, tokenHash);
+        }
+
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(tokenHash);
+        if (verifiedToken != null)
+        {
+            return verifiedToken.getClaims();
+        }
+
+        return processToClaims(unverifiedJwtConsumer, token);
+    }
+
+    private JwtClaims getVerifiedClaims(String token,
+                                        String tokenHash)
+    {
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(tokenHash);
+        if (verifiedToken == null)
         {
-            builder.setSkipSignatureVerification().setSkipAllValidators();
+            verifiedToken = new VerifiedToken(processToClaims(jwtConsumer, token));
+            verifiedTokens.put(tokenHash, verifiedToken);
         }
-        else
+        else if (verifiedToken.isExpired())
         {
-            builder.setVerificationKey(key);
+            verifiedTokens.invalidate(tokenHash);
+            throw new ExpiredTokenException(String.format(MESSAGE_INVALID_JWT, token));
         }
-        
-        JwtConsumer jwtConsumer = builder.build();
 
+        return verifiedToken.getClaims();
+    }
+
+    private JwtClaims processToClaims(JwtConsumer consumer,
+                                      String token)
+    {
         JwtClaims jwtClaims;
         try
         {
-            jwtClaims = jwtConsumer.processToClaims(token);
+            jwtClaims = consumer.processToClaims(token);
         }
         catch (InvalidJwtException e)
         {
@@ -149,7 +215,15 @@ public class SecurityTokenProvider
         return jwtClaims;
     }
 
+    private static String hash(String token)
+    {
+        return Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+    }
+
     /**
+     * The token is verified only once, the subject and the claims are compared with the target ones every time, so
+     * a token is rejected (and forgotten) as soon as the user claims change.
+     *
      * @param token
      * @param targetSubject
      * @param targetClaimMap
@@ -158,7 +232,8 @@ public class SecurityTokenProvider
                             String targetSubject,
                             Map<String, String> targetClaimMap)
     {
-        JwtClaims jwtClaims = getClaims(token, true);
+        String tokenHash = hash(token);
+        JwtClaims jwtClaims = getVerifiedClaims(token, tokenHash);
         String subject;
         try
         {
@@ -171,6 +246,7 @@ public class SecurityTokenProvider
 
         if (!targetSubject.equals(subject))
         {
+            verifiedTokens.invalidate(tokenHash);
             throw new InvalidTokenException(String.format(MESSAGE_INVALID_JWT, token));
         }
 
@@ -188,8 +264,44 @@ public class SecurityTokenProvider
 
         if (!claimMatch)
         {
+            verifiedTokens.invalidate(tokenHash);
             throw new InvalidTokenException(String.format(MESSAGE_INVALID_JWT, token));
         }
     }
 
+    private static class VerifiedToken
+    {
+
+        private final JwtClaims claims;
+
+        private final Long expirationTime;
+
+        private VerifiedToken(JwtClaims claims)
+        {
+            this.claims = claims;
+
+            NumericDate expirationTime;
+            try
+            {
+                expirationTime = claims.getExpirationTime();
+            }
+            catch (MalformedClaimException e)
+            {
+                throw new InvalidTokenException(e.getMessage(), e);
+            }
+            this.expirationTime = expirationTime != null ? expirationTime.getValueInMillis() : null;
+        }
+
+        private JwtClaims getClaims()
+        {
+            return claims;
+        }
+
+        private boolean isExpired()
+        {
+            return expirationTime != null && System.currentTimeMillis() >= expirationTime;
+        }
+
+    }
+
 }
@@ -4,11 +4,15 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -26,6 +30,7 @@ import org.carlspring.strongbox.users.service.UserEntryService;
 import org.carlspring.strongbox.users.service.impl.OrientDbUserService.OrientDb;
 import org.carlspring.strongbox.users.userdetails.StrongboxUserDetails;
 import org.jose4j.lang.JoseException;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -45,9 +50,13 @@ public class OrientDbUserService extends CommonCrudService<UserEntry> implements
 
     @Inject
     private SecurityTokenProvider tokenProvider;
+
+    @Inject
+    private CacheManager cacheManager;
     
     @Override
-    @CacheEvict(cacheNames = CacheName.User.AUTHENTICATIONS, key = "#p0")
+    @CacheEvict(cacheNames = { CacheName.User.AUTHENTICATIONS,
+                               CacheName.User.EXTERNAL_USERS }, key = "#p0")
     public void deleteByUsername(String username)
     {
         Map<String, String> params = new HashMap<>();
@@ -176,21 +185,30 @@ public class OrientDbUserService extends CommonCrudService<UserEntry> implements
         return super.save(entity);
     }
 
+    /**
+     * The user is stored only if its password, roles or other details differ from the stored one, so the
+     * {@link User#getLastUpdate()} value reflects the last change of the external user.
+     */
     @Override
-    @CacheEvict(cacheNames = CacheName.User.AUTHENTICATIONS, key = "#p1.username")
     public User cacheExternalUserDetails(String sourceId,
                                          UserDetails springUser)
     {
         User user = springUser instanceof StrongboxUserDetails ? ((StrongboxUserDetails) springUser).getUser()
                 : new UserData(springUser);
 
-        UserEntry userEntry = Optional.ofNullable((UserEntry) findByUsername(user.getUsername()))
-                                      .map(u -> {
-                                          getDelegate().detachAll(u);
-                                          return u;
-                                      })
-                                      .filter(u -> u.getSourceId().equals(sourceId))
-                                      .orElseGet(() -> new UserEntry());
+        UserEntry storedEntry = Optional.ofNullable((UserEntry) findByUsername(user.getUsername()))
+                                        .map(u -> {
+                                            getDelegate().detachAll(u);
+                                            return u;
+                                        })
+                                        .filter(u -> u.getSourceId().equals(sourceId))
+                                        .orElse(null);
+        if (storedEntry != null && !isChanged(storedEntry, user))
+        {
+            return storedEntry;
+        }
+
+        UserEntry userEntry = Optional.ofNullable(storedEntry).orElseGet(() -> new UserEntry());
 
         if (!StringUtils.isBlank(user.getPassword()))
         {
@@ -203,7 +221,23 @@ public class OrientDbUserService extends CommonCrudService<UserEntry> implements
         userEntry.setLastUpdate(new Date());
         userEntry.setSourceId(sourceId);
 
-        return super.save(userEntry);
+        User result = super.save(userEntry);
+        Optional.ofNullable(cacheManager.getCache(CacheName.User.AUTHENTICATIONS))
+                .ifPresent(c -> c.evict(user.getUsername()));
+
+        return result;
+    }
+
+    private boolean isChanged(UserEntry userEntry,
+                              User user)
+    {
+        Set<String> roles = Optional.ofNullable(user.getRoles()).orElse(Collections.emptySet());
+        Set<String> storedRoles = Optional.ofNullable(userEntry.getRoles()).orElse(Collections.emptySet());
+
+        return !StringUtils.isBlank(user.getPassword()) && !user.getPassword().equals(userEntry.getPassword()) ||
+               user.isEnabled() != userEntry.isEnabled() ||
+               !new HashSet<>(roles).equals(new HashSet<>(storedRoles)) ||
+               !Objects.equals(user.getSecurityTokenKey(), userEntry.getSecurityTokenKey());
     }
     
     @Override
@@ -11,11 +11,11 @@ import org.springframework.security.core.userdetails.UserDetails;
  * pointing to external system ID where the external user come from.<br>
  * Another thing specific for external users is that they have configurable
  * cache invalidation time, so when it expires then the external user should be
- * invalidated and deleted. So the value of {@link User#getLastUpdate()} updated
+ * invalidated and deleted. The value of {@link User#getLastUpdate()} is updated
  * every time
  * {@link StrongboxExternalUsersCacheManager#cacheExternalUserDetails(String, UserDetails)}
- * method called, this extends the period during which the external user remains
- * valid.
+ * method changes the stored user, this extends the period during which the
+ * external user remains valid.
  * 
  * @author sbespalov
  */
@@ -36,7 +36,8 @@ public interface StrongboxExternalUsersCacheManager
     /**
      * Updates or creates external users which is chaced in strongbox users
      * storage.<br>
-     * This method call also updates the {@link User#getLastUpdate()} value.
+     * The user is written only if it differs from the stored one, in which
+     * case the {@link User#getLastUpdate()} value is updated as well.
      * 
      * @param externalSourceId
      *            the identifier of external users provider
@@ -229,6 +229,15 @@ public class SemanticVersion
         return this.special != null && this.special.isSnapshot();
     }
 
+    /**
+     * @return {@code true} for the pre-release versions (like `1.0.0-beta`), the build metadata (`1.0.0+build`) and
+     * the fourth version element (`1.0.0.1`) don't make a pre-release
+     */
+    public boolean isPreRelease()
+    {
+        return this.special != null && "-".equals(this.separator);
+    }
+
     /**
      * @param version version to check with
      * @return {@code true}, if supplied version is compatible with this version, {@code false} - otherwise
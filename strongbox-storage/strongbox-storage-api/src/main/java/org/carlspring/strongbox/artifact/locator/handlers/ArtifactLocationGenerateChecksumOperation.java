@@ -2,12 +2,14 @@ package org.carlspring.strongbox.artifact.locator.handlers;
 
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
-import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
+import org.carlspring.strongbox.storage.checksum.ChecksumRegenerator;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -24,7 +26,9 @@ public class ArtifactLocationGenerateChecksumOperation
 
     private Path previousPath;
 
-    private boolean forceRegeneration = false;
+    private Set<Path> submittedPaths = new HashSet<>();
+
+    private ChecksumRegenerator checksumRegenerator;
 
     public void execute(RepositoryPath path)
             throws IOException
@@ -82,19 +86,26 @@ public class ArtifactLocationGenerateChecksumOperation
             previousPath = parentPath;
         }
 
-        RepositoryPath basePath = parentPath;
-        LayoutFileSystemProvider provider = (LayoutFileSystemProvider) basePath.getFileSystem()
-                                                                                                   .provider();
-        provider.storeChecksum(basePath, forceRegeneration);
+        // The whole subtree was already submitted with one of the parent directories
+        for (Path p = parentPath; p != null; p = p.getParent())
+        {
+            if (submittedPaths.contains(p))
+            {
+                return;
+            }
+        }
+        submittedPaths.add(parentPath);
+
+        checksumRegenerator.submitTree(parentPath);
     }
 
-    public boolean getForceRegeneration()
+    public ChecksumRegenerator getChecksumRegenerator()
     {
-        return forceRegeneration;
+        return checksumRegenerator;
     }
 
-    public void setForceRegeneration(boolean forceRegeneration)
+    public void setChecksumRegenerator(ChecksumRegenerator checksumRegenerator)
     {
-        this.forceRegeneration = forceRegeneration;
+        this.checksumRegenerator = checksumRegenerator;
     }
 }
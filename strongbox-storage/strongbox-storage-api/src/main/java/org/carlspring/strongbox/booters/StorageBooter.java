@@ -2,6 +2,8 @@ package org.carlspring.strongbox.booters;
 
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.io.FileCommitterRegistry;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
 import org.carlspring.strongbox.repository.RepositoryManagementStrategyException;
@@ -49,6 +51,12 @@ public class StorageBooter
     @Inject
     private PropertiesBooter propertiesBooter;
 
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private FileCommitterRegistry fileCommitterRegistry;
+
     private Path lockFile;
 
 
@@ -154,6 +162,12 @@ public class StorageBooter
 
         repositoryManagementService.createRepository(repository.getStorage().getId(), repository.getId());
 
+        if (!repository.isGroupRepository())
+        {
+            // The uploads which were interrupted by the crash should be completed, or removed.
+            fileCommitterRegistry.recover(repositoryPathResolver.resolve(repository).getFileSystem());
+        }
+
         if (RepositoryStatusEnum.IN_SERVICE.getStatus().equals(repository.getStatus()))
         {
             repositoryManagementService.putInService(repository.getStorage().getId(), repository.getId());
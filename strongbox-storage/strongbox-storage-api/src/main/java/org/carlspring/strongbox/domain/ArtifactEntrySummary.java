@@ -0,0 +1,178 @@
+package org.carlspring.strongbox.domain;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Flat, read only view of an {@link ArtifactEntry}, without it's coordinates, tags and archive listing.
+ *
+ * @see org.carlspring.strongbox.data.criteria.ProjectionQueryTemplate
+ */
+public class ArtifactEntrySummary
+{
+
+    public static final String[] PROPERTIES = { "uuid",
+                                                "storageId",
+                                                "repositoryId",
+                                                "checksums",
+                                                "sizeInBytes",
+                                                "lastUpdated",
+                                                "lastUsed",
+                                                "created",
+                                                "downloadCount",
+                                                "isCached" };
+
+    private String uuid;
+
+    private String storageId;
+
+    private String repositoryId;
+
+    private Map<String, String> checksums = new HashMap<>();
+
+    private Long sizeInBytes;
+
+    private Date lastUpdated;
+
+    private Date lastUsed;
+
+    private Date created;
+
+    private Integer downloadCount;
+
+    private Boolean isCached;
+
+    public static ArtifactEntrySummary of(ArtifactEntry artifactEntry)
+    {
+        ArtifactEntrySummary result = new ArtifactEntrySummary();
+        result.setUuid(artifactEntry.getUuid());
+        result.setStorageId(artifactEntry.getStorageId());
+        result.setRepositoryId(artifactEntry.getRepositoryId());
+        result.setChecksums(artifactEntry.getChecksums());
+        result.setSizeInBytes(artifactEntry.getSizeInBytes());
+        result.setLastUpdated(artifactEntry.getLastUpdated());
+        result.setLastUsed(artifactEntry.getLastUsed());
+        result.setCreated(artifactEntry.getCreated());
+        result.setDownloadCount(artifactEntry.getDownloadCount());
+        if (artifactEntry instanceof RemoteArtifactEntry)
+        {
+            result.setIsCached(((RemoteArtifactEntry) artifactEntry).getIsCached());
+        }
+
+        return result;
+    }
+
+    public String getUuid()
+    {
+        return uuid;
+    }
+
+    public void setUuid(String uuid)
+    {
+        this.uuid = uuid;
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public void setStorageId(String storageId)
+    {
+        this.storageId = storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public void setRepositoryId(String repositoryId)
+    {
+        this.repositoryId = repositoryId;
+    }
+
+    public Map<String, String> getChecksums()
+    {
+        return checksums;
+    }
+
+    public void setChecksums(Map<String, String> checksums)
+    {
+        this.checksums = new HashMap<>(Optional.ofNullable(checksums).orElse(new HashMap<>()));
+    }
+
+    public Long getSizeInBytes()
+    {
+        return sizeInBytes;
+    }
+
+    public void setSizeInBytes(Long sizeInBytes)
+    {
+        this.sizeInBytes = sizeInBytes;
+    }
+
+    public Date getLastUpdated()
+    {
+        return lastUpdated != null ? new Date(lastUpdated.getTime()) : null;
+    }
+
+    public void setLastUpdated(Date lastUpdated)
+    {
+        this.lastUpdated = lastUpdated != null ? new Date(lastUpdated.getTime()) : null;
+    }
+
+    public Date getLastUsed()
+    {
+        return lastUsed != null ? new Date(lastUsed.getTime()) : null;
+    }
+
+    public void setLastUsed(Date lastUsed)
+    {
+        this.lastUsed = lastUsed != null ? new Date(lastUsed.getTime()) : null;
+    }
+
+    public Date getCreated()
+    {
+        return created;
+    }
+
+    public void setCreated(Date created)
+    {
+        this.created = created;
+    }
+
+    public Integer getDownloadCount()
+    {
+        return downloadCount;
+    }
+
+    public void setDownloadCount(Integer downloadCount)
+    {
+        this.downloadCount = downloadCount;
+    }
+
+    /**
+     * @return `null` if the artifact is not a {@link RemoteArtifactEntry}
+     */
+    public Boolean getIsCached()
+    {
+        return isCached;
+    }
+
+    public void setIsCached(Boolean isCached)
+    {
+        this.isCached = isCached;
+    }
+
+    /**
+     * @see org.carlspring.strongbox.providers.io.RepositoryFiles#artifactDoesNotExist
+     */
+    public boolean isAvailable()
+    {
+        return !Boolean.FALSE.equals(isCached);
+    }
+
+}
@@ -0,0 +1,616 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.storage.StorageSyncPolicyEnum;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves the files, which were stored into the temporary directory of the repository (see {@link TempRepositoryPath}),
+ * into their place.
+ * <p>
+ * The target file is replaced with a single atomic rename, without deleting it first, so that either the previous or
+ * the new version of the file can be seen, even after crash. What is forced to the disk along the way is defined by
+ * the {@link StorageSyncPolicyEnum} of the storage.
+ * <p>
+ * Every commit is recorded in the journal, kept within the temporary directory, after the temporary file was forced
+ * and before it's renamed. The journal is replayed on startup (see {@link #recover()}): the temporary files of the
+ * recorded commits are complete, so they are moved into their place, while all the other temporary files are the
+ * remains of the interrupted uploads, and are removed.
+ */
+public class FileCommitter
+        implements Closeable
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(FileCommitter.class);
+
+    static final String JOURNAL = ".journal";
+
+    private static final long JOURNAL_COMPACTION_SIZE = 1024 * 1024;
+
+    private final Path tempDirectory;
+
+    private final StorageSyncPolicyEnum syncPolicy;
+
+    private final long groupCommitIntervalMillis;
+
+    private final ScheduledExecutorService executor;
+
+    private final Journal journal;
+
+    private final BlockingQueue<Commit> groupCommitQueue = new LinkedBlockingQueue<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private CommitStepListener commitStepListener = step -> {
+    };
+
+    /**
+     * @param executor
+     *            used to flush the {@link StorageSyncPolicyEnum#GROUP_COMMIT} batches
+     */
+    public FileCommitter(Path tempDirectory,
+                         StorageSyncPolicyEnum syncPolicy,
+                         long groupCommitIntervalMillis,
+                         ScheduledExecutorService executor)
+    {
+        this.tempDirectory = tempDirectory;
+        this.syncPolicy = syncPolicy;
+        this.groupCommitIntervalMillis = groupCommitIntervalMillis;
+        this.executor = executor;
+        this.journal = new Journal(tempDirectory.resolve(JOURNAL), tempDirectory.getParent());
+    }
+
+    public StorageSyncPolicyEnum getSyncPolicy()
+    {
+        return syncPolicy;
+    }
+
+    public long getGroupCommitIntervalMillis()
+    {
+        return groupCommitIntervalMillis;
+    }
+
+    void setCommitStepListener(CommitStepListener commitStepListener)
+    {
+        this.commitStepListener = commitStepListener;
+    }
+
+    /**
+     * Moves the complete temporary file into the target location, replacing the existing one.
+     */
+    public void commit(Path temp,
+                       Path target)
+        throws IOException
+    {
+        Commit commit = new Commit(temp, target);
+
+        if (syncPolicy != StorageSyncPolicyEnum.GROUP_COMMIT)
+        {
+            commit(Collections.singletonList(commit));
+        }
+        else
+        {
+            groupCommitQueue.add(commit);
+            scheduleFlush();
+        }
+
+        await(commit);
+    }
+
+    private void scheduleFlush()
+    {
+        if (!flushScheduled.compareAndSet(false, true))
+        {
+            return;
+        }
+
+        try
+        {
+            executor.schedule(this::flush, groupCommitIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (RejectedExecutionException e)
+        {
+            flush();
+        }
+    }
+
+    void flush()
+    {
+        flushScheduled.set(false);
+
+        List<Commit> commits = new ArrayList<>();
+        groupCommitQueue.drainTo(commits);
+        if (commits.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            commit(commits);
+        }
+        catch (RuntimeException e)
+        {
+            // Nobody else would release the waiting uploads.
+            commits.forEach(c -> c.result.completeExceptionally(e));
+
+            throw e;
+        }
+    }
+
+    private void commit(List<Commit> commits)
+    {
+        List<Commit> journaled = new ArrayList<>();
+        try
+        {
+            for (Commit commit : commits)
+            {
+                try
+                {
+                    if (syncPolicy.syncsFile())
+                    {
+                        sync(commit.temp, false);
+                    }
+                    Files.createDirectories(commit.target.getParent());
+
+                    journaled.add(commit);
+                }
+                catch (IOException e)
+                {
+                    commit.result.completeExceptionally(e);
+                }
+            }
+            commitStepListener.onStep(CommitStep.TEMP_SYNCED);
+
+            journal.begin(journaled, syncPolicy.syncsFile());
+            commitStepListener.onStep(CommitStep.JOURNALED);
+
+            Set<Path> directories = new LinkedHashSet<>();
+            for (Commit commit : journaled)
+            {
+                try
+                {
+                    Files.move(commit.temp,
+                               commit.target,
+                               StandardCopyOption.ATOMIC_MOVE,
+                               StandardCopyOption.REPLACE_EXISTING);
+
+                    directories.add(commit.target.getParent());
+                }
+                catch (IOException e)
+                {
+                    commit.result.completeExceptionally(e);
+                }
+            }
+            commitStepListener.onStep(CommitStep.MOVED);
+
+            if (syncPolicy.syncsDirectory())
+            {
+                for (Path directory : directories)
+                {
+                    sync(directory, true);
+                }
+            }
+            commitStepListener.onStep(CommitStep.DIRECTORY_SYNCED);
+
+            journal.complete(journaled);
+            commits.forEach(c -> c.result.complete(null));
+        }
+        catch (IOException e)
+        {
+            commits.forEach(c -> c.result.completeExceptionally(e));
+
+            try
+            {
+                journal.complete(journaled);
+            }
+            catch (IOException journalException)
+            {
+                logger.warn(String.format("Failed to complete journal [%s].", journal.path), journalException);
+            }
+        }
+    }
+
+    private void await(Commit commit)
+        throws IOException
+    {
+        try
+        {
+            commit.result.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException(String.format("Interrupted while commiting [%s].", commit.target));
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException(String.format("Failed to commit [%s].", commit.target), e.getCause());
+        }
+    }
+
+    /**
+     * Replays the journal: the files of the incomplete commits are moved into their place, and the remains of the
+     * interrupted uploads are removed from the temporary directory.
+     * <p>
+     * Should be invoked on startup, before the repository is available for uploads.
+     *
+     * @return the number of commits which were completed
+     */
+    public synchronized int recover()
+        throws IOException
+    {
+        if (!Files.isDirectory(tempDirectory))
+        {
+            return 0;
+        }
+
+        Map<Path, Path> pending = journal.readPending();
+
+        int result = 0;
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Map.Entry<Path, Path> commit : pending.entrySet())
+        {
+            Path temp = commit.getKey();
+            Path target = commit.getValue();
+            if (!Files.exists(temp))
+            {
+                // The rename has been done already.
+                continue;
+            }
+
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            directories.add(target.getParent());
+            result++;
+        }
+
+        if (syncPolicy.syncsDirectory())
+        {
+            for (Path directory : directories)
+            {
+                sync(directory, true);
+            }
+        }
+
+        List<Path> orphans;
+        try (Stream<Path> stream = Files.walk(tempDirectory))
+        {
+            orphans = stream.filter(Files::isRegularFile)
+                            .filter(p -> !p.startsWith(journal.path))
+                            .collect(Collectors.toList());
+        }
+        for (Path orphan : orphans)
+        {
+            Files.deleteIfExists(orphan);
+        }
+
+        journal.reset();
+
+        if (result > 0 || !orphans.isEmpty())
+        {
+            logger.info(String.format("Recovered [%s]: completed [%s] commit(s), removed [%s] incomplete file(s).",
+                                      tempDirectory.getParent(), result, orphans.size()));
+        }
+
+        return result;
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        flush();
+        journal.close();
+    }
+
+    /**
+     * Forces the content of the given file, or the entries of the given directory, to the disk.
+     */
+    static void sync(Path path,
+                     boolean directory)
+        throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path,
+                                                    directory ? StandardOpenOption.READ : StandardOpenOption.WRITE))
+        {
+            channel.force(true);
+        }
+        catch (UnsupportedOperationException e)
+        {
+            logger.debug(String.format("Sync is not supported for [%s].", path));
+        }
+        catch (IOException e)
+        {
+            if (!directory)
+            {
+                throw e;
+            }
+
+            // Some platforms (like Windows) don't allow to open the directories.
+            logger.debug(String.format("Failed to sync directory [%s].", path), e);
+        }
+    }
+
+    /**
+     * The steps of the commit, which are reported to the {@link CommitStepListener}.
+     */
+    enum CommitStep
+    {
+        TEMP_SYNCED,
+
+        JOURNALED,
+
+        MOVED,
+
+        DIRECTORY_SYNCED
+    }
+
+    @FunctionalInterface
+    interface CommitStepListener
+    {
+
+        void onStep(CommitStep step);
+
+    }
+
+    private static class Commit
+    {
+
+        private final Path temp;
+
+        private final Path target;
+
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private Commit(Path temp,
+                       Path target)
+        {
+            this.temp = temp;
+            this.target = target;
+        }
+
+    }
+
+    /**
+     * Append only log of the commits: the `B` (begin) record is written before the rename and the `C` (complete)
+     * record after it. Every record has it's checksum, so that the record which was torn by the crash is ignored.
+     * <p>
+     * The journal is truncated as soon as there are no pending commits left, and compacted when it grows too large.
+     */
+    private static class Journal
+            implements Closeable
+    {
+
+        private static final String BEGIN = "B";
+
+        private static final String COMPLETE = "C";
+
+        private final Path path;
+
+        private final Path baseDirectory;
+
+        private final Map<Path, Path> pending = new LinkedHashMap<>();
+
+        private FileChannel channel;
+
+        private Journal(Path path,
+                        Path baseDirectory)
+        {
+            this.path = path;
+            this.baseDirectory = baseDirectory;
+        }
+
+        private synchronized void begin(List<Commit> commits,
+                                        boolean force)
+            throws IOException
+        {
+            if (commits.isEmpty())
+            {
+                return;
+            }
+
+            StringBuilder records = new StringBuilder();
+            for (Commit commit : commits)
+            {
+                records.append(record(BEGIN, commit.temp, commit.target));
+                pending.put(commit.temp, commit.target);
+            }
+
+            write(records.toString(), force);
+        }
+
+        private synchronized void complete(List<Commit> commits)
+            throws IOException
+        {
+            if (commits.isEmpty())
+            {
+                return;
+            }
+
+            StringBuilder records = new StringBuilder();
+            for (Commit commit : commits)
+            {
+                records.append(record(COMPLETE, commit.temp, commit.target));
+                pending.remove(commit.temp);
+            }
+
+            if (pending.isEmpty())
+            {
+                // Also closed, so that the temporary directory can be removed along with the repository.
+                getChannel().truncate(0);
+                close();
+
+                return;
+            }
+
+            write(records.toString(), false);
+
+            if (channel.size() > JOURNAL_COMPACTION_SIZE)
+            {
+                compact();
+            }
+        }
+
+        private void compact()
+            throws IOException
+        {
+            StringBuilder records = new StringBuilder();
+            pending.forEach((temp, target) -> records.append(record(BEGIN, temp, target)));
+
+            Path compacted = path.resolveSibling(JOURNAL + ".compact");
+            Files.write(compacted, records.toString().getBytes(StandardCharsets.UTF_8));
+            sync(compacted, false);
+
+            close();
+            Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        private synchronized Map<Path, Path> readPending()
+            throws IOException
+        {
+            Map<Path, Path> result = new LinkedHashMap<>();
+            if (!Files.exists(path))
+            {
+                return result;
+            }
+
+            // The torn record may end within the multibyte character, so it's decoded leniently.
+            for (String line : new String(Files.readAllBytes(path), StandardCharsets.UTF_8).split("\n"))
+            {
+                if (line.isEmpty())
+                {
+                    continue;
+                }
+
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 4 || !checksum(fields[0], fields[1], fields[2]).equals(fields[3]))
+                {
+                    logger.warn(String.format("Skipping torn record [%s] of journal [%s].", line, path));
+                    continue;
+                }
+
+                Path temp = baseDirectory.resolve(fields[1]);
+                if (BEGIN.equals(fields[0]))
+                {
+                    result.put(temp, baseDirectory.resolve(fields[2]));
+                }
+                else
+                {
+                    result.remove(temp);
+                }
+            }
+
+            return result;
+        }
+
+        private synchronized void reset()
+            throws IOException
+        {
+            close();
+            pending.clear();
+            Files.deleteIfExists(path);
+        }
+
+        private void write(String records,
+                           boolean force)
+            throws IOException
+        {
+            FileChannel fileChannel = getChannel();
+
+            ByteBuffer buffer = ByteBuffer.wrap(records.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining())
+            {
+                fileChannel.write(buffer);
+            }
+
+            if (force)
+            {
+                fileChannel.force(false);
+            }
+        }
+
+        private FileChannel getChannel()
+            throws IOException
+        {
+            if (channel == null || !channel.isOpen())
+            {
+                channel = FileChannel.open(path,
+                                           StandardOpenOption.CREATE,
+                                           StandardOpenOption.WRITE,
+                                           StandardOpenOption.APPEND);
+            }
+
+            return channel;
+        }
+
+        private String record(String type,
+                              Path temp,
+                              Path target)
+        {
+            String sTemp = baseDirectory.relativize(temp).toString();
+            String sTarget = baseDirectory.relativize(target).toString();
+
+            return String.format("%s\t%s\t%s\t%s\n", type, sTemp, sTarget, checksum(type, sTemp, sTarget));
+        }
+
+        private static String checksum(String type,
+                                       String temp,
+                                       String target)
+        {
+            CRC32 crc = new CRC32();
+            crc.update(String.join("\t", type, temp, target).getBytes(StandardCharsets.UTF_8));
+
+            return Long.toHexString(crc.getValue());
+        }
+
+        @Override
+        public synchronized void close()
+            throws IOException
+        {
+            if (channel != null)
+            {
+                channel.close();
+                channel = null;
+            }
+        }
+
+    }
+
+}
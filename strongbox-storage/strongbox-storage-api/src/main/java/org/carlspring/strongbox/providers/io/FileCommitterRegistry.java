@@ -0,0 +1,110 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.StorageSyncPolicyEnum;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the {@link FileCommitter} of every repository, configured with the sync policy of it's storage (see
+ * {@link Storage#getSyncPolicy()}).
+ */
+@Component
+public class FileCommitterRegistry
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(FileCommitterRegistry.class);
+
+    @Value("${strongbox.storage.groupCommit.threads:2}")
+    private int groupCommitThreads;
+
+    private ScheduledThreadPoolExecutor executor;
+
+    private final Map<Path, FileCommitter> committers = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        executor = new ScheduledThreadPoolExecutor(groupCommitThreads, r -> {
+            Thread thread = new Thread(r, "storage-group-commit");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy()
+    {
+        committers.values().forEach(this::close);
+        committers.clear();
+
+        executor.shutdown();
+    }
+
+    public FileCommitter getCommitter(LayoutFileSystem fileSystem)
+    {
+        Storage storage = fileSystem.getRepository().getStorage();
+        // Without the configured policy nothing is forced, as before the policy was introduced.
+        StorageSyncPolicyEnum syncPolicy = Optional.ofNullable(StorageSyncPolicyEnum.ofPolicy(storage.getSyncPolicy()))
+                                                   .orElse(StorageSyncPolicyEnum.NONE);
+        long groupCommitIntervalMillis = storage.getGroupCommitIntervalMillis();
+
+        Path tempDirectory = fileSystem.getTempPath().getTarget();
+
+        FileCommitter committer = committers.get(tempDirectory);
+        if (committer != null && committer.getSyncPolicy() == syncPolicy
+                && committer.getGroupCommitIntervalMillis() == groupCommitIntervalMillis)
+        {
+            return committer;
+        }
+
+        // The storage configuration has been changed, or it's the first commit into the repository.
+        return committers.compute(tempDirectory, (path, existing) -> {
+            if (existing != null && existing.getSyncPolicy() == syncPolicy
+                    && existing.getGroupCommitIntervalMillis() == groupCommitIntervalMillis)
+            {
+                return existing;
+            }
+
+            Optional.ofNullable(existing).ifPresent(this::close);
+
+            return new FileCommitter(path, syncPolicy, groupCommitIntervalMillis, executor);
+        });
+    }
+
+    /**
+     * @see FileCommitter#recover()
+     */
+    public int recover(LayoutFileSystem fileSystem)
+        throws IOException
+    {
+        return getCommitter(fileSystem).recover();
+    }
+
+    private void close(FileCommitter committer)
+    {
+        try
+        {
+            committer.close();
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to close file committer.", e);
+        }
+    }
+
+}
@@ -16,6 +16,8 @@ public enum RepositoryFileAttributeType
     TEMP("temp"),
 
     EXPIRED("expired"),
+
+    EXPIRATION_TIME("expirationTime"),
     
     ARTIFACT("artifact"),
     
@@ -1,8 +1,7 @@
 package org.carlspring.strongbox.providers.io;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
-import org.carlspring.strongbox.domain.ArtifactEntry;
-import org.carlspring.strongbox.domain.RemoteArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntrySummary;
 
 import java.io.IOException;
 import java.net.URI;
@@ -72,6 +71,15 @@ public abstract class RepositoryFiles
         return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.EXPIRED));
     }
 
+    /**
+     * @return the time the path expires at, or `null` if the layout doesn't define it
+     */
+    public static Instant getExpirationTime(RepositoryPath path)
+            throws IOException
+    {
+        return (Instant) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.EXPIRATION_TIME));
+    }
+
     public static ArtifactCoordinates readCoordinates(RepositoryPath path)
         throws IOException
     {
@@ -187,8 +195,8 @@ public abstract class RepositoryFiles
     {
         if (RepositoryFiles.isArtifact(repositoryPath))
         {
-            ArtifactEntry e = repositoryPath.getArtifactEntry();
-            return e == null || e instanceof RemoteArtifactEntry && !((RemoteArtifactEntry) e).getIsCached();
+            ArtifactEntrySummary e = repositoryPath.getArtifactEntrySummary();
+            return e == null || !e.isAvailable();
         }
         else
         {
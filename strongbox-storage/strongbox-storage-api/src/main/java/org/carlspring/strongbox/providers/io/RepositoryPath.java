@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.providers.io;
 
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntrySummary;
 import org.carlspring.strongbox.io.ProxyPathInvocationHandler;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -65,6 +66,17 @@ public class RepositoryPath
         return artifactEntry;
     }
 
+    /**
+     * Lightweight alternative of {@link #getArtifactEntry()}, for the cases where the {@link ArtifactEntry} is only
+     * read.
+     */
+    public ArtifactEntrySummary getArtifactEntrySummary() throws IOException
+    {
+        ArtifactEntry artifactEntry = getArtifactEntry();
+
+        return artifactEntry == null ? null : ArtifactEntrySummary.of(artifactEntry);
+    }
+
     public LayoutFileSystem getFileSystem()
     {
         return fileSystem;
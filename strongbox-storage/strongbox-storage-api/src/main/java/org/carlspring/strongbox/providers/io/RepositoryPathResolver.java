@@ -3,6 +3,7 @@ package org.carlspring.strongbox.providers.io;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntrySummary;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -109,6 +110,20 @@ public class RepositoryPathResolver
 
         }
 
+        @Override
+        public ArtifactEntrySummary getArtifactEntrySummary()
+            throws IOException
+        {
+            if (this.getRepository().isGroupRepository() || !RepositoryFiles.isArtifact(this))
+            {
+                return null;
+            }
+
+            return artifactEntryService.findArtifactSummary(getRepository().getStorage().getId(),
+                                                            getRepository().getId(),
+                                                            RepositoryFiles.relativizePath(this));
+        }
+
         @Override
         public RepositoryPath normalize()
         {
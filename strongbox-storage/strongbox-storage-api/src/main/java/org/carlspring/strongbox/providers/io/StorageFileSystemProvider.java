@@ -365,21 +365,16 @@ public abstract class StorageFileSystemProvider
             throw new IOException(String.format("[%s] target for [%s] don't exists!", TempRepositoryPath.class.getSimpleName(), tempPath));
         }
 
-        if (!Files.exists(unwrap(path).getParent()))
-        {
-            Files.createDirectories(unwrap(path).getParent());
-        }
-        if (Files.exists(path.getTarget()))
-        {
-            Files.delete(path.getTarget());
-        }
-        Files.move(tempPath.getTarget(), path.getTarget(), StandardCopyOption.ATOMIC_MOVE);
-
-        //path.artifactEntry = tempPath.artifactEntry;
+        getFileCommitter(path).commit(tempPath.getTarget(), unwrap(path));
 
         return path;
     }
 
+    /**
+     * @return the {@link FileCommitter} of the repository which the given path belongs to
+     */
+    protected abstract FileCommitter getFileCommitter(RepositoryPath path);
+
     public void deleteTrash(RepositoryPath path)
         throws IOException
     {
@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.providers.io;
 
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntrySummary;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -56,4 +57,11 @@ public class TempRepositoryPath extends RepositoryPath
         return tempTarget.getArtifactEntry();
     }
 
+    @Override
+    public ArtifactEntrySummary getArtifactEntrySummary()
+        throws IOException
+    {
+        return tempTarget.getArtifactEntrySummary();
+    }
+
 }
@@ -26,7 +26,8 @@ import org.carlspring.strongbox.io.LayoutOutputStream;
 import org.carlspring.strongbox.io.LazyInputStream;
 import org.carlspring.strongbox.io.LazyOutputStream;
 import org.carlspring.strongbox.io.LazyOutputStream.OutputStreamSupplier;
-import org.carlspring.strongbox.io.StreamUtils;
+import org.carlspring.strongbox.providers.io.FileCommitter;
+import org.carlspring.strongbox.providers.io.FileCommitterRegistry;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -60,6 +61,9 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     @Inject
     private ArtifactEntryService artifactEntryService;
 
+    @Inject
+    private FileCommitterRegistry fileCommitterRegistry;
+
 
     public LayoutFileSystemProvider(FileSystemProvider storageFileSystemProvider)
     {
@@ -67,6 +71,12 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     }
 
     protected abstract AbstractLayoutProvider getLayoutProvider();
+
+    @Override
+    protected FileCommitter getFileCommitter(RepositoryPath path)
+    {
+        return fileCommitterRegistry.getCommitter(path.getFileSystem());
+    }
     
     @Override
     public LazyInputStream newInputStream(Path path,
@@ -174,71 +184,6 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         return result;
     }
     
-    public void storeChecksum(RepositoryPath basePath,
-                              boolean forceRegeneration)
-            throws IOException
-    {
-        Files.walk(basePath)
-             .filter(p -> !Files.isDirectory(p))
-             .filter(p -> {
-                 try
-                 {
-                     return !Boolean.TRUE.equals(RepositoryFiles.isChecksum((RepositoryPath) p));
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error(String.format("Failed to read attributes for [%s]", p), e);
-                 }
-                 return false;
-             })
-             .forEach(p -> {
-                 try
-                 {
-                     writeChecksum((RepositoryPath) p, forceRegeneration);
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error(String.format("Failed to write checksum for [%s]", p), e);
-                 }
-             });
-    }
-
-    
-    protected void writeChecksum(RepositoryPath path,
-                                 boolean force)
-            throws IOException
-    {
-        try (InputStream is = newInputStream(path))
-        {
-            byte[] buffer = new byte[1024];
-            while (is.read(buffer) > 0)
-            {
-                //calculate checksum while reading the stream
-            }
-            Set<String> digestAlgorithmSet = path.getFileSystem().getDigestAlgorithmSet();
-            digestAlgorithmSet.stream()
-                              .forEach(p ->
-                                       {
-                                           String checksum = StreamUtils.findSource(LayoutInputStream.class, is)
-                                                                        .getMessageDigestAsHexadecimalString(p);
-                                           RepositoryPath checksumPath = getChecksumPath(path, p);
-                                           if (Files.exists(checksumPath) && !force)
-                                           {
-                                               return;
-                                           }
-                                           try
-                                           {
-                                               Files.write(checksumPath, checksum.getBytes());
-                                           }
-                                           catch (IOException e)
-                                           {
-                                               logger.error(String.format("Failed to write checksum for [%s]",
-                                                                          checksumPath.toString()), e);
-                                           }
-                                       });
-        }
-    }
-
     @Override
     public void delete(Path path,
                        boolean force)
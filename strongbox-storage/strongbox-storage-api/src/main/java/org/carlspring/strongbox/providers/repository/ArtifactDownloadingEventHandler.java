@@ -1,12 +1,16 @@
 package org.carlspring.strongbox.providers.repository;
 
 import java.io.IOException;
-import java.util.Date;
+
+import javax.inject.Inject;
 
 import org.carlspring.strongbox.artifact.AsyncArtifactEntryHandler;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.repository.Repository;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -18,15 +22,22 @@ public class ArtifactDownloadingEventHandler extends AsyncArtifactEntryHandler
         super(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADING);
     }
 
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    /**
+     * The statistics are updated in place, so the whole {@link ArtifactEntry} isn't loaded and saved back for every
+     * download.
+     */
     @Override
     protected ArtifactEntry handleEvent(RepositoryPath repositoryPath) throws IOException
     {
-        ArtifactEntry artifactEntry = repositoryPath.getArtifactEntry();
-        
-        artifactEntry.setDownloadCount(artifactEntry.getDownloadCount() + 1);
-        artifactEntry.setLastUsed(new Date());
+        Repository repository = repositoryPath.getRepository();
+        artifactEntryService.registerDownload(repository.getStorage().getId(),
+                                              repository.getId(),
+                                              RepositoryFiles.relativizePath(repositoryPath));
 
-        return artifactEntry;
+        return null;
     }
 
 }
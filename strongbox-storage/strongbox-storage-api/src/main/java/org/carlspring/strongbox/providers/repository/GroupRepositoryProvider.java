@@ -6,6 +6,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -20,6 +23,7 @@ import javax.persistence.PersistenceContext;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.ConfigurationUtils;
+import org.carlspring.strongbox.data.criteria.DetachQueryTemplate;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
@@ -31,10 +35,12 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
+import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
 import org.carlspring.strongbox.util.ThrowingFunction;
 
 import org.slf4j.Logger;
@@ -216,6 +222,11 @@ public class GroupRepositoryProvider
             return new LinkedList<>();
         }
 
+        if (paginator.isKeyset())
+        {
+            return searchKeyset(groupRepositorySet, predicate, paginator);
+        }
+
         int skip = paginator.getSkip();
         int limit = paginator.getLimit();
 
@@ -280,6 +291,103 @@ public class GroupRepositoryProvider
         return resultList.subList(skip, toIndex);
     }
 
+    /**
+     * All the group members are searched with a single query, so that the page can be continued with the
+     * {@link Paginator#getPageToken()} in constant time. The duplicate coordinates are resolved the same way as the
+     * artifacts are fetched from the group: the artifact is only listed from the first member, which has it, whichever
+     * page it falls on. So the page can be shorter than the limit, while there are still more pages.
+     */
+    private List<Path> searchKeyset(Set<Repository> groupRepositorySet,
+                                    Predicate predicate,
+                                    Paginator paginator)
+    {
+        Predicate p = Predicate.empty();
+        for (Repository r : groupRepositorySet)
+        {
+            p.or(createPredicate(r.getStorage().getId(), r.getId(), predicate));
+
+            // The remote repositories can only be searched by offset, which is unknown for the keyset pages.
+            if (paginator.getPageToken() == null && RepositoryTypeEnum.PROXY.getType().equals(r.getType()))
+            {
+                eventPublisher.publishEvent(new RemoteRepositorySearchEvent(r.getStorage().getId(), r.getId(),
+                                                                            predicate, paginator));
+            }
+        }
+
+        Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class).with(paginator).fetch();
+        selector.where(p);
+
+        QueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new DetachQueryTemplate<>(entityManager);
+
+        List<ArtifactEntry> artifactEntries = queryTemplate.select(selector);
+        Set<ArtifactEntry> shadowed = findShadowed(groupRepositorySet, artifactEntries);
+
+        Map<ArtifactCoordinates, Path> resultMap = new LinkedHashMap<>();
+        for (ArtifactEntry artifactEntry : artifactEntries)
+        {
+            if (shadowed.contains(artifactEntry))
+            {
+                continue;
+            }
+
+            Repository repository = getConfiguration().getStorage(artifactEntry.getStorageId())
+                                                      .getRepository(artifactEntry.getRepositoryId());
+            try
+            {
+                resultMap.putIfAbsent(artifactEntry.getArtifactCoordinates(),
+                                      repositoryPathResolver.resolve(repository).resolve(artifactEntry));
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to resolve Artifact [%s]", artifactEntry.getArtifactCoordinates()),
+                             e);
+            }
+        }
+
+        return new LinkedList<>(resultMap.values());
+    }
+
+    /**
+     * @return the entries, which are also present within the preceding group members (checked with a single query
+     *         per each pair of the members)
+     */
+    private Set<ArtifactEntry> findShadowed(Set<Repository> groupRepositorySet,
+                                            List<ArtifactEntry> artifactEntries)
+    {
+        Set<ArtifactEntry> result = new HashSet<>();
+        List<Repository> precedingRepositories = new ArrayList<>();
+        for (Repository r : groupRepositorySet)
+        {
+            // artifact path -> entry
+            Map<String, ArtifactEntry> memberEntries = new HashMap<>();
+            for (ArtifactEntry artifactEntry : artifactEntries)
+            {
+                if (r.getStorage().getId().equals(artifactEntry.getStorageId()) &&
+                    r.getId().equals(artifactEntry.getRepositoryId()))
+                {
+                    memberEntries.put(artifactEntry.getArtifactPath(), artifactEntry);
+                }
+            }
+
+            for (Iterator<Repository> i = precedingRepositories.iterator(); i.hasNext() && !memberEntries.isEmpty(); )
+            {
+                Repository precedingRepository = i.next();
+                for (String path : artifactEntryService.findExistingArtifactPaths(precedingRepository.getStorage()
+                                                                                                     .getId(),
+                                                                                  precedingRepository.getId(),
+                                                                                  new ArrayList<>(
+                                                                                          memberEntries.keySet())))
+                {
+                    result.add(memberEntries.remove(path));
+                }
+            }
+
+            precedingRepositories.add(r);
+        }
+
+        return result;
+    }
+
     private ArtifactCoordinates getArtifactCoordinates(Path p) throws IOException
     {
         return RepositoryFiles.readCoordinates((RepositoryPath) p);
@@ -12,6 +12,7 @@ import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.repository.event.ProxyRepositoryPathExpiredEvent;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryRefreshAheadService;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -49,6 +50,9 @@ public class ProxyRepositoryProvider
     @Inject
     private RepositoryPathLock repositoryPathLock;
 
+    @Inject
+    private ProxyRepositoryRefreshAheadService proxyRepositoryRefreshAheadService;
+
     @Override
     public String getAlias()
     {
@@ -72,9 +76,14 @@ public class ProxyRepositoryProvider
         {
             targetPath = resolvePathExclusive(repositoryPath);
         }
-        else if (RepositoryFiles.hasExpired(targetPath))
+        else
         {
-            eventPublisher.publishEvent(new ProxyRepositoryPathExpiredEvent(targetPath));
+            proxyRepositoryRefreshAheadService.recordAccess(targetPath);
+
+            if (RepositoryFiles.hasExpired(targetPath) && !proxyRepositoryRefreshAheadService.refreshAhead(targetPath))
+            {
+                eventPublisher.publishEvent(new ProxyRepositoryPathExpiredEvent(targetPath));
+            }
         }
 
         return targetPath;
@@ -126,11 +135,15 @@ public class ProxyRepositoryProvider
                              Predicate predicate,
                              Paginator paginator)
     {
-        RemoteRepositorySearchEvent event = new RemoteRepositorySearchEvent(storageId,
-                                                                            repositoryId,
-                                                                            predicate,
-                                                                            paginator);
-        eventPublisher.publishEvent(event);
+        // The remote repositories can only be searched by offset, which is unknown for the keyset pages.
+        if (paginator.getPageToken() == null)
+        {
+            RemoteRepositorySearchEvent event = new RemoteRepositorySearchEvent(storageId,
+                                                                                repositoryId,
+                                                                                predicate,
+                                                                                paginator);
+            eventPublisher.publishEvent(event);
+        }
 
         return hostedRepositoryProvider.search(storageId, repositoryId, predicate, paginator);
     }
@@ -15,23 +15,49 @@ import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteReposi
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.Iterator;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
 
 /**
+ * Removes the proxied artifacts which were not accessed for a while.
+ * <p>
+ * The expired entries are fetched page by page, using keyset pagination on the
+ * `uuid`, so that neither the whole result set is loaded nor a long running
+ * transaction is kept open. The artifacts of a page are removed in a single
+ * transaction, through {@link ArtifactManagementService#delete(List, boolean)},
+ * so the repository deletion policy applies and the delete events are
+ * dispatched, while the next pages are fetched. At most `parallelism` pages are
+ * removed concurrently. The paths carry the fetched {@link ArtifactEntry},
+ * which is not looked up again.
+ * <p>
+ * The cleanup can be interrupted at any point (or stopped by the maximum run
+ * duration): the next run will just pick up the entries which are still expired.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
 public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
 {
 
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    public static final int DEFAULT_PARALLELISM = 4;
+
     private final Logger logger = LoggerFactory.getLogger(LocalStorageProxyRepositoryExpiredArtifactsCleaner.class);
 
     @Inject
@@ -44,79 +70,185 @@ public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
     private ArtifactEntryService artifactEntryService;
 
     @Inject
-    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+    private ArtifactManagementService artifactManagementService;
 
     @Inject
-    private ArtifactManagementService artifactManagementService;
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
 
-    @Transactional(rollbackFor = Exception.class)
     public void cleanup(final Integer lastAccessedTimeInDays,
                         final Long minSizeInBytes)
             throws IOException
     {
-        final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
-                                                                   .withLastAccessedTimeInDays(lastAccessedTimeInDays)
-                                                                   .withMinSizeInBytes(minSizeInBytes)
-                                                                   .build();
+        cleanup(lastAccessedTimeInDays, minSizeInBytes, DEFAULT_BATCH_SIZE, DEFAULT_PARALLELISM, null);
+    }
 
-        final List<ArtifactEntry> artifactEntries = artifactEntryService.findMatching(searchCriteria,
-                                                                                      PagingCriteria.ALL);
-        filterAccessibleProxiedArtifacts(artifactEntries);
+    /**
+     * @param batchSize      the number of entries fetched and deleted within one transaction
+     * @param parallelism    the maximum number of pages deleted concurrently
+     * @param maxRunDuration the time after which no more pages will be started, {@code null} means no limit
+     * @return the number of the removed artifacts
+     */
+    public int cleanup(final Integer lastAccessedTimeInDays,
+                       final Long minSizeInBytes,
+                       final int batchSize,
+                       final int parallelism,
+                       final Duration maxRunDuration)
+            throws IOException
+    {
+        final long deadline = maxRunDuration == null ? Long.MAX_VALUE :
+                              System.currentTimeMillis() + maxRunDuration.toMillis();
+        final PagingCriteria pagingCriteria = new PagingCriteria(0, Math.max(batchSize, 1));
+        final Map<String, Boolean> cleanableRepositories = new HashMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(parallelism, 1));
+        final Deque<Future<Integer>> pages = new ArrayDeque<>();
+
+        int removed = 0;
+        boolean completed = false;
+        try
+        {
+            String lastUuid = null;
+            while (System.currentTimeMillis() < deadline)
+            {
+                final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
+                                                                           .withLastAccessedTimeInDays(lastAccessedTimeInDays)
+                                                                           .withMinSizeInBytes(minSizeInBytes)
+                                                                           .withUuidGreaterThan(lastUuid)
+                                                                           .build();
+
+                final List<ArtifactEntry> artifactEntries = artifactEntryService.findMatching(searchCriteria,
+                                                                                              pagingCriteria);
+                if (CollectionUtils.isEmpty(artifactEntries))
+                {
+                    completed = true;
+                    break;
+                }
+                lastUuid = artifactEntries.get(artifactEntries.size() - 1).getUuid();
+
+                final List<ArtifactEntry> expiredEntries = filterAccessibleProxiedArtifacts(artifactEntries,
+                                                                                            cleanableRepositories);
+                if (expiredEntries.isEmpty())
+                {
+                    continue;
+                }
+
+                logger.debug("Cleaning artifacts {}", expiredEntries);
+                if (pages.size() >= Math.max(parallelism, 1))
+                {
+                    removed += getRemoved(pages.poll());
+                }
+                pages.add(deleteFromStorage(expiredEntries, executor));
+            }
 
-        if (CollectionUtils.isEmpty(artifactEntries))
+            while (!pages.isEmpty())
+            {
+                removed += getRemoved(pages.poll());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        if (!completed)
         {
-            return;
+            logger.info("Expired artifacts cleanup stopped after [{}], [{}] artifacts removed.", maxRunDuration,
+                        removed);
         }
 
-        logger.debug("Cleaning artifacts {}", artifactEntries);
-        deleteFromStorage(artifactEntries);
+        return removed;
     }
 
-    private void filterAccessibleProxiedArtifacts(final List<ArtifactEntry> artifactEntries)
+    private List<ArtifactEntry> filterAccessibleProxiedArtifacts(final List<ArtifactEntry> artifactEntries,
+                                                                 final Map<String, Boolean> cleanableRepositories)
     {
-        if (CollectionUtils.isEmpty(artifactEntries))
-        {
-            return;
-        }
-        for (final Iterator<ArtifactEntry> it = artifactEntries.iterator(); it.hasNext(); )
+        final List<ArtifactEntry> result = new ArrayList<>();
+        for (final ArtifactEntry artifactEntry : artifactEntries)
         {
-            final ArtifactEntry artifactEntry = it.next();
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            if (!repository.isProxyRepository())
+            final Repository repository = getRepository(artifactEntry);
+            final String key = artifactEntry.getStorageId() + ":" + artifactEntry.getRepositoryId();
+            if (cleanableRepositories.computeIfAbsent(key, k -> isCleanable(repository)))
             {
-                it.remove();
-                continue;
+                result.add(artifactEntry);
             }
-            final RemoteRepository remoteRepository = repository.getRemoteRepository();
-            if (remoteRepository == null)
+        }
+
+        return result;
+    }
+
+    private boolean isCleanable(final Repository repository)
+    {
+        if (repository == null || !repository.isProxyRepository())
+        {
+            return false;
+        }
+        final RemoteRepository remoteRepository = repository.getRemoteRepository();
+        if (remoteRepository == null)
+        {
+            logger.warn("Repository {} is not associated with remote repository", repository.getId());
+            return false;
+        }
+        if (!repository.allowsDeletion())
+        {
+            logger.debug("Repository {} doesn't allow deletion. Artifacts won't be cleaned up.", repository.getId());
+            return false;
+        }
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+        {
+            logger.warn("Remote repository {} is down. Artifacts won't be cleaned up.", remoteRepository.getUrl());
+            return false;
+        }
+
+        return true;
+    }
+
+    private Future<Integer> deleteFromStorage(final List<ArtifactEntry> artifactEntries,
+                                              final ExecutorService executor)
+    {
+        final List<RepositoryPath> repositoryPaths = new ArrayList<>(artifactEntries.size());
+        for (final ArtifactEntry artifactEntry : artifactEntries)
+        {
+            repositoryPaths.add(repositoryPathResolver.resolve(getRepository(artifactEntry)).resolve(artifactEntry));
+        }
+
+        return executor.submit(() -> {
+            try
             {
-                logger.warn("Repository {} is not associated with remote repository", repository.getId());
-                it.remove();
-                continue;
+                return artifactManagementService.delete(repositoryPaths, true);
             }
-            if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+            catch (IOException e)
             {
-                logger.warn("Remote repository {} is down. Artifacts won't be cleaned up.", remoteRepository.getUrl());
-                it.remove();
-                continue;
-            }
-        }
+                logger.error("Failed to delete expired artifacts {}", repositoryPaths, e);
 
+                return 0;
+            }
+        });
     }
 
-    private void deleteFromStorage(final List<ArtifactEntry> artifactEntries)
+    private int getRemoved(final Future<Integer> page)
             throws IOException
     {
-        for (final ArtifactEntry artifactEntry : artifactEntries)
+        try
+        {
+            return page.get();
+        }
+        catch (InterruptedException e)
         {
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactEntry);
+            Thread.currentThread().interrupt();
+            throw new IOException("Expired artifacts cleanup interrupted.", e);
+        }
+        catch (ExecutionException e)
+        {
+            logger.error("Failed to delete expired artifacts.", e.getCause());
 
-            artifactManagementService.delete(repositoryPath, true);
+            return 0;
         }
     }
 
+    private Repository getRepository(final ArtifactEntry artifactEntry)
+    {
+        final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
+
+        return storage == null ? null : storage.getRepository(artifactEntry.getRepositoryId());
+    }
+
 }
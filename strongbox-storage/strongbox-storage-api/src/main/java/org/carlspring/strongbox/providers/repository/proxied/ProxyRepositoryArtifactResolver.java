@@ -1,20 +1,26 @@
 package org.carlspring.strongbox.providers.repository.proxied;
 
+import org.carlspring.strongbox.client.CloseableRestResponse;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteResourceValidatorCache.RemoteResourceValidator;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
 
 import javax.inject.Inject;
+import javax.ws.rs.core.Response;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -45,6 +51,9 @@ public class ProxyRepositoryArtifactResolver
     @Inject
     private ArtifactManagementService artifactManagementService;
 
+    @Inject
+    private RemoteResourceValidatorCache remoteResourceValidatorCache;
+
     /**
      * This method has been developed to force fetch resource from remote.
      *
@@ -70,9 +79,13 @@ public class ProxyRepositoryArtifactResolver
         Lock lock = lockSource.writeLock();
         lock.lock();
 
-        try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+        ProxyRepositoryInputStream remoteIs = new ProxyRepositoryInputStream(client, repositoryPath);
+        try (InputStream is = new BufferedInputStream(remoteIs))
         {
-            return doFetch(repositoryPath, is);
+            RepositoryPath result = doFetch(repositoryPath, is);
+            rememberValidators(repositoryPath, remoteIs.getResponse());
+
+            return result;
         }
         finally
         {
@@ -80,6 +93,82 @@ public class ProxyRepositoryArtifactResolver
         }
     }
 
+    /**
+     * Revalidates the local copy of a proxied resource against the remote with a conditional request, if the
+     * remote validators ({@code ETag} / {@code Last-Modified}) of the resource are known. A {@code 304 Not Modified}
+     * response only extends the expiration of the local copy, otherwise the resource is fetched again.
+     */
+    public RepositoryPath revalidateRemoteResource(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        RemoteResourceValidator validator = remoteResourceValidatorCache.get(repositoryPath);
+        if (validator == null || !Files.exists(repositoryPath))
+        {
+            return fetchRemoteResource(repositoryPath);
+        }
+
+        Repository repository = repositoryPath.getFileSystem().getRepository();
+        final RemoteRepository remoteRepository = repository.getRemoteRepository();
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+        {
+            logger.debug("Remote repository '" + remoteRepository.getUrl() + "' is down.");
+
+            return null;
+        }
+
+        RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+
+        ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "remote-fetch");
+        Lock lock = lockSource.writeLock();
+        lock.lock();
+
+        try (CloseableRestResponse restResponse = client.getIfModified(RepositoryFiles.resolveResource(repositoryPath)
+                                                                                      .toString(),
+                                                                       validator.getETag(),
+                                                                       validator.getLastModified()))
+        {
+            Response response = restResponse == null ? null : restResponse.getResponse();
+            if (response != null && response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode())
+            {
+                logger.debug(String.format("Remote resource [%s] not modified, extending the local copy expiration.",
+                                           repositoryPath));
+                Files.setLastModifiedTime(repositoryPath, FileTime.from(Instant.now()));
+
+                return repositoryPath;
+            }
+
+            if (response != null && response.getStatus() == Response.Status.OK.getStatusCode())
+            {
+                try (InputStream is = new BufferedInputStream(response.readEntity(InputStream.class)))
+                {
+                    RepositoryPath result = doFetch(repositoryPath, is);
+                    rememberValidators(repositoryPath, response);
+
+                    return result;
+                }
+            }
+        }
+        finally
+        {
+            lock.unlock();
+            client.close();
+        }
+
+        return fetchRemoteResource(repositoryPath);
+    }
+
+    private void rememberValidators(RepositoryPath repositoryPath,
+                                    Response response)
+        throws IOException
+    {
+        if (response == null || !RepositoryFiles.isMetadata(repositoryPath))
+        {
+            return;
+        }
+
+        remoteResourceValidatorCache.put(repositoryPath, response);
+    }
+
     private RepositoryPath doFetch(RepositoryPath repositoryPath,
                                    InputStream is)
         throws IOException
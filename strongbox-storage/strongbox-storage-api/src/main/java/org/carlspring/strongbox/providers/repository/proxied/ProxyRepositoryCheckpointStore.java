@@ -0,0 +1,87 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Lightweight store for the replication cursors (change sequences, watermarks) of proxy repositories.
+ * <p>
+ * A cursor advances very often while a remote feed is replicated, so it is kept out of the repository
+ * configuration: every checkpoint is a small file under {@code ${strongbox.vault}/checkpoints}, which is
+ * replaced atomically and doesn't need the configuration lock.
+ */
+@Component
+public class ProxyRepositoryCheckpointStore
+{
+
+    private static final String CHECKPOINTS_DIRECTORY = "checkpoints";
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    private final Map<Path, String> checkpoints = new ConcurrentHashMap<>();
+
+    public String get(String storageId,
+                      String repositoryId,
+                      String name)
+            throws IOException
+    {
+        Path checkpointPath = resolve(storageId, repositoryId, name);
+
+        String value = checkpoints.get(checkpointPath);
+        if (value != null || !Files.exists(checkpointPath))
+        {
+            return value;
+        }
+
+        value = new String(Files.readAllBytes(checkpointPath), StandardCharsets.UTF_8).trim();
+        checkpoints.put(checkpointPath, value);
+
+        return value;
+    }
+
+    public void put(String storageId,
+                    String repositoryId,
+                    String name,
+                    String value)
+            throws IOException
+    {
+        Path checkpointPath = resolve(storageId, repositoryId, name);
+        Files.createDirectories(checkpointPath.getParent());
+
+        // Unique, so that concurrent writers of the same checkpoint don't write into each other's file.
+        Path tempPath = Files.createTempFile(checkpointPath.getParent(),
+                                             checkpointPath.getFileName().toString(),
+                                             ".tmp");
+        try
+        {
+            Files.write(tempPath, value.getBytes(StandardCharsets.UTF_8));
+            Files.move(tempPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(tempPath);
+        }
+
+        checkpoints.put(checkpointPath, value);
+    }
+
+    private Path resolve(String storageId,
+                         String repositoryId,
+                         String name)
+    {
+        return Paths.get(propertiesBooter.getVaultDirectory(), CHECKPOINTS_DIRECTORY, storageId, repositoryId, name);
+    }
+
+}
@@ -4,6 +4,8 @@ import java.io.Closeable;
 import java.io.FilterInputStream;
 import java.io.IOException;
 
+import javax.ws.rs.core.Response;
+
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
@@ -108,6 +110,20 @@ public class ProxyRepositoryInputStream extends FilterInputStream
 
     }
 
+    /**
+     * @return the response of the current remote connection, if any
+     */
+    public Response getResponse()
+        throws IOException
+    {
+        if (!(in instanceof RemoteArtifactStreamFetcher.RemoteArtifactInputStream))
+        {
+            return null;
+        }
+
+        return ((RemoteArtifactStreamFetcher.RemoteArtifactInputStream) in).getConnection().getResponse();
+    }
+
     @Override
     public synchronized void mark(int readlimit)
     {
@@ -0,0 +1,313 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.event.ProxyRepositoryPathExpiredEvent;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refresh-ahead support for proxied metadata.
+ * <p>
+ * An expired metadata file, which is still inside the stale-while-revalidate window of its proxy repository
+ * (see {@link RemoteRepository#getStaleWhileRevalidateSeconds()}, counted from the expiration time of the file), is
+ * served right away and a single background task refreshes it.
+ * <p>
+ * Additionally the most frequently requested metadata files are periodically checked and refreshed in the background
+ * before they expire, once the last {@code strongbox.proxy.refreshAhead.fraction} of their time to live has begun, so
+ * that clients neither wait for the remote nor get a stale copy.
+ */
+@Component
+public class ProxyRepositoryRefreshAheadService
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryRefreshAheadService.class);
+
+    @Inject
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${strongbox.proxy.refreshAhead.threads:4}")
+    private int threadsNumber;
+
+    @Value("${strongbox.proxy.refreshAhead.intervalSeconds:30}")
+    private int intervalSeconds;
+
+    @Value("${strongbox.proxy.refreshAhead.topPaths:100}")
+    private int topPaths;
+
+    @Value("${strongbox.proxy.refreshAhead.trackedPaths:10000}")
+    private int trackedPaths;
+
+    @Value("${strongbox.proxy.refreshAhead.fraction:0.2}")
+    private double refreshAheadFraction;
+
+    private ScheduledThreadPoolExecutor executor;
+
+    private Cache<String, PathAccess> accessStatistics;
+
+    private final Set<String> refreshesInProgress = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        accessStatistics = CacheBuilder.newBuilder().maximumSize(trackedPaths).build();
+
+        executor = new ScheduledThreadPoolExecutor(threadsNumber, r -> {
+            Thread thread = new Thread(r, "proxy-refresh-ahead");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+
+        if (intervalSeconds > 0)
+        {
+            executor.scheduleWithFixedDelay(this::refreshFrequentlyRequested,
+                                            intervalSeconds,
+                                            intervalSeconds,
+                                            TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Records a request to the given proxied metadata path.
+     */
+    public void recordAccess(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        if (getStaleWhileRevalidateSeconds(repositoryPath) <= 0 || !RepositoryFiles.isMetadata(repositoryPath))
+        {
+            return;
+        }
+
+        String key = RemoteResourceValidatorCache.toKey(repositoryPath);
+        PathAccess pathAccess = accessStatistics.asMap().computeIfAbsent(key, k -> new PathAccess(repositoryPath));
+        pathAccess.hits.incrementAndGet();
+    }
+
+    /**
+     * Schedules a background refresh of the given expired path, if it may still be served stale.
+     *
+     * @return {@code true} if the stale copy can be served, {@code false} if the caller has to refresh it inline
+     */
+    public boolean refreshAhead(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        int staleWhileRevalidateSeconds = getStaleWhileRevalidateSeconds(repositoryPath);
+        if (staleWhileRevalidateSeconds <= 0 || !RepositoryFiles.isMetadata(repositoryPath))
+        {
+            return false;
+        }
+
+        if (!isServableStale(getExpirationTime(repositoryPath), staleWhileRevalidateSeconds, Instant.now()))
+        {
+            return false;
+        }
+
+        return scheduleRefresh(repositoryPath);
+    }
+
+    /**
+     * @return {@code true} if the copy which expires at the given time is still inside the stale-while-revalidate
+     *         window at the given time
+     */
+    static boolean isServableStale(Instant expirationTime,
+                                   int staleWhileRevalidateSeconds,
+                                   Instant now)
+    {
+        Instant staleUntil = expirationTime.plus(staleWhileRevalidateSeconds, ChronoUnit.SECONDS);
+
+        return !now.isAfter(staleUntil);
+    }
+
+    /**
+     * @param lastUpdated the time the copy was fetched
+     * @param expirationTime the time the copy expires
+     * @param fraction the last part of the time to live, within which the copy is refreshed ahead
+     * @return {@code true} if the copy is to be refreshed at the given time
+     */
+    static boolean isDueForRefresh(Instant lastUpdated,
+                                   Instant expirationTime,
+                                   double fraction,
+                                   Instant now)
+    {
+        long timeToLiveMillis = Math.max(0, expirationTime.toEpochMilli() - lastUpdated.toEpochMilli());
+        Instant refreshTime = expirationTime.minusMillis((long) (timeToLiveMillis * fraction));
+
+        return !now.isBefore(refreshTime);
+    }
+
+    private boolean isDueForRefresh(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        Instant expirationTime = RepositoryFiles.getExpirationTime(repositoryPath);
+        if (expirationTime == null)
+        {
+            // The time to live is unknown, so the path is refreshed once expired.
+            return RepositoryFiles.hasExpired(repositoryPath);
+        }
+
+        return isDueForRefresh(Files.getLastModifiedTime(repositoryPath).toInstant(),
+                               expirationTime,
+                               refreshAheadFraction,
+                               Instant.now());
+    }
+
+    private Instant getExpirationTime(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        Instant expirationTime = RepositoryFiles.getExpirationTime(repositoryPath);
+        if (expirationTime != null)
+        {
+            return expirationTime;
+        }
+
+        // The layout doesn't tell when the path expires, so the window can't start later than the last update.
+        return Files.getLastModifiedTime(repositoryPath).toInstant();
+    }
+
+    private boolean scheduleRefresh(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        return scheduleRefresh(RemoteResourceValidatorCache.toKey(repositoryPath), repositoryPath.toString(),
+                               () -> eventPublisher.publishEvent(new ProxyRepositoryPathExpiredEvent(repositoryPath)));
+    }
+
+    /**
+     * Runs the refresh in the background, unless the same path is being refreshed already.
+     *
+     * @return {@code false} if the refresh couldn't be scheduled
+     */
+    boolean scheduleRefresh(String key,
+                            String description,
+                            Runnable refresh)
+    {
+        if (!refreshesInProgress.add(key))
+        {
+            // Someone is already refreshing this path.
+            return true;
+        }
+
+        try
+        {
+            executor.execute(() -> {
+                try
+                {
+                    logger.debug("Refreshing [{}] in the background.", description);
+
+                    refresh.run();
+                }
+                catch (Exception e)
+                {
+                    logger.error(String.format("Failed to refresh [%s] in the background.", description), e);
+                }
+                finally
+                {
+                    refreshesInProgress.remove(key);
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            refreshesInProgress.remove(key);
+
+            return false;
+        }
+
+        return true;
+    }
+
+    void refreshFrequentlyRequested()
+    {
+        List<PathAccess> mostRequested = accessStatistics.asMap()
+                                                         .values()
+                                                         .stream()
+                                                         .sorted(Comparator.comparingLong(
+                                                                 (PathAccess a) -> a.hits.get()).reversed())
+                                                         .limit(topPaths)
+                                                         .collect(Collectors.toList());
+
+        for (PathAccess pathAccess : mostRequested)
+        {
+            RepositoryPath repositoryPath = pathAccess.repositoryPath;
+            try
+            {
+                if (Files.exists(repositoryPath) && isDueForRefresh(repositoryPath))
+                {
+                    scheduleRefresh(repositoryPath);
+                }
+            }
+            catch (Exception e)
+            {
+                logger.warn("Failed to check expiration of [{}].", repositoryPath, e);
+            }
+        }
+
+        // Decay the statistics, so that paths which are no longer requested drop out of the top list.
+        accessStatistics.asMap().forEach((k, v) -> {
+            if (v.hits.updateAndGet(h -> h / 2) == 0)
+            {
+                accessStatistics.invalidate(k);
+            }
+        });
+    }
+
+    private int getStaleWhileRevalidateSeconds(RepositoryPath repositoryPath)
+    {
+        Repository repository = repositoryPath.getRepository();
+        RemoteRepository remoteRepository = repository.getRemoteRepository();
+        if (remoteRepository == null || remoteRepository.getStaleWhileRevalidateSeconds() == null)
+        {
+            return 0;
+        }
+
+        return remoteRepository.getStaleWhileRevalidateSeconds();
+    }
+
+    private static class PathAccess
+    {
+
+        private final RepositoryPath repositoryPath;
+
+        private final AtomicLong hits = new AtomicLong();
+
+        private PathAccess(RepositoryPath repositoryPath)
+        {
+            this.repositoryPath = repositoryPath;
+        }
+
+    }
+
+}
@@ -0,0 +1,261 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the upstream {@code ETag} / {@code Last-Modified} validators of the proxied resources, so that an expired
+ * local copy can be revalidated with a conditional request instead of being downloaded again.
+ * <p>
+ * The validators of the cached paths are stored along with the local copy, as its user-defined file attributes, so
+ * they survive restarts and cache evictions, and go away together with the local copy. Where the file system doesn't
+ * support the user-defined attributes, and for the resources which aren't stored as files (see
+ * {@link #get(String)}), they are kept only in memory.
+ */
+@Component
+public class RemoteResourceValidatorCache
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteResourceValidatorCache.class);
+
+    static final String ETAG_ATTRIBUTE = "strongbox.remote.etag";
+
+    static final String LAST_MODIFIED_ATTRIBUTE = "strongbox.remote.lastModified";
+
+    private final Cache<String, RemoteResourceValidator> validators;
+
+    public RemoteResourceValidatorCache(@Value("${strongbox.proxy.validators.maxSize:100000}") long maxSize,
+                                        @Value("${strongbox.proxy.validators.expireHours:24}") long expireHours)
+    {
+        this.validators = CacheBuilder.newBuilder()
+                                      .maximumSize(maxSize)
+                                      .expireAfterWrite(expireHours, TimeUnit.HOURS)
+                                      .build();
+    }
+
+    /**
+     * @return the validators of the resource which isn't stored as a file (kept in memory only)
+     */
+    public RemoteResourceValidator get(String key)
+    {
+        return validators.getIfPresent(key);
+    }
+
+    /**
+     * @return the validators of the local copy, or `null` if they are unknown or there is no local copy
+     */
+    public RemoteResourceValidator get(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        String key = toKey(repositoryPath);
+        if (!Files.exists(repositoryPath))
+        {
+            validators.invalidate(key);
+
+            return null;
+        }
+
+        RemoteResourceValidator validator = get(key);
+        if (validator != null)
+        {
+            return validator;
+        }
+
+        validator = readAttributes(repositoryPath);
+        if (validator != null)
+        {
+            validators.put(key, validator);
+        }
+
+        return validator;
+    }
+
+    public void put(String key,
+                    Response response)
+    {
+        put(key, response.getHeaderString(HttpHeaders.ETAG), response.getHeaderString(HttpHeaders.LAST_MODIFIED));
+    }
+
+    public void put(String key,
+                    String eTag,
+                    String lastModified)
+    {
+        if (StringUtils.isBlank(eTag) && StringUtils.isBlank(lastModified))
+        {
+            validators.invalidate(key);
+            return;
+        }
+
+        validators.put(key, new RemoteResourceValidator(eTag, lastModified));
+    }
+
+    /**
+     * Remembers the validators of the response the local copy was just stored from.
+     */
+    public void put(RepositoryPath repositoryPath,
+                    Response response)
+            throws IOException
+    {
+        String eTag = response.getHeaderString(HttpHeaders.ETAG);
+        String lastModified = response.getHeaderString(HttpHeaders.LAST_MODIFIED);
+
+        put(toKey(repositoryPath), eTag, lastModified);
+        writeAttributes(repositoryPath, eTag, lastModified);
+    }
+
+    public void remove(String key)
+    {
+        validators.invalidate(key);
+    }
+
+    public void remove(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        remove(toKey(repositoryPath));
+        writeAttributes(repositoryPath, null, null);
+    }
+
+    private RemoteResourceValidator readAttributes(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(repositoryPath,
+                                                                       UserDefinedFileAttributeView.class);
+        if (view == null)
+        {
+            return null;
+        }
+
+        List<String> names;
+        try
+        {
+            names = view.list();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            return null;
+        }
+
+        String eTag = readAttribute(view, names, ETAG_ATTRIBUTE);
+        String lastModified = readAttribute(view, names, LAST_MODIFIED_ATTRIBUTE);
+        if (eTag == null && lastModified == null)
+        {
+            return null;
+        }
+
+        return new RemoteResourceValidator(eTag, lastModified);
+    }
+
+    private String readAttribute(UserDefinedFileAttributeView view,
+                                 List<String> names,
+                                 String name)
+            throws IOException
+    {
+        if (!names.contains(name))
+        {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(view.size(name));
+        view.read(name, buffer);
+        buffer.flip();
+
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+    private void writeAttributes(RepositoryPath repositoryPath,
+                                 String eTag,
+                                 String lastModified)
+    {
+        if (!Files.exists(repositoryPath) ||
+            Files.getFileAttributeView(repositoryPath, UserDefinedFileAttributeView.class) == null)
+        {
+            return;
+        }
+
+        try
+        {
+            writeAttribute(repositoryPath, ETAG_ATTRIBUTE, eTag);
+            writeAttribute(repositoryPath, LAST_MODIFIED_ATTRIBUTE, lastModified);
+        }
+        catch (IOException | UnsupportedOperationException e)
+        {
+            // Kept in memory only.
+            logger.debug("Unable to store the remote validators of [{}]: {}", repositoryPath, e.getMessage());
+        }
+    }
+
+    private void writeAttribute(RepositoryPath repositoryPath,
+                                String name,
+                                String value)
+            throws IOException
+    {
+        String attribute = "user:" + name;
+        if (StringUtils.isNotBlank(value))
+        {
+            // Through the file system provider, which unshares a deduplicated file before changing its attributes.
+            Files.setAttribute(repositoryPath, attribute, value.getBytes(StandardCharsets.UTF_8));
+
+            return;
+        }
+
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(repositoryPath,
+                                                                       UserDefinedFileAttributeView.class);
+        if (view.list().contains(name))
+        {
+            view.delete(name);
+        }
+    }
+
+    public static String toKey(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        return String.format("%s/%s",
+                             repositoryPath.getRepository().getStorageIdAndRepositoryId(),
+                             RepositoryFiles.relativizePath(repositoryPath));
+    }
+
+    public static class RemoteResourceValidator
+    {
+
+        private final String eTag;
+
+        private final String lastModified;
+
+        public RemoteResourceValidator(String eTag,
+                                       String lastModified)
+        {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        public String getETag()
+        {
+            return eTag;
+        }
+
+        public String getLastModified()
+        {
+            return lastModified;
+        }
+
+    }
+
+}
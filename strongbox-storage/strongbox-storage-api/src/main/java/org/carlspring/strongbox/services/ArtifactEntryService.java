@@ -10,6 +10,7 @@ import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.data.service.CrudService;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntrySummary;
 import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
 import org.javatuples.Pair;
 import org.springframework.transaction.annotation.Transactional;
@@ -73,8 +74,33 @@ public interface ArtifactEntryService
                            String repositoryId,
                            String path);
 
+    /**
+     * Returns those of the given artifact paths, which already have an {@link ArtifactEntry} in the repository.
+     * All the paths are checked with a single query.
+     */
+    Set<String> findExistingArtifactPaths(String storageId,
+                                          String repositoryId,
+                                          Collection<String> paths);
+
     ArtifactEntry findOneArtifact(String storageId,
                                   String repositoryId,
                                   String path);
 
+    /**
+     * Same as {@link #findOneArtifact(String, String, String)}, but only the flat properties are fetched, without
+     * loading and detaching the whole {@link ArtifactEntry} graph (including it's archive listing).
+     */
+    ArtifactEntrySummary findArtifactSummary(String storageId,
+                                             String repositoryId,
+                                             String path);
+
+    /**
+     * Increments the download count and updates the last used date of the {@link ArtifactEntry}, in place.
+     *
+     * @return `false` if there is no such {@link ArtifactEntry}
+     */
+    boolean registerDownload(String storageId,
+                             String repositoryId,
+                             String path);
+
 }
@@ -4,6 +4,8 @@ import org.carlspring.strongbox.data.service.CrudService;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactGroupEntry;
 
+import java.util.Collection;
+
 /**
  * @author Przemyslaw Fusik
  */
@@ -13,5 +15,11 @@ public interface ArtifactGroupService<T extends ArtifactGroupEntry>
 
     void addArtifactToGroup(T artifactGroup,
                             ArtifactEntry artifactEntry);
+
+    /**
+     * Same as {@link #addArtifactToGroup(ArtifactGroupEntry, ArtifactEntry)}, but the group is saved only once.
+     */
+    void addArtifactsToGroup(T artifactGroup,
+                             Collection<? extends ArtifactEntry> artifactEntries);
     
 }
@@ -7,6 +7,7 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -15,12 +16,14 @@ import java.util.stream.Collectors;
 import javax.inject.Inject;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.io.LayoutOutputStream;
+import org.carlspring.strongbox.io.LayoutOutputStream.OutputStreamFunction;
 import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
@@ -88,7 +91,22 @@ public class ArtifactManagementService
         ArtifactCoordinatesValidationException
     {
         performRepositoryAcceptanceValidation(repositoryPath);
-        return doStore(repositoryPath, is);
+        return doStore(repositoryPath, os -> IOUtils.copy(is, os));
+    }
+
+    /**
+     * Stores the content which is written by the given function straight into the repository, for the uploads which
+     * are decoded on the fly and would otherwise need to be written into a temporary file first.
+     */
+    @Transactional
+    public long validateAndStore(RepositoryPath repositoryPath,
+                                 OutputStreamFunction content)
+        throws IOException,
+        ProviderImplementationException,
+        ArtifactCoordinatesValidationException
+    {
+        performRepositoryAcceptanceValidation(repositoryPath);
+        return doStore(repositoryPath, content);
     }
 
     @Transactional
@@ -96,11 +114,11 @@ public class ArtifactManagementService
                       InputStream is)
         throws IOException
     {
-        return doStore(repositoryPath, is);
+        return doStore(repositoryPath, os -> IOUtils.copy(is, os));
     }
 
     private long doStore(RepositoryPath repositoryPath,
-                         InputStream is)
+                         OutputStreamFunction content)
             throws IOException
     {
         long result;
@@ -113,7 +131,7 @@ public class ArtifactManagementService
         
         try (final RepositoryOutputStream aos = artifactResolutionService.getOutputStream(repositoryPath))
         {
-            result = writeArtifact(repositoryPath, is, aos);
+            result = writeArtifact(repositoryPath, content, aos);
             logger.debug(String.format("Stored [%s] bytes for [%s].", result, repositoryPath));
             aos.flush();
         }
@@ -145,7 +163,7 @@ public class ArtifactManagementService
     }
 
     private long writeArtifact(RepositoryPath repositoryPath,
-                               InputStream is,
+                               OutputStreamFunction content,
                                OutputStream os)
             throws IOException
     {
@@ -166,7 +184,9 @@ public class ArtifactManagementService
             artifactEventListenerRegistry.dispatchArtifactUploadingEvent(repositoryPath);
         }
         
-        long totalAmountOfBytes = IOUtils.copy(is, os);
+        CountingOutputStream countingOs = new CountingOutputStream(os);
+        content.apply(countingOs);
+        long totalAmountOfBytes = countingOs.getByteCount();
 
         URI repositoryPathId = repositoryPath.toUri();
         Map<String, String> digestMap = aos.getDigestMap();
@@ -351,6 +371,49 @@ public class ArtifactManagementService
         }
     }
 
+    /**
+     * Removes the artifacts with the same checks as {@link #delete(RepositoryPath, boolean)}, but within a single
+     * transaction, so that the artifact entries of the whole batch are removed at once. The paths are expected to
+     * carry their {@link ArtifactEntry}.
+     *
+     * @return the number of the removed artifacts, the failed ones are logged and skipped
+     */
+    @Transactional
+    public int delete(List<RepositoryPath> repositoryPaths,
+                      boolean force)
+            throws IOException
+    {
+        for (RepositoryPath repositoryPath : repositoryPaths)
+        {
+            artifactOperationsValidator.validate(repositoryPath);
+            artifactOperationsValidator.checkAllowsDeletion(repositoryPath.getRepository());
+        }
+
+        int result = 0;
+        for (RepositoryPath repositoryPath : repositoryPaths)
+        {
+            if (!Files.isDirectory(repositoryPath) && RepositoryFiles.isArtifact(repositoryPath) &&
+                repositoryPath.getArtifactEntry() == null)
+            {
+                logger.error(String.format("Corresponding [%s] record not found for path [%s]",
+                                           ArtifactEntry.class.getSimpleName(), repositoryPath));
+                continue;
+            }
+
+            try
+            {
+                RepositoryFiles.delete(repositoryPath, force);
+                result++;
+            }
+            catch (IOException e)
+            {
+                logger.error(String.format("Failed to delete [%s]", repositoryPath), e);
+            }
+        }
+
+        return result;
+    }
+
     public void copy(RepositoryPath srcPath, RepositoryPath destPath)
             throws IOException
     {
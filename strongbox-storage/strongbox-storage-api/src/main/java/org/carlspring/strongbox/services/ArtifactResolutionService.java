@@ -24,4 +24,13 @@ public interface ArtifactResolutionService
                                String repositoryId,
                                String path) 
             throws IOException;
+
+    /**
+     * Same as {@link #resolvePath(String, String, String)}, but for the path which has been resolved already.
+     *
+     * @return `null` if the path was not found
+     */
+    RepositoryPath resolvePath(RepositoryPath repositoryPath)
+            throws IOException;
+
 }
@@ -16,10 +16,30 @@ public interface ChecksumService
      * @param basePath      String
      * @param forceRegeneration boolean
      */
+    default void regenerateChecksum(String storageId,
+                                    String repositoryId,
+                                    String basePath,
+                                    boolean forceRegeneration)
+            throws IOException
+    {
+        regenerateChecksum(storageId, repositoryId, basePath, forceRegeneration, false);
+    }
+
+    /**
+     * Regenerate checksum for artifact using artifactPath (string)
+     *
+     * @param storageId         String
+     * @param repositoryId      String
+     * @param basePath          String
+     * @param forceRegeneration boolean
+     * @param fullRegeneration  true - to re-write all the checksums, even those of the artifacts which didn't change
+     *                          since their last regeneration
+     */
     void regenerateChecksum(String storageId,
                             String repositoryId,
                             String basePath,
-                            boolean forceRegeneration)
+                            boolean forceRegeneration,
+                            boolean fullRegeneration)
             throws IOException;
 
 }
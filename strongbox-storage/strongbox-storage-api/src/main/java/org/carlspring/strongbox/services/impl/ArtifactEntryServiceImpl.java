@@ -2,8 +2,12 @@ package org.carlspring.strongbox.services.impl;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.Expression;
+import org.carlspring.strongbox.data.criteria.ProjectionQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntrySummary;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
@@ -15,6 +19,7 @@ import java.util.stream.IntStream;
 
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import org.apache.commons.lang3.time.DateUtils;
 import org.javatuples.Pair;
@@ -135,6 +140,15 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                 criteriaQueryClasuse.append(" lastUsed < :lastUsed ");
                 parameterMap.put("lastUsed", lastUsed);
             }
+            if (searchCriteria.getUuidGreaterThan() != null)
+            {
+                if (criteriaQueryClasuse.length() > 0)
+                {
+                    criteriaQueryClasuse.append(" AND ");
+                }
+                criteriaQueryClasuse.append(" uuid > :uuidGreaterThan ");
+                parameterMap.put("uuidGreaterThan", searchCriteria.getUuidGreaterThan());
+            }
 
             sb.append(criteriaQueryClasuse);
         }
@@ -360,6 +374,45 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return findArtifactEntryId(storageId, repositoryId, path) != null;
     }
 
+    @Override
+    public Set<String> findExistingArtifactPaths(String storageId,
+                                                 String repositoryId,
+                                                 Collection<String> paths)
+    {
+        if (paths.isEmpty())
+        {
+            return Collections.emptySet();
+        }
+
+        String sQuery = "SELECT FROM INDEX:idx_artifact_coordinates WHERE key IN :paths";
+
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("paths", paths);
+
+        List<ODocument> resultList = getDelegate().command(new OSQLSynchQuery<ODocument>(sQuery)).execute(params);
+        List<ORID> artifactCoordinatesIds = resultList.stream()
+                                                      .map(r -> ((ODocument) r.field("rid")).getIdentity())
+                                                      .collect(Collectors.toList());
+        if (artifactCoordinatesIds.isEmpty())
+        {
+            return Collections.emptySet();
+        }
+
+        sQuery = String.format("SELECT artifactCoordinates.path AS path FROM %s " +
+                               "WHERE storageId = :storageId AND repositoryId = :repositoryId " +
+                               "AND artifactCoordinates IN :artifactCoordinatesIds",
+                               getEntityClass().getSimpleName());
+
+        params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+        params.put("artifactCoordinatesIds", artifactCoordinatesIds);
+
+        resultList = getDelegate().command(new OSQLSynchQuery<ODocument>(sQuery)).execute(params);
+
+        return resultList.stream().map(r -> (String) r.field("path")).collect(Collectors.toSet());
+    }
+
     @Override
     public ArtifactEntry findOneArtifact(String storageId,
                                          String repositoryId,
@@ -372,6 +425,50 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                        .orElse(null);
     }
 
+    @Override
+    public ArtifactEntrySummary findArtifactSummary(String storageId,
+                                                    String repositoryId,
+                                                    String path)
+    {
+        ORID artifactEntryId = findArtifactEntryId(storageId, repositoryId, path);
+        if (artifactEntryId == null)
+        {
+            return null;
+        }
+
+        Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class).project(ArtifactEntrySummary.PROPERTIES);
+        selector.where(Expression.ExpOperator.EQ.of("@rid", artifactEntryId));
+
+        List<ArtifactEntrySummary> result = new ProjectionQueryTemplate<ArtifactEntrySummary, ArtifactEntry>(
+                entityManager, ArtifactEntrySummary.class).select(selector);
+
+        return result.isEmpty() ? null : result.iterator().next();
+    }
+
+    @Override
+    public boolean registerDownload(String storageId,
+                                    String repositoryId,
+                                    String path)
+    {
+        ORID artifactEntryId = findArtifactEntryId(storageId, repositoryId, path);
+        if (artifactEntryId == null)
+        {
+            return false;
+        }
+
+        String sQuery = String.format("UPDATE %s SET lastUsed = :lastUsed INCREMENT downloadCount = 1 " +
+                                      "WHERE @rid = :artifactEntryId",
+                                      getEntityClass().getSimpleName());
+
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("lastUsed", new Date());
+        params.put("artifactEntryId", artifactEntryId);
+
+        Integer updated = getDelegate().command(new OCommandSQL(sQuery)).execute(params);
+
+        return updated != null && updated > 0;
+    }
+
     @Override
     public void delete(String id)
     {
@@ -81,8 +81,13 @@ public class ArtifactResolutionServiceImpl
                                       String artifactPath) 
            throws IOException
     {        
-        RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, artifactPath);
+        return resolvePath(repositoryPathResolver.resolve(storageId, repositoryId, artifactPath));
+    }
 
+    @Override
+    public RepositoryPath resolvePath(RepositoryPath repositoryPath)
+           throws IOException
+    {
         Repository repository = repositoryPath.getRepository();
         RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repository.getType());
         
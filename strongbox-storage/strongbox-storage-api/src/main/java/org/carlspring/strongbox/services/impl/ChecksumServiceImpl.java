@@ -9,6 +9,7 @@ import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.services.ChecksumService;
+import org.carlspring.strongbox.storage.checksum.ChecksumRegenerator;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
@@ -18,6 +19,7 @@ import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
@@ -38,11 +40,15 @@ public class ChecksumServiceImpl
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Value("${strongbox.checksum.regeneration.threads:4}")
+    private int threadsNumber;
+
     @Override
     public void regenerateChecksum(String storageId,
                                    String repositoryId,
                                    String basePath,
-                                   boolean forceRegeneration)
+                                   boolean forceRegeneration,
+                                   boolean fullRegeneration)
         throws IOException
     {
         Storage storage = getConfiguration().getStorage(storageId);
@@ -61,13 +67,18 @@ public class ChecksumServiceImpl
                                                     .map(p -> repositoryPathResolver.resolve(repository, basePath))
                                                     .orElseGet(() -> repositoryPathResolver.resolve(repository));
         
-        ArtifactLocationGenerateChecksumOperation operation = new ArtifactLocationGenerateChecksumOperation();
-        operation.setBasePath(repositoryBasePath);
-        operation.setForceRegeneration(forceRegeneration);
+        try (ChecksumRegenerator checksumRegenerator = new ChecksumRegenerator(forceRegeneration,
+                                                                               fullRegeneration,
+                                                                               threadsNumber))
+        {
+            ArtifactLocationGenerateChecksumOperation operation = new ArtifactLocationGenerateChecksumOperation();
+            operation.setBasePath(repositoryBasePath);
+            operation.setChecksumRegenerator(checksumRegenerator);
 
-        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
-        locator.setOperation(operation);
-        locator.locateArtifactDirectories();
+            ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+            locator.setOperation(operation);
+            locator.locateArtifactDirectories();
+        }
     }
 
     public Configuration getConfiguration()
@@ -10,9 +10,11 @@ public class ArtifactEntrySearchCriteria
 
     private Long minSizeInBytes;
 
+    private String uuidGreaterThan;
+
     public boolean isEmpty()
     {
-        return lastAccessedTimeInDays == null && minSizeInBytes == null;
+        return lastAccessedTimeInDays == null && minSizeInBytes == null && uuidGreaterThan == null;
     }
 
     public Integer getLastAccessedTimeInDays()
@@ -25,11 +27,21 @@ public class ArtifactEntrySearchCriteria
         return minSizeInBytes;
     }
 
+    /**
+     * Keyset pagination bound, used together with the default sort by `uuid`
+     * to seek straight to the next page instead of skipping the previous ones.
+     */
+    public String getUuidGreaterThan()
+    {
+        return uuidGreaterThan;
+    }
+
     public static final class Builder
     {
 
         private Integer lastAccessedTimeInDays;
         private Long minSizeInBytes;
+        private String uuidGreaterThan;
 
         private Builder()
         {
@@ -52,11 +64,18 @@ public class ArtifactEntrySearchCriteria
             return this;
         }
 
+        public Builder withUuidGreaterThan(String uuidGreaterThan)
+        {
+            this.uuidGreaterThan = uuidGreaterThan;
+            return this;
+        }
+
         public ArtifactEntrySearchCriteria build()
         {
             ArtifactEntrySearchCriteria artifactEntrySearchCriteria = new ArtifactEntrySearchCriteria();
             artifactEntrySearchCriteria.lastAccessedTimeInDays = this.lastAccessedTimeInDays;
             artifactEntrySearchCriteria.minSizeInBytes = this.minSizeInBytes;
+            artifactEntrySearchCriteria.uuidGreaterThan = this.uuidGreaterThan;
             return artifactEntrySearchCriteria;
         }
     }
@@ -0,0 +1,431 @@
+package org.carlspring.strongbox.storage.checksum;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Regenerates the checksum files of the artifacts in parallel.
+ * <p>
+ * Every artifact is read only once, through a direct buffer, and all the digests configured for its layout are
+ * computed from that single read. The size and the last modified time of every processed artifact are recorded in
+ * the {@link #STATE_FILE_NAME} file of its repository. Without forced regeneration the missing checksums are
+ * written, as well as all the checksums of the artifacts which changed since they were recorded, the others are
+ * skipped. A forced regeneration also re-writes all the checksums of the artifacts which were not recorded yet, the
+ * unchanged ones are still skipped. Only a full regeneration re-writes all the checksums, regardless of the recorded
+ * state.
+ * <p>
+ * The files are queued to a bounded worker pool, the submitting thread blocks when the queue is full. Call
+ * {@link #close()} to wait for the queued files and store the recorded state. The state of a repository is owned by
+ * a single regenerator until it's closed, the concurrent regenerations of the same repository wait for it.
+ */
+public class ChecksumRegenerator
+        implements Closeable
+{
+
+    public static final String STATE_FILE_NAME = ".checksum-state";
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private static final Logger logger = LoggerFactory.getLogger(ChecksumRegenerator.class);
+
+    /**
+     * storageId:repositoryId -> the permit of the regenerator which owns the repository state
+     */
+    private static final Map<String, Semaphore> REPOSITORY_PERMITS = new ConcurrentHashMap<>();
+
+    private final boolean forceRegeneration;
+
+    private final boolean fullRegeneration;
+
+    private final ExecutorService executor;
+
+    private final Semaphore queuePermits;
+
+    private final Map<String, ChecksumState> states = new ConcurrentHashMap<>();
+
+    private final AtomicInteger regenerated = new AtomicInteger();
+
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    /**
+     * @param forceRegeneration true - to re-write existing checksum of the artifacts which were not recorded as
+     *                          unchanged and to regenerate missing checksum,
+     *                          false - to regenerate missing checksum only
+     * @param fullRegeneration  true - to re-write all the checksums, regardless of the recorded state
+     * @param threadsNumber     the number of worker threads
+     */
+    public ChecksumRegenerator(boolean forceRegeneration,
+                               boolean fullRegeneration,
+                               int threadsNumber)
+    {
+        int threads = Math.max(threadsNumber, 1);
+
+        this.forceRegeneration = forceRegeneration;
+        this.fullRegeneration = fullRegeneration;
+        this.executor = Executors.newFixedThreadPool(threads, new ChecksumRegeneratorThreadFactory());
+        this.queuePermits = new Semaphore(threads * 4);
+    }
+
+    /**
+     * Queues all the artifacts within the given directory (recursively).
+     */
+    public void submitTree(RepositoryPath basePath)
+            throws IOException
+    {
+        ChecksumState state = getState(basePath);
+        if (basePath.equals(basePath.getFileSystem().getRootDirectory()))
+        {
+            state.fullScan = true;
+        }
+
+        Files.walkFileTree(basePath, new SimpleFileVisitor<Path>()
+        {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir,
+                                                     BasicFileAttributes attrs)
+            {
+                // Skip directories which start with a dot (like, for example: .index)
+                return isHidden(dir) && !dir.equals(basePath) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file,
+                                             BasicFileAttributes attrs)
+            {
+                if (!isHidden(file))
+                {
+                    submit(state, (RepositoryPath) file);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+    }
+
+    private static boolean isHidden(Path path)
+    {
+        return path.getFileName() != null && path.getFileName().toString().startsWith(".");
+    }
+
+    private void submit(ChecksumState state,
+                        RepositoryPath path)
+    {
+        try
+        {
+            if (Boolean.TRUE.equals(RepositoryFiles.isChecksum(path)))
+            {
+                return;
+            }
+
+            queuePermits.acquire();
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Failed to read attributes for [%s]", path), e);
+            return;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        executor.execute(() -> {
+            try
+            {
+                regenerate(state, path);
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to write checksum for [%s]", path), e);
+            }
+            finally
+            {
+                queuePermits.release();
+            }
+        });
+    }
+
+    private void regenerate(ChecksumState state,
+                            RepositoryPath path)
+            throws IOException, NoSuchAlgorithmException
+    {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        String artifactPath = RepositoryFiles.relativizePath(path);
+        String fingerprint = attributes.size() + " " + attributes.lastModifiedTime().toMillis();
+        String recordedFingerprint = state.entries.get(artifactPath);
+        boolean unchanged = fingerprint.equals(recordedFingerprint);
+        boolean changed = recordedFingerprint != null && !unchanged;
+
+        Map<String, RepositoryPath> checksumPaths = path.getFileSystem().provider().resolveChecksumPathMap(path);
+        List<String> algorithms = new ArrayList<>();
+        for (Map.Entry<String, RepositoryPath> entry : checksumPaths.entrySet())
+        {
+            if (fullRegeneration || forceRegeneration && !unchanged || changed || !Files.exists(entry.getValue()))
+            {
+                algorithms.add(entry.getKey());
+            }
+        }
+
+        state.seen.add(artifactPath);
+        if (algorithms.isEmpty())
+        {
+            skipped.incrementAndGet();
+            return;
+        }
+
+        List<MessageDigest> digests = new ArrayList<>(algorithms.size());
+        for (String algorithm : algorithms)
+        {
+            digests.add(MessageDigest.getInstance(algorithm));
+        }
+
+        ByteBuffer buffer = BUFFER.get();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            buffer.clear();
+            while (channel.read(buffer) != -1)
+            {
+                buffer.flip();
+                for (MessageDigest digest : digests)
+                {
+                    buffer.mark();
+                    digest.update(buffer);
+                    buffer.reset();
+                }
+                buffer.clear();
+            }
+        }
+
+        for (int i = 0; i < algorithms.size(); i++)
+        {
+            String checksum = MessageDigestUtils.convertToHexadecimalString(digests.get(i));
+
+            Files.write(checksumPaths.get(algorithms.get(i)), checksum.getBytes(StandardCharsets.UTF_8));
+        }
+
+        state.entries.put(artifactPath, fingerprint);
+        regenerated.incrementAndGet();
+    }
+
+    private ChecksumState getState(RepositoryPath path)
+            throws IOException
+    {
+        Repository repository = path.getRepository();
+        String key = repository.getStorage().getId() + ":" + repository.getId();
+
+        ChecksumState state = states.get(key);
+        if (state != null)
+        {
+            return state;
+        }
+
+        Semaphore permit = REPOSITORY_PERMITS.computeIfAbsent(key, k -> new Semaphore(1));
+        try
+        {
+            permit.acquire();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while waiting for the checksum state of [%s].",
+                                                           key));
+        }
+
+        state = new ChecksumState(path.getFileSystem().getRootDirectory(), permit);
+        states.put(key, state);
+        try
+        {
+            state.load();
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to read the checksum state of [%s], all the artifacts will be processed.",
+                                      key), e);
+        }
+
+        return state;
+    }
+
+    /**
+     * Waits for all the queued artifacts and stores the checksum state of the repositories.
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        executor.shutdown();
+        try
+        {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES))
+            {
+                logger.debug("Waiting for checksum regeneration, [{}] regenerated so far.", regenerated.get());
+            }
+        }
+        catch (InterruptedException e)
+        {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        IOException failure = null;
+        for (ChecksumState state : states.values())
+        {
+            try
+            {
+                state.store();
+            }
+            catch (IOException e)
+            {
+                failure = e;
+            }
+            finally
+            {
+                state.permit.release();
+            }
+        }
+
+        logger.debug("Checksum regeneration finished: [{}] regenerated, [{}] skipped.", regenerated.get(),
+                     skipped.get());
+
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    public int getRegenerated()
+    {
+        return regenerated.get();
+    }
+
+    public int getSkipped()
+    {
+        return skipped.get();
+    }
+
+    private static class ChecksumRegeneratorThreadFactory
+            implements ThreadFactory
+    {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r)
+        {
+            Thread thread = new Thread(r, "checksum-regenerator-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+
+            return thread;
+        }
+
+    }
+
+    /**
+     * The `size lastModified path` lines of the artifacts, as they were at their last checksum regeneration.
+     */
+    private static class ChecksumState
+    {
+
+        private final RootRepositoryPath root;
+
+        private final Semaphore permit;
+
+        private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+        private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+        private volatile boolean fullScan;
+
+        private ChecksumState(RootRepositoryPath root,
+                              Semaphore permit)
+        {
+            this.root = root;
+            this.permit = permit;
+        }
+
+        private void load()
+                throws IOException
+        {
+            RepositoryPath stateFile = root.resolve(STATE_FILE_NAME);
+            if (!Files.exists(stateFile))
+            {
+                return;
+            }
+
+            for (String line : Files.readAllLines(stateFile, StandardCharsets.UTF_8))
+            {
+                String[] parts = line.split(" ", 3);
+                if (parts.length == 3)
+                {
+                    entries.put(parts[2], parts[0] + " " + parts[1]);
+                }
+            }
+        }
+
+        private void store()
+                throws IOException
+        {
+            if (fullScan)
+            {
+                // The artifacts which were not found anymore don't need to be remembered.
+                entries.keySet().retainAll(seen);
+            }
+
+            List<String> lines = new ArrayList<>(entries.size());
+            entries.forEach((path, fingerprint) -> lines.add(fingerprint + " " + path));
+
+            RepositoryPath stateFile = root.resolve(STATE_FILE_NAME);
+            Path tempStateFile = Files.createTempFile(root, STATE_FILE_NAME, ".tmp");
+            try
+            {
+                Files.write(tempStateFile, lines, StandardCharsets.UTF_8);
+                Files.move(tempStateFile, stateFile, StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally
+            {
+                Files.deleteIfExists(tempStateFile);
+            }
+        }
+
+    }
+
+}
@@ -3,6 +3,7 @@ package org.carlspring.strongbox.storage.search;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
 
@@ -16,6 +17,12 @@ public class SearchResults
     @JsonProperty("artifact")
     private Set<SearchResult> results = new LinkedHashSet<>();
 
+    /**
+     * Opaque token to request the next page with, if there can be one.
+     */
+    @JsonProperty("nextPageToken")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextPageToken;
 
     public SearchResults()
     {
@@ -31,6 +38,16 @@ public class SearchResults
         this.results = results;
     }
 
+    public String getNextPageToken()
+    {
+        return nextPageToken;
+    }
+
+    public void setNextPageToken(String nextPageToken)
+    {
+        this.nextPageToken = nextPageToken;
+    }
+
     @Override
     public String toString()
     {
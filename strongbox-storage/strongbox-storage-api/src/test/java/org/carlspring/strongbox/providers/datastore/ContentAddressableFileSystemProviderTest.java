@@ -0,0 +1,218 @@
+package org.carlspring.strongbox.providers.datastore;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileTime;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ContentAddressableFileSystemProviderTest
+{
+
+    private static final byte[] CONTENT = "content".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] OTHER_CONTENT = "other content".getBytes(StandardCharsets.UTF_8);
+
+    private Path storageDir;
+
+    private ContentAddressableBlobStore blobStore;
+
+    private ContentAddressableFileSystemProvider provider;
+
+    @BeforeEach
+    public void setUp()
+            throws IOException
+    {
+        storageDir = Files.createTempDirectory("content-addressable-storage");
+        blobStore = new ContentAddressableBlobStore(storageDir.resolve(".blobs"));
+        provider = new ContentAddressableFileSystemProvider(FileSystems.getDefault().provider(), blobStore);
+
+        assumeTrue(blobStore.isReferenceCountingSupported());
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws IOException
+    {
+        FileUtils.deleteDirectory(storageDir.toFile());
+    }
+
+    @Test
+    public void testSameContentIsStoredOnce()
+            throws IOException
+    {
+        Path first = storageDir.resolve("first.jar");
+        Path second = storageDir.resolve("second.jar");
+
+        write(first, CONTENT);
+        write(second, CONTENT);
+
+        assertTrue(Files.isSameFile(first, second));
+        assertEquals(3, ContentAddressableBlobStore.getLinkCount(first));
+
+        write(second, OTHER_CONTENT);
+
+        assertFalse(Files.isSameFile(first, second));
+        assertArrayEquals(CONTENT, Files.readAllBytes(first));
+        assertArrayEquals(OTHER_CONTENT, Files.readAllBytes(second));
+    }
+
+    @Test
+    public void testCopyIsLinked()
+            throws IOException
+    {
+        Path source = storageDir.resolve("source.jar");
+        Path target = storageDir.resolve("target.jar");
+
+        write(source, CONTENT);
+        provider.copy(source, target);
+
+        assertTrue(Files.isSameFile(source, target));
+        assertThrows(IOException.class, () -> provider.copy(source, target));
+    }
+
+    @Test
+    public void testUnreferencedBlobsAreCollected()
+            throws IOException
+    {
+        Path first = storageDir.resolve("first.jar");
+        Path second = storageDir.resolve("second.jar");
+
+        write(first, CONTENT);
+        write(second, OTHER_CONTENT);
+        Files.delete(first);
+
+        assertEquals(1, blobStore.collectGarbage());
+        assertEquals(2, ContentAddressableBlobStore.getLinkCount(second));
+    }
+
+    @Test
+    public void testReferencedBlobsAreNotCollected()
+            throws IOException
+    {
+        Path first = storageDir.resolve("first.jar");
+        Path second = storageDir.resolve("second.jar");
+        Path copy = storageDir.resolve("copy.jar");
+
+        write(first, CONTENT);
+        write(second, CONTENT);
+        provider.copy(first, copy);
+        Path blob = blobStore.resolveBlob(blobStore.digest(first));
+
+        Files.delete(first);
+        Files.delete(second);
+
+        assertEquals(0, blobStore.collectGarbage());
+        assertTrue(Files.isSameFile(blob, copy));
+
+        Files.delete(copy);
+
+        assertEquals(1, blobStore.collectGarbage());
+        assertFalse(Files.exists(blob));
+        assertEquals(0, blobStore.collectGarbage());
+    }
+
+    @Test
+    public void testNothingToCollect()
+            throws IOException
+    {
+        assertEquals(0, blobStore.collectGarbage());
+
+        Files.createDirectories(blobStore.getBasedir());
+
+        assertEquals(0, blobStore.collectGarbage());
+    }
+
+    @Test
+    public void testMetadataIsNotDeduplicated()
+            throws IOException
+    {
+        Path first = storageDir.resolve("first").resolve("maven-metadata.xml");
+        Path second = storageDir.resolve("second").resolve("maven-metadata.xml");
+        Path checksum = storageDir.resolve("first.jar.sha1");
+        Files.createDirectories(first.getParent());
+        Files.createDirectories(second.getParent());
+
+        write(first, CONTENT);
+        write(second, CONTENT);
+        write(checksum, CONTENT);
+
+        assertFalse(Files.isSameFile(first, second));
+        assertEquals(1, ContentAddressableBlobStore.getLinkCount(first));
+        assertEquals(1, ContentAddressableBlobStore.getLinkCount(checksum));
+
+        Path copy = storageDir.resolve("maven-metadata.xml");
+        provider.copy(first, copy);
+
+        assertFalse(Files.isSameFile(first, copy));
+        assertArrayEquals(CONTENT, Files.readAllBytes(copy));
+        assertEquals(0, blobStore.migrate(storageDir));
+        assertEquals(1, ContentAddressableBlobStore.getLinkCount(second));
+    }
+
+    @Test
+    public void testLastModifiedTimeIsNotShared()
+            throws IOException
+    {
+        Path first = storageDir.resolve("first.jar");
+        Path second = storageDir.resolve("second.jar");
+
+        write(first, CONTENT);
+        write(second, CONTENT);
+
+        FileTime lastModifiedTime = Files.getLastModifiedTime(first);
+        FileTime touched = FileTime.fromMillis(lastModifiedTime.toMillis() + 60000);
+        provider.getFileAttributeView(second, BasicFileAttributeView.class).setTimes(touched, null, null);
+
+        assertFalse(Files.isSameFile(first, second));
+        assertEquals(lastModifiedTime, Files.getLastModifiedTime(first));
+        assertEquals(touched, Files.getLastModifiedTime(second));
+        assertArrayEquals(CONTENT, Files.readAllBytes(second));
+
+        provider.copy(first, second, StandardCopyOption.REPLACE_EXISTING);
+        provider.setAttribute(second, "lastModifiedTime", touched);
+
+        assertFalse(Files.isSameFile(first, second));
+        assertEquals(lastModifiedTime, Files.getLastModifiedTime(first));
+        assertEquals(touched, Files.getLastModifiedTime(second));
+    }
+
+    @Test
+    public void testMigration()
+            throws IOException
+    {
+        Path first = storageDir.resolve("releases").resolve("first.jar");
+        Path second = storageDir.resolve("snapshots").resolve("second.jar");
+        Files.createDirectories(first.getParent());
+        Files.createDirectories(second.getParent());
+        Files.write(first, CONTENT);
+        Files.write(second, CONTENT);
+
+        assertEquals(2, blobStore.migrate(storageDir));
+
+        assertTrue(Files.isSameFile(first, second));
+        assertArrayEquals(CONTENT, Files.readAllBytes(first));
+    }
+
+    private void write(Path path,
+                       byte[] content)
+            throws IOException
+    {
+        try (OutputStream os = provider.newOutputStream(path))
+        {
+            os.write(content);
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.providers.io.FileCommitter.CommitStep;
+import org.carlspring.strongbox.storage.StorageSyncPolicyEnum;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.util.FileSystemUtils;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FileCommitterTest
+{
+
+    private static final Path REPOSITORY_BASEDIR = Paths.get("target/strongbox-vault/storages/storage0/file-committer")
+                                                        .toAbsolutePath();
+
+    private Path tempDirectory;
+
+    private Path temp;
+
+    private Path target;
+
+    private ScheduledExecutorService executor;
+
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        FileSystemUtils.deleteRecursively(REPOSITORY_BASEDIR);
+
+        tempDirectory = REPOSITORY_BASEDIR.resolve(LayoutFileSystem.TEMP);
+        temp = tempDirectory.resolve("org/carlspring/test/1.0/test-1.0.jar");
+        target = REPOSITORY_BASEDIR.resolve("org/carlspring/test/1.0/test-1.0.jar");
+
+        Files.createDirectories(target.getParent());
+        Files.write(target, "old".getBytes(StandardCharsets.UTF_8));
+
+        Files.createDirectories(temp.getParent());
+        Files.write(temp, "new".getBytes(StandardCharsets.UTF_8));
+
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageSyncPolicyEnum.class)
+    public void commitShouldReplaceExistingFile(StorageSyncPolicyEnum syncPolicy)
+        throws IOException
+    {
+        try (FileCommitter committer = new FileCommitter(tempDirectory, syncPolicy, 10, executor))
+        {
+            committer.commit(temp, target);
+        }
+
+        assertThat(read(target), equalTo("new"));
+        assertFalse(Files.exists(temp));
+        assertThat(Files.size(tempDirectory.resolve(FileCommitter.JOURNAL)), equalTo(0L));
+    }
+
+    @ParameterizedTest
+    @EnumSource(CommitStep.class)
+    public void crashedCommitShouldBeRecovered(CommitStep crashStep)
+        throws IOException
+    {
+        FileCommitter committer = new FileCommitter(tempDirectory,
+                                                    StorageSyncPolicyEnum.FILE_AND_DIRECTORY,
+                                                    10,
+                                                    executor);
+        committer.setCommitStepListener(step -> {
+            if (step == crashStep)
+            {
+                throw new SimulatedCrashException();
+            }
+        });
+
+        assertThrows(SimulatedCrashException.class, () -> committer.commit(temp, target));
+
+        // The committer of the restarted instance.
+        int recovered = new FileCommitter(tempDirectory, StorageSyncPolicyEnum.FILE_AND_DIRECTORY, 10, executor)
+                                .recover();
+
+        // The commit is rolled back only if it's not recorded into the journal yet.
+        String expected = crashStep == CommitStep.TEMP_SYNCED ? "old" : "new";
+        assertThat(read(target), equalTo(expected));
+        assertThat(recovered, equalTo(crashStep == CommitStep.JOURNALED ? 1 : 0));
+
+        assertThat(listFiles(tempDirectory), empty());
+    }
+
+    @Test
+    public void tornJournalRecordShouldBeIgnored()
+        throws IOException
+    {
+        Path journal = tempDirectory.resolve(FileCommitter.JOURNAL);
+        Files.write(journal, "B\t.temp/org/carlspring/test/1.0/test-1.0.jar\torg/carlspring/te".getBytes(
+                StandardCharsets.UTF_8));
+
+        int recovered = new FileCommitter(tempDirectory, StorageSyncPolicyEnum.FILE_AND_DIRECTORY, 10, executor)
+                                .recover();
+
+        assertThat(recovered, equalTo(0));
+        assertThat(read(target), equalTo("old"));
+        assertThat(listFiles(tempDirectory), empty());
+    }
+
+    @Test
+    public void groupCommitShouldCommitConcurrentUploads()
+        throws Exception
+    {
+        ExecutorService uploadExecutor = Executors.newFixedThreadPool(8);
+        try (FileCommitter committer = new FileCommitter(tempDirectory,
+                                                         StorageSyncPolicyEnum.GROUP_COMMIT,
+                                                         50,
+                                                         executor))
+        {
+            List<Future<?>> uploads = new ArrayList<>();
+            for (int i = 0; i < 32; i++)
+            {
+                Path uploadTemp = tempDirectory.resolve(String.format("upload-%s.jar", i));
+                Path uploadTarget = REPOSITORY_BASEDIR.resolve(String.format("upload-%s.jar", i));
+                Files.write(uploadTemp, String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+
+                uploads.add(uploadExecutor.submit(() -> {
+                    committer.commit(uploadTemp, uploadTarget);
+
+                    return null;
+                }));
+            }
+
+            for (Future<?> upload : uploads)
+            {
+                upload.get();
+            }
+        }
+        finally
+        {
+            uploadExecutor.shutdownNow();
+        }
+
+        for (int i = 0; i < 32; i++)
+        {
+            assertThat(read(REPOSITORY_BASEDIR.resolve(String.format("upload-%s.jar", i))), equalTo(String.valueOf(i)));
+        }
+    }
+
+    private static String read(Path path)
+        throws IOException
+    {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+    private static List<Path> listFiles(Path directory)
+        throws IOException
+    {
+        try (Stream<Path> stream = Files.walk(directory))
+        {
+            return stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    private static class SimulatedCrashException
+            extends RuntimeException
+    {
+
+    }
+
+}
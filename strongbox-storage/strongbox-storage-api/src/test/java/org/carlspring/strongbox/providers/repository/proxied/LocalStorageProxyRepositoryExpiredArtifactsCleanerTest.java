@@ -0,0 +1,250 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocalStorageProxyRepositoryExpiredArtifactsCleanerTest
+{
+
+    private static final String STORAGE_ID = "storage-cleaner";
+
+    private static final String PROXY = "proxy";
+
+    private static final String PROXY_DOWN = "proxy-down";
+
+    private static final String PROXY_NO_DELETION = "proxy-no-deletion";
+
+    private static final String HOSTED = "hosted";
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @Mock
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Mock
+    private ArtifactEntryService artifactEntryService;
+
+    @Mock
+    private ArtifactManagementService artifactManagementService;
+
+    @Mock
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+
+    @InjectMocks
+    private LocalStorageProxyRepositoryExpiredArtifactsCleaner cleaner;
+
+    private final Storage storage = Mockito.mock(Storage.class);
+
+    /**
+     * The expired entries, ordered by `uuid`.
+     */
+    private final List<ArtifactEntry> expiredEntries = new ArrayList<>();
+
+    /**
+     * artifact entry uuid -> path
+     */
+    private final Map<String, RepositoryPath> paths = new ConcurrentHashMap<>();
+
+    /**
+     * The uuids of the artifacts which fail to be deleted.
+     */
+    private final Set<String> failingUuids = ConcurrentHashMap.newKeySet();
+
+    private final List<List<RepositoryPath>> deletedPages = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setUp()
+            throws IOException
+    {
+        MockitoAnnotations.initMocks(this);
+
+        Configuration configuration = Mockito.mock(Configuration.class);
+        when(configuration.getStorage(STORAGE_ID)).thenReturn(storage);
+        when(configurationManager.getConfiguration()).thenReturn(configuration);
+
+        mockRepository(PROXY, true, true, true);
+        mockRepository(PROXY_DOWN, true, false, true);
+        mockRepository(PROXY_NO_DELETION, true, true, false);
+        mockRepository(HOSTED, false, true, true);
+
+        // Keyset pagination on the uuid.
+        when(artifactEntryService.findMatching(any(ArtifactEntrySearchCriteria.class), any(PagingCriteria.class)))
+                .thenAnswer(invocation -> {
+                    ArtifactEntrySearchCriteria searchCriteria = invocation.getArgument(0);
+                    PagingCriteria pagingCriteria = invocation.getArgument(1);
+                    String uuidGreaterThan = searchCriteria.getUuidGreaterThan();
+
+                    return expiredEntries.stream()
+                                         .filter(e -> uuidGreaterThan == null ||
+                                                      e.getUuid().compareTo(uuidGreaterThan) > 0)
+                                         .limit(pagingCriteria.getLimit())
+                                         .collect(Collectors.toList());
+                });
+
+        when(artifactManagementService.delete(anyList(), anyBoolean())).thenAnswer(invocation -> {
+            List<RepositoryPath> pagePaths = invocation.getArgument(0);
+            deletedPages.add(pagePaths);
+
+            return (int) pagePaths.stream()
+                                  .filter(p -> failingUuids.stream().noneMatch(uuid -> paths.get(uuid) == p))
+                                  .count();
+        });
+    }
+
+    @Test
+    public void expiredArtifactsShouldBeDeletedPageByPage()
+            throws IOException
+    {
+        for (int i = 1; i <= 5; i++)
+        {
+            expiredEntries.add(artifactEntry("uuid-" + i, PROXY));
+        }
+
+        int removed = cleaner.cleanup(30, null, 2, 2, null);
+
+        assertThat(removed, equalTo(5));
+        assertThat(deletedPages, containsInAnyOrder(Arrays.asList(paths.get("uuid-1"), paths.get("uuid-2")),
+                                                    Arrays.asList(paths.get("uuid-3"), paths.get("uuid-4")),
+                                                    Collections.singletonList(paths.get("uuid-5"))));
+
+        ArgumentCaptor<ArtifactEntrySearchCriteria> searchCriteria = ArgumentCaptor.forClass(
+                ArtifactEntrySearchCriteria.class);
+        verify(artifactEntryService, times(4)).findMatching(searchCriteria.capture(), any(PagingCriteria.class));
+        assertThat(searchCriteria.getAllValues()
+                                 .stream()
+                                 .map(ArtifactEntrySearchCriteria::getUuidGreaterThan)
+                                 .collect(Collectors.toList()),
+                   contains(null, "uuid-2", "uuid-4", "uuid-5"));
+        assertThat(searchCriteria.getValue().getLastAccessedTimeInDays(), equalTo(30));
+
+        // The entries are removed along with the files, by the artifact management service, one transaction per
+        // page.
+        verify(artifactManagementService, times(3)).delete(anyList(), eq(true));
+        verify(artifactManagementService, never()).delete(any(RepositoryPath.class), anyBoolean());
+    }
+
+    @Test
+    public void onlyCleanableProxyRepositoriesShouldBeCleaned()
+            throws IOException
+    {
+        expiredEntries.addAll(Arrays.asList(artifactEntry("uuid-1", HOSTED),
+                                            artifactEntry("uuid-2", PROXY),
+                                            artifactEntry("uuid-3", PROXY_DOWN),
+                                            artifactEntry("uuid-4", PROXY_NO_DELETION),
+                                            artifactEntry("uuid-5", PROXY),
+                                            artifactEntry("uuid-6", PROXY_DOWN)));
+
+        int removed = cleaner.cleanup(30, null, 2, 2, null);
+
+        assertThat(removed, equalTo(2));
+        assertThat(deleted(), containsInAnyOrder(paths.get("uuid-2"), paths.get("uuid-5")));
+
+        // The remote repository status is checked once per run.
+        Repository proxyDown = storage.getRepository(PROXY_DOWN);
+        verify(remoteRepositoryAlivenessCacheManager, times(1)).isAlive(proxyDown.getRemoteRepository());
+    }
+
+    @Test
+    public void failedDeletionsShouldNotBeCounted()
+            throws IOException
+    {
+        for (int i = 1; i <= 3; i++)
+        {
+            expiredEntries.add(artifactEntry("uuid-" + i, PROXY));
+        }
+        failingUuids.add("uuid-2");
+
+        int removed = cleaner.cleanup(30, null, 10, 2, null);
+
+        assertThat(removed, equalTo(2));
+        assertThat(deleted(), containsInAnyOrder(paths.get("uuid-1"), paths.get("uuid-2"), paths.get("uuid-3")));
+    }
+
+    private List<RepositoryPath> deleted()
+    {
+        return deletedPages.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    private void mockRepository(String repositoryId,
+                                boolean proxy,
+                                boolean alive,
+                                boolean allowsDeletion)
+    {
+        Repository repository = Mockito.mock(Repository.class);
+        when(repository.getId()).thenReturn(repositoryId);
+        when(repository.getStorage()).thenReturn(storage);
+        when(repository.isProxyRepository()).thenReturn(proxy);
+        when(repository.allowsDeletion()).thenReturn(allowsDeletion);
+
+        RemoteRepository remoteRepository = Mockito.mock(RemoteRepository.class);
+        when(remoteRepository.getUrl()).thenReturn("https://repo.example.com/" + repositoryId);
+        when(repository.getRemoteRepository()).thenReturn(remoteRepository);
+        when(remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository)).thenReturn(alive);
+
+        RootRepositoryPath rootPath = Mockito.mock(RootRepositoryPath.class);
+        when(rootPath.resolve(any(ArtifactEntry.class))).thenAnswer(invocation -> {
+            ArtifactEntry artifactEntry = invocation.getArgument(0);
+
+            return paths.computeIfAbsent(artifactEntry.getUuid(), k -> Mockito.mock(RepositoryPath.class));
+        });
+        when(repositoryPathResolver.resolve(repository)).thenReturn(rootPath);
+
+        when(storage.getRepository(repositoryId)).thenReturn(repository);
+    }
+
+    private static ArtifactEntry artifactEntry(String uuid,
+                                               String repositoryId)
+    {
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setUuid(uuid);
+        artifactEntry.setStorageId(STORAGE_ID);
+        artifactEntry.setRepositoryId(repositoryId);
+
+        return artifactEntry;
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.isOneOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+
+public class ProxyRepositoryCheckpointStoreTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "npmjs";
+
+    private static final String NAME = "npm-changes-feed.seq";
+
+    private Path vaultDirectory;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp()
+            throws IOException
+    {
+        vaultDirectory = Files.createTempDirectory("checkpoint-store");
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws IOException
+    {
+        executor.shutdownNow();
+        FileUtils.deleteDirectory(vaultDirectory.toFile());
+    }
+
+    @Test
+    public void checkpointShouldSurviveRestart()
+            throws IOException
+    {
+        ProxyRepositoryCheckpointStore checkpointStore = newCheckpointStore();
+        assertThat(checkpointStore.get(STORAGE_ID, REPOSITORY_ID, NAME), nullValue());
+
+        checkpointStore.put(STORAGE_ID, REPOSITORY_ID, NAME, "330");
+        checkpointStore.put(STORAGE_ID, REPOSITORY_ID, NAME, "331");
+
+        assertThat(newCheckpointStore().get(STORAGE_ID, REPOSITORY_ID, NAME), equalTo("331"));
+        assertThat(listCheckpointFiles(), contains(NAME));
+    }
+
+    @Test
+    public void concurrentWritersShouldNotShareTheTemporaryFile()
+            throws Exception
+    {
+        ProxyRepositoryCheckpointStore checkpointStore = newCheckpointStore();
+        List<String> values = IntStream.range(0, 100).mapToObj(String::valueOf).collect(Collectors.toList());
+
+        List<Future<?>> futures = values.stream()
+                                        .map(v -> executor.submit(() -> {
+                                            checkpointStore.put(STORAGE_ID, REPOSITORY_ID, NAME, v);
+
+                                            return null;
+                                        }))
+                                        .collect(Collectors.toList());
+        for (Future<?> future : futures)
+        {
+            future.get();
+        }
+
+        // One of the written values, never a mix of them, and no leftovers.
+        assertThat(newCheckpointStore().get(STORAGE_ID, REPOSITORY_ID, NAME), isOneOf(values.toArray()));
+        assertThat(listCheckpointFiles(), contains(NAME));
+    }
+
+    private ProxyRepositoryCheckpointStore newCheckpointStore()
+    {
+        PropertiesBooter propertiesBooter = Mockito.mock(PropertiesBooter.class);
+        when(propertiesBooter.getVaultDirectory()).thenReturn(vaultDirectory.toString());
+
+        ProxyRepositoryCheckpointStore checkpointStore = new ProxyRepositoryCheckpointStore();
+        ReflectionTestUtils.setField(checkpointStore, "propertiesBooter", propertiesBooter);
+
+        return checkpointStore;
+    }
+
+    private List<String> listCheckpointFiles()
+            throws IOException
+    {
+        try (Stream<Path> files = Files.list(vaultDirectory.resolve("checkpoints").resolve(STORAGE_ID)
+                                                           .resolve(REPOSITORY_ID)))
+        {
+            return files.map(p -> p.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProxyRepositoryRefreshAheadServiceTest
+{
+
+    private static final String KEY = "storage0:maven-central/org/carlspring/maven-metadata.xml";
+
+    private ProxyRepositoryRefreshAheadService refreshAheadService;
+
+    @BeforeEach
+    public void setUp()
+    {
+        refreshAheadService = new ProxyRepositoryRefreshAheadService();
+        ReflectionTestUtils.setField(refreshAheadService, "threadsNumber", 2);
+        ReflectionTestUtils.setField(refreshAheadService, "intervalSeconds", 0);
+        ReflectionTestUtils.setField(refreshAheadService, "trackedPaths", 100);
+        refreshAheadService.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        refreshAheadService.destroy();
+    }
+
+    @Test
+    public void staleWindowShouldStartAtExpirationTime()
+    {
+        Instant now = Instant.now();
+
+        // Stored long ago, but expired just now: still inside the window.
+        assertTrue(ProxyRepositoryRefreshAheadService.isServableStale(now.minus(1, ChronoUnit.SECONDS), 60, now));
+        assertTrue(ProxyRepositoryRefreshAheadService.isServableStale(now.minus(60, ChronoUnit.SECONDS), 60, now));
+
+        assertFalse(ProxyRepositoryRefreshAheadService.isServableStale(now.minus(61, ChronoUnit.SECONDS), 60, now));
+        assertFalse(ProxyRepositoryRefreshAheadService.isServableStale(now.minus(1, ChronoUnit.SECONDS), 0, now));
+    }
+
+    @Test
+    public void refreshShouldStartBeforeExpiration()
+    {
+        Instant lastUpdated = Instant.now();
+        Instant expirationTime = lastUpdated.plus(100, ChronoUnit.SECONDS);
+
+        assertFalse(ProxyRepositoryRefreshAheadService.isDueForRefresh(lastUpdated, expirationTime, 0.2,
+                                                                       lastUpdated.plus(79, ChronoUnit.SECONDS)));
+        // The last 20 seconds of the time to live.
+        assertTrue(ProxyRepositoryRefreshAheadService.isDueForRefresh(lastUpdated, expirationTime, 0.2,
+                                                                      lastUpdated.plus(80, ChronoUnit.SECONDS)));
+        assertTrue(ProxyRepositoryRefreshAheadService.isDueForRefresh(lastUpdated, expirationTime, 0.2,
+                                                                      lastUpdated.plus(101, ChronoUnit.SECONDS)));
+
+        // Without the refresh ahead, only once expired.
+        assertFalse(ProxyRepositoryRefreshAheadService.isDueForRefresh(lastUpdated, expirationTime, 0,
+                                                                       lastUpdated.plus(99, ChronoUnit.SECONDS)));
+        assertTrue(ProxyRepositoryRefreshAheadService.isDueForRefresh(lastUpdated, expirationTime, 0,
+                                                                      expirationTime));
+    }
+
+    @Test
+    public void concurrentRefreshesOfSamePathShouldBeSingleFlight()
+            throws InterruptedException
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger refreshes = new AtomicInteger();
+        Runnable refresh = () -> {
+            refreshes.incrementAndGet();
+            started.countDown();
+            awaitQuietly(release);
+        };
+
+        assertTrue(refreshAheadService.scheduleRefresh(KEY, KEY, refresh));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // The stale copy is served, without another refresh of the same path.
+        assertTrue(refreshAheadService.scheduleRefresh(KEY, KEY, refresh));
+        assertTrue(refreshAheadService.scheduleRefresh(KEY, KEY, refresh));
+
+        release.countDown();
+        assertThat(refreshes.get(), equalTo(1));
+
+        // Once done, the path can be refreshed again.
+        CountDownLatch finished = new CountDownLatch(1);
+        waitUntilRefreshed(KEY, finished);
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failedRefreshShouldReleaseThePath()
+            throws InterruptedException
+    {
+        CountDownLatch failed = new CountDownLatch(1);
+        assertTrue(refreshAheadService.scheduleRefresh(KEY, KEY, () -> {
+            failed.countDown();
+            throw new IllegalStateException("Expected.");
+        }));
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch finished = new CountDownLatch(1);
+        waitUntilRefreshed(KEY, finished);
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void refreshShouldNotBeScheduledAfterShutdown()
+    {
+        refreshAheadService.destroy();
+
+        // The caller has to refresh the path inline.
+        assertFalse(refreshAheadService.scheduleRefresh(KEY, KEY, () -> {
+        }));
+    }
+
+    /**
+     * Retries until the previous refresh of the path has released it, and a new one runs.
+     */
+    private void waitUntilRefreshed(String key,
+                                    CountDownLatch finished)
+            throws InterruptedException
+    {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (finished.getCount() > 0 && System.nanoTime() < deadline)
+        {
+            refreshAheadService.scheduleRefresh(key, key, finished::countDown);
+            finished.await(10, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -7,9 +7,11 @@ import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
 import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntrySummary;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -35,6 +37,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -192,6 +195,41 @@ public class ArtifactEntryServiceTest
         assertTrue(artifactEntryOptional.isPresent());
     }
 
+    @Test
+    public void summaryShouldBeProjectedAndDownloadRegisteredInPlace(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        ArtifactCoordinates jarCoordinates = createArtifactCoordinates(groupId, ARTIFACT_ID + "123", "1.2.3", "jar");
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(STORAGE_ID,
+                                                                           REPOSITORY_ID,
+                                                                           jarCoordinates.toPath());
+        artifactEntry.setSizeInBytes(1024L);
+        artifactEntry.getChecksums().put("SHA-1", "da39a3ee5e6b4b0d3255bfef95601890afd80709");
+        save(artifactEntry);
+
+        ArtifactEntrySummary summary = artifactEntryService.findArtifactSummary(STORAGE_ID,
+                                                                                REPOSITORY_ID,
+                                                                                jarCoordinates.toPath());
+        assertNotNull(summary);
+        assertEquals(artifactEntry.getUuid(), summary.getUuid());
+        assertEquals(Long.valueOf(1024L), summary.getSizeInBytes());
+        assertEquals(artifactEntry.getChecksums(), summary.getChecksums());
+        assertEquals(Integer.valueOf(0), summary.getDownloadCount());
+        assertTrue(summary.isAvailable());
+
+        assertTrue(artifactEntryService.registerDownload(STORAGE_ID, REPOSITORY_ID, jarCoordinates.toPath()));
+        assertTrue(artifactEntryService.registerDownload(STORAGE_ID, REPOSITORY_ID, jarCoordinates.toPath()));
+
+        artifactEntry = artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, jarCoordinates.toPath());
+        assertEquals(Integer.valueOf(2), artifactEntry.getDownloadCount());
+        assertNotNull(artifactEntry.getLastUsed());
+        assertEquals(Long.valueOf(1024L), artifactEntry.getSizeInBytes());
+
+        assertNull(artifactEntryService.findArtifactSummary(STORAGE_ID, REPOSITORY_ID, "org/carlspring/missing.jar"));
+        assertFalse(artifactEntryService.registerDownload(STORAGE_ID, REPOSITORY_ID, "org/carlspring/missing.jar"));
+    }
+
     private ArtifactEntry save(ArtifactEntry artifactEntry)
     {
         return artifactEntryService.save(artifactEntry);
@@ -245,6 +283,40 @@ public class ArtifactEntryServiceTest
         assertThat(entries.size(), CoreMatchers.equalTo(all - 1));
     }
 
+    @Test
+    public void searchWithKeysetPaginationShouldWork(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        int all = count(groupId);
+        updateArtifactAttributes(groupId);
+
+        List<ArtifactEntry> entries = new ArrayList<>();
+        String lastUuid = null;
+        List<ArtifactEntry> page;
+        do
+        {
+            page = artifactEntryService.findMatching(anArtifactEntrySearchCriteria()
+                                                             .withMinSizeInBytes(500L)
+                                                             .withUuidGreaterThan(lastUuid)
+                                                             .build(),
+                                                     new PagingCriteria(0, 2));
+            if (!page.isEmpty())
+            {
+                lastUuid = page.get(page.size() - 1).getUuid();
+            }
+
+            page.stream()
+                .filter(e -> e.getArtifactCoordinates().getId().startsWith(groupId))
+                .forEach(entries::add);
+        }
+        while (!page.isEmpty());
+
+        assertThat(entries.size(), CoreMatchers.equalTo(all - 1));
+        assertThat(entries.stream().map(ArtifactEntry::getUuid).distinct().count(),
+                   CoreMatchers.equalTo((long) entries.size()));
+    }
+
     @Test
     public void deleteAllShouldWork(TestInfo testInfo)
     {
@@ -0,0 +1,344 @@
+package org.carlspring.strongbox.providers.datastore;
+
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the file contents once, by their {@link #DIGEST_ALGORITHM} digest.
+ * <p>
+ * The blobs are kept as `&lt;basedir&gt;/&lt;first two digits&gt;/&lt;digest&gt;` and the repository files are hard
+ * links to them, so the link count of a blob is its reference count: deleting or replacing a repository file
+ * releases its reference, and a blob which is linked only from the store itself can be collected with
+ * {@link #collectGarbage()}.
+ * <p>
+ * The links share the inode, so they share the last modified time and the other attributes as well: a file which is
+ * linked with an existing blob takes its last modified time. That's why only the immutable content is deduplicated,
+ * the files which names match the {@link #DEFAULT_EXCLUDES} (or the configured) pattern are left as regular files.
+ * These are the metadata and the checksum files, which are re-written in place and which last modified time drives
+ * their expiration and the caches built from them.
+ * <p>
+ * The blobs must be on the same file store as the repositories, otherwise the files are left as they are.
+ */
+public class ContentAddressableBlobStore
+{
+
+    public static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * The names of the metadata and the checksum files of the layouts.
+     */
+    public static final String DEFAULT_EXCLUDES = "maven-metadata.*\\.xml|.*\\.(md5|sha1|sha256|sha512|metadata)|" +
+                                                  "package-lock\\.json|npm-shrinkwrap\\.json|" +
+                                                  "(artifacts|content)\\.(xml|jar|xml\\.xz)";
+
+    private static final String LINK_COUNT_ATTRIBUTE = "unix:nlink";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentAddressableBlobStore.class);
+
+    private final Path basedir;
+
+    private final Pattern excludes;
+
+    public ContentAddressableBlobStore(Path basedir)
+    {
+        this(basedir, Pattern.compile(DEFAULT_EXCLUDES));
+    }
+
+    /**
+     * @param excludes the pattern of the names of the files, which are never deduplicated
+     */
+    public ContentAddressableBlobStore(Path basedir,
+                                       Pattern excludes)
+    {
+        this.basedir = basedir.toAbsolutePath().normalize();
+        this.excludes = excludes;
+    }
+
+    public Path getBasedir()
+    {
+        return basedir;
+    }
+
+    /**
+     * @return true if the link count of the files can be read, which is required to collect the garbage
+     */
+    public boolean isReferenceCountingSupported()
+    {
+        return basedir.getFileSystem().supportedFileAttributeViews().contains("unix");
+    }
+
+    /**
+     * @return true if the content of the file can be shared with other files
+     */
+    public boolean isDeduplicated(Path file)
+    {
+        Path fileName = file.getFileName();
+
+        return fileName != null && !excludes.matcher(fileName.toString()).matches();
+    }
+
+    public Path resolveBlob(String digest)
+    {
+        return basedir.resolve(digest.substring(0, 2)).resolve(digest);
+    }
+
+    public static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String digest(Path file)
+            throws IOException
+    {
+        MessageDigest digest = newDigest();
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            while (channel.read(buffer) != -1)
+            {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        return MessageDigestUtils.convertToHexadecimalString(digest);
+    }
+
+    /**
+     * Makes the given file a reference to the blob with the given digest: the file becomes the blob if there is no
+     * such blob yet, otherwise it's atomically replaced with a link to the existing one and its own content is
+     * released. In the latter case the file takes the last modified time of the blob.
+     * <p>
+     * The files which are not {@link #isDeduplicated(Path) deduplicated} are left as they are.
+     *
+     * @param file   the file, which content has the given digest
+     * @param digest the hexadecimal {@link #DIGEST_ALGORITHM} digest of the file
+     */
+    public void store(Path file,
+                      String digest)
+            throws IOException
+    {
+        if (!isDeduplicated(file))
+        {
+            return;
+        }
+
+        Path blob = resolveBlob(digest);
+
+        // The second attempt is needed only when the blob was collected or created concurrently.
+        for (int attempt = 0; attempt < 2; attempt++)
+        {
+            if (!Files.exists(blob))
+            {
+                Files.createDirectories(blob.getParent());
+                try
+                {
+                    Files.createLink(blob, file);
+
+                    return;
+                }
+                catch (FileAlreadyExistsException e)
+                {
+                    continue;
+                }
+            }
+
+            if (Files.isSameFile(blob, file))
+            {
+                return;
+            }
+
+            try
+            {
+                replaceWithLink(file, blob);
+
+                return;
+            }
+            catch (NoSuchFileException e)
+            {
+                logger.debug("Blob [{}] was collected concurrently.", blob);
+            }
+        }
+
+        logger.debug("Failed to store [{}] as [{}].", file, digest);
+    }
+
+    /**
+     * Atomically replaces the target with a hard link to the source.
+     */
+    public static void replaceWithLink(Path target,
+                                       Path source)
+            throws IOException
+    {
+        Path link = target.resolveSibling("." + UUID.randomUUID() + ".link");
+
+        Files.createLink(link, source);
+        try
+        {
+            Files.move(link, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(link);
+        }
+    }
+
+    /**
+     * @return the number of the links to the file, or `1` if it can't be determined
+     */
+    public static int getLinkCount(Path file)
+            throws IOException
+    {
+        if (!file.getFileSystem().supportedFileAttributeViews().contains("unix"))
+        {
+            return 1;
+        }
+
+        return (Integer) Files.getAttribute(file, LINK_COUNT_ATTRIBUTE, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    /**
+     * Moves the content of all the files within the given directory (recursively) into the store. The directories
+     * which start with a dot (like, for example: .index) and the files which are not
+     * {@link #isDeduplicated(Path) deduplicated} are skipped.
+     *
+     * @return the number of the stored files
+     */
+    public int migrate(Path directory)
+            throws IOException
+    {
+        Path root = directory.toAbsolutePath().normalize();
+        if (root.startsWith(basedir))
+        {
+            throw new IllegalArgumentException(String.format("Can't migrate [%s] which is within the blob store.",
+                                                             root));
+        }
+
+        AtomicInteger stored = new AtomicInteger();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>()
+        {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir,
+                                                     BasicFileAttributes attrs)
+            {
+                if (dir.equals(root))
+                {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                return isHidden(dir) || dir.equals(basedir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file,
+                                             BasicFileAttributes attrs)
+            {
+                if (!attrs.isRegularFile() || isHidden(file) || !isDeduplicated(file))
+                {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                try
+                {
+                    store(file, digest(file));
+                    stored.incrementAndGet();
+                }
+                catch (IOException e)
+                {
+                    logger.error(String.format("Failed to store [%s].", file), e);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+
+        logger.info("Stored [{}] files from [{}].", stored.get(), root);
+
+        return stored.get();
+    }
+
+    /**
+     * Deletes the blobs which are not referenced by any file anymore.
+     *
+     * @return the number of the deleted blobs
+     */
+    public int collectGarbage()
+            throws IOException
+    {
+        if (!isReferenceCountingSupported() || !Files.exists(basedir))
+        {
+            return 0;
+        }
+
+        AtomicInteger deleted = new AtomicInteger();
+        Files.walkFileTree(basedir, new SimpleFileVisitor<Path>()
+        {
+
+            @Override
+            public FileVisitResult visitFile(Path blob,
+                                             BasicFileAttributes attrs)
+                    throws IOException
+            {
+                if (attrs.isRegularFile() && getLinkCount(blob) == 1 && Files.deleteIfExists(blob))
+                {
+                    deleted.incrementAndGet();
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file,
+                                                   IOException e)
+            {
+                // The blob was deleted or replaced in the meantime.
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+
+        logger.debug("Collected [{}] unreferenced blobs from [{}].", deleted.get(), basedir);
+
+        return deleted.get();
+    }
+
+    private static boolean isHidden(Path path)
+    {
+        return path.getFileName() != null && path.getFileName().toString().startsWith(".");
+    }
+
+}
@@ -0,0 +1,496 @@
+package org.carlspring.strongbox.providers.datastore;
+
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AccessMode;
+import java.nio.file.CopyOption;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.spi.FileSystemProvider;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorates the local {@link FileSystemProvider} to keep the file contents in a {@link ContentAddressableBlobStore}.
+ * <p>
+ * The files which are written from the beginning are digested on the fly and, once closed, are linked with the blob
+ * of their digest. The copies are created as links to the source, without copying the content at all. The shared
+ * content is never modified: the link is broken before the file is opened for writing, and before any of its
+ * attributes (like, for example: the last modified time) is changed, as the links share them.
+ * <p>
+ * Only the {@link ContentAddressableBlobStore#isDeduplicated(Path) deduplicated} files are linked, the others are
+ * written and copied as regular files.
+ */
+public class ContentAddressableFileSystemProvider
+        extends FileSystemProvider
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentAddressableFileSystemProvider.class);
+
+    private final FileSystemProvider target;
+
+    private final ContentAddressableBlobStore blobStore;
+
+    public ContentAddressableFileSystemProvider(FileSystemProvider target,
+                                                ContentAddressableBlobStore blobStore)
+    {
+        this.target = target;
+        this.blobStore = blobStore;
+    }
+
+    public ContentAddressableBlobStore getBlobStore()
+    {
+        return blobStore;
+    }
+
+    @Override
+    public String getScheme()
+    {
+        return target.getScheme();
+    }
+
+    @Override
+    public FileSystem newFileSystem(URI uri,
+                                    Map<String, ?> env)
+            throws IOException
+    {
+        return target.newFileSystem(uri, env);
+    }
+
+    @Override
+    public FileSystem getFileSystem(URI uri)
+    {
+        return target.getFileSystem(uri);
+    }
+
+    @Override
+    public Path getPath(URI uri)
+    {
+        return target.getPath(uri);
+    }
+
+    @Override
+    public SeekableByteChannel newByteChannel(Path path,
+                                              Set<? extends OpenOption> options,
+                                              FileAttribute<?>... attrs)
+            throws IOException
+    {
+        if (!isWrite(options))
+        {
+            return target.newByteChannel(path, options, attrs);
+        }
+
+        boolean exists = Files.exists(path);
+        boolean truncate = options.contains(StandardOpenOption.TRUNCATE_EXISTING) ||
+                           options.contains(StandardOpenOption.CREATE_NEW);
+        if (exists)
+        {
+            unshare(path, truncate);
+        }
+
+        SeekableByteChannel channel = target.newByteChannel(path, options, attrs);
+        if ((!exists || truncate) &&
+            blobStore.isDeduplicated(path) &&
+            !options.contains(StandardOpenOption.READ) &&
+            !options.contains(StandardOpenOption.APPEND))
+        {
+            return new DigestingByteChannel(path, channel);
+        }
+
+        return channel;
+    }
+
+    @Override
+    public FileChannel newFileChannel(Path path,
+                                      Set<? extends OpenOption> options,
+                                      FileAttribute<?>... attrs)
+            throws IOException
+    {
+        if (isWrite(options) && Files.exists(path))
+        {
+            unshare(path, options.contains(StandardOpenOption.TRUNCATE_EXISTING));
+        }
+
+        return target.newFileChannel(path, options, attrs);
+    }
+
+    private static boolean isWrite(Set<? extends OpenOption> options)
+    {
+        return options.contains(StandardOpenOption.WRITE) || options.contains(StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Makes sure that the file doesn't share its content with other files, before it's modified.
+     */
+    private void unshare(Path path,
+                         boolean truncate)
+            throws IOException
+    {
+        if (ContentAddressableBlobStore.getLinkCount(path) <= 1)
+        {
+            return;
+        }
+
+        Path copy = path.resolveSibling("." + UUID.randomUUID() + ".copy");
+        try
+        {
+            if (truncate)
+            {
+                Files.createFile(copy);
+            }
+            else
+            {
+                target.copy(path, copy, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+
+            target.move(copy, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    @Override
+    public DirectoryStream<Path> newDirectoryStream(Path dir,
+                                                    DirectoryStream.Filter<? super Path> filter)
+            throws IOException
+    {
+        return target.newDirectoryStream(dir, filter);
+    }
+
+    @Override
+    public void createDirectory(Path dir,
+                                FileAttribute<?>... attrs)
+            throws IOException
+    {
+        target.createDirectory(dir, attrs);
+    }
+
+    @Override
+    public void delete(Path path)
+            throws IOException
+    {
+        target.delete(path);
+    }
+
+    /**
+     * Creates the copy as a link to the source, falls back to the regular copy if the link can't be created.
+     */
+    @Override
+    public void copy(Path source,
+                     Path target,
+                     CopyOption... options)
+            throws IOException
+    {
+        Set<CopyOption> copyOptions = new HashSet<>(Arrays.asList(options));
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class,
+                                                              LinkOption.NOFOLLOW_LINKS);
+        if (!attributes.isRegularFile() || !blobStore.isDeduplicated(target))
+        {
+            this.target.copy(source, target, options);
+            return;
+        }
+
+        if (!copyOptions.contains(StandardCopyOption.REPLACE_EXISTING) && Files.exists(target))
+        {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+
+        try
+        {
+            ContentAddressableBlobStore.replaceWithLink(target, source);
+        }
+        catch (IOException | UnsupportedOperationException e)
+        {
+            logger.debug("Failed to link [{}] to [{}], copying it.", target, source);
+
+            this.target.copy(source, target, options);
+        }
+    }
+
+    @Override
+    public void move(Path source,
+                     Path target,
+                     CopyOption... options)
+            throws IOException
+    {
+        this.target.move(source, target, options);
+    }
+
+    @Override
+    public boolean isSameFile(Path path,
+                              Path path2)
+            throws IOException
+    {
+        return target.isSameFile(path, path2);
+    }
+
+    @Override
+    public boolean isHidden(Path path)
+            throws IOException
+    {
+        return target.isHidden(path);
+    }
+
+    @Override
+    public FileStore getFileStore(Path path)
+            throws IOException
+    {
+        return target.getFileStore(path);
+    }
+
+    @Override
+    public void checkAccess(Path path,
+                            AccessMode... modes)
+            throws IOException
+    {
+        target.checkAccess(path, modes);
+    }
+
+    @Override
+    public <V extends FileAttributeView> V getFileAttributeView(Path path,
+                                                                Class<V> type,
+                                                                LinkOption... options)
+    {
+        V view = target.getFileAttributeView(path, type, options);
+        if (view == null || type != BasicFileAttributeView.class)
+        {
+            return view;
+        }
+
+        return type.cast(new UnsharingBasicFileAttributeView(path, (BasicFileAttributeView) view, options));
+    }
+
+    @Override
+    public <A extends BasicFileAttributes> A readAttributes(Path path,
+                                                            Class<A> type,
+                                                            LinkOption... options)
+            throws IOException
+    {
+        return target.readAttributes(path, type, options);
+    }
+
+    @Override
+    public Map<String, Object> readAttributes(Path path,
+                                              String attributes,
+                                              LinkOption... options)
+            throws IOException
+    {
+        return target.readAttributes(path, attributes, options);
+    }
+
+    @Override
+    public void setAttribute(Path path,
+                             String attribute,
+                             Object value,
+                             LinkOption... options)
+            throws IOException
+    {
+        unshare(path, false);
+
+        target.setAttribute(path, attribute, value, options);
+    }
+
+    /**
+     * Unshares the file before its times are changed, see {@link Files#setLastModifiedTime(Path, FileTime)}.
+     */
+    private class UnsharingBasicFileAttributeView
+            implements BasicFileAttributeView
+    {
+
+        private final Path path;
+
+        private final BasicFileAttributeView view;
+
+        private final LinkOption[] options;
+
+        private UnsharingBasicFileAttributeView(Path path,
+                                                BasicFileAttributeView view,
+                                                LinkOption... options)
+        {
+            this.path = path;
+            this.view = view;
+            this.options = options;
+        }
+
+        @Override
+        public String name()
+        {
+            return view.name();
+        }
+
+        @Override
+        public BasicFileAttributes readAttributes()
+                throws IOException
+        {
+            return view.readAttributes();
+        }
+
+        @Override
+        public void setTimes(FileTime lastModifiedTime,
+                             FileTime lastAccessTime,
+                             FileTime createTime)
+                throws IOException
+        {
+            unshare(path, false);
+
+            // The view of the replaced file.
+            target.getFileAttributeView(path, BasicFileAttributeView.class, options)
+                  .setTimes(lastModifiedTime, lastAccessTime, createTime);
+        }
+
+    }
+
+    /**
+     * Digests the content while it's written and stores it into the {@link ContentAddressableBlobStore} on close.
+     * The content which was not written sequentially is left as it is.
+     */
+    private class DigestingByteChannel
+            implements SeekableByteChannel
+    {
+
+        private final Path path;
+
+        private final SeekableByteChannel channel;
+
+        private final MessageDigest digest = ContentAddressableBlobStore.newDigest();
+
+        private long digested;
+
+        private boolean sequential = true;
+
+        private DigestingByteChannel(Path path,
+                                     SeekableByteChannel channel)
+        {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        @Override
+        public int write(ByteBuffer src)
+                throws IOException
+        {
+            if (channel.position() != digested)
+            {
+                sequential = false;
+            }
+
+            ByteBuffer written = src.duplicate();
+            int count = channel.write(src);
+
+            if (sequential)
+            {
+                written.limit(written.position() + count);
+                digest.update(written);
+                digested += count;
+            }
+
+            return count;
+        }
+
+        @Override
+        public int read(ByteBuffer dst)
+                throws IOException
+        {
+            return channel.read(dst);
+        }
+
+        @Override
+        public long position()
+                throws IOException
+        {
+            return channel.position();
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition)
+                throws IOException
+        {
+            channel.position(newPosition);
+
+            return this;
+        }
+
+        @Override
+        public long size()
+                throws IOException
+        {
+            return channel.size();
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size)
+                throws IOException
+        {
+            if (size < digested)
+            {
+                sequential = false;
+            }
+            channel.truncate(size);
+
+            return this;
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            if (!channel.isOpen())
+            {
+                return;
+            }
+
+            boolean complete = sequential && channel.size() == digested;
+            channel.close();
+
+            if (!complete)
+            {
+                return;
+            }
+
+            try
+            {
+                blobStore.store(path, MessageDigestUtils.convertToHexadecimalString(digest));
+            }
+            catch (IOException | UnsupportedOperationException e)
+            {
+                logger.warn(String.format("Failed to store [%s] into [%s], the file is left as it is.", path,
+                                          blobStore.getBasedir()), e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,158 @@
+package org.carlspring.strongbox.providers.datastore;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local file system storage, which keeps every distinct file content only once.
+ *
+ * @see ContentAddressableBlobStore
+ * @see ContentAddressableFileSystemProvider
+ */
+@Component("contentAddressableStorageProvider")
+public class ContentAddressableStorageProvider
+        extends AbstractStorageProvider
+        implements DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentAddressableStorageProvider.class);
+
+    public static final String ALIAS = StorageProviderEnum.CONTENT_ADDRESSABLE.describe();
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    @Value("${strongbox.storage.contentAddressable.basedir:}")
+    private String basedir;
+
+    /**
+     * The pattern of the names of the files which are never deduplicated, see
+     * {@link ContentAddressableBlobStore#DEFAULT_EXCLUDES}.
+     */
+    @Value("${strongbox.storage.contentAddressable.excludes:}")
+    private String excludes;
+
+    @Value("${strongbox.storage.contentAddressable.gcIntervalMinutes:60}")
+    private int gcIntervalMinutes;
+
+    private ContentAddressableFileSystemProvider fileSystemProvider;
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public String getAlias()
+    {
+        return ALIAS;
+    }
+
+    @PostConstruct
+    @Override
+    public void register()
+    {
+        ContentAddressableBlobStore blobStore = new ContentAddressableBlobStore(getBasedir(), getExcludes());
+        fileSystemProvider = new ContentAddressableFileSystemProvider(FileSystems.getDefault().provider(), blobStore);
+
+        if (gcIntervalMinutes > 0 && blobStore.isReferenceCountingSupported())
+        {
+            executor = Executors.newSingleThreadScheduledExecutor();
+            executor.scheduleWithFixedDelay(this::collectGarbage, gcIntervalMinutes, gcIntervalMinutes,
+                                            TimeUnit.MINUTES);
+        }
+
+        logger.info("Registered storage provider '" + getClass().getCanonicalName() + "' with alias '" + ALIAS +
+                    "' and blobs in '" + blobStore.getBasedir() + "'.");
+    }
+
+    @Override
+    public void destroy()
+    {
+        if (executor != null)
+        {
+            executor.shutdown();
+        }
+    }
+
+    private Path getBasedir()
+    {
+        if (StringUtils.isNotBlank(basedir))
+        {
+            return Paths.get(basedir);
+        }
+
+        String storagesBasedir = propertiesBooter.getStorageBooterBasedir();
+        Path storagesRoot = StringUtils.isNotBlank(storagesBasedir) ?
+                            Paths.get(storagesBasedir) :
+                            Paths.get(propertiesBooter.getVaultDirectory(), "storages");
+
+        return storagesRoot.resolve(".blobs");
+    }
+
+    private Pattern getExcludes()
+    {
+        return Pattern.compile(StringUtils.isNotBlank(excludes) ? excludes :
+                               ContentAddressableBlobStore.DEFAULT_EXCLUDES);
+    }
+
+    public ContentAddressableBlobStore getBlobStore()
+    {
+        return fileSystemProvider.getBlobStore();
+    }
+
+    /**
+     * Converts the files within the given directory in place, so that their content is kept in the blob store.
+     *
+     * @return the number of the converted files
+     */
+    public int migrate(Path directory)
+            throws IOException
+    {
+        return getBlobStore().migrate(directory);
+    }
+
+    public int collectGarbage()
+    {
+        try
+        {
+            return getBlobStore().collectGarbage();
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Failed to collect the unreferenced blobs from [%s].",
+                                       getBlobStore().getBasedir()), e);
+
+            return 0;
+        }
+    }
+
+    @Override
+    public FileSystem getFileSystem()
+    {
+        return FileSystems.getDefault();
+    }
+
+    @Override
+    public FileSystemProvider getFileSystemProvider()
+    {
+        return fileSystemProvider;
+    }
+
+}
@@ -13,6 +13,13 @@ public interface Storage
 
     String getBasedir();
 
+    /**
+     * @see StorageSyncPolicyEnum
+     */
+    String getSyncPolicy();
+
+    long getGroupCommitIntervalMillis();
+
     Map<String, ? extends Repository> getRepositories();
 
     boolean containsRepository(String repositoryId);
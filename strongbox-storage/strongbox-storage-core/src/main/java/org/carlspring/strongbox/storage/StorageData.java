@@ -33,6 +33,12 @@ public class StorageData implements Storage
     @JsonView(Views.ShortStorage.class)
     private String basedir;
 
+    @JsonView(Views.LongStorage.class)
+    private String syncPolicy;
+
+    @JsonView(Views.LongStorage.class)
+    private long groupCommitIntervalMillis;
+
     @JsonView(Views.LongStorage.class)
     @JsonSerialize(using = MapValuesJsonSerializer.class)
     @JsonDeserialize(using = RepositoryArrayToMapJsonDeserializer.class)
@@ -47,6 +53,8 @@ public class StorageData implements Storage
     {
         this.id = delegate.getId();
         this.basedir = delegate.getBasedir();
+        this.syncPolicy = delegate.getSyncPolicy();
+        this.groupCommitIntervalMillis = delegate.getGroupCommitIntervalMillis();
         this.repositories = immuteRepositories(delegate.getRepositories());
     }
 
@@ -79,6 +87,18 @@ public class StorageData implements Storage
         return basedir;
     }
 
+    @Override
+    public String getSyncPolicy()
+    {
+        return syncPolicy;
+    }
+
+    @Override
+    public long getGroupCommitIntervalMillis()
+    {
+        return groupCommitIntervalMillis;
+    }
+
     @Override
     public Map<String, ? extends Repository> getRepositories()
     {
@@ -24,6 +24,10 @@ public class StorageDto
     
     private String basedir;
 
+    private String syncPolicy = StorageSyncPolicyEnum.NONE.getPolicy();
+
+    private long groupCommitIntervalMillis = 10;
+
     private Map<String, RepositoryDto> repositories = new LinkedHashMap<>();
 
     public StorageDto()
@@ -61,6 +65,26 @@ public class StorageDto
         this.basedir = basedir;
     }
 
+    public String getSyncPolicy()
+    {
+        return syncPolicy;
+    }
+
+    public void setSyncPolicy(String syncPolicy)
+    {
+        this.syncPolicy = syncPolicy;
+    }
+
+    public long getGroupCommitIntervalMillis()
+    {
+        return groupCommitIntervalMillis;
+    }
+
+    public void setGroupCommitIntervalMillis(long groupCommitIntervalMillis)
+    {
+        this.groupCommitIntervalMillis = groupCommitIntervalMillis;
+    }
+
     @Override
     public Map<String, ? extends Repository> getRepositories()
     {
@@ -100,6 +124,7 @@ public class StorageDto
           .append(id)
           .append('\'');
         sb.append(", \n\t\tbasedir='").append(basedir).append('\'');
+        sb.append(", \n\t\tsyncPolicy='").append(syncPolicy).append('\'');
         sb.append(", \n\t\trepositories=").append(repositories);
         sb.append('}');
         return sb.toString();
@@ -0,0 +1,87 @@
+package org.carlspring.strongbox.storage;
+
+import org.carlspring.strongbox.api.Describable;
+
+import java.util.stream.Stream;
+
+/**
+ * Defines what is forced to the disk when the uploaded file is moved from the temporary directory into it's place,
+ * so that the durability of the uploads can be traded against their latency.
+ */
+public enum StorageSyncPolicyEnum implements Describable
+{
+
+    /**
+     * Nothing is forced, the file and the rename can be lost on crash.
+     */
+    NONE("none", false, false),
+
+    /**
+     * The file content is forced before the rename, so that the file is either missing or complete after crash.
+     */
+    FILE("file", true, false),
+
+    /**
+     * The file content is forced before the rename and the directory after it, so that the file is stored when the
+     * upload completes.
+     */
+    FILE_AND_DIRECTORY("file-and-directory", true, true),
+
+    /**
+     * Same as {@link #FILE_AND_DIRECTORY}, but the uploads are committed together every
+     * {@link Storage#getGroupCommitIntervalMillis()} milliseconds, sharing the journal and directory syncs.
+     */
+    GROUP_COMMIT("group-commit", true, true);
+
+    private String policy;
+
+    private boolean syncFile;
+
+    private boolean syncDirectory;
+
+
+    StorageSyncPolicyEnum(String policy,
+                          boolean syncFile,
+                          boolean syncDirectory)
+    {
+        this.policy = policy;
+        this.syncFile = syncFile;
+        this.syncDirectory = syncDirectory;
+    }
+
+    public static StorageSyncPolicyEnum ofPolicy(String policy)
+    {
+        return Stream.of(values())
+                     .filter(e -> e.policy.equals(policy))
+                     .findFirst()
+                     .orElse(null);
+    }
+
+    public String getPolicy()
+    {
+        return policy;
+    }
+
+    public boolean syncsFile()
+    {
+        return syncFile;
+    }
+
+    public boolean syncsDirectory()
+    {
+        return syncDirectory;
+    }
+
+    @Override
+    public String toString()
+    {
+        return policy;
+    }
+
+    @Override
+    public String describe()
+    {
+        return getPolicy();
+    }
+
+}
@@ -27,6 +27,12 @@ public interface RemoteRepository
 
     Integer getCheckIntervalSeconds();
 
+    /**
+     * @return for how many seconds an expired proxied metadata file may still be served while it is refreshed in
+     *         the background ({@code 0} disables refresh-ahead)
+     */
+    Integer getStaleWhileRevalidateSeconds();
+
     boolean allowsDirectoryBrowsing();
 
     boolean isAutoImportRemoteSSLCertificate();
@@ -33,6 +33,8 @@ public class RemoteRepositoryData
 
     private Integer checkIntervalSeconds;
 
+    private Integer staleWhileRevalidateSeconds;
+
     private boolean allowsDirectoryBrowsing;
 
     private boolean autoImportRemoteSSLCertificate;
@@ -56,6 +58,7 @@ public class RemoteRepositoryData
         this.password = other.getPassword();
         this.checksumPolicy = other.getChecksumPolicy();
         this.checkIntervalSeconds = other.getCheckIntervalSeconds();
+        this.staleWhileRevalidateSeconds = other.getStaleWhileRevalidateSeconds();
         this.allowsDirectoryBrowsing = other.allowsDirectoryBrowsing();
         this.autoImportRemoteSSLCertificate = other.isAutoImportRemoteSSLCertificate();
         this.customConfiguration = immuteRemoteRepositoryConfiguration(other.getCustomConfiguration());
@@ -101,6 +104,11 @@ public class RemoteRepositoryData
         return checkIntervalSeconds;
     }
 
+    public Integer getStaleWhileRevalidateSeconds()
+    {
+        return staleWhileRevalidateSeconds;
+    }
+
     public boolean allowsDirectoryBrowsing()
     {
         return allowsDirectoryBrowsing;
@@ -30,6 +30,8 @@ public class RemoteRepositoryDto
 
     private Integer checkIntervalSeconds = DEFAULT_HEARTBEAT_INTERVAL_SECONDS;
 
+    private Integer staleWhileRevalidateSeconds = 0;
+
     private boolean allowsDirectoryBrowsing = true;
 
     private boolean autoImportRemoteSSLCertificate;
@@ -116,6 +118,16 @@ public class RemoteRepositoryDto
         this.checkIntervalSeconds = checkIntervalSeconds;
     }
 
+    public Integer getStaleWhileRevalidateSeconds()
+    {
+        return staleWhileRevalidateSeconds;
+    }
+
+    public void setStaleWhileRevalidateSeconds(Integer staleWhileRevalidateSeconds)
+    {
+        this.staleWhileRevalidateSeconds = staleWhileRevalidateSeconds;
+    }
+
     public void setAllowsDirectoryBrowsing(boolean allowsDirectoryBrowsing)
     {
         this.allowsDirectoryBrowsing = allowsDirectoryBrowsing;
@@ -45,15 +45,21 @@ public abstract class BaseMavenArtifactEventListener
     void updateMetadataInGroupsContainingRepository(final ArtifactEvent<RepositoryPath> event,
                                                     final Function<RepositoryPath, RepositoryPath> artifactBasePathCalculation)
     {
+        updateMetadataInGroupsContainingRepository(event.getPath(), artifactBasePathCalculation);
+    }
+
+    void updateMetadataInGroupsContainingRepository(final RepositoryPath artifactPath,
+                                                    final Function<RepositoryPath, RepositoryPath> artifactBasePathCalculation)
+    {
 
-        RepositoryPath artifactBasePath = artifactBasePathCalculation.apply(event.getPath());
+        RepositoryPath artifactBasePath = artifactBasePathCalculation.apply(artifactPath);
         try
         {
             mavenMetadataGroupRepositoryComponent.updateGroupsContaining(artifactBasePath);
         }
         catch (Exception e)
         {
-            logger.error("Unable to update parent group repositories metadata of file " + event.getPath(), e);
+            logger.error("Unable to update parent group repositories metadata of file " + artifactPath, e);
         }
     }
 
@@ -4,6 +4,7 @@ import org.carlspring.strongbox.artifact.MavenArtifact;
 import org.carlspring.strongbox.artifact.MavenArtifactUtils;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.event.AsyncEventListener;
+import org.carlspring.strongbox.event.EventOverflowPolicyEnum;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
@@ -45,10 +46,16 @@ public class MavenArtifactFetchedFromRemoteEventListener
     @Inject
     protected RestArtifactResolverFactory restArtifactResolverFactory;
     
-    @AsyncEventListener
-    public void handle(final ArtifactEvent<RepositoryPath> event)
+    /**
+     * Handles the files of the artifact coordinate (JAR, POM, checksums) which have been fetched within the coalescing
+     * window at once (see {@link ArtifactEventCoalescer}), because the metadata is resolved at the artifactId level,
+     * and any of the files is enough for it. The repeated fetches of the coordinate, which are still queued, are
+     * coalesced as well.
+     */
+    @AsyncEventListener(overflowPolicy = EventOverflowPolicyEnum.COALESCE)
+    public void handle(final ArtifactCoordinateEvent<RepositoryPath> event)
     {
-        final Repository repository = getRepository(event);
+        final Repository repository = event.getPath().getRepository();
 
         if (!Maven2LayoutProvider.ALIAS.equals(repository.getLayout()))
         {
@@ -60,15 +67,20 @@ public class MavenArtifactFetchedFromRemoteEventListener
             return;
         }
 
-        resolveArtifactMetadataAtArtifactIdLevel(event);
-        updateMetadataInGroupsContainingRepository(event, path -> path.getParent().getParent());
+        final RepositoryPath artifactPath = event.getArtifactPaths().iterator().next();
+
+        logger.debug("Resolving artifact metadata for [{}] fetched files of [{}].",
+                     event.getArtifactPaths().size(), event.getPath());
+
+        resolveArtifactMetadataAtArtifactIdLevel(artifactPath);
+        updateMetadataInGroupsContainingRepository(artifactPath, path -> path.getParent().getParent());
     }
 
-    private void resolveArtifactMetadataAtArtifactIdLevel(final ArtifactEvent<RepositoryPath> event)
+    private void resolveArtifactMetadataAtArtifactIdLevel(final RepositoryPath artifactPath)
     {
         try
         {
-            final RepositoryPath artifactAbsolutePath = event.getPath().toAbsolutePath();
+            final RepositoryPath artifactAbsolutePath = artifactPath.toAbsolutePath();
             final RepositoryPath artifactBaseAbsolutePath = artifactAbsolutePath.getParent();
 
             final RepositoryPath metadataAbsolutePath = (RepositoryPath) MetadataHelper.getMetadataPath(
@@ -90,8 +102,8 @@ public class MavenArtifactFetchedFromRemoteEventListener
         }
         catch (Exception e)
         {
-            logger.error("Unable to resolve artifact metadata of file " + event.getPath() + " of repository " +
-                         getRepository(event).getId(), e);
+            logger.error("Unable to resolve artifact metadata of file " + artifactPath + " of repository " +
+                         artifactPath.getRepository().getId(), e);
         }
     }
 
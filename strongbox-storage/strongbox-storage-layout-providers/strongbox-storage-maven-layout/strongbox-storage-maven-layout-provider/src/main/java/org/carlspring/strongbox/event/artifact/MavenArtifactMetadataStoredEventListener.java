@@ -1,12 +1,13 @@
 package org.carlspring.strongbox.event.artifact;
 
+import org.carlspring.strongbox.event.AsyncEventListener;
+import org.carlspring.strongbox.event.EventOverflowPolicyEnum;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
 
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 /**
@@ -21,16 +22,12 @@ public class MavenArtifactMetadataStoredEventListener
     private Maven2LayoutProvider maven2LayoutProvider;
 
     /**
-     * Why not @{@link org.carlspring.strongbox.event.AsyncEventListener}:
-     * <p>
-     * Consider call to group repository for expired maven-metadata.xml.
-     * Then all underlying sub-repositories will fetch their maven-metadata.xml.
-     * In case at least one sub-repository was a proxy repository and its maven-metadata.xml local copy expired, we will re-fetch the maven-metadata.xml from remote.
-     * Then this listener will be invoked and it will update all groups containing this proxy repository.
-     * We need to have updated initial group when we return from the initial call.
-     * Async update could be done a bit later.
+     * Merges the changed member metadata into the groups containing the member in the background: the group requests
+     * are served with the stored group copy meanwhile (see
+     * {@link org.carlspring.strongbox.providers.io.MavenGroupRepositoryPathFetchEventListener}), and the repeated
+     * changes of the same member metadata, which are still queued, are merged only once.
      */
-    @EventListener
+    @AsyncEventListener(overflowPolicy = EventOverflowPolicyEnum.COALESCE)
     public void handle(final ArtifactEvent<RepositoryPath> event)
     {
         final Repository repository = getRepository(event);
@@ -2,11 +2,14 @@ package org.carlspring.strongbox.providers.io;
 
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.configuration.ConfigurationUtils;
+import org.carlspring.strongbox.event.EventDispatcher;
+import org.carlspring.strongbox.event.EventOverflowPolicyEnum;
 import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
 import org.carlspring.strongbox.providers.repository.GroupRepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
+import org.carlspring.strongbox.repository.group.metadata.MavenMetadataGroupRepositoryComponent;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -14,24 +17,39 @@ import org.carlspring.strongbox.storage.repository.Repository;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 /**
+ * Serves the stored group copy of the {@code maven-metadata.xml} without waiting for the group members. The group copy
+ * is built from the members only when it doesn't exist yet, afterwards it's kept up to date by the member store events
+ * (see {@link org.carlspring.strongbox.event.artifact.MavenArtifactMetadataStoredEventListener}) and by the background
+ * revalidation of the members, which runs at most once per {@code strongbox.maven.group.metadata.revalidationSeconds}
+ * for a group path.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
 public class MavenGroupRepositoryPathFetchEventListener
+        implements InitializingBean
 {
 
     private static final Logger logger = LoggerFactory.getLogger(MavenGroupRepositoryPathFetchEventListener.class);
 
+    static final String REVALIDATION_QUEUE_NAME = "maven-group-metadata-revalidation";
+
     @Inject
     private Maven2LayoutProvider maven2LayoutProvider;
 
@@ -47,6 +65,35 @@ public class MavenGroupRepositoryPathFetchEventListener
     @Inject
     private RepositoryProviderRegistry repositoryProviderRegistry;
 
+    @Inject
+    private MavenGroupRepositoryPathFetchExecutor groupRepositoryPathFetchExecutor;
+
+    @Inject
+    private MavenMetadataGroupRepositoryComponent mavenMetadataGroupRepositoryComponent;
+
+    @Inject
+    private EventDispatcher eventDispatcher;
+
+    @Value("${strongbox.maven.group.metadata.revalidationSeconds:60}")
+    private long revalidationSeconds;
+
+    @Value("${strongbox.maven.group.metadata.cacheSize:10000}")
+    private long maxSize;
+
+    /**
+     * group path -> the time the revalidation of its members was started
+     */
+    private Cache<String, Long> revalidations;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        revalidations = CacheBuilder.newBuilder()
+                                    .maximumSize(maxSize)
+                                    .expireAfterWrite(Math.max(revalidationSeconds, 0), TimeUnit.SECONDS)
+                                    .build();
+    }
+
     @EventListener
     public void handle(final GroupRepositoryPathFetchEvent event)
             throws IOException
@@ -62,18 +109,84 @@ public class MavenGroupRepositoryPathFetchEventListener
             return;
         }
 
-        fetchInSubRepositories(repositoryPath);
+        if (!RepositoryFiles.artifactExists(repositoryPath))
+        {
+            // Nothing to serve yet, the group copy is built from the members right away.
+            markRevalidated(repositoryPath);
+            validateGroupCopy(repositoryPath, fetchInSubRepositories(repositoryPath));
+
+            return;
+        }
+
+        if (markRevalidated(repositoryPath))
+        {
+            eventDispatcher.dispatch(eventDispatcher.getQueue(REVALIDATION_QUEUE_NAME,
+                                                              EventOverflowPolicyEnum.DROP_OLDEST,
+                                                              0,
+                                                              0),
+                                     null,
+                                     () -> revalidate(repositoryPath));
+        }
+    }
+
+    /**
+     * @return `true` if the members of the group path haven't been revalidated within the revalidation interval
+     */
+    private boolean markRevalidated(final RepositoryPath repositoryPath)
+            throws IOException
+    {
+        if (revalidationSeconds <= 0)
+        {
+            return true;
+        }
+
+        String key = String.format("%s/%s",
+                                   repositoryPath.getRepository().getStorageIdAndRepositoryId(),
+                                   RepositoryFiles.relativizePath(repositoryPath));
+
+        return revalidations.asMap().putIfAbsent(key, System.currentTimeMillis()) == null;
+    }
+
+    private void revalidate(final RepositoryPath repositoryPath)
+    {
+        try
+        {
+            validateGroupCopy(repositoryPath, fetchInSubRepositories(repositoryPath));
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Failed to revalidate the group copy of [%s].", repositoryPath), e);
+        }
+    }
+
+    /**
+     * The proxied members revalidate their expired copies with the remote (see
+     * {@link org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver}), and the changes
+     * are merged into the group copy by the store events. Here the member copies which were fetched in time are
+     * checked against the ones merged into the group copy, and merged if they differ (for example when the group copy
+     * is being built, or has been replaced). The members which timed out or failed are left out, they are merged by their
+     * store events once their fetch completes.
+     */
+    private void validateGroupCopy(final RepositoryPath repositoryPath,
+                                   final List<Path> fetchedPaths)
+            throws IOException
+    {
+        for (Path fetchedPath : fetchedPaths)
+        {
+            RepositoryPath memberPath = (RepositoryPath) fetchedPath;
+            mavenMetadataGroupRepositoryComponent.mergeIntoGroup(repositoryPath.getParent(), memberPath.getParent());
+        }
     }
 
     /**
      * @see GroupRepositoryProvider#resolvePathTraversal(org.carlspring.strongbox.providers.io.RepositoryPath)
      */
-    private void fetchInSubRepositories(final RepositoryPath repositoryPath)
+    private List<Path> fetchInSubRepositories(final RepositoryPath repositoryPath)
             throws IOException
     {
         Repository groupRepository = repositoryPath.getRepository();
         Storage storage = groupRepository.getStorage();
-        List<Callable<Path>> fetchActions = new ArrayList<>();
+        Map<String, Callable<Path>> fetchActions = new LinkedHashMap<>();
 
         for (String storageAndRepositoryId : groupRepository.getGroupRepositories())
         {
@@ -93,25 +206,18 @@ public class MavenGroupRepositoryPathFetchEventListener
             }
 
             RepositoryProvider provider = repositoryProviderRegistry.getProvider(subRepository.getType());
-            fetchActions.add(() -> provider.fetchPath(resolvedPath));
+            fetchActions.put(storageAndRepositoryId, () -> provider.fetchPath(resolvedPath));
         }
 
-        fetchPathsInParallel(fetchActions);
+        return fetchPathsInParallel(fetchActions);
     }
 
-    private void fetchPathsInParallel(final List<Callable<Path>> fetchActions)
+    private List<Path> fetchPathsInParallel(final Map<String, Callable<Path>> fetchActions)
     {
-        fetchActions
-                .parallelStream()
-                .forEach(action -> {
-                    try
-                    {
-                        action.call();
-                    }
-                    catch (Exception e)
-                    {
-                        logger.error(e.getMessage(), e);
-                    }
-                });
+        List<Path> fetchedPaths = groupRepositoryPathFetchExecutor.fetchAll(fetchActions);
+
+        logger.debug("Fetched [{}] of [{}] group member paths.", fetchedPaths.size(), fetchActions.size());
+
+        return fetchedPaths;
     }
 }
@@ -0,0 +1,193 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dedicated, bounded executor for the group member fetches which precede the
+ * {@code maven-metadata.xml} aggregation. Each member fetch has its own deadline,
+ * the aggregation doesn't wait for the members which don't finish in time and goes
+ * on with the results which are available. The running fetches are not interrupted,
+ * so that they complete storing the fetched files in the background.
+ *
+ * @see MavenGroupRepositoryPathFetchEventListener
+ */
+@Component
+public class MavenGroupRepositoryPathFetchExecutor
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(MavenGroupRepositoryPathFetchExecutor.class);
+
+    @Value("${strongbox.maven.group.fetch.threads:16}")
+    private int threadsNumber;
+
+    @Value("${strongbox.maven.group.fetch.queueCapacity:256}")
+    private int queueCapacity;
+
+    @Value("${strongbox.maven.group.fetch.timeoutSeconds:30}")
+    private long timeoutSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong completedCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong timedOutCount = new AtomicLong();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        executor = new ThreadPoolExecutor(threadsNumber,
+                                          threadsNumber,
+                                          60L,
+                                          TimeUnit.SECONDS,
+                                          new ArrayBlockingQueue<>(queueCapacity),
+                                          new GroupFetchThreadFactory(),
+                                          new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        logger.info("Group repository path fetch executor initialized with [{}] threads, queue capacity [{}] " +
+                    "and member timeout [{}] seconds.",
+                    threadsNumber, queueCapacity, timeoutSeconds);
+    }
+
+    @Override
+    public void destroy()
+    {
+        // The running fetches are not interrupted, see fetchAll().
+        executor.shutdown();
+    }
+
+    /**
+     * Runs the given fetch actions and waits for them no longer than the configured member timeout.
+     *
+     * @param fetchActions the member fetch actions, keyed by a member description used for logging
+     * @return the paths of the members which were fetched successfully in time (partial results)
+     */
+    public List<Path> fetchAll(Map<String, Callable<Path>> fetchActions)
+    {
+        Map<String, Future<Path>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, Callable<Path>> action : fetchActions.entrySet())
+        {
+            try
+            {
+                futures.put(action.getKey(), executor.submit(action.getValue()));
+            }
+            catch (RejectedExecutionException e)
+            {
+                rejectedCount.incrementAndGet();
+                logger.warn("Fetch of [{}] rejected, group fetch queue is full.", action.getKey());
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        List<Path> result = new ArrayList<>(futures.size());
+        for (Map.Entry<String, Future<Path>> entry : futures.entrySet())
+        {
+            Future<Path> future = entry.getValue();
+            try
+            {
+                Path path = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                completedCount.incrementAndGet();
+                if (path != null)
+                {
+                    result.add(path);
+                }
+            }
+            catch (TimeoutException e)
+            {
+                timedOutCount.incrementAndGet();
+                // Not interrupted, the member may be in the middle of storing the fetched file.
+                future.cancel(false);
+                logger.warn("Fetch of [{}] did not complete within [{}] seconds, skipping it.",
+                            entry.getKey(), timeoutSeconds);
+            }
+            catch (ExecutionException e)
+            {
+                failedCount.incrementAndGet();
+                logger.error(String.format("Fetch of [%s] failed.", entry.getKey()), e.getCause());
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(f -> f.cancel(false));
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    public int getActiveCount()
+    {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize()
+    {
+        return executor.getQueue().size();
+    }
+
+    public long getCompletedCount()
+    {
+        return completedCount.get();
+    }
+
+    public long getFailedCount()
+    {
+        return failedCount.get();
+    }
+
+    public long getTimedOutCount()
+    {
+        return timedOutCount.get();
+    }
+
+    public long getRejectedCount()
+    {
+        return rejectedCount.get();
+    }
+
+    private static class GroupFetchThreadFactory
+            implements ThreadFactory
+    {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r)
+        {
+            Thread thread = new Thread(r, "maven-group-fetch-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+
+            return thread;
+        }
+
+    }
+
+}
@@ -2,6 +2,7 @@ package org.carlspring.strongbox.providers.io;
 
 import org.carlspring.commons.encryption.EncryptionAlgorithmsEnum;
 import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteResourceValidatorCache;
 import org.carlspring.strongbox.storage.repository.RepositoryData;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.util.ThrowingFunction;
@@ -28,6 +29,9 @@ public class MavenMetadataExpiredRepositoryPathHandler
     @Inject
     private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
 
+    @Inject
+    private RemoteResourceValidatorCache remoteResourceValidatorCache;
+
     @Override
     public boolean supports(final RepositoryPath repositoryPath)
             throws IOException
@@ -50,6 +54,13 @@ public class MavenMetadataExpiredRepositoryPathHandler
     public void handleExpiration(final RepositoryPath repositoryPath)
             throws IOException
     {
+        if (remoteResourceValidatorCache.get(repositoryPath) != null)
+        {
+            logger.debug("maven-metadata.xml will be revalidated with a conditional request.");
+            proxyRepositoryArtifactResolver.revalidateRemoteResource(repositoryPath);
+            return;
+        }
+
         Decision refetchMetadata = determineMetadataRefetch(repositoryPath,
                                                             EncryptionAlgorithmsEnum.SHA1);
         if (refetchMetadata == I_DONT_KNOW)
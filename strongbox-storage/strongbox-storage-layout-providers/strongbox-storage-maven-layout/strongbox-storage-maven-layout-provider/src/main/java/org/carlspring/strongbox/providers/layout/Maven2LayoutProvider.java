@@ -16,6 +16,7 @@ import org.carlspring.strongbox.storage.metadata.MetadataHelper;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
@@ -40,6 +41,11 @@ public class Maven2LayoutProvider
 
     private static final Logger logger = LoggerFactory.getLogger(Maven2LayoutProvider.class);
 
+    /**
+     * The proxied {@code maven-metadata.xml} files expire this long after they were stored.
+     */
+    private static final long METADATA_EXPIRATION_SECONDS = 10;
+
     @Inject
     private MavenRepositoryManagementStrategy mavenRepositoryManagementStrategy;
 
@@ -97,7 +103,7 @@ public class Maven2LayoutProvider
 
                     break;
                 case EXPIRED:
-                    final Instant tenSecondsAgo = Instant.now().minus(10, ChronoUnit.SECONDS);
+                    final Instant tenSecondsAgo = Instant.now().minus(METADATA_EXPIRATION_SECONDS, ChronoUnit.SECONDS);
                     value = BooleanUtils.isTrue((Boolean) value) || (isMavenMetadata(repositoryPath)
                                                                      &&
                                                                      !RepositoryFiles.wasModifiedAfter(repositoryPath,
@@ -105,6 +111,19 @@ public class Maven2LayoutProvider
 
                     result.put(attributeType, value);
 
+                    break;
+                case EXPIRATION_TIME:
+                    if (value == null && isMavenMetadata(repositoryPath))
+                    {
+                        value = Files.getLastModifiedTime(repositoryPath)
+                                     .toInstant()
+                                     .plus(METADATA_EXPIRATION_SECONDS, ChronoUnit.SECONDS);
+                    }
+                    if (value != null)
+                    {
+                        result.put(attributeType, value);
+                    }
+
                     break;
                 default:
 
@@ -0,0 +1,185 @@
+package org.carlspring.strongbox.repository.group.metadata;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps track of the member {@code maven-metadata.xml} digests which were already merged into the group
+ * repository copies, so that the group copy is only re-merged and re-stored when one of its inputs actually
+ * changed.
+ * <p>
+ * The merged digests are only valid for the group copy they were merged into: the size and modification time of the
+ * group {@code maven-metadata.xml} are recorded with every merge, and all the digests of the group path are dropped
+ * once the group copy has been deleted or replaced by something else. The size and modification time of the member
+ * copy are recorded as well, so that an unchanged member copy can be validated without reading it (see
+ * {@link #isMerged(RepositoryPath, RepositoryPath)}).
+ * <p>
+ * At most {@code strongbox.maven.group.metadata.cacheSize} group paths are tracked, the least recently used ones are
+ * merged again when requested.
+ */
+@Component
+public class MavenGroupMetadataCache
+{
+
+    /**
+     * group metadata key -> merged member metadata
+     */
+    private final Cache<String, GroupMetadataState> states;
+
+    public MavenGroupMetadataCache(@Value("${strongbox.maven.group.metadata.cacheSize:10000}") long maxSize)
+    {
+        this.states = CacheBuilder.newBuilder()
+                                  .maximumSize(maxSize)
+                                  .build();
+    }
+
+    /**
+     * @return `true` if the member metadata of the given digest was merged into the current group copy
+     */
+    public boolean isMerged(RepositoryPath groupMetadataBasePath,
+                            RepositoryPath memberMetadataBasePath,
+                            String memberDigest)
+            throws IOException
+    {
+        MemberMetadataState memberState = getMemberState(groupMetadataBasePath, memberMetadataBasePath);
+
+        return memberState != null && memberDigest.equals(memberState.digest);
+    }
+
+    /**
+     * @return `true` if the current member metadata, judging by its size and modification time, was merged into the
+     *         current group copy
+     */
+    public boolean isMerged(RepositoryPath groupMetadataBasePath,
+                            RepositoryPath memberMetadataBasePath)
+            throws IOException
+    {
+        MemberMetadataState memberState = getMemberState(groupMetadataBasePath, memberMetadataBasePath);
+
+        return memberState != null &&
+               Objects.equals(memberState.fingerprint, fingerprint(memberMetadataBasePath));
+    }
+
+    /**
+     * Records the member metadata merged into the group copy, and the resulting state of the group copy.
+     *
+     * @param memberFingerprint the {@link #fingerprint(Path)} of the member metadata taken before it was read
+     */
+    public void merged(RepositoryPath groupMetadataBasePath,
+                       RepositoryPath memberMetadataBasePath,
+                       String memberDigest,
+                       String memberFingerprint)
+            throws IOException
+    {
+        String groupFingerprint = fingerprint(groupMetadataBasePath);
+        if (groupFingerprint == null)
+        {
+            return;
+        }
+
+        GroupMetadataState state = states.asMap().computeIfAbsent(toKey(groupMetadataBasePath),
+                                                                  k -> new GroupMetadataState());
+        state.members.put(toKey(memberMetadataBasePath), new MemberMetadataState(memberDigest, memberFingerprint));
+        state.fingerprint = groupFingerprint;
+    }
+
+    public void invalidate(RepositoryPath groupMetadataBasePath)
+            throws IOException
+    {
+        states.invalidate(toKey(groupMetadataBasePath));
+    }
+
+    /**
+     * @return the size and modification time of the {@code maven-metadata.xml} in the given directory, or `null` if
+     *         it doesn't exist
+     */
+    public static String fingerprint(Path metadataBasePath)
+            throws IOException
+    {
+        try
+        {
+            BasicFileAttributes attributes = Files.readAttributes(
+                    metadataBasePath.resolve(MetadataHelper.MAVEN_METADATA_XML), BasicFileAttributes.class);
+
+            return String.format("%s-%s", attributes.size(), attributes.lastModifiedTime().toInstant());
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+    }
+
+    private MemberMetadataState getMemberState(RepositoryPath groupMetadataBasePath,
+                                               RepositoryPath memberMetadataBasePath)
+            throws IOException
+    {
+        String key = toKey(groupMetadataBasePath);
+        GroupMetadataState state = states.getIfPresent(key);
+        if (state == null)
+        {
+            return null;
+        }
+
+        if (!Objects.equals(state.fingerprint, fingerprint(groupMetadataBasePath)))
+        {
+            // The group copy has been deleted or replaced since it was merged.
+            states.asMap().remove(key, state);
+
+            return null;
+        }
+
+        return state.members.get(toKey(memberMetadataBasePath));
+    }
+
+    private String toKey(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        return String.format("%s/%s",
+                             repositoryPath.getRepository().getStorageIdAndRepositoryId(),
+                             RepositoryFiles.relativizePath(repositoryPath));
+    }
+
+    private static class GroupMetadataState
+    {
+
+        /**
+         * member metadata key -> merged member metadata, bounded by the number of the group members
+         */
+        private final Map<String, MemberMetadataState> members = new ConcurrentHashMap<>();
+
+        private volatile String fingerprint;
+
+    }
+
+    private static class MemberMetadataState
+    {
+
+        private final String digest;
+
+        private final String fingerprint;
+
+        private MemberMetadataState(String digest,
+                                    String fingerprint)
+        {
+            this.digest = digest;
+            this.fingerprint = fingerprint;
+        }
+
+    }
+
+}
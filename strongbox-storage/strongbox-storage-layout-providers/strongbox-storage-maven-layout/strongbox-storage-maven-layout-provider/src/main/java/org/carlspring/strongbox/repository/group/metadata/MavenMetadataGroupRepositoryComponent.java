@@ -3,14 +3,17 @@ package org.carlspring.strongbox.repository.group.metadata;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.repository.group.BaseMavenGroupRepositoryComponent;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
 import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.springframework.stereotype.Component;
@@ -26,6 +29,9 @@ public class MavenMetadataGroupRepositoryComponent
     @Inject
     private MavenMetadataManager mavenMetadataManager;
 
+    @Inject
+    private MavenGroupMetadataCache mavenGroupMetadataCache;
+
     @Override
     protected void cleanupGroupWhenArtifactPathNoLongerExistsInSubTree(final Repository groupRepository,
                                                                        final String artifactPath)
@@ -34,9 +40,40 @@ public class MavenMetadataGroupRepositoryComponent
         final LayoutProvider layoutProvider = getRepositoryProvider(groupRepository);
         
         RepositoryPath repositoryPath = repositoryPathResolver.resolve(groupRepository, artifactPath);
+        mavenGroupMetadataCache.invalidate(repositoryPath.getParent());
         Files.delete(repositoryPath);
     }
 
+    /**
+     * Merges the member metadata into the group copy, which is created if it doesn't exist yet, unless it has been
+     * merged already.
+     *
+     * @param groupMetadataBasePath the group metadata directory
+     * @param memberMetadataBasePath the same directory within the group member
+     */
+    public void mergeIntoGroup(RepositoryPath groupMetadataBasePath,
+                               RepositoryPath memberMetadataBasePath)
+            throws IOException
+    {
+        if (!Files.exists(memberMetadataBasePath.resolve(MetadataHelper.MAVEN_METADATA_XML)) ||
+            mavenGroupMetadataCache.isMerged(groupMetadataBasePath, memberMetadataBasePath))
+        {
+            return;
+        }
+
+        UpdateCallback updateCallback = newInstance(memberMetadataBasePath);
+        try
+        {
+            updateCallback.beforeUpdate();
+        }
+        catch (StopUpdateSilentlyException ex)
+        {
+            return;
+        }
+
+        updateCallback.performUpdate(groupMetadataBasePath);
+    }
+
     @Override
     protected UpdateCallback newInstance(RepositoryPath repositoryPath)
     {
@@ -51,6 +88,10 @@ public class MavenMetadataGroupRepositoryComponent
 
         private Metadata mergeMetadata;
 
+        private String mergeMetadataDigest;
+
+        private String mergeMetadataFingerprint;
+
         MetadataUpdateCallback(RepositoryPath repositoryPath)
         {
             this.initiatorRepositoryPath = repositoryPath;
@@ -64,7 +105,12 @@ public class MavenMetadataGroupRepositoryComponent
 
             try
             {
-                mergeMetadata = mavenMetadataManager.readMetadata(artifactAbsolutePath);
+                // Taken before reading, so that a concurrent change is detected as a different fingerprint later on.
+                mergeMetadataFingerprint = MavenGroupMetadataCache.fingerprint(artifactAbsolutePath);
+                byte[] metadataBytes = Files.readAllBytes(MetadataHelper.getMetadataPath(artifactAbsolutePath));
+
+                mergeMetadataDigest = DigestUtils.sha1Hex(metadataBytes);
+                mergeMetadata = mavenMetadataManager.readMetadata(new ByteArrayInputStream(metadataBytes));
             }
             catch (final FileNotFoundException ex)
             {
@@ -81,7 +127,20 @@ public class MavenMetadataGroupRepositoryComponent
         public void performUpdate(final RepositoryPath parentRepositoryArtifactAbsolutePath)
                 throws IOException
         {
+            if (mavenGroupMetadataCache.isMerged(parentRepositoryArtifactAbsolutePath,
+                                                 initiatorRepositoryPath,
+                                                 mergeMetadataDigest))
+            {
+                logger.debug("Metadata of [{}] is unchanged, skipping merge into [{}].",
+                             initiatorRepositoryPath, parentRepositoryArtifactAbsolutePath);
+                return;
+            }
+
             mavenMetadataManager.mergeAndStore(parentRepositoryArtifactAbsolutePath, mergeMetadata);
+            mavenGroupMetadataCache.merged(parentRepositoryArtifactAbsolutePath,
+                                           initiatorRepositoryPath,
+                                           mergeMetadataDigest,
+                                           mergeMetadataFingerprint);
         }
     }
 
@@ -2,8 +2,20 @@ package org.carlspring.strongbox.storage.indexing;
 
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TimeZone;
 
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.maven.index.context.IndexingContext;
@@ -27,6 +39,72 @@ public class IndexPacker
     public static RepositoryPath pack(final RepositoryPath indexPath,
                                       final IndexingContext context)
             throws IOException
+    {
+        return pack(indexPath, context, true, true);
+    }
+
+    /**
+     * Packs only the incremental chunk (and the updated properties) of the given indexing context, without
+     * rewriting the full {@code nexus-maven-repository-index.gz}. Clients holding an older index apply the new
+     * chunk on top of it, so a small change doesn't cost a full repack.
+     * <p>
+     * The full package is still packed when there is no valid chunk chain to append to (the chain is reset, so
+     * clients will download the full package), and rewritten after every {@code fullPackInterval} chunks, so that
+     * new clients don't start from an outdated full package.
+     */
+    public static RepositoryPath packIncrementalChunk(final RepositoryPath indexPath,
+                                                      final IndexingContext context,
+                                                      final int fullPackInterval)
+            throws IOException
+    {
+        final Properties previousProperties = readProperties(indexPath);
+        if (!packageExists(indexPath) || !isValidChain(previousProperties))
+        {
+            logger.info(String.format("No valid index chain for %s, packing the full index.", indexPath));
+
+            return pack(indexPath, context);
+        }
+
+        pack(indexPath, context, true, false);
+
+        final Properties properties = readProperties(indexPath);
+        if (properties == null ||
+            !Objects.equals(properties.getProperty(IndexingContext.INDEX_CHAIN_ID),
+                            previousProperties.getProperty(IndexingContext.INDEX_CHAIN_ID)))
+        {
+            logger.info(String.format("Index chain for %s was reset, packing the full index.", indexPath));
+
+            return pack(indexPath, context, false, true);
+        }
+
+        final String chunkCounter = properties.getProperty(IndexingContext.INDEX_CHUNK_COUNTER);
+        if (Objects.equals(chunkCounter, previousProperties.getProperty(IndexingContext.INDEX_CHUNK_COUNTER)))
+        {
+            // No changes since the last chunk.
+            return indexPath.resolve(IndexingContext.INDEX_FILE_PREFIX + ".gz");
+        }
+
+        if (fullPackInterval > 0 && Integer.parseInt(chunkCounter) % fullPackInterval == 0)
+        {
+            logger.info(String.format("Index for %s reached chunk %s, packing the full index.", indexPath,
+                                      chunkCounter));
+
+            return pack(indexPath, context, false, true);
+        }
+
+        // The packer only updates the timestamp along with the full package, but clients compare it to decide
+        // whether there is anything new to fetch, and the next chunk starts from it.
+        properties.setProperty(IndexingContext.INDEX_TIMESTAMP, newDateFormat().format(timestamp(context)));
+        writeProperties(indexPath, properties);
+
+        return indexPath.resolve(IndexingContext.INDEX_FILE_PREFIX + ".gz");
+    }
+
+    private static RepositoryPath pack(final RepositoryPath indexPath,
+                                       final IndexingContext context,
+                                       final boolean incrementalChunk,
+                                       final boolean fullPackage)
+            throws IOException
     {
         final IndexSearcher indexSearcher = context.acquireIndexSearcher();
         try
@@ -36,9 +114,16 @@ public class IndexPacker
                                                                         indexSearcher.getIndexReader(),
                                                                         indexPath.toFile());
             request.setUseTargetProperties(true);
+            request.setCreateIncrementalChunks(incrementalChunk);
+            if (!fullPackage)
+            {
+                request.setFormats(Collections.emptyList());
+            }
             IndexPacker.INSTANCE.packIndex(request);
 
-            logger.info(String.format("Index for %s was packed successfully.", indexPath));
+            logger.info(String.format("Index for %s was packed successfully (%s).", indexPath,
+                                      !fullPackage ? "incremental chunk only" :
+                                      !incrementalChunk ? "full package only" : "full"));
         }
         finally
         {
@@ -51,4 +136,70 @@ public class IndexPacker
     {
         return Files.exists(indexPath.resolve(IndexingContext.INDEX_FILE_PREFIX + ".gz"));
     }
+
+    /**
+     * @see org.apache.maven.index.incremental.DefaultIncrementalHandler#getIncrementalUpdates
+     */
+    private static boolean isValidChain(final Properties properties)
+    {
+        if (properties == null || properties.getProperty(IndexingContext.INDEX_CHAIN_ID) == null)
+        {
+            return false;
+        }
+
+        final String timestamp = properties.getProperty(IndexingContext.INDEX_TIMESTAMP);
+        try
+        {
+            return timestamp != null && newDateFormat().parse(timestamp) != null;
+        }
+        catch (ParseException e)
+        {
+            return false;
+        }
+    }
+
+    private static Properties readProperties(final RepositoryPath indexPath)
+            throws IOException
+    {
+        // Read and written the same way the maven-indexer packer does, bypassing the repository file system.
+        final Path propertiesPath = new File(indexPath.toFile(), IndexingContext.INDEX_REMOTE_PROPERTIES_FILE).toPath();
+
+        final Properties properties = new Properties();
+        try (InputStream is = Files.newInputStream(propertiesPath))
+        {
+            properties.load(is);
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+        return properties;
+    }
+
+    private static void writeProperties(final RepositoryPath indexPath,
+                                        final Properties properties)
+            throws IOException
+    {
+        final Path propertiesPath = new File(indexPath.toFile(), IndexingContext.INDEX_REMOTE_PROPERTIES_FILE).toPath();
+
+        try (OutputStream os = Files.newOutputStream(propertiesPath))
+        {
+            properties.store(os, null);
+        }
+    }
+
+    private static Date timestamp(final IndexingContext context)
+    {
+        final Date timestamp = context.getTimestamp();
+
+        return timestamp != null ? timestamp : new Date(0);
+    }
+
+    private static SimpleDateFormat newDateFormat()
+    {
+        final SimpleDateFormat dateFormat = new SimpleDateFormat(IndexingContext.INDEX_TIME_FORMAT);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+
+        return dateFormat;
+    }
 }
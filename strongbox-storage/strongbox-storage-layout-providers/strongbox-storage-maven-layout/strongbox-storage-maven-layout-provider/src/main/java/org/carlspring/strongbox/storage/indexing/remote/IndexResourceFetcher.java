@@ -63,6 +63,9 @@ public class IndexResourceFetcher
 
         InputStream result = null;
 
+        // Chunks are retrieved and applied one after another, so the previous chunk's stream is fully consumed
+        // by now and its connection can be released before the next chunk is streamed.
+        Closeables.close(response, true);
         response = client.execute(new HttpGet(uri));
 
         HttpEntity httpEntity = response.getEntity();
@@ -23,6 +23,7 @@ import org.apache.maven.index.updater.IndexUpdateResult;
 import org.apache.maven.index.updater.IndexUpdater;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
@@ -39,6 +40,9 @@ public class RepositoryProxyIndexCreator
 
     private final IndexUpdater indexUpdater = new DefaultIndexUpdater(new DefaultIncrementalHandler(), null);
 
+    @Value("${strongbox.maven.index.fullPackInterval:10}")
+    private int fullPackInterval;
+
     @Inject
     private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
 
@@ -79,19 +83,21 @@ public class RepositoryProxyIndexCreator
             }
             return;
         }
-        if (updateResult.isFullUpdate())
+        if (updateResult.isFullUpdate() || !IndexPacker.packageExists(repositoryIndexDirectoryPath))
         {
             logger.debug(String.format("Performed a full index update for %s:%s.", storageId, repositoryId));
 
+            IndexPacker.pack(repositoryIndexDirectoryPath, indexingContext);
+            return;
         }
-        else
-        {
-            logger.debug(
-                    String.format(
-                            "Performed an incremental update, with changes covering the period between %s - %s.",
-                            contextCurrentTimestamp, updateResult.getTimestamp()));
-        }
-        IndexPacker.pack(repositoryIndexDirectoryPath, indexingContext);
+
+        logger.debug(
+                String.format(
+                        "Performed an incremental update, with changes covering the period between %s - %s.",
+                        contextCurrentTimestamp, updateResult.getTimestamp()));
+
+        // The full package is already published, so only the new chunk needs to be packed and published.
+        IndexPacker.packIncrementalChunk(repositoryIndexDirectoryPath, indexingContext, fullPackInterval);
     }
 
     private IndexUpdateResult fetchIndex(final RepositoryCloseableIndexingContext indexingContext,
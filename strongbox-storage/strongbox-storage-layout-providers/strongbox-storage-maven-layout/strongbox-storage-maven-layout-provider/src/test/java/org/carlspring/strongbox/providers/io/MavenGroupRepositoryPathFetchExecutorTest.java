@@ -0,0 +1,131 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MavenGroupRepositoryPathFetchExecutorTest
+{
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private MavenGroupRepositoryPathFetchExecutor fetchExecutor;
+
+
+    @AfterEach
+    public void tearDown()
+    {
+        release.countDown();
+        fetchExecutor.destroy();
+    }
+
+    @Test
+    public void fetchesShouldBeAggregatedPartially()
+    {
+        fetchExecutor = newFetchExecutor(4, 16, 1);
+
+        Path fetched = Paths.get("releases/org/carlspring/test/maven-metadata.xml");
+        Map<String, Callable<Path>> fetchActions = new LinkedHashMap<>();
+        fetchActions.put("storage0:releases", () -> fetched);
+        fetchActions.put("storage0:failing", () -> {
+            throw new IOException("Expected.");
+        });
+        fetchActions.put("storage0:slow", this::awaitRelease);
+        fetchActions.put("storage0:missing", () -> null);
+
+        List<Path> result = fetchExecutor.fetchAll(fetchActions);
+
+        assertThat(result, contains(fetched));
+        assertThat(fetchExecutor.getCompletedCount(), equalTo(2L));
+        assertThat(fetchExecutor.getFailedCount(), equalTo(1L));
+        assertThat(fetchExecutor.getTimedOutCount(), equalTo(1L));
+        assertThat(fetchExecutor.getRejectedCount(), equalTo(0L));
+    }
+
+    @Test
+    public void timedOutFetchShouldNotBeInterrupted()
+        throws InterruptedException
+    {
+        fetchExecutor = newFetchExecutor(1, 1, 1);
+
+        AtomicBoolean interrupted = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(1);
+        Map<String, Callable<Path>> fetchActions = new LinkedHashMap<>();
+        fetchActions.put("storage0:slow", () -> {
+            try
+            {
+                return awaitRelease();
+            }
+            catch (InterruptedException e)
+            {
+                interrupted.set(true);
+                throw e;
+            }
+            finally
+            {
+                finished.countDown();
+            }
+        });
+
+        assertTrue(fetchExecutor.fetchAll(fetchActions).isEmpty());
+        assertThat(fetchExecutor.getTimedOutCount(), equalTo(1L));
+
+        // The fetch goes on in the background, and completes storing the file.
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertFalse(interrupted.get());
+    }
+
+    @Test
+    public void fetchesShouldBeRejectedWhenQueueIsFull()
+    {
+        fetchExecutor = newFetchExecutor(1, 1, 1);
+
+        Map<String, Callable<Path>> fetchActions = new LinkedHashMap<>();
+        fetchActions.put("storage0:running", this::awaitRelease);
+        fetchActions.put("storage0:queued", this::awaitRelease);
+        fetchActions.put("storage0:rejected", this::awaitRelease);
+
+        assertTrue(fetchExecutor.fetchAll(fetchActions).isEmpty());
+        assertThat(fetchExecutor.getRejectedCount(), equalTo(1L));
+        assertThat(fetchExecutor.getTimedOutCount(), equalTo(2L));
+    }
+
+    private Path awaitRelease()
+        throws InterruptedException
+    {
+        release.await();
+
+        return null;
+    }
+
+    private static MavenGroupRepositoryPathFetchExecutor newFetchExecutor(int threadsNumber,
+                                                                          int queueCapacity,
+                                                                          long timeoutSeconds)
+    {
+        MavenGroupRepositoryPathFetchExecutor result = new MavenGroupRepositoryPathFetchExecutor();
+        ReflectionTestUtils.setField(result, "threadsNumber", threadsNumber);
+        ReflectionTestUtils.setField(result, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(result, "timeoutSeconds", timeoutSeconds);
+        result.afterPropertiesSet();
+
+        return result;
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteResourceValidatorCache.RemoteResourceValidator;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class RemoteResourceValidatorCacheTest
+{
+
+    private static final String REPOSITORY = "rrvct-releases";
+
+    private static final String ETAG = "\"v1\"";
+
+    private static final String LAST_MODIFIED = "Mon, 19 Oct 2026 10:00:00 GMT";
+
+    @Inject
+    private RemoteResourceValidatorCache remoteResourceValidatorCache;
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void validatorsShouldBeStoredWithTheLocalCopy(
+            @MavenRepository(repositoryId = REPOSITORY) Repository repository,
+            @MavenTestArtifact(repositoryId = REPOSITORY, id = "org.carlspring.strongbox.validators:validators-test",
+                               versions = { "1.0" }) Path artifactPath)
+            throws Exception
+    {
+        RepositoryPath repositoryPath = (RepositoryPath) artifactPath.normalize();
+        assumeTrue(Files.getFileStore(repositoryPath).supportsFileAttributeView(UserDefinedFileAttributeView.class));
+
+        Response response = Mockito.mock(Response.class);
+        when(response.getHeaderString(HttpHeaders.ETAG)).thenReturn(ETAG);
+        when(response.getHeaderString(HttpHeaders.LAST_MODIFIED)).thenReturn(LAST_MODIFIED);
+        remoteResourceValidatorCache.put(repositoryPath, response);
+
+        // As if after a restart.
+        RemoteResourceValidatorCache validatorCache = new RemoteResourceValidatorCache(100, 1);
+        RemoteResourceValidator validator = validatorCache.get(repositoryPath);
+        assertThat(validator, notNullValue());
+        assertThat(validator.getETag(), equalTo(ETAG));
+        assertThat(validator.getLastModified(), equalTo(LAST_MODIFIED));
+
+        // No conditional request without the local copy.
+        Files.delete(repositoryPath);
+        assertThat(validatorCache.get(repositoryPath), nullValue());
+        assertThat(remoteResourceValidatorCache.get(repositoryPath), nullValue());
+    }
+
+}
@@ -0,0 +1,102 @@
+package org.carlspring.strongbox.repository.group.metadata;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.repository.group.BaseMavenGroupRepositoryComponentTest;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Group;
+
+import javax.inject.Inject;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class MavenMetadataGroupRepositoryComponentCacheTest
+        extends BaseMavenGroupRepositoryComponentTest
+{
+
+    private static final String REPOSITORY_LEAF_CA = "leaf-repo-ca";
+
+    private static final String REPOSITORY_LEAF_CB = "leaf-repo-cb";
+
+    private static final String REPOSITORY_GROUP_CC = "group-repo-cc";
+
+    private static final String ARTIFACT_BASE_PATH = "com/artifacts/to/cache/releases/cache-group";
+
+    @Inject
+    private MavenMetadataGroupRepositoryComponent mavenGroupRepositoryComponent;
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void unchangedMemberMetadataShouldBeMergedAgainIntoReplacedGroupMetadata(
+            @MavenRepository(repositoryId = REPOSITORY_LEAF_CA) Repository repositoryLeafCa,
+            @MavenRepository(repositoryId = REPOSITORY_LEAF_CB) Repository repositoryLeafCb,
+            @Group({ REPOSITORY_LEAF_CA,
+                     REPOSITORY_LEAF_CB })
+            @MavenRepository(repositoryId = REPOSITORY_GROUP_CC) Repository repositoryGroupCc,
+            @MavenTestArtifact(repositoryId = REPOSITORY_LEAF_CA, id = "com.artifacts.to.cache.releases:cache-group", versions = { "1.2.1",
+                                                                                                                                   "1.2.2" })
+                    Path artifactLeafCa,
+            @MavenTestArtifact(repositoryId = REPOSITORY_LEAF_CB, id = "com.artifacts.to.cache.releases:cache-group", versions = { "2.0.0" })
+                    Path artifactLeafCb)
+            throws Exception
+    {
+        mavenMetadataServiceHelper.generateMavenMetadata(repositoryLeafCa);
+        mavenMetadataServiceHelper.generateMavenMetadata(repositoryLeafCb);
+
+        String metadataPath = ARTIFACT_BASE_PATH + "/" + MetadataHelper.MAVEN_METADATA_XML;
+        RepositoryPath leafPath = repositoryPathResolver.resolve(repositoryLeafCa, ARTIFACT_BASE_PATH);
+        RepositoryPath groupPath = repositoryPathResolver.resolve(repositoryGroupCc, ARTIFACT_BASE_PATH);
+        RepositoryPath groupMetadataPath = groupPath.resolve(MetadataHelper.MAVEN_METADATA_XML);
+
+        copyArtifactMetadata(REPOSITORY_LEAF_CB, REPOSITORY_GROUP_CC, metadataPath);
+        mavenGroupRepositoryComponent.updateGroupsContaining(leafPath);
+        assertThat(readVersions(groupPath), containsInAnyOrder("1.2.1", "1.2.2", "2.0.0"));
+
+        // The same member metadata isn't merged again.
+        FileTime lastModified = Files.getLastModifiedTime(groupMetadataPath);
+        mavenGroupRepositoryComponent.updateGroupsContaining(leafPath);
+        mavenGroupRepositoryComponent.mergeIntoGroup(groupPath, leafPath);
+        assertThat(Files.getLastModifiedTime(groupMetadataPath), equalTo(lastModified));
+
+        // The group copy has been replaced, so the same member metadata has to be merged again.
+        copyArtifactMetadata(REPOSITORY_LEAF_CB, REPOSITORY_GROUP_CC, metadataPath);
+        assertThat(readVersions(groupPath), containsInAnyOrder("2.0.0"));
+        mavenGroupRepositoryComponent.updateGroupsContaining(leafPath);
+        assertThat(readVersions(groupPath), containsInAnyOrder("1.2.1", "1.2.2", "2.0.0"));
+
+        // Same, when the group copy is validated on fetch.
+        copyArtifactMetadata(REPOSITORY_LEAF_CB, REPOSITORY_GROUP_CC, metadataPath);
+        mavenGroupRepositoryComponent.mergeIntoGroup(groupPath, leafPath);
+        assertThat(readVersions(groupPath), containsInAnyOrder("1.2.1", "1.2.2", "2.0.0"));
+    }
+
+    private List<String> readVersions(RepositoryPath metadataBasePath)
+            throws Exception
+    {
+        return mavenMetadataManager.readMetadata(metadataBasePath).getVersioning().getVersions();
+    }
+
+}
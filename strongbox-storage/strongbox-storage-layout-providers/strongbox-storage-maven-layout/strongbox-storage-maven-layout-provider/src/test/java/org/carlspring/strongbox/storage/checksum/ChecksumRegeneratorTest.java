@@ -0,0 +1,207 @@
+package org.carlspring.strongbox.storage.checksum;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class ChecksumRegeneratorTest
+{
+
+    private static final String REPOSITORY_SKIP = "crt-skip";
+
+    private static final String REPOSITORY_PRUNE = "crt-prune";
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    public void unchangedArtifactsShouldBeSkipped(@MavenRepository(repositoryId = REPOSITORY_SKIP)
+                                                  Repository repository,
+                                                  @MavenTestArtifact(repositoryId = REPOSITORY_SKIP,
+                                                                     id = "org.carlspring.strongbox:crt-skip",
+                                                                     versions = "1.0")
+                                                  Path path)
+            throws IOException
+    {
+        RepositoryPath artifactPath = (RepositoryPath) path.normalize();
+        RepositoryPath versionPath = artifactPath.getParent();
+        RepositoryPath checksumPath = artifactPath.getFileSystem()
+                                                  .provider()
+                                                  .resolveChecksumPathMap(artifactPath)
+                                                  .get(MessageDigestAlgorithms.SHA_1);
+        String checksum = read(checksumPath);
+        int artifacts = countArtifacts(versionPath);
+
+        // A forced regeneration re-writes everything which was not recorded yet and records the state.
+        assertEquals(artifacts, regenerate(versionPath, true).getRegenerated());
+        assertNotNull(stateEntry(repository, artifactPath));
+
+        // Nothing changed since then.
+        ChecksumRegenerator checksumRegenerator = regenerate(versionPath, false);
+        assertEquals(0, checksumRegenerator.getRegenerated());
+        assertEquals(artifacts, checksumRegenerator.getSkipped());
+
+        // The forced regeneration skips the unchanged artifacts as well.
+        Files.write(checksumPath, "corrupted".getBytes(StandardCharsets.UTF_8));
+        checksumRegenerator = regenerate(versionPath, true);
+        assertEquals(0, checksumRegenerator.getRegenerated());
+        assertEquals(artifacts, checksumRegenerator.getSkipped());
+
+        // Only the full regeneration doesn't depend on the recorded state.
+        assertEquals(artifacts, regenerate(versionPath, true, true).getRegenerated());
+        assertEquals(checksum, read(checksumPath));
+
+        // A missing checksum.
+        Files.delete(checksumPath);
+        assertEquals(1, regenerate(versionPath, false).getRegenerated());
+        assertEquals(checksum, read(checksumPath));
+
+        // The artifact changed since its checksums were recorded.
+        String fingerprint = stateEntry(repository, artifactPath);
+        Files.write(checksumPath, "corrupted".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(artifactPath,
+                                  FileTime.fromMillis(Files.getLastModifiedTime(artifactPath).toMillis() + 60000));
+        assertEquals(1, regenerate(versionPath, false).getRegenerated());
+        assertEquals(checksum, read(checksumPath));
+        assertNotEquals(fingerprint, stateEntry(repository, artifactPath));
+
+        // The state file is replaced through a unique temporary file, which doesn't remain.
+        File[] tempFiles = repositoryPathResolver.resolve(repository)
+                                                 .toFile()
+                                                 .listFiles((dir, name) -> name.startsWith(
+                                                         ChecksumRegenerator.STATE_FILE_NAME) &&
+                                                                           name.endsWith(".tmp"));
+        assertEquals(0, tempFiles.length);
+    }
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    public void removedArtifactsShouldBePrunedAfterFullScan(@MavenRepository(repositoryId = REPOSITORY_PRUNE)
+                                                            Repository repository,
+                                                            @MavenTestArtifact(repositoryId = REPOSITORY_PRUNE,
+                                                                               id = "org.carlspring.strongbox:crt-prune",
+                                                                               versions = "1.0")
+                                                            Path path)
+            throws IOException
+    {
+        RepositoryPath artifactPath = (RepositoryPath) path.normalize();
+        RepositoryPath versionPath = artifactPath.getParent();
+        RepositoryPath pomPath = versionPath.resolve(artifactPath.getFileName().toString().replace(".jar", ".pom"));
+        RepositoryPath rootPath = repositoryPathResolver.resolve(repository);
+
+        regenerate(rootPath, true);
+        assertNotNull(stateEntry(repository, artifactPath));
+        assertNotNull(stateEntry(repository, pomPath));
+
+        Files.delete(artifactPath);
+
+        // Only a part of the repository was scanned.
+        regenerate(versionPath, false);
+        assertNotNull(stateEntry(repository, artifactPath));
+
+        regenerate(rootPath, false);
+        assertNull(stateEntry(repository, artifactPath));
+        assertNotNull(stateEntry(repository, pomPath));
+    }
+
+    private static ChecksumRegenerator regenerate(RepositoryPath basePath,
+                                                  boolean forceRegeneration)
+            throws IOException
+    {
+        return regenerate(basePath, forceRegeneration, false);
+    }
+
+    private static ChecksumRegenerator regenerate(RepositoryPath basePath,
+                                                  boolean forceRegeneration,
+                                                  boolean fullRegeneration)
+            throws IOException
+    {
+        try (ChecksumRegenerator checksumRegenerator = new ChecksumRegenerator(forceRegeneration, fullRegeneration,
+                                                                               2))
+        {
+            checksumRegenerator.submitTree(basePath);
+
+            return checksumRegenerator;
+        }
+    }
+
+    private static int countArtifacts(RepositoryPath directory)
+            throws IOException
+    {
+        int result = 0;
+        try (Stream<Path> paths = Files.list(directory))
+        {
+            for (Path p : (Iterable<Path>) paths::iterator)
+            {
+                if (!Files.isDirectory(p) && !Boolean.TRUE.equals(RepositoryFiles.isChecksum((RepositoryPath) p)))
+                {
+                    result++;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the recorded `size lastModified` of the artifact, or null
+     */
+    private String stateEntry(Repository repository,
+                              RepositoryPath artifactPath)
+            throws IOException
+    {
+        RepositoryPath stateFile = repositoryPathResolver.resolve(repository)
+                                                         .resolve(ChecksumRegenerator.STATE_FILE_NAME);
+        String suffix = " " + RepositoryFiles.relativizePath(artifactPath);
+
+        List<String> lines = Files.readAllLines(stateFile, StandardCharsets.UTF_8);
+        return lines.stream()
+                    .filter(l -> l.endsWith(suffix))
+                    .map(l -> l.substring(0, l.length() - suffix.length()))
+                    .findFirst()
+                    .orElse(null);
+    }
+
+    private static String read(RepositoryPath path)
+            throws IOException
+    {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,290 @@
+package org.carlspring.strongbox.storage.indexing;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.indexing.RepositoryIndexDirectoryPathResolver.RepositoryIndexDirectoryPathResolverQualifier;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.MavenIndexedRepositorySetup;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.lucene.search.Query;
+import org.apache.maven.index.ArtifactContext;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.FlatSearchRequest;
+import org.apache.maven.index.MAVEN;
+import org.apache.maven.index.artifact.Gav;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+import org.apache.maven.index.expr.SourcedSearchExpression;
+import org.apache.maven.index.incremental.DefaultIncrementalHandler;
+import org.apache.maven.index.updater.DefaultIndexUpdater;
+import org.apache.maven.index.updater.IndexUpdateRequest;
+import org.apache.maven.index.updater.IndexUpdater;
+import org.apache.maven.index.updater.ResourceFetcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class IndexPackerTest
+        extends BaseRepositoryIndexCreatorTest
+{
+
+    private static final String REPOSITORY_PACKED = "index-packer-packed";
+
+    private static final String REPOSITORY_PACKED_RESET = "index-packer-packed-reset";
+
+    private static final String REPOSITORY_PACKED_PERIODIC = "index-packer-packed-periodic";
+
+    private static final String REPOSITORY_REPACKED = "index-packer-repacked";
+
+    private static final String GROUP_ID = "org.carlspring.strongbox.packer";
+
+    private final IndexUpdater indexUpdater = new DefaultIndexUpdater(new DefaultIncrementalHandler(), null);
+
+    @Inject
+    @RepositoryIndexDirectoryPathResolverQualifier(IndexTypeEnum.LOCAL)
+    private RepositoryIndexDirectoryPathResolver indexDirectoryPathResolver;
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void fullPackageAndIncrementalChunkShouldUnpackToFreshFullPackage(@MavenRepository(repositoryId = REPOSITORY_PACKED,
+                                                                                               setup = MavenIndexedRepositorySetup.class)
+                                                                              Repository repository,
+                                                                              @MavenRepository(repositoryId = REPOSITORY_REPACKED,
+                                                                                               setup = MavenIndexedRepositorySetup.class)
+                                                                              Repository freshRepository)
+            throws IOException
+    {
+        RepositoryPath indexPath = indexDirectoryPathResolver.resolve(repository);
+        Path packagePath = indexPath.resolve(IndexingContext.INDEX_FILE_PREFIX + ".gz");
+
+        try (RepositoryCloseableIndexingContext context = createContext(repository, "packer");
+             RepositoryCloseableIndexingContext clientContext = createContext(repository, "client"))
+        {
+            addArtifact(context, "packer-a", "1.0");
+            IndexPacker.pack(indexPath, context);
+
+            fetchIndex(clientContext, indexPath);
+            assertThat(search(clientContext), containsInAnyOrder(uinfo("packer-a", "1.0")));
+
+            byte[] fullPackage = Files.readAllBytes(packagePath);
+
+            addArtifact(context, "packer-b", "1.0");
+            IndexPacker.packIncrementalChunk(indexPath, context, 10);
+            addArtifact(context, "packer-c", "1.0");
+            IndexPacker.packIncrementalChunk(indexPath, context, 10);
+
+            // Only the chunks were published.
+            assertThat(Files.readAllBytes(packagePath), equalTo(fullPackage));
+
+            fetchIndex(clientContext, indexPath);
+
+            RepositoryPath freshIndexPath = indexDirectoryPathResolver.resolve(freshRepository);
+            IndexPacker.pack(freshIndexPath, context);
+            try (RepositoryCloseableIndexingContext freshClientContext = createContext(freshRepository, "client"))
+            {
+                fetchIndex(freshClientContext, freshIndexPath);
+
+                assertThat(search(freshClientContext), containsInAnyOrder(uinfo("packer-a", "1.0"),
+                                                                          uinfo("packer-b", "1.0"),
+                                                                          uinfo("packer-c", "1.0")));
+                assertThat(search(clientContext), equalTo(search(freshClientContext)));
+            }
+        }
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void fullPackageShouldBeRegeneratedWhenChainIsReset(@MavenRepository(repositoryId = REPOSITORY_PACKED_RESET,
+                                                                                setup = MavenIndexedRepositorySetup.class)
+                                                               Repository repository)
+            throws IOException
+    {
+        RepositoryPath indexPath = indexDirectoryPathResolver.resolve(repository);
+
+        try (RepositoryCloseableIndexingContext context = createContext(repository, "packer");
+             RepositoryCloseableIndexingContext clientContext = createContext(repository, "client"))
+        {
+            addArtifact(context, "packer-a", "1.0");
+
+            // There is no chain to append to yet.
+            IndexPacker.packIncrementalChunk(indexPath, context, 10);
+            assertThat(IndexPacker.packageExists(indexPath), equalTo(true));
+
+            fetchIndex(clientContext, indexPath);
+            assertThat(search(clientContext), containsInAnyOrder(uinfo("packer-a", "1.0")));
+
+            // The chain can't be continued without the properties, so it's reset.
+            Files.delete(new File(indexPath.toFile(), IndexingContext.INDEX_REMOTE_PROPERTIES_FILE).toPath());
+            addArtifact(context, "packer-b", "1.0");
+            IndexPacker.packIncrementalChunk(indexPath, context, 10);
+
+            fetchIndex(clientContext, indexPath);
+            try (RepositoryCloseableIndexingContext newClientContext = createContext(repository, "new-client"))
+            {
+                fetchIndex(newClientContext, indexPath);
+
+                assertThat(search(newClientContext), containsInAnyOrder(uinfo("packer-a", "1.0"),
+                                                                         uinfo("packer-b", "1.0")));
+                assertThat(search(clientContext), equalTo(search(newClientContext)));
+            }
+        }
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void fullPackageShouldBeRegeneratedPeriodically(@MavenRepository(repositoryId = REPOSITORY_PACKED_PERIODIC,
+                                                                            setup = MavenIndexedRepositorySetup.class)
+                                                           Repository repository)
+            throws IOException
+    {
+        RepositoryPath indexPath = indexDirectoryPathResolver.resolve(repository);
+        Path packagePath = indexPath.resolve(IndexingContext.INDEX_FILE_PREFIX + ".gz");
+
+        try (RepositoryCloseableIndexingContext context = indexingContextFactory.create(repository))
+        {
+            addArtifact(context, "packer-a", "1.0");
+            IndexPacker.pack(indexPath, context);
+
+            byte[] fullPackage = Files.readAllBytes(packagePath);
+
+            addArtifact(context, "packer-b", "1.0");
+            IndexPacker.packIncrementalChunk(indexPath, context, 2);
+            assertThat(Files.readAllBytes(packagePath), equalTo(fullPackage));
+
+            addArtifact(context, "packer-c", "1.0");
+            IndexPacker.packIncrementalChunk(indexPath, context, 2);
+            assertThat(Files.readAllBytes(packagePath), not(equalTo(fullPackage)));
+
+            // A new client only downloads the full package.
+            try (RepositoryCloseableIndexingContext clientContext = createContext(repository, "client"))
+            {
+                fetchIndex(clientContext, indexPath);
+
+                assertThat(search(clientContext), containsInAnyOrder(uinfo("packer-a", "1.0"),
+                                                                     uinfo("packer-b", "1.0"),
+                                                                     uinfo("packer-c", "1.0")));
+            }
+        }
+    }
+
+    private void addArtifact(IndexingContext context,
+                             String artifactId,
+                             String version)
+            throws IOException
+    {
+        ArtifactInfo artifactInfo = new ArtifactInfo(context.getRepositoryId(), GROUP_ID, artifactId, version, null,
+                                                     "jar");
+        artifactInfo.setPackaging("jar");
+        ArtifactContext artifactContext = new ArtifactContext(null, null, null, artifactInfo,
+                                                              new Gav(GROUP_ID, artifactId, version));
+
+        indexer.addArtifactsToIndex(Collections.singletonList(artifactContext), context);
+    }
+
+    /**
+     * Creates an indexing context next to the packed index of the given repository.
+     */
+    private RepositoryCloseableIndexingContext createContext(Repository repository,
+                                                             String name)
+            throws IOException
+    {
+        File directory = indexDirectoryPathResolver.resolve(repository).getParent().resolve(name).toFile();
+
+        return new RepositoryCloseableIndexingContext(
+                indexer.createIndexingContext(repository.getId() + "-" + name,
+                                              repository.getId(),
+                                              new File(directory, ".cache"),
+                                              directory,
+                                              null,
+                                              null,
+                                              true,
+                                              true,
+                                              Collections.singletonList(new MinimalArtifactInfoIndexCreator())),
+                repository);
+    }
+
+    private void fetchIndex(IndexingContext clientContext,
+                            RepositoryPath indexPath)
+            throws IOException
+    {
+        indexUpdater.fetchAndUpdateIndex(new IndexUpdateRequest(clientContext,
+                                                                new DirectoryResourceFetcher(indexPath.toFile())));
+    }
+
+    private Set<String> search(IndexingContext context)
+            throws IOException
+    {
+        Query query = indexer.constructQuery(MAVEN.GROUP_ID, new SourcedSearchExpression(GROUP_ID));
+
+        return indexer.searchFlat(new FlatSearchRequest(query, context))
+                      .getResults()
+                      .stream()
+                      .map(ArtifactInfo::getUinfo)
+                      .collect(Collectors.toSet());
+    }
+
+    private static String uinfo(String artifactId,
+                                String version)
+    {
+        return new ArtifactInfo(null, GROUP_ID, artifactId, version, null, "jar").getUinfo();
+    }
+
+    /**
+     * Serves the packed index files the way they are published.
+     */
+    private static class DirectoryResourceFetcher
+            implements ResourceFetcher
+    {
+
+        private final File directory;
+
+        DirectoryResourceFetcher(File directory)
+        {
+            this.directory = directory;
+        }
+
+        @Override
+        public void connect(String id,
+                            String url)
+        {
+        }
+
+        @Override
+        public void disconnect()
+        {
+        }
+
+        @Override
+        public InputStream retrieve(String name)
+                throws IOException
+        {
+            return new FileInputStream(new File(directory, name));
+        }
+    }
+
+}
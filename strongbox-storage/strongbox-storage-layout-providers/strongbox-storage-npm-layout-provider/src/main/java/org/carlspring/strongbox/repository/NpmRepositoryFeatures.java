@@ -3,6 +3,7 @@ package org.carlspring.strongbox.repository;
 import org.carlspring.strongbox.config.NpmLayoutProviderConfig.NpmObjectMapper;
 import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.configuration.ConfigurationUtils;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
 import org.carlspring.strongbox.data.criteria.Predicate;
@@ -14,6 +15,9 @@ import org.carlspring.strongbox.npm.metadata.Change;
 import org.carlspring.strongbox.npm.metadata.PackageFeed;
 import org.carlspring.strongbox.npm.metadata.SearchResults;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryCheckpointStore;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteResourceValidatorCache;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteResourceValidatorCache.RemoteResourceValidator;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.storage.Storage;
@@ -28,18 +32,32 @@ import org.carlspring.strongbox.yaml.configuration.repository.remote.NpmRemoteRe
 import org.carlspring.strongbox.yaml.configuration.repository.remote.NpmRemoteRepositoryConfigurationDto;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
@@ -48,6 +66,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.context.event.EventListener;
@@ -60,6 +79,13 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
 
     private static final int CHANGES_BATCH_SIZE = 500;
 
+    private static final String CHANGES_FEED_CHECKPOINT = "npm-changes-feed.seq";
+
+    /**
+     * The cursor last written to the configuration, used to tell when an administrator has changed it.
+     */
+    private static final String CHANGES_FEED_CONFIGURED_CHECKPOINT = "npm-changes-feed.configured";
+
     private static final Logger logger = LoggerFactory.getLogger(NpmRepositoryFeatures.class);
 
     @Inject
@@ -93,6 +119,21 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
     @Inject
     private NpmPackageFeedParser npmPackageFeedParser;
 
+    @Inject
+    private RemoteResourceValidatorCache remoteResourceValidatorCache;
+
+    @Inject
+    private ProxyRepositoryCheckpointStore checkpointStore;
+
+    @Value("${strongbox.npm.changes.threads:4}")
+    private int changesFeedThreads;
+
+    private ExecutorService[] changesFeedLanes;
+
+    private final Map<String, Long> replicationLag = new ConcurrentHashMap<>();
+
+    private final List<BiConsumer<String, String>> replicationLagObservers = new CopyOnWriteArrayList<>();
+
     private Set<String> defaultArtifactCoordinateValidators;
 
     @PostConstruct
@@ -101,6 +142,24 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
         defaultArtifactCoordinateValidators = new LinkedHashSet<>(Arrays.asList(redeploymentValidator.getAlias(),
                                                                                 genericReleaseVersionValidator.getAlias(),
                                                                                 genericSnapshotVersionValidator.getAlias()));
+
+        changesFeedLanes = new ExecutorService[Math.max(1, changesFeedThreads)];
+        for (int i = 0; i < changesFeedLanes.length; i++)
+        {
+            String threadName = "npm-changes-feed-" + (i + 1);
+            changesFeedLanes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, threadName);
+                thread.setDaemon(true);
+
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        Arrays.stream(changesFeedLanes).forEach(ExecutorService::shutdownNow);
     }
 
     @Override
@@ -175,30 +234,148 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
             return;
         }
 
-        RepositoryDto mutableRepository = configurationManagementService.getMutableConfigurationClone()
-                                                                            .getStorage(storageId)
-                                                                            .getRepository(repositoryId);
-        NpmRemoteRepositoryConfigurationDto mutableConfiguration = (NpmRemoteRepositoryConfigurationDto) mutableRepository.getRemoteRepository()
-                                                                                                                                  .getCustomConfiguration();
-
         NpmRemoteRepositoryConfiguration configuration = (NpmRemoteRepositoryConfiguration) remoteRepository.getCustomConfiguration();
         if (configuration == null)
         {
             logger.warn(String.format("Remote npm configuration not found for [%s]/[%s]", storageId, repositoryId));
             return;
         }
-        Long lastCnahgeId = configuration.getLastChangeId();
         String replicateUrl = configuration.getReplicateUrl();
 
-        Long nextChangeId = lastCnahgeId;
+        // The cursor is kept in the checkpoint store while replicating, the configuration is only a fallback, unless
+        // it has been changed since it was last synchronized (an administrator resets the replication).
+        String checkpoint = checkpointStore.get(storageId, repositoryId, CHANGES_FEED_CHECKPOINT);
+        String configuredCheckpoint = checkpointStore.get(storageId, repositoryId, CHANGES_FEED_CONFIGURED_CHECKPOINT);
+        boolean configurationChanged = configuredCheckpoint != null &&
+                                       !configuredCheckpoint.equals(String.valueOf(configuration.getLastChangeId()));
+        Long lastChangeId = checkpoint != null && !configurationChanged ? Long.valueOf(checkpoint) :
+                            configuration.getLastChangeId();
+        if (configurationChanged)
+        {
+            logger.info(String.format("NPM changes feed replication of [%s]/[%s] restarts from the configured [%s].",
+                                      storageId, repositoryId, lastChangeId));
+
+            checkpointStore.put(storageId, repositoryId, CHANGES_FEED_CHECKPOINT, String.valueOf(lastChangeId));
+            checkpointStore.put(storageId, repositoryId, CHANGES_FEED_CONFIGURED_CHECKPOINT,
+                                String.valueOf(lastChangeId));
+        }
+
+        Long nextChangeId = lastChangeId;
         do
         {
-            lastCnahgeId = nextChangeId;
-            mutableConfiguration.setLastChangeId(nextChangeId);
-            configurationManagementService.saveRepository(storageId, mutableRepository);
+            lastChangeId = nextChangeId;
+            nextChangeId = Long.valueOf(fetchRemoteChangesFeed(repository, replicateUrl, lastChangeId + 1));
+
+            if (nextChangeId > lastChangeId)
+            {
+                // The whole batch has been processed at this point, so it's safe to move the cursor.
+                checkpointStore.put(storageId, repositoryId, CHANGES_FEED_CHECKPOINT, String.valueOf(nextChangeId));
+            }
+        } while (nextChangeId > lastChangeId);
+
+        updateReplicationLag(storageId, repositoryId, replicateUrl, lastChangeId);
+
+        if (lastChangeId.equals(configuration.getLastChangeId()))
+        {
+            if (configuredCheckpoint == null)
+            {
+                checkpointStore.put(storageId, repositoryId, CHANGES_FEED_CONFIGURED_CHECKPOINT,
+                                    String.valueOf(lastChangeId));
+            }
+
+            return;
+        }
 
-            nextChangeId = Long.valueOf(fetchRemoteChangesFeed(repository, replicateUrl, lastCnahgeId + 1));
-        } while (nextChangeId > lastCnahgeId);
+        // Synchronize the configuration once per run, so that the cursor is still visible for the administrators.
+        RepositoryDto mutableRepository = configurationManagementService.getMutableConfigurationClone()
+                                                                        .getStorage(storageId)
+                                                                        .getRepository(repositoryId);
+        NpmRemoteRepositoryConfigurationDto mutableConfiguration = (NpmRemoteRepositoryConfigurationDto) mutableRepository.getRemoteRepository()
+                                                                                                                          .getCustomConfiguration();
+        mutableConfiguration.setLastChangeId(lastChangeId);
+        configurationManagementService.saveRepository(storageId, mutableRepository);
+
+        checkpointStore.put(storageId, repositoryId, CHANGES_FEED_CONFIGURED_CHECKPOINT, String.valueOf(lastChangeId));
+    }
+
+    /**
+     * @return the number of remote changes which were not replicated yet as of the last changes feed
+     *         replication run, or {@code null} if it's unknown
+     */
+    public Long getChangesFeedReplicationLag(String storageId,
+                                             String repositoryId)
+    {
+        return replicationLag.get(storageId + ":" + repositoryId);
+    }
+
+    /**
+     * Calls the observer with the storage and repository ids of every repository whose replication lag is known, and
+     * of the ones which are replicated later on (used to expose the lag metrics).
+     */
+    public void observeChangesFeedReplication(BiConsumer<String, String> observer)
+    {
+        replicationLagObservers.add(observer);
+        replicationLag.keySet().forEach(key -> notifyReplicationObserver(observer, key));
+    }
+
+    private void notifyReplicationObserver(BiConsumer<String, String> observer,
+                                           String storageIdAndRepositoryId)
+    {
+        observer.accept(ConfigurationUtils.getStorageId(null, storageIdAndRepositoryId),
+                        ConfigurationUtils.getRepositoryId(storageIdAndRepositoryId));
+    }
+
+    private void updateReplicationLag(String storageId,
+                                      String repositoryId,
+                                      String replicateUrl,
+                                      Long lastChangeId)
+    {
+        Client restClient = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
+        try
+        {
+            Response response = restClient.target(replicateUrl).request().get();
+            if (response == null)
+            {
+                return;
+            }
+
+            try
+            {
+                if (response.getStatus() != Response.Status.OK.getStatusCode())
+                {
+                    return;
+                }
+
+                JsonNode updateSeq = npmJacksonMapper.readTree(response.readEntity(InputStream.class))
+                                                     .get("update_seq");
+                if (updateSeq == null || !updateSeq.canConvertToLong())
+                {
+                    return;
+                }
+
+                long lag = Math.max(0, updateSeq.asLong() - lastChangeId);
+                String key = storageId + ":" + repositoryId;
+                if (replicationLag.put(key, lag) == null)
+                {
+                    replicationLagObservers.forEach(o -> notifyReplicationObserver(o, key));
+                }
+
+                logger.info(String.format("NPM changes feed replication lag for [%s]/[%s] is [%s] changes.",
+                                          storageId, repositoryId, lag));
+            }
+            finally
+            {
+                response.close();
+            }
+        }
+        catch (Exception e)
+        {
+            logger.warn(String.format("Failed to fetch NPM update sequence for [%s].", replicateUrl), e);
+        }
+        finally
+        {
+            restClient.close();
+        }
     }
 
     private Integer fetchRemoteChangesFeed(Repository repository,
@@ -241,6 +418,7 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
 
         JsonFactory jfactory = new JsonFactory();
 
+        List<Future<?>> batch = new ArrayList<>(CHANGES_BATCH_SIZE);
         try (InputStream is = request.invoke(InputStream.class))
         {
 
@@ -251,66 +429,92 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
             Assert.isTrue(jp.nextFieldName().equals("results"), "npm changes feed should contains `results` field.");
             Assert.isTrue(jp.nextToken() == JsonToken.START_ARRAY, "npm changes feed `results` should be array.");
 
-            StringBuffer sb = new StringBuffer();
-            while (jp.nextToken() != null)
+            while (jp.nextToken() == JsonToken.START_OBJECT)
             {
-                JsonToken nextToken = jp.currentToken();
-                if (nextToken == JsonToken.END_ARRAY)
-                {
-                    break;
-                }
-
-                JsonNode node = jp.readValueAsTree();
-                sb.append(node.toString());
-
-                String changeValue = sb.toString();
-
                 Change change;
                 try
                 {
-                    change = npmJacksonMapper.readValue(changeValue, Change.class);
+                    change = jp.readValueAs(Change.class);
                 }
                 catch (Exception e)
                 {
-                    logger.error(String.format("Failed to parse NPM cnahges feed [%s] since [%s]: %n %s",
+                    logger.error(String.format("Failed to parse NPM cnahges feed [%s] after [%s].",
                                                repositoryConfiguration.getReplicateUrl(),
-                                               repositoryConfiguration.getLastChangeId(),
-                                               changeValue),
+                                               result),
                                  e);
 
-                    return result;
-                }
-
-                PackageFeed packageFeed = change.getDoc();
-                try
-                {
-                    npmPackageFeedParser.parseFeed(repository, packageFeed);
+                    break;
                 }
-                catch (Exception e)
-                {
-                    logger.error(String.format("Failed to parse NPM feed [%s/%s]",
-                                               ((RepositoryData)repository).getRemoteRepository().getUrl(),
-                                               packageFeed.getName()),
-                                 e);
 
-                }
+                batch.add(parseFeed(repository, change.getDoc()));
 
                 result = change.getSeq();
-                sb = new StringBuffer();
             }
 
         }
+        finally
+        {
+            awaitBatch(batch);
+        }
 
-        logger.debug(String.format("Fetched remote cnages for  [%s] since [%s].",
+        logger.debug(String.format("Fetched remote cnages for  [%s] up to [%s].",
                                    repositoryConfiguration.getReplicateUrl(),
-                                   repositoryConfiguration.getLastChangeId()));
+                                   result));
 
         return result;
     }
 
-    private void fetchRemotePackageFeed(String storageId,
-                                        String repositoryId,
-                                        String packageId)
+    /**
+     * Changes of the same package always go to the same lane, so they are applied in the feed order.
+     */
+    private Future<?> parseFeed(Repository repository,
+                                PackageFeed packageFeed)
+    {
+        String packageName = packageFeed != null ? packageFeed.getName() : null;
+        ExecutorService lane = changesFeedLanes[packageName != null ?
+                                                Math.floorMod(packageName.hashCode(), changesFeedLanes.length) : 0];
+
+        return lane.submit(() -> {
+            try
+            {
+                npmPackageFeedParser.parseFeed(repository, packageFeed);
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to parse NPM feed [%s/%s]",
+                                           ((RepositoryData) repository).getRemoteRepository().getUrl(),
+                                           packageName),
+                             e);
+            }
+        });
+    }
+
+    private void awaitBatch(List<Future<?>> batch)
+        throws IOException
+    {
+        for (Future<?> future : batch)
+        {
+            try
+            {
+                future.get();
+            }
+            catch (ExecutionException e)
+            {
+                logger.error("Failed to process NPM change.", e.getCause());
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                batch.forEach(f -> f.cancel(true));
+
+                throw new InterruptedIOException("Interrupted while processing NPM changes feed batch.");
+            }
+        }
+    }
+
+    void fetchRemotePackageFeed(String storageId,
+                                String repositoryId,
+                                String packageId)
     {
 
         Storage storage = getConfiguration().getStorage(storageId);
@@ -324,6 +528,9 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
         String remoteRepositoryUrl = remoteRepository.getUrl();
 
         PackageFeed packageFeed;
+        String validatorKey = getValidatorKey(repository, packageId);
+        String eTag;
+        String lastModified;
         Client restClient = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
         try
         {
@@ -332,8 +539,38 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
             WebTarget service = restClient.target(remoteRepository.getUrl());
             service = service.path(packageId);
 
-            InputStream inputStream = service.request().buildGet().invoke(InputStream.class);
-            packageFeed = npmJacksonMapper.readValue(inputStream, PackageFeed.class);
+            Invocation.Builder request = service.request();
+            RemoteResourceValidator validator = remoteResourceValidatorCache.get(validatorKey);
+            if (validator != null)
+            {
+                request = request.header(HttpHeaders.IF_NONE_MATCH, validator.getETag())
+                                 .header(HttpHeaders.IF_MODIFIED_SINCE, validator.getLastModified());
+            }
+
+            Response response = request.get();
+            try
+            {
+                if (response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode())
+                {
+                    logger.debug(String.format("NPM package feed [%s] not modified for [%s].", packageId,
+                                               remoteRepositoryUrl));
+                    return;
+                }
+                if (response.getStatus() != Response.Status.OK.getStatusCode())
+                {
+                    logger.warn(String.format("Unexpected response status [%s] for NPM package feed [%s] from [%s].",
+                                              response.getStatus(), packageId, remoteRepositoryUrl));
+                    return;
+                }
+
+                packageFeed = npmJacksonMapper.readValue(response.readEntity(InputStream.class), PackageFeed.class);
+                eTag = response.getHeaderString(HttpHeaders.ETAG);
+                lastModified = response.getHeaderString(HttpHeaders.LAST_MODIFIED);
+            }
+            finally
+            {
+                response.close();
+            }
 
             logger.debug(String.format("Downloaded NPM changes feed for [%s].", remoteRepository.getUrl()));
 
@@ -355,10 +592,16 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
         catch (Exception e)
         {
             logger.error(String.format("Failed to parse NPM feed [%s/%s]",
-                                       ((RepositoryData)repository).getRemoteRepository().getUrl(),
+                                       remoteRepositoryUrl,
                                        packageFeed.getName()),
                          e);
+
+            return;
         }
+
+        // Only once the feed has been parsed, otherwise the next request would get `304 Not Modified` for a feed
+        // which was never stored.
+        remoteResourceValidatorCache.put(validatorKey, eTag, lastModified);
     }
 
     @Component
@@ -466,7 +709,9 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
             if (packageCount.longValue() == 0)
             {
                 // Syncronously fetch remote package feed if ve have no cached
-                // packages
+                // packages, and with a full request: `304 Not Modified` would
+                // leave us without the packages.
+                remoteResourceValidatorCache.remove(getValidatorKey(repository, npmSearchRequest.getPackageId()));
                 job.run();
             }
             else
@@ -477,6 +722,12 @@ public class NpmRepositoryFeatures implements RepositoryFeatures
 
     }
 
+    private String getValidatorKey(Repository repository,
+                                   String packageId)
+    {
+        return String.format("%s/%s", repository.getStorageIdAndRepositoryId(), packageId);
+    }
+
     private Long countPackages(String storageId,
                                String repositoryId,
                                Predicate predicate)
@@ -0,0 +1,235 @@
+package org.carlspring.strongbox.repository;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.npm.metadata.PackageFeed;
+import org.carlspring.strongbox.npm.metadata.jackson.NpmJacksonMapperFactory;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryCheckpointStore;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteResourceValidatorCache;
+import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.yaml.configuration.repository.remote.NpmRemoteRepositoryConfiguration;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NpmRepositoryFeaturesTest
+{
+
+    private static final String STORAGE_ID = "storage-npm";
+
+    private static final String REPOSITORY_ID = "npmjs";
+
+    private static final String PACKAGE_ID = "test-package";
+
+    private static final String VALIDATOR_KEY = STORAGE_ID + ":" + REPOSITORY_ID + "/" + PACKAGE_ID;
+
+    private static final String REPLICATE_URL = "https://replicate.npmjs.com";
+
+    private static final String CHANGES_FEED_CHECKPOINT = "npm-changes-feed.seq";
+
+    private static final String CHANGES_FEED_CONFIGURED_CHECKPOINT = "npm-changes-feed.configured";
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @Mock
+    private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
+
+    @Mock
+    private NpmPackageFeedParser npmPackageFeedParser;
+
+    @Spy
+    private ObjectMapper npmJacksonMapper = NpmJacksonMapperFactory.createObjectMapper();
+
+    @Mock
+    private ProxyRepositoryCheckpointStore checkpointStore;
+
+    @Spy
+    private RemoteResourceValidatorCache remoteResourceValidatorCache = new RemoteResourceValidatorCache(100, 1);
+
+    @InjectMocks
+    private NpmRepositoryFeatures npmRepositoryFeatures;
+
+    @Mock
+    private Repository repository;
+
+    @Mock
+    private Invocation.Builder request;
+
+    @Mock
+    private WebTarget target;
+
+    @Mock
+    private NpmRemoteRepositoryConfiguration npmConfiguration;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+
+        RemoteRepository remoteRepository = Mockito.mock(RemoteRepository.class);
+        when(remoteRepository.getUrl()).thenReturn("https://registry.npmjs.org");
+        when(remoteRepository.getCustomConfiguration()).thenReturn(npmConfiguration);
+        when(npmConfiguration.getReplicateUrl()).thenReturn(REPLICATE_URL);
+        when(repository.getId()).thenReturn(REPOSITORY_ID);
+        when(repository.getStorageIdAndRepositoryId()).thenReturn(STORAGE_ID + ":" + REPOSITORY_ID);
+        when(repository.getRemoteRepository()).thenReturn(remoteRepository);
+
+        Storage storage = Mockito.mock(Storage.class);
+        when(storage.getRepository(REPOSITORY_ID)).thenReturn(repository);
+        Configuration configuration = Mockito.mock(Configuration.class);
+        when(configuration.getStorage(STORAGE_ID)).thenReturn(storage);
+        when(configurationManager.getConfiguration()).thenReturn(configuration);
+
+        when(target.path(PACKAGE_ID)).thenReturn(target);
+        when(target.request()).thenReturn(request);
+        when(request.header(anyString(), any())).thenReturn(request);
+        Client client = Mockito.mock(Client.class);
+        when(client.target(anyString())).thenReturn(target);
+        when(proxyRepositoryConnectionPoolConfigurationService.getRestClient()).thenReturn(client);
+    }
+
+    @Test
+    public void validatorShouldBeCachedOnceFeedWasParsed()
+            throws IOException
+    {
+        Response response = mockResponse(Response.Status.OK, "\"v1\"");
+        when(request.get()).thenReturn(response);
+
+        npmRepositoryFeatures.fetchRemotePackageFeed(STORAGE_ID, REPOSITORY_ID, PACKAGE_ID);
+
+        verify(npmPackageFeedParser).parseFeed(eq(repository), any(PackageFeed.class));
+        assertThat(remoteResourceValidatorCache.get(VALIDATOR_KEY), notNullValue());
+        assertThat(remoteResourceValidatorCache.get(VALIDATOR_KEY).getETag(), equalTo("\"v1\""));
+    }
+
+    @Test
+    public void notModifiedFeedShouldNotBeParsed()
+            throws IOException
+    {
+        remoteResourceValidatorCache.put(VALIDATOR_KEY, "\"v1\"", null);
+        Response response = mockResponse(Response.Status.NOT_MODIFIED, "\"v1\"");
+        when(request.get()).thenReturn(response);
+
+        npmRepositoryFeatures.fetchRemotePackageFeed(STORAGE_ID, REPOSITORY_ID, PACKAGE_ID);
+
+        verify(request).header(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        verify(npmPackageFeedParser, never()).parseFeed(any(), any());
+        assertThat(remoteResourceValidatorCache.get(VALIDATOR_KEY).getETag(), equalTo("\"v1\""));
+    }
+
+    @Test
+    public void validatorShouldNotBeCachedWhenFeedParsingFailed()
+            throws IOException
+    {
+        Response response = mockResponse(Response.Status.OK, "\"v2\"");
+        when(request.get()).thenReturn(response);
+        Mockito.doThrow(new IOException("Expected.")).when(npmPackageFeedParser).parseFeed(any(), any());
+
+        npmRepositoryFeatures.fetchRemotePackageFeed(STORAGE_ID, REPOSITORY_ID, PACKAGE_ID);
+
+        // So that the next request downloads the feed again, instead of getting `304 Not Modified`.
+        assertThat(remoteResourceValidatorCache.get(VALIDATOR_KEY), nullValue());
+    }
+
+    @Test
+    public void changesFeedShouldBeReplicatedFromTheCheckpoint()
+            throws IOException
+    {
+        when(npmConfiguration.getLastChangeId()).thenReturn(330L);
+        when(checkpointStore.get(STORAGE_ID, REPOSITORY_ID, CHANGES_FEED_CHECKPOINT)).thenReturn("330");
+        mockChangesFeed(350);
+
+        List<String> replicatedRepositories = new ArrayList<>();
+        npmRepositoryFeatures.observeChangesFeedReplication((s, r) -> replicatedRepositories.add(s + ":" + r));
+
+        npmRepositoryFeatures.fetchRemoteChangesFeed(STORAGE_ID, REPOSITORY_ID);
+
+        verify(target).queryParam("since", 331L);
+        verify(checkpointStore).put(STORAGE_ID, REPOSITORY_ID, CHANGES_FEED_CONFIGURED_CHECKPOINT, "330");
+        assertThat(npmRepositoryFeatures.getChangesFeedReplicationLag(STORAGE_ID, REPOSITORY_ID), equalTo(20L));
+        assertThat(replicatedRepositories, contains(STORAGE_ID + ":" + REPOSITORY_ID));
+    }
+
+    @Test
+    public void changedConfigurationShouldResetTheCheckpoint()
+            throws IOException
+    {
+        // An administrator has set the cursor back to 100, after it was synchronized at 330.
+        when(npmConfiguration.getLastChangeId()).thenReturn(100L);
+        when(checkpointStore.get(STORAGE_ID, REPOSITORY_ID, CHANGES_FEED_CHECKPOINT)).thenReturn("330");
+        when(checkpointStore.get(STORAGE_ID, REPOSITORY_ID, CHANGES_FEED_CONFIGURED_CHECKPOINT)).thenReturn("330");
+        mockChangesFeed(350);
+
+        npmRepositoryFeatures.fetchRemoteChangesFeed(STORAGE_ID, REPOSITORY_ID);
+
+        verify(target).queryParam("since", 101L);
+        verify(checkpointStore).put(STORAGE_ID, REPOSITORY_ID, CHANGES_FEED_CHECKPOINT, "100");
+        verify(checkpointStore).put(STORAGE_ID, REPOSITORY_ID, CHANGES_FEED_CONFIGURED_CHECKPOINT, "100");
+        assertThat(npmRepositoryFeatures.getChangesFeedReplicationLag(STORAGE_ID, REPOSITORY_ID), equalTo(250L));
+    }
+
+    /**
+     * An empty changes batch, and the given remote update sequence.
+     */
+    private void mockChangesFeed(long updateSeq)
+    {
+        when(target.path("_changes")).thenReturn(target);
+        when(target.queryParam(anyString(), any())).thenReturn(target);
+        Invocation invocation = Mockito.mock(Invocation.class);
+        when(invocation.invoke(InputStream.class)).thenReturn(
+                new ByteArrayInputStream("{\"results\":[]}".getBytes(StandardCharsets.UTF_8)));
+        when(request.buildGet()).thenReturn(invocation);
+
+        Response response = Mockito.mock(Response.class);
+        when(response.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+        when(response.readEntity(InputStream.class)).thenReturn(
+                new ByteArrayInputStream(("{\"update_seq\":" + updateSeq + "}").getBytes(StandardCharsets.UTF_8)));
+        when(request.get()).thenReturn(response);
+    }
+
+    private Response mockResponse(Response.Status status,
+                                  String eTag)
+    {
+        Response response = Mockito.mock(Response.class);
+        when(response.getStatus()).thenReturn(status.getStatusCode());
+        when(response.getHeaderString(HttpHeaders.ETAG)).thenReturn(eTag);
+        when(response.readEntity(InputStream.class)).thenReturn(
+                new ByteArrayInputStream(("{\"name\":\"" + PACKAGE_ID + "\"}").getBytes(StandardCharsets.UTF_8)));
+
+        return response;
+    }
+
+}
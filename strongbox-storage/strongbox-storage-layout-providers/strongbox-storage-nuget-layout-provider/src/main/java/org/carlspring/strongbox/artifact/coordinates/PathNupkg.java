@@ -27,6 +27,8 @@ public class PathNupkg implements Nupkg
     private RepositoryPath path;
     private Nuspec nuspecFile;
     private String hash;
+    private Long size;
+    private Date updated;
     private NugetArtifactCoordinates artifactCoordinates;
     
     public PathNupkg(RepositoryPath path)
@@ -40,7 +42,29 @@ public class PathNupkg implements Nupkg
         this.path = path;
         this.artifactCoordinates = (NugetArtifactCoordinates) path.getArtifactEntry().getArtifactCoordinates();
         this.nuspecFile = createNuspecFile();
-        this.hash = createHash();
+        this.hash = readHash(path);
+    }
+
+    /**
+     * Creates the package from the already known properties, neither the artifact entry nor the package files are
+     * read.
+     */
+    public PathNupkg(RepositoryPath path,
+                     NugetArtifactCoordinates artifactCoordinates,
+                     Nuspec nuspec,
+                     String hash,
+                     Long size,
+                     Date updated)
+    {
+        Assert.notNull(path, "path should not be null");
+        Assert.notNull(nuspec, "nuspec should not be null");
+
+        this.path = path;
+        this.artifactCoordinates = artifactCoordinates;
+        this.nuspecFile = nuspec;
+        this.hash = hash;
+        this.size = size;
+        this.updated = updated;
     }
 
     public RepositoryPath getPath()
@@ -60,7 +84,10 @@ public class PathNupkg implements Nupkg
         return hash;
     }
 
-    private String createHash()
+    /**
+     * @return the package hash, read from the checksum file of the package
+     */
+    public static String readHash(RepositoryPath path)
         throws IOException,
         UnsupportedEncodingException
     {
@@ -124,9 +151,13 @@ public class PathNupkg implements Nupkg
     @Override
     public Long getSize()
     {
+        if (size != null)
+        {
+            return size;
+        }
         try
         {
-            return path.getArtifactEntry().getSizeInBytes();
+            return path.getArtifactEntrySummary().getSizeInBytes();
         }
         catch (IOException e)
         {
@@ -144,9 +175,13 @@ public class PathNupkg implements Nupkg
     @Override
     public Date getUpdated()
     {
+        if (updated != null)
+        {
+            return updated;
+        }
         try
         {
-            return path.getArtifactEntry().getLastUpdated();
+            return path.getArtifactEntrySummary().getLastUpdated();
         }
         catch (IOException e)
         {
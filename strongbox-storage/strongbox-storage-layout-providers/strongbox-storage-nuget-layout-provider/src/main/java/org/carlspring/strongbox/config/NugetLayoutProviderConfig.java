@@ -26,7 +26,8 @@ import org.springframework.context.annotation.Scope;
                  "org.carlspring.strongbox.repository",
                  "org.carlspring.strongbox.providers",
                  "org.carlspring.strongbox.services",
-                 "org.carlspring.strongbox.storage" })
+                 "org.carlspring.strongbox.storage",
+                 "org.carlspring.strongbox.nuget.search" })
 public class NugetLayoutProviderConfig
 {
 
@@ -0,0 +1,143 @@
+package org.carlspring.strongbox.nuget.filter;
+
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.FilterContext;
+import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.FilterExpContext;
+import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.TokenExpContext;
+import org.carlspring.strongbox.nuget.filter.NugetODataFilterParser.TokenExpLeftContext;
+import org.carlspring.strongbox.nuget.search.NugetPackageDocument;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * This class purpose is to construct {@link IndexFilter} instance which can be
+ * used to filter the {@link NugetPackageDocument}s of the Nuget search index.
+ *
+ * Unlike {@link NugetODataQueryVisitor} it doesn't produce a Database query, the
+ * filter expression is evaluated against the in-memory documents. The package
+ * id, if the expression is bound to a single one, is also collected so that the
+ * index can lookup the package directly instead of evaluating every document.
+ */
+public class NugetODataIndexVisitor extends NugetODataFilterBaseVisitor<NugetODataIndexVisitor.IndexFilter>
+{
+
+    public static IndexFilter parse(String filter)
+    {
+        NugetODataFilterParser parser = (NugetODataFilterParser) NugetODataFilterQueryParser.createParser(CharStreams.fromString(filter));
+
+        return new NugetODataIndexVisitor().visitFilter(parser.filter());
+    }
+
+    @Override
+    public IndexFilter visitFilter(FilterContext ctx)
+    {
+        return visitFilterExp(ctx.filterExp());
+    }
+
+    @Override
+    public IndexFilter visitFilterExp(FilterExpContext ctx)
+    {
+        if (ctx.tokenExp() != null)
+        {
+            return visitTokenExp(ctx.tokenExp());
+        }
+        else if (ctx.vNestedFilterExp != null)
+        {
+            return visitFilterExp(ctx.vNestedFilterExp);
+        }
+
+        IndexFilter f1 = visitFilterExp(ctx.vFilterExpLeft);
+        IndexFilter f2 = visitFilterExp(ctx.vFilterExpRight);
+
+        if ("and".equalsIgnoreCase(ctx.vLogicalOp.getText()))
+        {
+            return new IndexFilter(f1.predicate.and(f2.predicate),
+                                   f1.packageId != null ? f1.packageId : f2.packageId);
+        }
+
+        return new IndexFilter(f1.predicate.or(f2.predicate),
+                               Objects.equals(f1.packageId, f2.packageId) ? f1.packageId : null);
+    }
+
+    @Override
+    public IndexFilter visitTokenExp(TokenExpContext ctx)
+    {
+        if (ctx.TAG() != null)
+        {
+            return new IndexFilter(NugetPackageDocument::isLatestVersion, null);
+        }
+
+        TokenExpLeftContext left = ctx.vTokenExpLeft;
+        boolean toLower = left.tokenExpFunction() != null && left.tokenExpFunction().fuctionExp().TO_LOWER() != null;
+        String attribute = left.ATTRIBUTE() != null ? left.ATTRIBUTE().getText() :
+                           left.tokenExpFunction().ATTRIBUTE().getText();
+        boolean greaterOrEqual = ctx.vFilterOp.GE() != null;
+
+        String value = StringUtils.unwrap(ctx.vTokenExpRight.getText(), "'");
+
+        if ("Version".equals(attribute))
+        {
+            return new IndexFilter(versionPredicate(value, greaterOrEqual), null);
+        }
+
+        if (greaterOrEqual)
+        {
+            return new IndexFilter(d -> (toLower ? d.getId().toLowerCase() : d.getId()).compareTo(value) >= 0, null);
+        }
+
+        // Nuget package ids are case insensitive.
+        return new IndexFilter(d -> toLower ? d.getId().toLowerCase().equals(value) : d.getId().equalsIgnoreCase(value),
+                               value.toLowerCase());
+    }
+
+    private Predicate<NugetPackageDocument> versionPredicate(String value,
+                                                             boolean greaterOrEqual)
+    {
+        SemanticVersion version;
+        try
+        {
+            version = SemanticVersion.parse(value);
+        }
+        catch (Exception e)
+        {
+            return d -> !greaterOrEqual && d.getVersion().toString().equals(value);
+        }
+
+        return greaterOrEqual ? d -> d.getVersion().compareTo(version) >= 0 :
+               d -> d.getVersion().compareTo(version) == 0;
+    }
+
+    public static class IndexFilter
+    {
+
+        private final Predicate<NugetPackageDocument> predicate;
+
+        private final String packageId;
+
+        public IndexFilter(Predicate<NugetPackageDocument> predicate,
+                           String packageId)
+        {
+            this.predicate = predicate;
+            this.packageId = packageId;
+        }
+
+        public Predicate<NugetPackageDocument> getPredicate()
+        {
+            return predicate;
+        }
+
+        /**
+         * @return the lower cased package id, if the filter can only match a single package, otherwise {@code null}
+         */
+        public String getPackageId()
+        {
+            return packageId;
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package org.carlspring.strongbox.nuget.search;
+
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.PathNupkg;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
+
+/**
+ * {@link PathNupkg} of a {@link NugetSearchIndex} hit, all of it's properties come from the index.
+ */
+public class IndexedNupkg
+        extends PathNupkg
+{
+
+    private final transient NugetPackageDocument document;
+
+    IndexedNupkg(RepositoryPath path,
+                 NugetPackageDocument document,
+                 Nuspec nuspec)
+    {
+        super(path,
+              NugetArtifactCoordinates.parse(document.getPath()),
+              nuspec,
+              document.getHash(),
+              document.getSizeInBytes(),
+              document.getLastUpdated());
+
+        this.document = document;
+    }
+
+    public NugetPackageDocument getDocument()
+    {
+        return document;
+    }
+
+}
@@ -0,0 +1,141 @@
+package org.carlspring.strongbox.nuget.search;
+
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single package version within the {@link NugetSearchIndex}.
+ * <p>
+ * Only the properties which are needed to search, filter and order the packages, and to write the feed entries
+ * without a database lookup, are kept here. The `.nuspec` itself is read when the package is returned, see
+ * {@link NugetSearchIndex#toNupkg}.
+ */
+public class NugetPackageDocument
+{
+
+    private final String path;
+
+    private final String id;
+
+    private final SemanticVersion version;
+
+    private final String title;
+
+    private final String hash;
+
+    private final Long sizeInBytes;
+
+    private final Date lastUpdated;
+
+    private final AtomicInteger downloadCount;
+
+    private final Set<String> tokens;
+
+    private volatile boolean latestVersion;
+
+    private volatile boolean absoluteLatestVersion;
+
+    NugetPackageDocument(String path,
+                         String id,
+                         SemanticVersion version,
+                         String title,
+                         String hash,
+                         Long sizeInBytes,
+                         Date lastUpdated,
+                         int downloadCount,
+                         Set<String> tokens)
+    {
+        this.path = path;
+        this.id = id;
+        this.version = version;
+        this.title = title != null ? title : id;
+        this.hash = hash;
+        this.sizeInBytes = sizeInBytes;
+        this.lastUpdated = lastUpdated;
+        this.downloadCount = new AtomicInteger(downloadCount);
+        this.tokens = tokens;
+    }
+
+    /**
+     * @return the `.nupkg` path relative to the repository root
+     */
+    public String getPath()
+    {
+        return path;
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public SemanticVersion getVersion()
+    {
+        return version;
+    }
+
+    public String getTitle()
+    {
+        return title;
+    }
+
+    public String getHash()
+    {
+        return hash;
+    }
+
+    public Long getSizeInBytes()
+    {
+        return sizeInBytes;
+    }
+
+    public Date getLastUpdated()
+    {
+        return lastUpdated;
+    }
+
+    public int getDownloadCount()
+    {
+        return downloadCount.get();
+    }
+
+    void registerDownload()
+    {
+        downloadCount.incrementAndGet();
+    }
+
+    Set<String> getTokens()
+    {
+        return tokens;
+    }
+
+    /**
+     * @return {@code true} for the latest release (non pre-release) version of the package
+     */
+    public boolean isLatestVersion()
+    {
+        return latestVersion;
+    }
+
+    void setLatestVersion(boolean latestVersion)
+    {
+        this.latestVersion = latestVersion;
+    }
+
+    /**
+     * @return {@code true} for the latest version of the package, pre-releases included
+     */
+    public boolean isAbsoluteLatestVersion()
+    {
+        return absoluteLatestVersion;
+    }
+
+    void setAbsoluteLatestVersion(boolean absoluteLatestVersion)
+    {
+        this.absoluteLatestVersion = absoluteLatestVersion;
+    }
+
+}
@@ -0,0 +1,791 @@
+package org.carlspring.strongbox.nuget.search;
+
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.PathNupkg;
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.data.criteria.Selector;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.event.repository.RepositoryEvent;
+import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.nuget.filter.NugetODataIndexVisitor;
+import org.carlspring.strongbox.nuget.filter.NugetODataIndexVisitor.IndexFilter;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
+import org.carlspring.strongbox.storage.metadata.nuget.Nuspec.Metadata;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Per repository search index of the hosted Nuget repositories.
+ * <p>
+ * The index keeps an inverted index of the package id, title, tags and description tokens, the package versions
+ * ordered by {@link SemanticVersion} (which gives the latest version flags) and a summary of every package, which is
+ * enough to write the feed entries without a database lookup. It's built from the database on the first search
+ * within a repository and then maintained with the artifact store, download and delete events, so that the OData
+ * queries don't need to scan the artifact entries. The events which arrive while the index is being built are queued
+ * and applied once the build is complete.
+ * <p>
+ * The packages are kept ordered by id and version, so that the pages of the default ordering are read without
+ * sorting, the other orderings only keep the {@code $skip + $top} first packages.
+ * <p>
+ * Only the `.nuspec` files of the packages returned recently are kept in memory, at most
+ * {@code strongbox.nuget.search.nuspecCacheSize} of them.
+ */
+@Component
+public class NugetSearchIndex
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(NugetSearchIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern CAMEL_CASE_BOUNDARY = Pattern.compile("(?<=\\p{Ll})(?=\\p{Lu})");
+
+    private static final String NUPKG_EXTENSION = ".nupkg";
+
+    private static final String NUSPEC_EXTENSION = ".nuspec";
+
+    private static final String CHECKSUM_EXTENSION = NUPKG_EXTENSION + ".sha512";
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<String, RepositoryIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * repository key + package path -> `.nuspec`
+     */
+    private final Cache<String, Nuspec> nuspecs;
+
+    public NugetSearchIndex(@Value("${strongbox.nuget.search.nuspecCacheSize:1000}") long nuspecCacheSize)
+    {
+        this.nuspecs = CacheBuilder.newBuilder()
+                                   .maximumSize(nuspecCacheSize)
+                                   .build();
+    }
+
+    /**
+     * Only the hosted repositories are indexed, the group and proxy repositories need to query their members and
+     * remotes.
+     */
+    public boolean supports(Repository repository)
+    {
+        return repository.isHostedRepository() && NugetArtifactCoordinates.LAYOUT_NAME.equals(repository.getLayout());
+    }
+
+    public List<NugetPackageDocument> search(Repository repository,
+                                             String filter,
+                                             String searchTerm,
+                                             String orderBy,
+                                             Integer skip,
+                                             Integer top)
+    {
+        IndexFilter indexFilter = parseFilter(filter);
+        Set<String> terms = parseSearchTerm(searchTerm);
+        Stream<NugetPackageDocument> candidates = find(getIndex(repository), indexFilter, terms);
+
+        int from = skip != null && skip > 0 ? skip : 0;
+        if (top == null || top <= 0)
+        {
+            return candidates.sorted(comparator(orderBy)).skip(from).collect(Collectors.toList());
+        }
+
+        // Only the search term matches are unordered, see `find`.
+        if (isDefaultOrder(orderBy) && (terms.isEmpty() || indexFilter != null && indexFilter.getPackageId() != null))
+        {
+            return candidates.skip(from).limit(top).collect(Collectors.toList());
+        }
+
+        return first(candidates, comparator(orderBy), (int) Math.min(Integer.MAX_VALUE - 1, (long) from + top))
+                       .stream()
+                       .skip(from)
+                       .collect(Collectors.toList());
+    }
+
+    public long count(Repository repository,
+                      String filter,
+                      String searchTerm)
+    {
+        return find(getIndex(repository), parseFilter(filter), parseSearchTerm(searchTerm)).count();
+    }
+
+    /**
+     * @return the first {@code limit} documents, ordered with the comparator
+     */
+    private static List<NugetPackageDocument> first(Stream<NugetPackageDocument> documents,
+                                                    Comparator<NugetPackageDocument> comparator,
+                                                    int limit)
+    {
+        PriorityQueue<NugetPackageDocument> heap = new PriorityQueue<>(comparator.reversed());
+        documents.forEach(d -> {
+            heap.add(d);
+            if (heap.size() > limit)
+            {
+                heap.poll();
+            }
+        });
+
+        List<NugetPackageDocument> result = new ArrayList<>(heap);
+        result.sort(comparator);
+
+        return result;
+    }
+
+    /**
+     * @return all the versions of the package, ordered by version
+     */
+    public List<NugetPackageDocument> findById(Repository repository,
+                                               String packageId)
+    {
+        Map<SemanticVersion, NugetPackageDocument> versions = getIndex(repository).packages.get(packageId.toLowerCase());
+
+        return versions == null ? Collections.emptyList() : new ArrayList<>(versions.values());
+    }
+
+    /**
+     * @return the packages of the documents, with their `.nuspec` files
+     */
+    public List<PathNupkg> toNupkg(Repository repository,
+                                   List<NugetPackageDocument> documents)
+    {
+        List<PathNupkg> result = new ArrayList<>(documents.size());
+        for (NugetPackageDocument document : documents)
+        {
+            RepositoryPath path = repositoryPathResolver.resolve(repository, document.getPath());
+            try
+            {
+                result.add(new IndexedNupkg(path, document, getNuspec(repository, path, document)));
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to resolve Nuget package path [%s]", path), e);
+            }
+        }
+
+        return result;
+    }
+
+    private Nuspec getNuspec(Repository repository,
+                             RepositoryPath nupkgPath,
+                             NugetPackageDocument document)
+            throws ExecutionException
+    {
+        return nuspecs.get(nuspecKey(repository, document.getPath()),
+                           () -> readNuspec(nupkgPath.resolveSibling(document.getId() + NUSPEC_EXTENSION),
+                                            document.getId(),
+                                            document.getVersion()));
+    }
+
+    private static String nuspecKey(Repository repository,
+                                    String path)
+    {
+        return repository.getStorageIdAndRepositoryId() + "/" + path;
+    }
+
+    private static IndexFilter parseFilter(String filter)
+    {
+        return filter != null && !filter.trim().isEmpty() ? NugetODataIndexVisitor.parse(filter) : null;
+    }
+
+    private static Set<String> parseSearchTerm(String searchTerm)
+    {
+        return searchTerm != null ? tokenize(searchTerm, false) : Collections.emptySet();
+    }
+
+    /**
+     * @return the matching documents, ordered by id and version unless they are matched by the search terms only
+     */
+    private Stream<NugetPackageDocument> find(RepositoryIndex index,
+                                              IndexFilter indexFilter,
+                                              Set<String> terms)
+    {
+        Stream<NugetPackageDocument> candidates;
+        if (indexFilter != null && indexFilter.getPackageId() != null)
+        {
+            candidates = Optional.ofNullable(index.packages.get(indexFilter.getPackageId()))
+                                 .map(versions -> versions.values().stream())
+                                 .orElse(Stream.empty());
+        }
+        else if (!terms.isEmpty())
+        {
+            candidates = index.match(terms).stream().map(index.documents::get).filter(Objects::nonNull);
+        }
+        else
+        {
+            candidates = index.packages.values().stream().flatMap(versions -> versions.values().stream());
+        }
+
+        if (!terms.isEmpty() && indexFilter != null && indexFilter.getPackageId() != null)
+        {
+            Set<String> matches = index.match(terms);
+            candidates = candidates.filter(d -> matches.contains(d.getPath()));
+        }
+        if (indexFilter != null)
+        {
+            candidates = candidates.filter(indexFilter.getPredicate());
+        }
+
+        return candidates;
+    }
+
+    /**
+     * The `$orderby` is a comma separated list of `Id`, `Version`, `Title` or `DownloadCount` properties, each of them
+     * optionally followed by `asc` or `desc`. The property names are case insensitive and the unknown ones are
+     * ignored. The packages are always ordered by id and version last, so that the pages are stable.
+     */
+    static Comparator<NugetPackageDocument> comparator(String orderBy)
+    {
+        Comparator<NugetPackageDocument> byId = Comparator.comparing(d -> d.getId().toLowerCase());
+        Comparator<NugetPackageDocument> byVersion = Comparator.comparing(NugetPackageDocument::getVersion);
+
+        Comparator<NugetPackageDocument> result = null;
+        for (String orderByPart : orderBy == null ? new String[0] : orderBy.trim().split("\\s*,\\s*"))
+        {
+            String[] orderByTokens = orderByPart.trim().split("\\s+");
+
+            Comparator<NugetPackageDocument> propertyComparator;
+            if ("Id".equalsIgnoreCase(orderByTokens[0]))
+            {
+                propertyComparator = byId;
+            }
+            else if ("Version".equalsIgnoreCase(orderByTokens[0]))
+            {
+                propertyComparator = byVersion;
+            }
+            else if ("Title".equalsIgnoreCase(orderByTokens[0]))
+            {
+                propertyComparator = Comparator.comparing(d -> d.getTitle().toLowerCase());
+            }
+            else if ("DownloadCount".equalsIgnoreCase(orderByTokens[0]))
+            {
+                propertyComparator = Comparator.comparingInt(NugetPackageDocument::getDownloadCount);
+            }
+            else
+            {
+                continue;
+            }
+
+            if (orderByTokens.length > 1 && "desc".equalsIgnoreCase(orderByTokens[1]))
+            {
+                propertyComparator = propertyComparator.reversed();
+            }
+
+            result = result == null ? propertyComparator : result.thenComparing(propertyComparator);
+        }
+
+        return result == null ? byId.thenComparing(byVersion) : result.thenComparing(byId).thenComparing(byVersion);
+    }
+
+    /**
+     * @return true if the `$orderby` is the order of the index itself, by id and then by version, both ascending
+     */
+    static boolean isDefaultOrder(String orderBy)
+    {
+        List<String> defaultOrder = Arrays.asList("id", "version");
+
+        int i = 0;
+        for (String orderByPart : orderBy == null ? new String[0] : orderBy.trim().split("\\s*,\\s*"))
+        {
+            String[] orderByTokens = orderByPart.trim().split("\\s+");
+            String property = orderByTokens[0].toLowerCase();
+            if (!Arrays.asList("id", "version", "title", "downloadcount").contains(property))
+            {
+                continue;
+            }
+            if (i >= defaultOrder.size() || !defaultOrder.get(i).equals(property) ||
+                orderByTokens.length > 1 && "desc".equalsIgnoreCase(orderByTokens[1]))
+            {
+                return false;
+            }
+            i++;
+        }
+
+        return true;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        RepositoryPath repositoryPath = event.getPath();
+        Repository repository = repositoryPath.getRepository();
+        if (!supports(repository))
+        {
+            return;
+        }
+
+        RepositoryIndex index = indexes.get(repository.getStorageIdAndRepositoryId());
+        if (index == null)
+        {
+            // Not built yet, the changes will be read from the database.
+            return;
+        }
+
+        index.apply(() -> update(repository, index, event));
+    }
+
+    private void update(Repository repository,
+                        RepositoryIndex index,
+                        ArtifactEvent<RepositoryPath> event)
+    {
+        RepositoryPath repositoryPath = event.getPath();
+        String fileName = repositoryPath.getFileName().toString();
+        try
+        {
+            if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADING.getType())
+            {
+                if (fileName.endsWith(NUPKG_EXTENSION))
+                {
+                    index.registerDownload(RepositoryFiles.relativizePath(repositoryPath));
+                }
+            }
+            else if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType() ||
+                     event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType())
+            {
+                if (fileName.endsWith(NUPKG_EXTENSION))
+                {
+                    index(repository, index, repositoryPath, repositoryPath.getArtifactEntry());
+                }
+                else if (fileName.endsWith(NUSPEC_EXTENSION) || fileName.endsWith(CHECKSUM_EXTENSION))
+                {
+                    // The `.nuspec` and the checksum may be stored after the package itself.
+                    RepositoryPath versionPath = repositoryPath.getParent();
+                    String packageId = versionPath.getParent().getFileName().toString();
+                    String version = versionPath.getFileName().toString();
+
+                    RepositoryPath nupkgPath = versionPath.resolve(String.format("%s.%s%s", packageId, version,
+                                                                                 NUPKG_EXTENSION));
+                    if (Files.exists(nupkgPath))
+                    {
+                        index(repository, index, nupkgPath, nupkgPath.getArtifactEntry());
+                    }
+                }
+            }
+            else if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+            {
+                String path = RepositoryFiles.relativizePath(repositoryPath);
+                if (fileName.endsWith(NUPKG_EXTENSION))
+                {
+                    index.remove(path);
+                    nuspecs.invalidate(nuspecKey(repository, path));
+                }
+                else
+                {
+                    index.removeAll(path + "/").forEach(p -> nuspecs.invalidate(nuspecKey(repository, p)));
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to update Nuget search index for [%s]", repositoryPath), e);
+        }
+    }
+
+    @EventListener
+    public void handle(final RepositoryEvent event)
+    {
+        if (event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_CREATED.getType() &&
+            event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_DELETED.getType())
+        {
+            return;
+        }
+
+        String key = event.getStorageId() + ":" + event.getRepositoryId();
+        indexes.remove(key);
+        nuspecs.asMap().keySet().removeIf(k -> k.startsWith(key + "/"));
+    }
+
+    private RepositoryIndex getIndex(Repository repository)
+    {
+        String key = repository.getStorageIdAndRepositoryId();
+
+        RepositoryIndex index = indexes.get(key);
+        if (index != null)
+        {
+            index.awaitBuilt();
+            return index;
+        }
+
+        RepositoryIndex newIndex = new RepositoryIndex();
+        index = indexes.putIfAbsent(key, newIndex);
+        if (index != null)
+        {
+            index.awaitBuilt();
+            return index;
+        }
+
+        // The events which arrive in the meantime are queued by the index, so that nothing is lost in between.
+        try
+        {
+            build(repository, newIndex);
+            newIndex.applyPendingChanges();
+        }
+        catch (RuntimeException e)
+        {
+            indexes.remove(key, newIndex);
+            throw e;
+        }
+        finally
+        {
+            newIndex.built.countDown();
+        }
+
+        return newIndex;
+    }
+
+    private void build(Repository repository,
+                       RepositoryIndex index)
+    {
+        long startTime = System.currentTimeMillis();
+
+        Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class);
+        selector.where(Predicate.of(ExpOperator.EQ.of("storageId", repository.getStorage().getId())))
+                .and(Predicate.of(ExpOperator.EQ.of("repositoryId", repository.getId())))
+                .and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "nupkg")));
+
+        OQueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
+        for (ArtifactEntry artifactEntry : queryTemplate.select(selector))
+        {
+            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository,
+                                                                           artifactEntry.getArtifactCoordinates());
+            try
+            {
+                index(repository, index, repositoryPath, artifactEntry);
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to index Nuget package [%s]", repositoryPath), e);
+            }
+        }
+
+        logger.info(String.format("Built Nuget search index for [%s] with [%s] packages in [%s] ms.",
+                                  repository.getStorageIdAndRepositoryId(),
+                                  index.documents.size(),
+                                  System.currentTimeMillis() - startTime));
+    }
+
+    private void index(Repository repository,
+                       RepositoryIndex index,
+                       RepositoryPath nupkgPath,
+                       ArtifactEntry artifactEntry)
+            throws IOException
+    {
+        NugetArtifactCoordinates coordinates = (NugetArtifactCoordinates) RepositoryFiles.readCoordinates(nupkgPath);
+        SemanticVersion version = SemanticVersion.parse(coordinates.getVersion());
+        String path = RepositoryFiles.relativizePath(nupkgPath);
+
+        // Only the tokens and the summary are kept, the `.nuspec` is read again when the package is returned.
+        Nuspec nuspec = readNuspec(nupkgPath.resolveSibling(coordinates.getId() + NUSPEC_EXTENSION),
+                                   coordinates.getId(), version);
+        nuspecs.invalidate(nuspecKey(repository, path));
+
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(tokenize(coordinates.getId(), true));
+        tokens.addAll(tokenize(nuspec.getTitle(), true));
+        tokens.addAll(tokenize(nuspec.getDescription(), false));
+        nuspec.getTags().forEach(t -> tokens.addAll(tokenize(t, false)));
+
+        Long sizeInBytes = artifactEntry != null ? artifactEntry.getSizeInBytes() : null;
+        Date lastUpdated = artifactEntry != null ? artifactEntry.getLastUpdated() : null;
+        Integer downloadCount = artifactEntry != null ? artifactEntry.getDownloadCount() : null;
+
+        index.add(new NugetPackageDocument(path,
+                                           coordinates.getId(),
+                                           version,
+                                           nuspec.getTitle(),
+                                           PathNupkg.readHash(nupkgPath),
+                                           sizeInBytes != null ? sizeInBytes : Files.size(nupkgPath),
+                                           lastUpdated != null ? lastUpdated : new Date(),
+                                           downloadCount != null ? downloadCount : 0,
+                                           tokens));
+    }
+
+    private Nuspec readNuspec(RepositoryPath nuspecPath,
+                              String packageId,
+                              SemanticVersion version)
+    {
+        if (Files.exists(nuspecPath))
+        {
+            try (InputStream is = Files.newInputStream(nuspecPath))
+            {
+                return Nuspec.parse(is);
+            }
+            catch (Exception e)
+            {
+                logger.warn(String.format("Failed to read .nuspec file [%s]", nuspecPath), e);
+            }
+        }
+
+        Nuspec result = new Nuspec();
+        Metadata metadata = result.getMetadata();
+        metadata.id = packageId;
+        metadata.version = version;
+        metadata.title = metadata.id;
+
+        return result;
+    }
+
+    /**
+     * Splits the text into lower cased tokens. The identifiers are also split on camel case boundaries, so that
+     * `NHibernate` can be found with `hibernate`.
+     */
+    private static Set<String> tokenize(String text,
+                                        boolean identifier)
+    {
+        if (text == null || text.trim().isEmpty())
+        {
+            return Collections.emptySet();
+        }
+
+        Set<String> result = new HashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text))
+        {
+            if (token.isEmpty())
+            {
+                continue;
+            }
+            result.add(token.toLowerCase());
+
+            if (identifier)
+            {
+                Arrays.stream(CAMEL_CASE_BOUNDARY.split(token)).map(String::toLowerCase).forEach(result::add);
+            }
+        }
+        if (identifier)
+        {
+            result.add(text.toLowerCase());
+        }
+
+        return result;
+    }
+
+    private static class RepositoryIndex
+    {
+
+        /**
+         * path -> document
+         */
+        private final Map<String, NugetPackageDocument> documents = new ConcurrentHashMap<>();
+
+        /**
+         * token -> paths
+         */
+        private final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+
+        /**
+         * lower cased package id -> versions, ordered by id and version
+         */
+        private final ConcurrentSkipListMap<String, ConcurrentSkipListMap<SemanticVersion, NugetPackageDocument>> packages = new ConcurrentSkipListMap<>();
+
+        private final CountDownLatch built = new CountDownLatch(1);
+
+        /**
+         * The changes which arrived while the index was being built, null once they are applied.
+         */
+        private List<Runnable> pendingChanges = new ArrayList<>();
+
+        /**
+         * Applies the change, or queues it if the index is still being built.
+         */
+        private void apply(Runnable change)
+        {
+            synchronized (built)
+            {
+                if (pendingChanges != null)
+                {
+                    pendingChanges.add(change);
+                    return;
+                }
+            }
+
+            change.run();
+        }
+
+        private void applyPendingChanges()
+        {
+            while (true)
+            {
+                List<Runnable> changes;
+                synchronized (built)
+                {
+                    if (pendingChanges.isEmpty())
+                    {
+                        pendingChanges = null;
+                        return;
+                    }
+
+                    changes = pendingChanges;
+                    pendingChanges = new ArrayList<>();
+                }
+
+                changes.forEach(Runnable::run);
+            }
+        }
+
+        private void awaitBuilt()
+        {
+            try
+            {
+                built.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * @return the paths of the documents which have tokens starting with every one of the given terms
+         */
+        private Set<String> match(Set<String> terms)
+        {
+            Set<String> result = null;
+            for (String term : terms)
+            {
+                Set<String> termMatches = new HashSet<>();
+                postings.subMap(term, true, term + Character.MAX_VALUE, true).values().forEach(termMatches::addAll);
+
+                if (result == null)
+                {
+                    result = termMatches;
+                }
+                else
+                {
+                    result.retainAll(termMatches);
+                }
+                if (result.isEmpty())
+                {
+                    break;
+                }
+            }
+
+            return result == null ? Collections.emptySet() : result;
+        }
+
+        private synchronized void add(NugetPackageDocument document)
+        {
+            remove(document.getPath());
+
+            documents.put(document.getPath(), document);
+            document.getTokens().forEach(t -> postings.computeIfAbsent(t, k -> ConcurrentHashMap.newKeySet())
+                                                      .add(document.getPath()));
+
+            ConcurrentSkipListMap<SemanticVersion, NugetPackageDocument> versions = packages.computeIfAbsent(document.getId().toLowerCase(),
+                                                                                                             k -> new ConcurrentSkipListMap<>());
+            versions.put(document.getVersion(), document);
+            updateLatestVersion(versions);
+        }
+
+        private synchronized void remove(String path)
+        {
+            NugetPackageDocument document = documents.remove(path);
+            if (document == null)
+            {
+                return;
+            }
+
+            for (String token : document.getTokens())
+            {
+                Set<String> paths = postings.get(token);
+                if (paths != null && paths.remove(path) && paths.isEmpty())
+                {
+                    postings.remove(token, paths);
+                }
+            }
+
+            String packageId = document.getId().toLowerCase();
+            ConcurrentSkipListMap<SemanticVersion, NugetPackageDocument> versions = packages.get(packageId);
+            if (versions == null)
+            {
+                return;
+            }
+
+            versions.remove(document.getVersion(), document);
+            if (versions.isEmpty())
+            {
+                packages.remove(packageId, versions);
+            }
+            else
+            {
+                updateLatestVersion(versions);
+            }
+        }
+
+        /**
+         * @return the paths of the removed documents
+         */
+        private synchronized List<String> removeAll(String pathPrefix)
+        {
+            List<String> paths = documents.keySet()
+                                          .stream()
+                                          .filter(p -> p.startsWith(pathPrefix))
+                                          .collect(Collectors.toList());
+            paths.forEach(this::remove);
+
+            return paths;
+        }
+
+        private void registerDownload(String path)
+        {
+            NugetPackageDocument document = documents.get(path);
+            if (document != null)
+            {
+                document.registerDownload();
+            }
+        }
+
+        /**
+         * The pre-releases can only be the absolute latest version, the latest version is the latest release.
+         */
+        private void updateLatestVersion(ConcurrentSkipListMap<SemanticVersion, NugetPackageDocument> versions)
+        {
+            NugetPackageDocument absoluteLatest = versions.lastEntry().getValue();
+            NugetPackageDocument latest = versions.descendingMap()
+                                                  .values()
+                                                  .stream()
+                                                  .filter(d -> !d.getVersion().isPreRelease())
+                                                  .findFirst()
+                                                  .orElse(null);
+
+            versions.values().forEach(d -> {
+                d.setLatestVersion(d == latest);
+                d.setAbsoluteLatestVersion(d == absoluteLatest);
+            });
+        }
+
+    }
+
+}
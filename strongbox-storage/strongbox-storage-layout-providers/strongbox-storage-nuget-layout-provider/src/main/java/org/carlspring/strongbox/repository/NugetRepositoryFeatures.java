@@ -21,6 +21,7 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryCheckpointStore;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.ArtifactTagService;
@@ -43,15 +44,20 @@ import javax.persistence.PersistenceContext;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.WebTarget;
 import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.locks.Lock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * 
@@ -65,6 +71,11 @@ public class NugetRepositoryFeatures
 
     private static final int REMOTE_FEED_PAGE_SIZE = 1000;
 
+    private static final String REMOTE_FEED_CHECKPOINT = "nuget-remote-feed.published";
+
+    private static final DateTimeFormatter WATERMARK_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS")
+                                                                                  .withZone(ZoneOffset.UTC);
+
     private static final Logger logger = LoggerFactory.getLogger(NugetRepositoryFeatures.class);
 
     @Inject
@@ -99,7 +110,16 @@ public class NugetRepositoryFeatures
 
     @Inject
     private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
-    
+
+    @Inject
+    private ProxyRepositoryCheckpointStore checkpointStore;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.nuget.download.feed:false}")
+    private boolean remoteFeedSynchronizationEnabled;
+
     private Set<String> defaultMavenArtifactCoordinateValidators;
 
     @PostConstruct
@@ -110,17 +130,42 @@ public class NugetRepositoryFeatures
                                                                                      genericSnapshotVersionValidator.getAlias()));
     }
 
+    /**
+     * Synchronizes the whole remote feed. Only the packages which were published after the last synchronization
+     * (the persisted {@code Published} watermark) are requested from the remote.
+     */
     public void downloadRemoteFeed(String storageId,
                                    String repositoryId)
             throws ArtifactTransportException, IOException
     {
-        downloadRemoteFeed(storageId, repositoryId, new NugetSearchRequest());
+        String watermark = checkpointStore.get(storageId, repositoryId, REMOTE_FEED_CHECKPOINT);
+
+        NugetSearchRequest nugetSearchRequest = new NugetSearchRequest();
+        if (watermark != null)
+        {
+            // `ge` rather than `gt`, the packages which are already known are skipped anyway.
+            nugetSearchRequest.setFilter(String.format("Published ge datetime'%s'", watermark));
+        }
+
+        logger.debug(String.format("Synchronizing remote feed for [%s]/[%s] since [%s].", storageId, repositoryId,
+                                   watermark));
+
+        downloadRemoteFeed(storageId, repositoryId, nugetSearchRequest, true);
     }
 
     public void downloadRemoteFeed(String storageId,
                                    String repositoryId,
                                    NugetSearchRequest nugetSearchRequest)
             throws ArtifactTransportException, IOException
+    {
+        downloadRemoteFeed(storageId, repositoryId, nugetSearchRequest, false);
+    }
+
+    private void downloadRemoteFeed(String storageId,
+                                    String repositoryId,
+                                    NugetSearchRequest nugetSearchRequest,
+                                    boolean advanceWatermark)
+            throws IOException
     {
         Storage storage = getConfiguration().getStorage(storageId);
         Repository repository = storage.getRepository(repositoryId);
@@ -130,11 +175,26 @@ public class NugetRepositoryFeatures
                                                             .orElse(REMOTE_FEED_PAGE_SIZE);
         for (int i = 0; true; i++)
         {
-            if (!downloadRemoteFeed(storageId, repositoryId, nugetSearchRequest, i * remoteFeedPageSize,
-                                    remoteFeedPageSize))
+            PackageFeed packageFeed = fetchRemoteFeed(repository, nugetSearchRequest, i * remoteFeedPageSize,
+                                                      remoteFeedPageSize, advanceWatermark);
+            if (packageFeed == null)
             {
                 break;
             }
+
+            Date lastPublished = parseFeed(repository, packageFeed);
+            if (advanceWatermark && lastPublished != null)
+            {
+                // The pages are ordered by `Published`, so everything up to here has been stored.
+                checkpointStore.put(storageId, repositoryId, REMOTE_FEED_CHECKPOINT,
+                                    WATERMARK_FORMATTER.format(lastPublished.toInstant()));
+            }
+
+            if (packageFeed.getEntries().size() < remoteFeedPageSize)
+            {
+                // A short page is the last one, there is no need to ask the remote for another (empty) page.
+                break;
+            }
         }
     }
 
@@ -148,10 +208,27 @@ public class NugetRepositoryFeatures
         Storage storage = getConfiguration().getStorage(storageId);
         Repository repository = storage.getRepository(repositoryId);
 
+        PackageFeed packageFeed = fetchRemoteFeed(repository, nugetSearchRequest, skip, top, false);
+        if (packageFeed == null)
+        {
+            return false;
+        }
+
+        parseFeed(repository, packageFeed);
+
+        return true;
+    }
+
+    private PackageFeed fetchRemoteFeed(Repository repository,
+                                        NugetSearchRequest nugetSearchRequest,
+                                        int skip,
+                                        int top,
+                                        boolean orderByPublished)
+    {
         RemoteRepository remoteRepository = repository.getRemoteRepository();
         if (remoteRepository == null)
         {
-            return false;
+            return null;
         }
         String remoteRepositoryUrl = remoteRepository.getUrl();
 
@@ -165,20 +242,26 @@ public class NugetRepositoryFeatures
         {
             logger.debug(String.format("Downloading remote feed for [%s].", remoteRepositoryUrl));
 
-            WebTarget service = restClient.target(remoteRepository.getUrl());
-            packageFeed = queryParams(service.path("Search()"), nugetSearchRequest, paginator).request()
-                                                                                              .buildGet()
-                                                                                              .invoke(PackageFeed.class);
-            
+            WebTarget service = queryParams(restClient.target(remoteRepository.getUrl()).path("Search()"),
+                                            nugetSearchRequest, paginator);
+            if (orderByPublished)
+            {
+                service = service.queryParam("$orderby", "Published");
+            }
+            packageFeed = service.request().buildGet().invoke(PackageFeed.class);
+
             logger.debug(String.format("Downloaded remote feed for [%s], size [%s].",
                                        remoteRepository.getUrl(),
-                                       Optional.of(packageFeed).map(f -> f.getEntries().size()).orElse(0)));
+                                       Optional.ofNullable(packageFeed)
+                                               .map(PackageFeed::getEntries)
+                                               .map(List::size)
+                                               .orElse(0)));
 
         }
         catch (Exception e)
         {
             logger.error(String.format("Failed to fetch Nuget remote feed [%s]", remoteRepositoryUrl), e);
-            return false;
+            return null;
         } finally
         {
             restClient.close();
@@ -186,23 +269,27 @@ public class NugetRepositoryFeatures
 
         if (packageFeed == null || packageFeed.getEntries() == null || packageFeed.getEntries().size() == 0)
         {
-            return false;
+            return null;
         }
 
-        parseFeed(repository, packageFeed);
-
-        return true;
+        return packageFeed;
     }
 
-    private void parseFeed(Repository repository,
+    /**
+     * Stores the feed entries which are not known locally yet. The whole page is diffed against the database with a
+     * single query and the new entries are stored in one transaction.
+     *
+     * @return the latest {@code Published} date of the page entries
+     */
+    private Date parseFeed(Repository repository,
                            PackageFeed packageFeed) throws IOException
     {
         String repositoryId = repository.getId();
         String storageId = repository.getStorage().getId();
 
-        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
-
-        Set<ArtifactEntry> artifactToSaveSet = new HashSet<>();
+        Date lastPublished = null;
+        Map<String, NugetArtifactCoordinates> coordinatesMap = new LinkedHashMap<>();
+        Map<String, PackageEntry> packageEntries = new HashMap<>();
         for (PackageEntry packageEntry : packageFeed.getEntries())
         {
             String packageId = packageEntry.getProperties().getId();
@@ -210,11 +297,32 @@ public class NugetRepositoryFeatures
             String packageVersion = packageEntry.getProperties().getVersion().toString();
 
             NugetArtifactCoordinates c = new NugetArtifactCoordinates(packageId, packageVersion, "nupkg");
-            if (artifactEntryService.artifactExists(storageId, repositoryId, c.toPath()))
+            coordinatesMap.put(c.toPath(), c);
+            packageEntries.put(c.toPath(), packageEntry);
+
+            Date published = packageEntry.getProperties().getPublished();
+            if (published != null && (lastPublished == null || published.after(lastPublished)))
+            {
+                lastPublished = published;
+            }
+        }
+
+        Set<String> existingPaths = artifactEntryService.findExistingArtifactPaths(storageId, repositoryId,
+                                                                                   coordinatesMap.keySet());
+
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+
+        Map<String, List<ArtifactEntry>> artifactToSaveMap = new LinkedHashMap<>();
+        for (Map.Entry<String, NugetArtifactCoordinates> e : coordinatesMap.entrySet())
+        {
+            if (existingPaths.contains(e.getKey()))
             {
                 continue;
             }
 
+            NugetArtifactCoordinates c = e.getValue();
+            PackageEntry packageEntry = packageEntries.get(e.getKey());
+
             RemoteArtifactEntry remoteArtifactEntry = new RemoteArtifactEntry();
             remoteArtifactEntry.setStorageId(storageId);
             remoteArtifactEntry.setRepositoryId(repositoryId);
@@ -230,31 +338,161 @@ public class NugetRepositoryFeatures
                 remoteArtifactEntry.getTagSet().add(lastVersionTag);
             }
 
-            artifactToSaveSet.add(remoteArtifactEntry);
+            artifactToSaveMap.computeIfAbsent(c.getId(), k -> new ArrayList<>()).add(remoteArtifactEntry);
         }
 
-        for (ArtifactEntry e : artifactToSaveSet)
+        if (artifactToSaveMap.isEmpty())
         {
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, (NugetArtifactCoordinates) e.getArtifactCoordinates());
+            return lastPublished;
+        }
 
-            Storage storage = repository.getStorage();
-            ArtifactCoordinates coordinates = RepositoryFiles.readCoordinates(repositoryPath);
-            
-            Lock lock = repositoryPathLock.lock(repositoryPath).writeLock();
-            lock.lock();
-            
-            try
+        if (storeArtifactEntries(repository, artifactToSaveMap))
+        {
+            return lastPublished;
+        }
+
+        for (List<ArtifactEntry> artifactEntries : artifactToSaveMap.values())
+        {
+            for (ArtifactEntry artifactEntry : artifactEntries)
             {
-                RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
-                repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e);
+                storeArtifactEntry(repository, artifactEntry);
             }
-            finally
+        }
+
+        return lastPublished;
+    }
+
+    /**
+     * Stores the new entries of a feed page in one transaction, holding the locks of all their artifact groups.
+     *
+     * @return `false` if the entries have to be stored one by one
+     */
+    private boolean storeArtifactEntries(Repository repository,
+                                         Map<String, List<ArtifactEntry>> artifactToSaveMap)
+            throws IOException
+    {
+        String repositoryId = repository.getId();
+        String storageId = repository.getStorage().getId();
+
+        // The path of every entry is locked, as when it's stored one by one (see storeArtifactEntry()), and the locks
+        // are always taken in the same order, so that concurrent pages can't deadlock.
+        Map<String, ArtifactEntry> sortedEntries = new TreeMap<>();
+        artifactToSaveMap.values().forEach(entries -> entries.forEach(e -> sortedEntries.put(e.getArtifactPath(), e)));
+
+        List<Lock> locks = new ArrayList<>();
+        try
+        {
+            for (ArtifactEntry artifactEntry : sortedEntries.values())
+            {
+                RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository,
+                                                                               artifactEntry.getArtifactCoordinates());
+                Lock lock = repositoryPathLock.lock(repositoryPath).writeLock();
+                lock.lock();
+                locks.add(lock);
+            }
+
+            // Some of the entries could have been stored concurrently, before the locks were taken.
+            Set<String> existingPaths = artifactEntryService.findExistingArtifactPaths(storageId, repositoryId,
+                                                                                       artifactPaths(artifactToSaveMap));
+            if (!existingPaths.isEmpty())
+            {
+                artifactToSaveMap.values()
+                                 .forEach(entries -> entries.removeIf(e -> existingPaths.contains(e.getArtifactPath())));
+                artifactToSaveMap.values().removeIf(List::isEmpty);
+            }
+
+            new TransactionTemplate(transactionManager).execute(t -> {
+                artifactToSaveMap.forEach((artifactId, artifactEntries) -> {
+                    RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storageId,
+                                                                                                                    repositoryId,
+                                                                                                                    artifactId);
+                    repositoryArtifactIdGroupService.addArtifactsToGroup(artifactGroup, artifactEntries);
+                });
+
+                return null;
+            });
+
+            return true;
+        }
+        catch (Exception e)
+        {
+            logger.warn(String.format("Failed to store Nuget remote feed page for [%s]/[%s] in batch, retrying one by one.",
+                                      storageId, repositoryId),
+                        e);
+
+            return false;
+        }
+        finally
+        {
+            for (int i = locks.size() - 1; i >= 0; i--)
+            {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    private static Set<String> artifactPaths(Map<String, List<ArtifactEntry>> artifactEntries)
+    {
+        Set<String> result = new HashSet<>();
+        artifactEntries.values().forEach(entries -> entries.forEach(e -> result.add(e.getArtifactPath())));
+
+        return result;
+    }
+
+    private void storeArtifactEntry(Repository repository,
+                                    ArtifactEntry e)
+            throws IOException
+    {
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, (NugetArtifactCoordinates) e.getArtifactCoordinates());
+
+        Storage storage = repository.getStorage();
+        ArtifactCoordinates coordinates = RepositoryFiles.readCoordinates(repositoryPath);
+
+        Lock lock = repositoryPathLock.lock(repositoryPath).writeLock();
+        lock.lock();
+
+        try
+        {
+            if (artifactEntryService.artifactExists(storage.getId(), repository.getId(), coordinates.toPath()))
             {
-                lock.unlock();
+                return;
             }
+
+            RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
+            repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e);
+        }
+        finally
+        {
+            lock.unlock();
         }
     }
 
+    long countCachedPackages(RemoteRepositorySearchEvent event)
+    {
+        Selector<RemoteArtifactEntry> selector = new Selector<>(RemoteArtifactEntry.class);
+        selector.select("count(*)");
+        selector.where(Predicate.of(ExpOperator.EQ.of("storageId", event.getStorageId())))
+                .and(Predicate.of(ExpOperator.EQ.of("repositoryId", event.getRepositoryId())));
+        if (!event.getPredicate().isEmpty())
+        {
+            selector.getPredicate().and(event.getPredicate());
+        }
+        OQueryTemplate<Long, RemoteArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
+
+        return queryTemplate.select(selector);
+    }
+
+    /**
+     * @return `true` if the local cache of the remote feed is kept in sync by the scheduled synchronization
+     */
+    boolean isRemoteFeedSynchronized(String storageId,
+                                     String repositoryId)
+    {
+        // The watermark alone isn't enough, it is left behind once the scheduled synchronization has been disabled.
+        return remoteFeedSynchronizationEnabled &&
+               checkpointStore.get(storageId, repositoryId, REMOTE_FEED_CHECKPOINT) != null;
+    }
+
     protected Configuration getConfiguration()
     {
         return configurationManager.getConfiguration();
@@ -293,40 +531,24 @@ public class NugetRepositoryFeatures
                 return;
             }
 
-            Selector<RemoteArtifactEntry> selector = new Selector<>(RemoteArtifactEntry.class);
-            selector.select("count(*)");
-            selector.where(Predicate.of(ExpOperator.EQ.of("storageId", event.getStorageId())))
-                    .and(Predicate.of(ExpOperator.EQ.of("repositoryId", event.getRepositoryId())));
-            if (!event.getPredicate().isEmpty())
-            {
-                selector.getPredicate().and(event.getPredicate());
-            }
-            OQueryTemplate<Long, RemoteArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
-            Long packageCount = queryTemplate.select(selector);
+            long packageCount = countCachedPackages(event);
 
             logger.debug(String.format("Remote repository [%s] cached package count is [%s]", repository.getId(),
                                        packageCount));
 
+            if (packageCount > 0 && isRemoteFeedSynchronized(event.getStorageId(), event.getRepositoryId()))
+            {
+                logger.debug(String.format("No need to download remote feed, the local cache of [%s] is kept in sync with [%s].",
+                                           repository.getId(), remoteRepository.getUrl()));
+                return;
+            }
+
             Client restClient = proxyRepositoryConnectionPoolConfigurationService.getRestClient();
             PackageFeed feed;
             try
             {
                 WebTarget service = restClient.target(remoteRepository.getUrl());
 
-                Long remotePackageCount = Long.valueOf(queryParams(service.path("Search()/$count"),
-                                                                   nugetSearchRequest, new Paginator()).request()
-                                                                                                       .buildGet()
-                                                                                                       .invoke(String.class));
-                logger.debug(String.format("Remote repository [%s] remote package count is [%s]",
-                                           repository.getId(), remotePackageCount));
-
-                if (Long.valueOf(remotePackageCount).compareTo(packageCount) == 0)
-                {
-                    logger.debug(String.format("No need to download remote feed, there was no changes in remote repository [%s] against local cache.",
-                                               remoteRepository.getUrl()));
-                    return;
-                }
-
                 logger.debug(String.format("Downloading remote feed for [%s].",
                                            remoteRepository.getUrl()));
 
@@ -336,7 +558,10 @@ public class NugetRepositoryFeatures
 
                 logger.debug(String.format("Downloaded remote feed for [%s], size [%s].",
                                            remoteRepository.getUrl(),
-                                           Optional.of(feed).map(f -> f.getEntries().size()).orElse(0)));
+                                           Optional.ofNullable(feed)
+                                                   .map(PackageFeed::getEntries)
+                                                   .map(List::size)
+                                                   .orElse(0)));
 
             }
             catch (Exception e)
@@ -349,6 +574,11 @@ public class NugetRepositoryFeatures
                 restClient.close();
             }
 
+            if (feed == null || feed.getEntries() == null)
+            {
+                return;
+            }
+
             parseFeed(repository, feed);
         }
 
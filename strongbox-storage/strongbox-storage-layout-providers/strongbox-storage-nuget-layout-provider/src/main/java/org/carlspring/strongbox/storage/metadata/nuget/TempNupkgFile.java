@@ -32,8 +32,10 @@ import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Optional;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
 
 import javax.xml.bind.DatatypeConverter;
 
@@ -87,11 +89,7 @@ public class TempNupkgFile implements AutoCloseable, Nupkg
             this.file = File.createTempFile("nupkg", "jnuget");
 
             this.hash = copyDataAndCalculateHash(inputStream, this.file);
-
-            try (final FileInputStream fileInputStream = new FileInputStream(file))
-            {
-                this.nuspec = loadNuspec(fileInputStream);
-            }
+            this.nuspec = loadNuspec(this.file);
         }
         catch (NoSuchAlgorithmException ex)
         {
@@ -100,35 +98,47 @@ public class TempNupkgFile implements AutoCloseable, Nupkg
     }
 
     /**
-     * Extract specification file from stream with NuPkg package
+     * Extract specification file from NuPkg package file.<br>
+     * The entry is located with the ZIP central directory, so only the
+     * specification itself is read, not the whole package.
      *
-     * @param package
-     *            stream stream package
-     * @return specification file
+     * @param packageFile
+     *            package file
+     * @return specification file, or {@code null} if the file is not a ZIP
+     *         archive with specification
      * @throws IOException
      *             read error
      * @throws NugetFormatException
      *             XML in the package archive does not conform to the NuGet
      *             specification
      */
-    private static final Nuspec loadNuspec(InputStream packageStream)
+    private static final Nuspec loadNuspec(File packageFile)
         throws IOException,
                NugetFormatException
     {
-        try (ZipInputStream zipInputStream = new ZipInputStream(packageStream);)
+        if (packageFile.length() == 0)
         {
-            ZipEntry entry;
-            do
-            {
-                entry = zipInputStream.getNextEntry();
-            } while (entry != null && !isNuspecZipEntry(entry));
+            return null;
+        }
 
-            if (entry == null)
+        try (ZipFile zipFile = new ZipFile(packageFile))
+        {
+            Optional<? extends ZipEntry> entry = zipFile.stream()
+                                                        .filter(TempNupkgFile::isNuspecZipEntry)
+                                                        .findFirst();
+            if (!entry.isPresent())
             {
                 return null;
             }
 
-            return Nuspec.parse(zipInputStream);
+            try (InputStream nuspecStream = zipFile.getInputStream(entry.get()))
+            {
+                return Nuspec.parse(nuspecStream);
+            }
+        }
+        catch (ZipException e)
+        {
+            return null;
         }
     }
 
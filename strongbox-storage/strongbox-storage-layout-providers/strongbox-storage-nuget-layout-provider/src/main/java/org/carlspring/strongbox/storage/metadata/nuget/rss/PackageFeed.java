@@ -21,6 +21,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -46,7 +47,7 @@ import org.carlspring.strongbox.storage.metadata.nuget.XmlWritable;
  */
 @XmlRootElement(name = "feed", namespace = PackageFeed.ATOM_XML_NAMESPACE)
 @XmlAccessorType(XmlAccessType.NONE)
-@XmlType(propOrder = { "title", "id", "updated", "link", "entries" })
+@XmlType(propOrder = { "title", "id", "updated", "links", "entries" })
 public class PackageFeed implements XmlWritable
 {
 
@@ -79,10 +80,10 @@ public class PackageFeed implements XmlWritable
     private Date updated;
 
     /**
-     * Link to packages
+     * Link to packages, and to the next page of them, if any
      */
     @XmlElement(name = "link", namespace = ATOM_XML_NAMESPACE)
-    private Link link = new Link("self", "Packages", "Packages");
+    private List<Link> links = new ArrayList<>(Collections.singletonList(new Link("self", "Packages", "Packages")));
 
     /**
      * Packet descriptions
@@ -146,7 +147,7 @@ public class PackageFeed implements XmlWritable
      */
     public String getLink()
     {
-        return link.getHref();
+        return getLinkHref("self");
     }
 
     /**
@@ -155,7 +156,38 @@ public class PackageFeed implements XmlWritable
      */
     public void setLink(String link)
     {
-        this.link = new Link("self", "Packages", link);
+        setLink(new Link("self", "Packages", link));
+    }
+
+    /**
+     * @return link to the next page of packages, or `null` if this is the last one
+     */
+    public String getNextLink()
+    {
+        return getLinkHref("next");
+    }
+
+    /**
+     * @param nextLink
+     *            link to the next page of packages
+     */
+    public void setNextLink(String nextLink)
+    {
+        setLink(new Link("next", null, nextLink));
+    }
+
+    private String getLinkHref(String rel)
+    {
+        return links.stream().filter(l -> rel.equals(l.getRel())).map(Link::getHref).findFirst().orElse(null);
+    }
+
+    private void setLink(Link link)
+    {
+        links.removeIf(l -> link.getRel().equals(l.getRel()));
+        if (link.getHref() != null)
+        {
+            links.add(link);
+        }
     }
 
     /**
@@ -0,0 +1,228 @@
+package org.carlspring.strongbox.nuget.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.PathNupkg;
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+import org.carlspring.strongbox.config.NugetLayoutProviderTestConfig;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.metadata.nuget.NugetFormatException;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.NugetTestArtifact;
+import org.carlspring.strongbox.testing.repository.NugetRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = NugetLayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class NugetSearchIndexTest
+{
+
+    private static final String REPOSITORY_RELEASES = "nsit-releases";
+
+    private static final String REPOSITORY_EVENTS = "nsit-events";
+
+    private static final String PACKAGE_ID = "Org.Carlspring.Strongbox.Nuget.Test.Nsit";
+
+    private static final String PACKAGE_EVENTS_ID = "Org.Carlspring.Strongbox.Nuget.Test.NsitEvents";
+
+    @Inject
+    private NugetSearchIndex nugetSearchIndex;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testSearch(@NugetRepository(repositoryId = REPOSITORY_RELEASES)
+                           Repository repository,
+                           @NugetTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                              id = PACKAGE_ID,
+                                              versions = { "1.0.0",
+                                                           "1.0.1",
+                                                           "1.0.2",
+                                                           "1.0.3-alpha" })
+                           List<Path> artifactPaths)
+            throws NugetFormatException
+    {
+        assertTrue(nugetSearchIndex.supports(repository));
+
+        assertEquals(4, nugetSearchIndex.count(repository, null, "Test.Nsit"));
+        assertEquals(4, nugetSearchIndex.count(repository, null, "nsit"));
+        assertEquals(0, nugetSearchIndex.count(repository, null, "unknown"));
+
+        // The pre-release is only the absolute latest version.
+        String filter = String.format("tolower(Id) eq '%s' and IsLatestVersion", PACKAGE_ID.toLowerCase());
+        List<NugetPackageDocument> result = nugetSearchIndex.search(repository, filter, null, "Id", 0, 30);
+        assertEquals(1, result.size());
+        assertEquals("1.0.2", result.get(0).getVersion().toString());
+        assertFalse(result.get(0).isAbsoluteLatestVersion());
+
+        filter = String.format("Id eq '%s' and Version ge '1.0.1'", PACKAGE_ID);
+        assertEquals(3, nugetSearchIndex.count(repository, filter, null));
+
+        result = nugetSearchIndex.search(repository, null, "nsit", "Version desc", 1, 2);
+        assertEquals(Arrays.asList("1.0.2", "1.0.1"), versions(result));
+
+        result = nugetSearchIndex.search(repository, null, "nsit", "version", null, null);
+        assertEquals(Arrays.asList("1.0.0", "1.0.1", "1.0.2", "1.0.3-alpha"), versions(result));
+
+        result = nugetSearchIndex.findById(repository, PACKAGE_ID);
+        assertEquals(4, result.size());
+        assertEquals("1.0.0", result.get(0).getVersion().toString());
+        assertTrue(result.get(3).isAbsoluteLatestVersion());
+
+        // The feed entries are written from the index.
+        List<PathNupkg> packages = nugetSearchIndex.toNupkg(repository, result);
+        assertEquals(4, packages.size());
+        assertEquals(PACKAGE_ID, packages.get(0).getNuspec().getId());
+        assertEquals(result.get(0).getSizeInBytes(), packages.get(0).getSize());
+        assertEquals(result.get(0).getHash(), packages.get(0).getHash());
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testIncrementalUpdates(@NugetRepository(repositoryId = REPOSITORY_EVENTS)
+                                       Repository repository,
+                                       @NugetTestArtifact(repositoryId = REPOSITORY_EVENTS,
+                                                          id = PACKAGE_EVENTS_ID,
+                                                          versions = { "1.0.0",
+                                                                       "1.0.1" })
+                                       List<Path> artifactPaths,
+                                       @NugetTestArtifact(id = PACKAGE_EVENTS_ID,
+                                                          versions = "1.1.0-beta")
+                                       Path newArtifactPath)
+            throws IOException
+    {
+        // Built from the database.
+        assertEquals(Arrays.asList("1.0.0", "1.0.1"), versions(nugetSearchIndex.findById(repository, PACKAGE_EVENTS_ID)));
+
+        RepositoryPath newPath = resolve(repository, "1.1.0-beta");
+        try (InputStream is = Files.newInputStream(newArtifactPath))
+        {
+            artifactManagementService.validateAndStore(newPath, is);
+        }
+
+        List<NugetPackageDocument> result = nugetSearchIndex.findById(repository, PACKAGE_EVENTS_ID);
+        assertEquals(Arrays.asList("1.0.0", "1.0.1", "1.1.0-beta"), versions(result));
+        assertTrue(result.get(1).isLatestVersion());
+        assertTrue(result.get(2).isAbsoluteLatestVersion());
+        assertEquals(Files.size(newPath), result.get(2).getSizeInBytes().longValue());
+
+        RepositoryPath path = resolve(repository, "1.0.1");
+        int downloadCount = result.get(1).getDownloadCount();
+        nugetSearchIndex.handle(new ArtifactEvent<>(path, ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADING.getType()));
+        assertEquals(downloadCount + 1, nugetSearchIndex.findById(repository, PACKAGE_EVENTS_ID).get(1).getDownloadCount());
+
+        artifactManagementService.delete(path, true);
+
+        result = nugetSearchIndex.findById(repository, PACKAGE_EVENTS_ID);
+        assertEquals(Arrays.asList("1.0.0", "1.1.0-beta"), versions(result));
+        assertTrue(result.get(0).isLatestVersion());
+        assertEquals(0, nugetSearchIndex.count(repository,
+                                               String.format("Id eq '%s' and Version eq '1.0.1'", PACKAGE_EVENTS_ID),
+                                               null));
+
+        artifactManagementService.delete(resolve(repository, "1.0.0").getParent(), true);
+
+        assertEquals(Collections.singletonList("1.1.0-beta"),
+                     versions(nugetSearchIndex.findById(repository, PACKAGE_EVENTS_ID)));
+    }
+
+    @Test
+    public void testOrdering()
+    {
+        NugetPackageDocument a1 = document("b.Package", "1.0.0", "Zeta", 5);
+        NugetPackageDocument a2 = document("b.Package", "2.0.0", "Zeta", 1);
+        NugetPackageDocument b1 = document("A.Package", "1.0.0", "alpha", 1);
+        NugetPackageDocument c1 = document("c.package", "1.5.0", "Beta", 3);
+        List<NugetPackageDocument> documents = Arrays.asList(a1, a2, b1, c1);
+
+        assertEquals(Arrays.asList(b1, a1, a2, c1), sort(documents, null));
+        assertEquals(Arrays.asList(b1, a1, a2, c1), sort(documents, "unknown"));
+        assertEquals(Arrays.asList(b1, a1, a2, c1), sort(documents, "id"));
+        // Only the given property is descending, the versions of a package are still in ascending order.
+        assertEquals(Arrays.asList(c1, a1, a2, b1), sort(documents, "Id desc"));
+        assertEquals(Arrays.asList(b1, c1, a1, a2), sort(documents, "Title"));
+        assertEquals(Arrays.asList(b1, c1, a1, a2), sort(documents, "title asc"));
+        assertEquals(Arrays.asList(b1, a1, c1, a2), sort(documents, "Version"));
+        assertEquals(Arrays.asList(a1, c1, b1, a2), sort(documents, "DownloadCount desc"));
+        assertEquals(Arrays.asList(a1, a2, c1, b1), sort(documents, "Title desc, Version"));
+
+        // The pages of the index order are read without sorting.
+        assertTrue(NugetSearchIndex.isDefaultOrder(null));
+        assertTrue(NugetSearchIndex.isDefaultOrder("unknown"));
+        assertTrue(NugetSearchIndex.isDefaultOrder("id asc, Version"));
+        assertFalse(NugetSearchIndex.isDefaultOrder("Id desc"));
+        assertFalse(NugetSearchIndex.isDefaultOrder("Version"));
+        assertFalse(NugetSearchIndex.isDefaultOrder("Id, Title"));
+    }
+
+    private RepositoryPath resolve(Repository repository,
+                                   String version)
+    {
+        return repositoryPathResolver.resolve(repository, new NugetArtifactCoordinates(PACKAGE_EVENTS_ID, version,
+                                                                                       "nupkg"));
+    }
+
+    private static List<String> versions(List<NugetPackageDocument> documents)
+    {
+        return documents.stream().map(d -> d.getVersion().toString()).collect(Collectors.toList());
+    }
+
+    private static List<NugetPackageDocument> sort(List<NugetPackageDocument> documents,
+                                                   String orderBy)
+    {
+        return documents.stream().sorted(NugetSearchIndex.comparator(orderBy)).collect(Collectors.toList());
+    }
+
+    private static NugetPackageDocument document(String id,
+                                                 String version,
+                                                 String title,
+                                                 int downloadCount)
+    {
+        return new NugetPackageDocument(new NugetArtifactCoordinates(id, version, "nupkg").toPath(),
+                                        id,
+                                        SemanticVersion.parse(version),
+                                        title,
+                                        "",
+                                        0L,
+                                        new Date(),
+                                        downloadCount,
+                                        Collections.emptySet());
+    }
+
+}
@@ -1,10 +1,14 @@
 package org.carlspring.strongbox.providers.repository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 
@@ -12,6 +16,8 @@ import org.carlspring.strongbox.config.NugetLayoutProviderTestConfig;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
 import org.carlspring.strongbox.testing.artifact.NugetTestArtifact;
@@ -49,6 +55,12 @@ public class NugetGroupRepositoryProviderTest
 
     private static final String REPOSITORY_GROUP_WITH_NESTED_GROUP_2 = "ngrpt-releases-group-with-nested-group-level-2";
 
+    private static final String REPOSITORY_KEYSET_1 = "ngrpt-keyset-1";
+
+    private static final String REPOSITORY_KEYSET_2 = "ngrpt-keyset-2";
+
+    private static final String REPOSITORY_KEYSET_GROUP = "ngrpt-keyset-group";
+
     @Inject
     private RepositoryProviderRegistry repositoryProviderRegistry;
 
@@ -166,4 +178,73 @@ public class NugetGroupRepositoryProviderTest
         assertEquals(Long.valueOf(12), count);
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testGroupKeysetSearch(@NugetRepository(repositoryId = REPOSITORY_KEYSET_1)
+                                      Repository repository1,
+                                      @NugetTestArtifact(repositoryId = REPOSITORY_KEYSET_1,
+                                                         id = "ngrpt.keyset.package",
+                                                         versions = { "1.0.0",
+                                                                      "1.0.1",
+                                                                      "1.0.2" })
+                                      List<Path> artifactPaths1,
+                                      @NugetRepository(repositoryId = REPOSITORY_KEYSET_2)
+                                      Repository repository2,
+                                      @NugetTestArtifact(repositoryId = REPOSITORY_KEYSET_2,
+                                                         id = "ngrpt.keyset.package",
+                                                         versions = { "1.0.1",
+                                                                      "1.0.2",
+                                                                      "1.0.3" })
+                                      List<Path> artifactPaths2,
+                                      @Group(repositories = { REPOSITORY_KEYSET_1,
+                                                              REPOSITORY_KEYSET_2 })
+                                      @NugetRepository(repositoryId = REPOSITORY_KEYSET_GROUP)
+                                      Repository repositoryGroup)
+            throws IOException
+    {
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repositoryGroup.getType());
+
+        Predicate predicate = Predicate.empty();
+        predicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "nupkg")));
+
+        Paginator paginator = new Paginator();
+        paginator.setLimit(2);
+        paginator.setKeyset(true);
+
+        // artifact path -> repository ID
+        Map<String, String> result = new LinkedHashMap<>();
+        int pages = 0;
+        do
+        {
+            List<Path> page = repositoryProvider.search(repositoryGroup.getStorage().getId(),
+                                                        repositoryGroup.getId(),
+                                                        predicate,
+                                                        paginator);
+            for (Path path : page)
+            {
+                RepositoryPath repositoryPath = (RepositoryPath) path;
+                assertNull(result.put(RepositoryFiles.relativizePath(repositoryPath),
+                                      repositoryPath.getRepository().getId()),
+                           String.format("Duplicate [%s].", path));
+            }
+
+            paginator.setPageToken(paginator.getNextPageToken());
+            pages++;
+        }
+        while (paginator.getPageToken() != null && pages < 10);
+
+        assertEquals(4, result.size());
+
+        // The artifacts, which are present within both members, are listed from the first one, whichever page they
+        // fall on.
+        for (Path path : artifactPaths2)
+        {
+            String artifactPath = RepositoryFiles.relativizePath((RepositoryPath) path.normalize());
+            String expectedRepositoryId = artifactPath.contains("/1.0.3/") ? REPOSITORY_KEYSET_2 : REPOSITORY_KEYSET_1;
+
+            assertEquals(expectedRepositoryId, result.get(artifactPath));
+        }
+    }
+
 }
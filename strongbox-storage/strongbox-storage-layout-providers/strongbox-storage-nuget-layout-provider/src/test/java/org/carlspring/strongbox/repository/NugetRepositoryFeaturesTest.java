@@ -0,0 +1,281 @@
+package org.carlspring.strongbox.repository;
+
+import org.carlspring.strongbox.artifact.ArtifactTag;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.nuget.NugetSearchRequest;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryCheckpointStore;
+import org.carlspring.strongbox.repository.NugetRepositoryFeatures.RepositorySearchEventListener;
+import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactTagService;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageEntry;
+import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageFeed;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NugetRepositoryFeaturesTest
+{
+
+    private static final String STORAGE_ID = "storage-nuget";
+
+    private static final String REPOSITORY_ID = "nuget.org";
+
+    private static final String REMOTE_FEED_CHECKPOINT = "nuget-remote-feed.published";
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @Mock
+    private ArtifactEntryService artifactEntryService;
+
+    @Mock
+    private ArtifactTagService artifactTagService;
+
+    @Mock
+    private RepositoryPathLock repositoryPathLock;
+
+    @Mock
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Mock
+    private ProxyRepositoryConnectionPoolConfigurationService proxyRepositoryConnectionPoolConfigurationService;
+
+    @Mock
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Mock
+    private ProxyRepositoryCheckpointStore checkpointStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    @InjectMocks
+    private NugetRepositoryFeatures nugetRepositoryFeatures;
+
+    @Mock
+    private Repository repository;
+
+    @Mock
+    private Client restClient;
+
+    @Mock
+    private Invocation feedInvocation;
+
+    /**
+     * artifact path -> lock
+     */
+    private final Map<String, ReentrantReadWriteLock> locks = new HashMap<>();
+
+    @BeforeEach
+    public void setUp()
+            throws IOException
+    {
+        MockitoAnnotations.initMocks(this);
+
+        Storage storage = Mockito.mock(Storage.class);
+        when(storage.getId()).thenReturn(STORAGE_ID);
+        when(storage.getRepository(REPOSITORY_ID)).thenReturn(repository);
+        Configuration configuration = Mockito.mock(Configuration.class);
+        when(configuration.getStorage(STORAGE_ID)).thenReturn(storage);
+        when(configurationManager.getConfiguration()).thenReturn(configuration);
+
+        RemoteRepository remoteRepository = Mockito.mock(RemoteRepository.class);
+        when(remoteRepository.getUrl()).thenReturn("https://www.nuget.org/api/v2");
+        when(repository.getId()).thenReturn(REPOSITORY_ID);
+        when(repository.getStorage()).thenReturn(storage);
+        when(repository.getRemoteRepository()).thenReturn(remoteRepository);
+
+        WebTarget target = Mockito.mock(WebTarget.class);
+        when(target.path(anyString())).thenReturn(target);
+        when(target.queryParam(anyString(), any())).thenReturn(target);
+        Invocation.Builder request = Mockito.mock(Invocation.Builder.class);
+        when(target.request()).thenReturn(request);
+        when(request.buildGet()).thenReturn(feedInvocation);
+        when(restClient.target(anyString())).thenReturn(target);
+        when(proxyRepositoryConnectionPoolConfigurationService.getRestClient()).thenReturn(restClient);
+
+        when(artifactTagService.findOneOrCreate(anyString())).thenReturn(Mockito.mock(ArtifactTag.class));
+        when(artifactEntryService.findExistingArtifactPaths(eq(STORAGE_ID), eq(REPOSITORY_ID), anyCollection()))
+                .thenReturn(Collections.emptySet());
+        when(repositoryArtifactIdGroupService.findOneOrCreate(eq(STORAGE_ID), eq(REPOSITORY_ID), anyString()))
+                .thenAnswer(invocation -> Mockito.mock(RepositoryArtifactIdGroupEntry.class));
+
+        Map<RepositoryPath, String> artifactPaths = new IdentityHashMap<>();
+        when(repositoryPathResolver.resolve(eq(repository), any(ArtifactCoordinates.class))).thenAnswer(
+                invocation -> {
+                    RepositoryPath repositoryPath = Mockito.mock(RepositoryPath.class);
+                    artifactPaths.put(repositoryPath, ((ArtifactCoordinates) invocation.getArgument(1)).toPath());
+
+                    return repositoryPath;
+                });
+        when(repositoryPathLock.lock(any(RepositoryPath.class))).thenAnswer(
+                invocation -> locks.computeIfAbsent(artifactPaths.get(invocation.getArgument(0)),
+                                                    k -> new ReentrantReadWriteLock()));
+    }
+
+    @Test
+    public void feedPageShouldBeStoredHoldingArtifactPathLocks()
+            throws IOException
+    {
+        when(feedInvocation.invoke(PackageFeed.class)).thenReturn(packageFeed(packageEntry("Foo", "1.0.0"),
+                                                                              packageEntry("Foo", "1.1.0"),
+                                                                              packageEntry("Bar", "2.0.0")));
+        // Stored concurrently, after the page was diffed.
+        when(artifactEntryService.findExistingArtifactPaths(eq(STORAGE_ID), eq(REPOSITORY_ID), anyCollection()))
+                .thenReturn(Collections.emptySet())
+                .thenReturn(Collections.singleton(path("Foo", "1.0.0")));
+
+        List<String> storedPaths = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            assertTrue(locks.values().stream().allMatch(ReentrantReadWriteLock::isWriteLockedByCurrentThread));
+            invocation.<List<ArtifactEntry>>getArgument(1).forEach(e -> storedPaths.add(e.getArtifactPath()));
+
+            return null;
+        }).when(repositoryArtifactIdGroupService).addArtifactsToGroup(any(), anyList());
+
+        nugetRepositoryFeatures.downloadRemoteFeed(STORAGE_ID, REPOSITORY_ID, new NugetSearchRequest(), 0, 10);
+
+        // Every entry of the page, not just the first one of each artifact group.
+        assertThat(locks.keySet(),
+                   containsInAnyOrder(path("Foo", "1.0.0"), path("Foo", "1.1.0"), path("Bar", "2.0.0")));
+        assertTrue(locks.values().stream().noneMatch(ReentrantReadWriteLock::isWriteLocked));
+        assertThat(storedPaths, containsInAnyOrder(path("Foo", "1.1.0"), path("Bar", "2.0.0")));
+    }
+
+    @Test
+    public void knownFeedPageShouldNotTakeLocks()
+            throws IOException
+    {
+        when(feedInvocation.invoke(PackageFeed.class)).thenReturn(packageFeed(packageEntry("Foo", "1.0.0")));
+        when(artifactEntryService.findExistingArtifactPaths(eq(STORAGE_ID), eq(REPOSITORY_ID), anyCollection()))
+                .thenReturn(Collections.singleton(path("Foo", "1.0.0")));
+
+        nugetRepositoryFeatures.downloadRemoteFeed(STORAGE_ID, REPOSITORY_ID, new NugetSearchRequest(), 0, 10);
+
+        assertTrue(locks.isEmpty());
+        verify(repositoryArtifactIdGroupService, never()).addArtifactsToGroup(any(), anyList());
+    }
+
+    @Test
+    public void searchShouldBeServedLocallyWhenRemoteFeedIsSynchronized()
+            throws IOException
+    {
+        ReflectionTestUtils.setField(nugetRepositoryFeatures, "remoteFeedSynchronizationEnabled", true);
+        when(checkpointStore.get(STORAGE_ID, REPOSITORY_ID, REMOTE_FEED_CHECKPOINT)).thenReturn("2019-01-01T00:00:00.000");
+        doReturn(1L).when(nugetRepositoryFeatures).countCachedPackages(any());
+
+        search();
+
+        verify(restClient, never()).target(anyString());
+    }
+
+    @Test
+    public void searchShouldFetchRemoteFeedWhenSynchronizationIsDisabled()
+            throws IOException
+    {
+        // The watermark is left behind by an earlier synchronization.
+        ReflectionTestUtils.setField(nugetRepositoryFeatures, "remoteFeedSynchronizationEnabled", false);
+        when(checkpointStore.get(STORAGE_ID, REPOSITORY_ID, REMOTE_FEED_CHECKPOINT)).thenReturn("2019-01-01T00:00:00.000");
+        doReturn(1L).when(nugetRepositoryFeatures).countCachedPackages(any());
+        when(feedInvocation.invoke(PackageFeed.class)).thenReturn(packageFeed(packageEntry("Foo", "2.0.0")));
+
+        List<String> storedPaths = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            invocation.<List<ArtifactEntry>>getArgument(1).forEach(e -> storedPaths.add(e.getArtifactPath()));
+
+            return null;
+        }).when(repositoryArtifactIdGroupService).addArtifactsToGroup(any(), anyList());
+
+        search();
+
+        assertThat(storedPaths, contains(path("Foo", "2.0.0")));
+    }
+
+    private void search()
+            throws IOException
+    {
+        RepositorySearchEventListener listener = nugetRepositoryFeatures.new RepositorySearchEventListener();
+        listener.setNugetSearchRequest(new NugetSearchRequest());
+
+        listener.handle(new RemoteRepositorySearchEvent(STORAGE_ID, REPOSITORY_ID, Predicate.empty(),
+                                                        new Paginator()));
+    }
+
+    private static PackageFeed packageFeed(PackageEntry... packageEntries)
+    {
+        PackageFeed packageFeed = new PackageFeed();
+        packageFeed.setEntries(Arrays.asList(packageEntries));
+
+        return packageFeed;
+    }
+
+    private static PackageEntry packageEntry(String id,
+                                             String version)
+    {
+        PackageEntry packageEntry = new PackageEntry();
+        packageEntry.getProperties().setId(id);
+        packageEntry.getProperties().setVersion(SemanticVersion.parse(version));
+        packageEntry.getProperties().setPublished(new Date());
+
+        return packageEntry;
+    }
+
+    private static String path(String id,
+                               String version)
+    {
+        return new NugetArtifactCoordinates(id, version, "nupkg").toPath();
+    }
+
+}
@@ -3,8 +3,6 @@ package org.carlspring.strongbox.providers.layout.p2;
 import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
 
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,26 +27,24 @@ public class P2ArtifactReader
                                                     String bundle)
             throws IOException
     {
-        // TODO we are dropping GenericParser and one day we will need to support P2
-        //GenericParser<P2Repository> repositoryParser = new GenericParser<>(P2Repository.class);
-        P2Repository p2Repository = null;//repositoryParser.parse(createPath(repositoryBaseDir).toUri().toURL());
+        P2MetadataIndex p2MetadataIndex = P2MetadataIndex.get(repositoryBaseDir);
         final P2ArtifactCoordinates artifactToFind = P2ArtifactCoordinates.create(bundle);
-        for (P2Artifact p2Artifact : p2Repository.getArtifacts().getArtifacts())
+
+        P2Artifact p2Artifact = p2MetadataIndex.getArtifact(artifactToFind);
+        if (p2Artifact == null)
         {
-            P2ArtifactCoordinates foundArtifact = new P2ArtifactCoordinates(p2Artifact.getId(),
-                                                                            p2Artifact.getVersion(),
-                                                                            p2Artifact.getClassifier());
-            if (foundArtifact.equals(artifactToFind))
-            {
-                addProperties(foundArtifact, p2Artifact, repositoryBaseDir);
-                String bundleFilename = P2ArtifactRuleProcessor.getFilename(p2Repository.getMappings(),
-                                                                            foundArtifact);
-                foundArtifact.setFilename(bundleFilename);
-                return foundArtifact;
-            }
+            logger.debug("Artifact [{}] not found in [{}].", bundle, repositoryBaseDir);
+            return null;
         }
 
-        return null;
+        P2ArtifactCoordinates foundArtifact = new P2ArtifactCoordinates(p2Artifact.getId(),
+                                                                        p2Artifact.getVersion(),
+                                                                        p2Artifact.getClassifier());
+        addProperties(foundArtifact, p2Artifact, repositoryBaseDir);
+        String bundleFilename = p2MetadataIndex.getFilename(foundArtifact);
+        foundArtifact.setFilename(bundleFilename);
+
+        return foundArtifact;
     }
 
     private static void addProperties(P2ArtifactCoordinates foundArtifact,
@@ -66,15 +62,4 @@ public class P2ArtifactReader
                     property -> foundArtifact.addProperty(property.getName(), property.getValue()));
         }
     }
-
-    private static Path createPath(String repositoryBaseDir)
-    {
-        final String artifactsFilename = "artifacts.xml";
-        if (repositoryBaseDir == null || repositoryBaseDir.isEmpty())
-        {
-            return Paths.get(artifactsFilename);
-        }
-
-        return Paths.get(repositoryBaseDir).resolve(artifactsFilename);
-    }
 }
@@ -129,7 +129,13 @@ public class P2ArtifactRuleProcessor
                 rule -> new P2ArtifactRuleProcessor(rule.getOutput(), rule.getFilter())).collect(
                 Collectors.toList());
 
-        for (P2ArtifactRuleProcessor processor : artifacts)
+        return getFilename(artifacts, p2artifact);
+    }
+
+    public static String getFilename(Collection<P2ArtifactRuleProcessor> processors,
+                                     P2ArtifactCoordinates p2artifact)
+    {
+        for (P2ArtifactRuleProcessor processor : processors)
         {
             if (processor.matches(p2artifact.getProperties()))
             {
@@ -0,0 +1,215 @@
+package org.carlspring.strongbox.providers.layout.p2;
+
+import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parsed artifact repository metadata of a p2 repository.<br>
+ * The `artifacts.xml` (or its `artifacts.jar` and `artifacts.xml.xz` variants) is parsed only once into the
+ * id/version/classifier lookup, so that the artifacts are resolved in constant time regardless of the update site size.
+ * The index is reloaded as soon as the metadata file was changed.
+ */
+public class P2MetadataIndex
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(P2MetadataIndex.class);
+
+    private static final String ARTIFACTS_XML = "artifacts.xml";
+
+    private static final String ARTIFACTS_JAR = "artifacts.jar";
+
+    private static final String ARTIFACTS_XML_XZ = "artifacts.xml.xz";
+
+    private static final Map<Path, P2MetadataIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private static volatile JAXBContext jaxbContext;
+
+    private final Path source;
+
+    private final FileTime lastModified;
+
+    private final long size;
+
+    private final Map<String, P2Artifact> artifacts;
+
+    private final List<P2ArtifactRuleProcessor> rules;
+
+    private P2MetadataIndex(Path source,
+                            BasicFileAttributes attributes,
+                            P2Repository p2Repository)
+    {
+        this.source = source;
+        this.lastModified = attributes.lastModifiedTime();
+        this.size = attributes.size();
+
+        Map<String, P2Artifact> artifacts = new HashMap<>();
+        if (p2Repository.getArtifacts() != null)
+        {
+            p2Repository.getArtifacts()
+                        .getArtifacts()
+                        .forEach(a -> artifacts.put(key(a.getId(), a.getVersion(), a.getClassifier()), a));
+        }
+        this.artifacts = Collections.unmodifiableMap(artifacts);
+
+        this.rules = p2Repository.getMappings() == null ? Collections.emptyList() :
+                     p2Repository.getMappings()
+                                 .getRules()
+                                 .stream()
+                                 .map(r -> new P2ArtifactRuleProcessor(r.getOutput(), r.getFilter()))
+                                 .collect(Collectors.toList());
+    }
+
+    /**
+     * Provides the index of the p2 repository, the metadata is parsed only if it wasn't indexed yet or was changed
+     * since.
+     *
+     * @param repositoryBaseDir The folder containing the repository
+     * @return the metadata index
+     * @throws FileNotFoundException if the repository has no artifacts metadata
+     */
+    public static P2MetadataIndex get(String repositoryBaseDir)
+            throws IOException
+    {
+        Path baseDir = repositoryBaseDir == null ? Paths.get("") : Paths.get(repositoryBaseDir);
+        Path source = locate(baseDir);
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+
+        P2MetadataIndex index = INDEXES.get(baseDir);
+        if (index != null && index.isUpToDate(source, attributes))
+        {
+            return index;
+        }
+
+        logger.debug("Indexing p2 repository metadata [{}].", source);
+
+        index = new P2MetadataIndex(source, attributes, parse(source));
+        INDEXES.put(baseDir, index);
+
+        return index;
+    }
+
+    public static void invalidate(String repositoryBaseDir)
+    {
+        INDEXES.remove(repositoryBaseDir == null ? Paths.get("") : Paths.get(repositoryBaseDir));
+    }
+
+    public P2Artifact getArtifact(P2ArtifactCoordinates coordinates)
+    {
+        return artifacts.get(key(coordinates.getId(), coordinates.getVersion(), coordinates.getClassifier()));
+    }
+
+    public String getFilename(P2ArtifactCoordinates coordinates)
+    {
+        return P2ArtifactRuleProcessor.getFilename(rules, coordinates);
+    }
+
+    public int size()
+    {
+        return artifacts.size();
+    }
+
+    private boolean isUpToDate(Path source,
+                               BasicFileAttributes attributes)
+    {
+        return this.source.equals(source) && this.size == attributes.size() &&
+               this.lastModified.equals(attributes.lastModifiedTime());
+    }
+
+    private static String key(String id,
+                              String version,
+                              String classifier)
+    {
+        return id + "/" + version + "/" + classifier;
+    }
+
+    private static Path locate(Path baseDir)
+            throws FileNotFoundException
+    {
+        if (XZUtils.isXZCompressionAvailable() && Files.isRegularFile(baseDir.resolve(ARTIFACTS_XML_XZ)))
+        {
+            return baseDir.resolve(ARTIFACTS_XML_XZ);
+        }
+        if (Files.isRegularFile(baseDir.resolve(ARTIFACTS_JAR)))
+        {
+            return baseDir.resolve(ARTIFACTS_JAR);
+        }
+        if (Files.isRegularFile(baseDir.resolve(ARTIFACTS_XML)))
+        {
+            return baseDir.resolve(ARTIFACTS_XML);
+        }
+
+        throw new FileNotFoundException(String.format("p2 artifacts metadata not found in [%s].", baseDir));
+    }
+
+    private static P2Repository parse(Path source)
+            throws IOException
+    {
+        String fileName = source.getFileName().toString();
+        if (ARTIFACTS_JAR.equals(fileName))
+        {
+            try (ZipFile zipFile = new ZipFile(source.toFile()))
+            {
+                ZipEntry entry = zipFile.getEntry(ARTIFACTS_XML);
+                if (entry == null)
+                {
+                    throw new FileNotFoundException(String.format("[%s] not found in [%s].", ARTIFACTS_XML, source));
+                }
+
+                try (InputStream is = new BufferedInputStream(zipFile.getInputStream(entry)))
+                {
+                    return unmarshal(is);
+                }
+            }
+        }
+
+        try (InputStream is = ARTIFACTS_XML_XZ.equals(fileName) ?
+                              new XZCompressorInputStream(new BufferedInputStream(Files.newInputStream(source))) :
+                              new BufferedInputStream(Files.newInputStream(source)))
+        {
+            return unmarshal(is);
+        }
+    }
+
+    private static P2Repository unmarshal(InputStream is)
+            throws IOException
+    {
+        try
+        {
+            if (jaxbContext == null)
+            {
+                jaxbContext = JAXBContext.newInstance(P2Repository.class);
+            }
+
+            return (P2Repository) jaxbContext.createUnmarshaller().unmarshal(is);
+        }
+        catch (JAXBException e)
+        {
+            throw new IOException("Failed to parse p2 artifacts metadata.", e);
+        }
+    }
+
+}
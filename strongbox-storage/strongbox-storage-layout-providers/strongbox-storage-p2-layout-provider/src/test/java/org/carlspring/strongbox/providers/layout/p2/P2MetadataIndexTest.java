@@ -0,0 +1,97 @@
+package org.carlspring.strongbox.providers.layout.p2;
+
+import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class P2MetadataIndexTest
+{
+
+    private static final P2ArtifactCoordinates BUNDLE = new P2ArtifactCoordinates("com.carlspring.bundle",
+                                                                                  "1.0.1",
+                                                                                  "osgi.bundle");
+
+    private Path repositoryDir;
+
+    @BeforeEach
+    public void setUp()
+            throws IOException
+    {
+        repositoryDir = Files.createTempDirectory("p2-metadata-index");
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws IOException
+    {
+        P2MetadataIndex.invalidate(repositoryDir.toString());
+        FileUtils.deleteDirectory(repositoryDir.toFile());
+    }
+
+    @Test
+    public void testIndexIsReusedUntilChanged()
+            throws IOException
+    {
+        Path artifactsXml = repositoryDir.resolve("artifacts.xml");
+        Files.write(artifactsXml, readArtifactsXml());
+
+        P2MetadataIndex index = P2MetadataIndex.get(repositoryDir.toString());
+        assertEquals(3, index.size());
+        assertNotNull(index.getArtifact(BUNDLE));
+        assertSame(index, P2MetadataIndex.get(repositoryDir.toString()));
+
+        String changed = new String(readArtifactsXml(), StandardCharsets.UTF_8).replace("com.carlspring.bundle",
+                                                                                       "com.carlspring.other");
+        Files.write(artifactsXml, changed.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(artifactsXml, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+
+        P2MetadataIndex changedIndex = P2MetadataIndex.get(repositoryDir.toString());
+        assertNotSame(index, changedIndex);
+        assertNull(changedIndex.getArtifact(BUNDLE));
+    }
+
+    @Test
+    public void testArtifactsJar()
+            throws IOException
+    {
+        try (OutputStream os = Files.newOutputStream(repositoryDir.resolve("artifacts.jar"));
+             ZipOutputStream zos = new ZipOutputStream(os))
+        {
+            zos.putNextEntry(new ZipEntry("artifacts.xml"));
+            zos.write(readArtifactsXml());
+            zos.closeEntry();
+        }
+
+        P2MetadataIndex index = P2MetadataIndex.get(repositoryDir.toString());
+        assertNotNull(index.getArtifact(BUNDLE));
+
+        P2ArtifactCoordinates artifact = P2ArtifactReader.getArtifact(repositoryDir.toString(), BUNDLE.toPath());
+        assertEquals(String.format("%s/plugins/com.carlspring.bundle_1.0.1.jar", repositoryDir),
+                     artifact.getFilename());
+    }
+
+    private byte[] readArtifactsXml()
+            throws IOException
+    {
+        try (InputStream is = getClass().getResourceAsStream("artifacts.xml"))
+        {
+            return IOUtils.toByteArray(is);
+        }
+    }
+
+}
@@ -52,6 +52,11 @@ public class PypiArtifactCoordinates
 
     public static final String WHEEL_EXTENSION = "whl";
 
+    /**
+     * The extension of the core metadata file, which is extracted next to each distribution file (PEP 658).
+     */
+    public static final String METADATA_EXTENSION = "metadata";
+
     /**
      * This method takes in all artifact coordinates of a PyPi package filename, with build being
      * the empty string if it is not included in the filename
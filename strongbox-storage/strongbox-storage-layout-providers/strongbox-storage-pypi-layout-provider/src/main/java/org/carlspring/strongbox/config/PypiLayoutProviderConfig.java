@@ -25,7 +25,8 @@ import org.springframework.context.annotation.Scope;
                  "org.carlspring.strongbox.repository",
                  "org.carlspring.strongbox.providers",
                  "org.carlspring.strongbox.services",
-                 "org.carlspring.strongbox.storage" })
+                 "org.carlspring.strongbox.storage",
+                 "org.carlspring.strongbox.pypi.simple" })
 public class PypiLayoutProviderConfig
 {
 
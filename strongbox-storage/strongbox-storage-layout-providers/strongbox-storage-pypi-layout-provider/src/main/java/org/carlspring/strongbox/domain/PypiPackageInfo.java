@@ -37,6 +37,9 @@ public class PypiPackageInfo
 
     @PypiMetadataKey(name = "Platform")
     private String platform;
+
+    @PypiMetadataKey(name = "Requires-Python")
+    private String requiresPython;
     
     
     public PypiPackageInfo()
@@ -98,4 +101,9 @@ public class PypiPackageInfo
         return platform;
     }
 
+    public String getRequiresPython()
+    {
+        return requiresPython;
+    }
+
 }
@@ -58,8 +58,7 @@ public class PypiLayoutProvider
 
     public boolean isMetadata(RepositoryPath path)
     {
-        // TODO: Fix
-        return false;
+        return path.getFileName().toString().endsWith("." + PypiArtifactCoordinates.METADATA_EXTENSION);
     }
     
     @Override
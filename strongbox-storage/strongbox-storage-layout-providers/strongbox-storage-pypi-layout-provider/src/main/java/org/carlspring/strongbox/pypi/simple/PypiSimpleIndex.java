@@ -0,0 +1,656 @@
+package org.carlspring.strongbox.pypi.simple;
+
+import org.carlspring.strongbox.artifact.coordinates.PypiArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.data.criteria.Selector;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.event.repository.RepositoryEvent;
+import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.PypiMetadataParser;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Precomputed PEP 503 simple repository pages of the hosted PyPI repositories.
+ * <p>
+ * When a distribution file is uploaded, its core metadata is extracted next to it as `{file}.metadata` (PEP 658), so
+ * that the `Requires-Python` header is never read from the archives again. The index of a repository is built from the
+ * wheel and source distribution entries of the database on the first request, then maintained with the artifact store
+ * and delete events. A page is only re-rendered after its project was changed.
+ */
+@Component
+public class PypiSimpleIndex
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(PypiSimpleIndex.class);
+
+    private static final Pattern NAME_SEPARATOR = Pattern.compile("[-_.]+");
+
+    private static final String WHEEL_EXTENSION = "." + PypiArtifactCoordinates.WHEEL_EXTENSION;
+
+    private static final String SOURCE_EXTENSION = "." + PypiArtifactCoordinates.SOURCE_EXTENSION;
+
+    private static final String METADATA_EXTENSION = "." + PypiArtifactCoordinates.METADATA_EXTENSION;
+
+    private static final String SHA256_EXTENSION = ".sha256";
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private PypiMetadataParser pypiMetadataParser;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * The future is completed by the request which builds the index, the other requests and the events of the
+     * repository wait for it.
+     */
+    private final Map<String, CompletableFuture<RepositoryIndex>> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * The pip clients only read the simple pages of the hosted repositories, the group and proxy repositories
+     * are not indexed.
+     */
+    public boolean supports(Repository repository)
+    {
+        return repository.isHostedRepository() && PypiArtifactCoordinates.LAYOUT_NAME.equals(repository.getLayout());
+    }
+
+    /**
+     * Normalizes the project name according to PEP 503.
+     */
+    public static String normalize(String name)
+    {
+        return NAME_SEPARATOR.matcher(name).replaceAll("-").toLowerCase();
+    }
+
+    /**
+     * @return the `/simple/` page, which lists all the projects of the repository
+     */
+    public PypiSimplePage getRootPage(Repository repository)
+    {
+        return getIndex(repository).getRootPage();
+    }
+
+    /**
+     * @return the `/simple/{project}/` page, or {@code null} if there is no such project
+     */
+    public PypiSimplePage getProjectPage(Repository repository,
+                                         String project)
+    {
+        return getIndex(repository).getProjectPage(normalize(project));
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        RepositoryPath repositoryPath = event.getPath();
+        Repository repository = repositoryPath.getRepository();
+        if (!supports(repository))
+        {
+            return;
+        }
+
+        String fileName = repositoryPath.getFileName().toString();
+        try
+        {
+            if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType() ||
+                event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType())
+            {
+                if (isDistribution(fileName))
+                {
+                    // Extracted even if the index isn't built yet, the build only reads the metadata file.
+                    String requiresPython = storeMetadata(repositoryPath);
+
+                    RepositoryIndex index = findIndex(repository);
+                    if (index != null)
+                    {
+                        index(index, repositoryPath, readSha256(repositoryPath), requiresPython);
+                    }
+                }
+                else if (fileName.endsWith(SHA256_EXTENSION))
+                {
+                    // The digest of an upload is usually stored after the distribution itself.
+                    RepositoryPath distributionPath = repositoryPath.resolveSibling(
+                            fileName.substring(0, fileName.length() - SHA256_EXTENSION.length()));
+                    RepositoryIndex index = findIndex(repository);
+                    if (index != null && isDistribution(distributionPath.getFileName().toString()) &&
+                        Files.exists(distributionPath))
+                    {
+                        index(index, distributionPath, readSha256(distributionPath),
+                              readRequiresPython(distributionPath));
+                    }
+                }
+            }
+            else if (event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+            {
+                RepositoryPath metadataPath = getMetadataPath(repositoryPath);
+                if (isDistribution(fileName) && Files.exists(metadataPath))
+                {
+                    Files.delete(metadataPath);
+                }
+
+                RepositoryIndex index = findIndex(repository);
+                if (index == null)
+                {
+                    return;
+                }
+
+                String path = RepositoryFiles.relativizePath(repositoryPath);
+                if (isDistribution(fileName))
+                {
+                    index.remove(path);
+                }
+                else
+                {
+                    index.removeAll(path + "/");
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to update PyPI simple index for [%s]", repositoryPath), e);
+        }
+    }
+
+    @EventListener
+    public void handle(final RepositoryEvent event)
+    {
+        if (event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_CREATED.getType() &&
+            event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_DELETED.getType())
+        {
+            return;
+        }
+
+        indexes.remove(event.getStorageId() + ":" + event.getRepositoryId());
+    }
+
+    /**
+     * @return the index of the repository, or {@code null} if no page of the repository was requested yet, its
+     *         distributions will be read from the database then
+     */
+    private RepositoryIndex findIndex(Repository repository)
+    {
+        CompletableFuture<RepositoryIndex> future = indexes.get(repository.getStorageIdAndRepositoryId());
+        if (future == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            return future.join();
+        }
+        catch (CompletionException | CancellationException e)
+        {
+            // The build failed, the next request builds the index again.
+            return null;
+        }
+    }
+
+    private RepositoryIndex getIndex(Repository repository)
+    {
+        String key = repository.getStorageIdAndRepositoryId();
+
+        CompletableFuture<RepositoryIndex> future = new CompletableFuture<>();
+        CompletableFuture<RepositoryIndex> existing = indexes.putIfAbsent(key, future);
+        if (existing != null)
+        {
+            return existing.join();
+        }
+
+        try
+        {
+            future.complete(build(repository));
+        }
+        catch (RuntimeException e)
+        {
+            indexes.remove(key, future);
+            future.completeExceptionally(e);
+
+            throw e;
+        }
+
+        return future.join();
+    }
+
+    private RepositoryIndex build(Repository repository)
+    {
+        long startTime = System.currentTimeMillis();
+
+        Predicate packaging = Predicate.empty().nested();
+        packaging.or(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.packaging",
+                                                    PypiArtifactCoordinates.WHEEL_EXTENSION)));
+        packaging.or(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.packaging",
+                                                    PypiArtifactCoordinates.SOURCE_EXTENSION)));
+
+        Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class);
+        selector.where(Predicate.of(ExpOperator.EQ.of("storageId", repository.getStorage().getId())))
+                .and(Predicate.of(ExpOperator.EQ.of("repositoryId", repository.getId())))
+                .and(packaging);
+
+        OQueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
+        RepositoryIndex index = new RepositoryIndex();
+        for (ArtifactEntry artifactEntry : queryTemplate.select(selector))
+        {
+            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository,
+                                                                           artifactEntry.getArtifactCoordinates());
+            try
+            {
+                index(index,
+                      repositoryPath,
+                      artifactEntry.getChecksums().get(MessageDigestAlgorithms.SHA_256),
+                      readRequiresPython(repositoryPath));
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to index PyPI distribution [%s]", repositoryPath), e);
+            }
+        }
+
+        logger.info(String.format("Built PyPI simple index for [%s] with [%s] distributions in [%s] ms.",
+                                  repository.getStorageIdAndRepositoryId(),
+                                  index.paths.size(),
+                                  System.currentTimeMillis() - startTime));
+
+        return index;
+    }
+
+    private void index(RepositoryIndex index,
+                       RepositoryPath distributionPath,
+                       String sha256,
+                       String requiresPython)
+            throws IOException
+    {
+        String path = RepositoryFiles.relativizePath(distributionPath);
+        PypiArtifactCoordinates coordinates = PypiArtifactCoordinates.parse(path);
+
+        index.add(coordinates.getId(),
+                  new DistributionFile(path,
+                                       distributionPath.getFileName().toString(),
+                                       sha256,
+                                       requiresPython));
+    }
+
+    private String readSha256(RepositoryPath distributionPath)
+            throws IOException
+    {
+        RepositoryPath checksumPath = distributionPath.resolveSibling(distributionPath.getFileName() +
+                                                                      SHA256_EXTENSION);
+        if (!Files.exists(checksumPath))
+        {
+            return null;
+        }
+
+        return new String(Files.readAllBytes(checksumPath), StandardCharsets.UTF_8).trim();
+    }
+
+    private static RepositoryPath getMetadataPath(RepositoryPath distributionPath)
+    {
+        return distributionPath.resolveSibling(distributionPath.getFileName() + METADATA_EXTENSION);
+    }
+
+    /**
+     * Reads the `Requires-Python` header of the metadata file, which was extracted when the distribution was
+     * uploaded.
+     */
+    private String readRequiresPython(RepositoryPath distributionPath)
+    {
+        RepositoryPath metadataPath = getMetadataPath(distributionPath);
+        if (!Files.exists(metadataPath))
+        {
+            logger.debug(String.format("No metadata file for PyPI distribution [%s]", distributionPath));
+
+            return null;
+        }
+
+        try (InputStream is = Files.newInputStream(metadataPath))
+        {
+            return pypiMetadataParser.parseMetadataFile(is).getRequiresPython();
+        }
+        catch (Exception e)
+        {
+            logger.warn(String.format("Failed to read metadata file [%s]", metadataPath), e);
+
+            return null;
+        }
+    }
+
+    /**
+     * Extracts the `METADATA` of the wheel or the `PKG-INFO` of the source distribution into the metadata file, only
+     * the archive entries up to the metadata are read.
+     *
+     * @return the `Requires-Python` header of the distribution, or {@code null}
+     */
+    private String storeMetadata(RepositoryPath distributionPath)
+    {
+        String fileName = distributionPath.getFileName().toString();
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(distributionPath)))
+        {
+            byte[] metadata = null;
+            if (fileName.endsWith(WHEEL_EXTENSION))
+            {
+                ZipInputStream zipIn = new ZipInputStream(is);
+                ZipEntry entry;
+                while ((entry = zipIn.getNextEntry()) != null)
+                {
+                    if (isTopLevelEntry(entry.getName(), ".dist-info/METADATA"))
+                    {
+                        metadata = IOUtils.toByteArray(zipIn);
+                        break;
+                    }
+                }
+            }
+            else
+            {
+                TarArchiveInputStream tarIn = new TarArchiveInputStream(new GzipCompressorInputStream(is));
+                TarArchiveEntry entry;
+                while ((entry = tarIn.getNextTarEntry()) != null)
+                {
+                    if (isTopLevelEntry(entry.getName(), "/PKG-INFO"))
+                    {
+                        metadata = IOUtils.toByteArray(tarIn);
+                        break;
+                    }
+                }
+            }
+
+            if (metadata == null)
+            {
+                logger.warn(String.format("No metadata found in PyPI distribution [%s]", distributionPath));
+
+                return null;
+            }
+
+            Files.write(getMetadataPath(distributionPath), metadata);
+
+            return pypiMetadataParser.parseMetadataFile(new ByteArrayInputStream(metadata)).getRequiresPython();
+        }
+        catch (Exception e)
+        {
+            logger.warn(String.format("Failed to read metadata of PyPI distribution [%s]", distributionPath), e);
+
+            return null;
+        }
+    }
+
+    private static boolean isTopLevelEntry(String entryName,
+                                           String suffix)
+    {
+        return entryName.endsWith(suffix) && entryName.indexOf('/') == entryName.lastIndexOf('/');
+    }
+
+    private static boolean isDistribution(String fileName)
+    {
+        return fileName.endsWith(WHEEL_EXTENSION) || fileName.endsWith(SOURCE_EXTENSION);
+    }
+
+    private static String escape(String value)
+    {
+        StringBuilder result = new StringBuilder(value.length());
+        for (char c : value.toCharArray())
+        {
+            switch (c)
+            {
+                case '&':
+                    result.append("&amp;");
+                    break;
+                case '<':
+                    result.append("&lt;");
+                    break;
+                case '>':
+                    result.append("&gt;");
+                    break;
+                case '"':
+                    result.append("&quot;");
+                    break;
+                case '\'':
+                    result.append("&#39;");
+                    break;
+                default:
+                    result.append(c);
+            }
+        }
+
+        return result.toString();
+    }
+
+    private static class DistributionFile
+    {
+
+        /**
+         * The path relative to the repository root.
+         */
+        private final String path;
+
+        private final String fileName;
+
+        private final String sha256;
+
+        private final String requiresPython;
+
+        private DistributionFile(String path,
+                                 String fileName,
+                                 String sha256,
+                                 String requiresPython)
+        {
+            this.path = path;
+            this.fileName = fileName;
+            this.sha256 = sha256;
+            this.requiresPython = requiresPython;
+        }
+
+    }
+
+    private static class ProjectIndex
+    {
+
+        private final String name;
+
+        /**
+         * file name -> distribution file
+         */
+        private final ConcurrentSkipListMap<String, DistributionFile> files = new ConcurrentSkipListMap<>();
+
+        private volatile PypiSimplePage page;
+
+        private ProjectIndex(String name)
+        {
+            this.name = name;
+        }
+
+        private PypiSimplePage render()
+        {
+            StringBuilder html = new StringBuilder();
+            html.append("<!DOCTYPE html>\n<html>\n  <head>\n    <title>Links for ")
+                .append(escape(name))
+                .append("</title>\n  </head>\n  <body>\n    <h1>Links for ")
+                .append(escape(name))
+                .append("</h1>\n");
+            for (DistributionFile file : files.values())
+            {
+                // Relative to the canonical `{repository}/simple/{project}/` URL, the other forms are redirected.
+                html.append("    <a href=\"../../").append(escape(file.path));
+                if (file.sha256 != null)
+                {
+                    html.append("#sha256=").append(file.sha256);
+                }
+                html.append("\"");
+                if (file.requiresPython != null && !file.requiresPython.isEmpty())
+                {
+                    html.append(" data-requires-python=\"").append(escape(file.requiresPython)).append("\"");
+                }
+                html.append(">").append(escape(file.fileName)).append("</a><br/>\n");
+            }
+            html.append("  </body>\n</html>\n");
+
+            return new PypiSimplePage(html.toString());
+        }
+
+    }
+
+    private static class RepositoryIndex
+    {
+
+        /**
+         * normalized project name -> project
+         */
+        private final ConcurrentSkipListMap<String, ProjectIndex> projects = new ConcurrentSkipListMap<>();
+
+        /**
+         * path -> normalized project name
+         */
+        private final Map<String, String> paths = new ConcurrentHashMap<>();
+
+        private volatile PypiSimplePage rootPage;
+
+        private PypiSimplePage getRootPage()
+        {
+            PypiSimplePage result = rootPage;
+            if (result != null)
+            {
+                return result;
+            }
+
+            // Rendered under the lock, so that a concurrent change can't be overwritten with a stale page.
+            synchronized (this)
+            {
+                if (rootPage == null)
+                {
+                    rootPage = renderRootPage();
+                }
+
+                return rootPage;
+            }
+        }
+
+        private PypiSimplePage getProjectPage(String normalizedName)
+        {
+            ProjectIndex project = projects.get(normalizedName);
+            if (project == null)
+            {
+                return null;
+            }
+
+            PypiSimplePage result = project.page;
+            if (result != null)
+            {
+                return result;
+            }
+
+            synchronized (this)
+            {
+                if (project.page == null)
+                {
+                    project.page = project.render();
+                }
+
+                return project.page;
+            }
+        }
+
+        private PypiSimplePage renderRootPage()
+        {
+            StringBuilder html = new StringBuilder();
+            html.append("<!DOCTYPE html>\n<html>\n  <head>\n    <title>Simple index</title>\n  </head>\n  <body>\n");
+            projects.forEach((normalizedName, project) -> html.append("    <a href=\"")
+                                                              .append(escape(normalizedName))
+                                                              .append("/\">")
+                                                              .append(escape(project.name))
+                                                              .append("</a><br/>\n"));
+            html.append("  </body>\n</html>\n");
+
+            return new PypiSimplePage(html.toString());
+        }
+
+        private synchronized void add(String projectName,
+                                      DistributionFile file)
+        {
+            String normalizedName = normalize(projectName);
+            ProjectIndex project = projects.get(normalizedName);
+            if (project == null)
+            {
+                project = new ProjectIndex(projectName);
+                projects.put(normalizedName, project);
+                rootPage = null;
+            }
+
+            project.files.put(file.fileName, file);
+            project.page = null;
+            paths.put(file.path, normalizedName);
+        }
+
+        private synchronized void remove(String path)
+        {
+            String normalizedName = paths.remove(path);
+            if (normalizedName == null)
+            {
+                return;
+            }
+
+            ProjectIndex project = projects.get(normalizedName);
+            if (project == null)
+            {
+                return;
+            }
+
+            project.files.values().removeIf(f -> f.path.equals(path));
+            project.page = null;
+            if (project.files.isEmpty())
+            {
+                projects.remove(normalizedName);
+                rootPage = null;
+            }
+        }
+
+        private synchronized void removeAll(String pathPrefix)
+        {
+            paths.keySet()
+                 .stream()
+                 .filter(p -> p.startsWith(pathPrefix))
+                 .collect(Collectors.toList())
+                 .forEach(this::remove);
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package org.carlspring.strongbox.pypi.simple;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Rendered PEP 503 simple repository page, along with its entity tag.
+ */
+public class PypiSimplePage
+{
+
+    private final byte[] content;
+
+    private final String eTag;
+
+    PypiSimplePage(String html)
+    {
+        this.content = html.getBytes(StandardCharsets.UTF_8);
+        this.eTag = "\"" + DigestUtils.sha1Hex(content) + "\"";
+    }
+
+    public byte[] getContent()
+    {
+        return content;
+    }
+
+    /**
+     * @return the quoted entity tag, which changes only with the page content
+     */
+    public String getETag()
+    {
+        return eTag;
+    }
+
+}
@@ -64,7 +64,19 @@ public class PypiMetadataParser
             String line = "";
             while ((line = reader.readLine()) != null)
             {
+                // The headers end with the first empty line, the rest of the file is the long description.
+                if (line.isEmpty())
+                {
+                    break;
+                }
+
                 String[] keysValues = line.split(":", 2);
+                // Skip the folded header continuation lines.
+                if (keysValues.length < 2 || Character.isWhitespace(line.charAt(0)))
+                {
+                    continue;
+                }
+
                 keyValueMap.put(keysValues[0].trim(), keysValues[1].trim());
             }
             reader.close();
@@ -31,6 +31,7 @@ public class PypiArtifactGenerator
                                                    "Classifier: Programming Language :: Python :: 3\n" +
                                                    "Classifier: License :: OSI Approved :: MIT License\n" +
                                                    "Classifier: Operating System :: OS Independent\n" +
+                                                   "Requires-Python: >=3.6\n" +
                                                    "Description-Content-Type: text/markdown\n" +
                                                    "\n" +
                                                    "Strongbox package for test";
@@ -109,6 +110,7 @@ public class PypiArtifactGenerator
         String packagePath = coordinates.toPath();
 
         Path fullPath = basedir.resolve(packagePath);
+        Files.createDirectories(fullPath.getParent());
 
         try(ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(fullPath)))
         {
@@ -0,0 +1,156 @@
+package org.carlspring.strongbox.pypi.simple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.config.PypiMetadataFileParserTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.PypiTestArtifact;
+import org.carlspring.strongbox.testing.repository.PypiTestRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = PypiMetadataFileParserTestConfig.class)
+@Execution(CONCURRENT)
+public class PypiSimpleIndexTest
+{
+
+    private static final String REPOSITORY_RELEASES = "psit-releases";
+
+    private static final String REPOSITORY_EVENTS = "psit-events";
+
+    private static final String PROJECT = "psit_package";
+
+    private static final String PROJECT_EVENTS = "psit_events";
+
+    @Inject
+    private PypiSimpleIndex pypiSimpleIndex;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @Test
+    public void testNormalize()
+    {
+        assertEquals("psit-package", PypiSimpleIndex.normalize("psit_package"));
+        assertEquals("psit-package", PypiSimpleIndex.normalize("Psit.-_Package"));
+        assertEquals("psit-package", PypiSimpleIndex.normalize("psit-package"));
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testPages(@PypiTestRepository(repositoryId = REPOSITORY_RELEASES)
+                          Repository repository,
+                          @PypiTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                            id = PROJECT,
+                                            versions = { "1.0.0",
+                                                         "1.0.1" })
+                          List<Path> artifactPaths)
+            throws IOException
+    {
+        assertTrue(pypiSimpleIndex.supports(repository));
+
+        // The metadata is extracted when the distribution is stored.
+        RepositoryPath artifactPath = (RepositoryPath) artifactPaths.get(0).normalize();
+        assertTrue(Files.exists(artifactPath.resolveSibling(artifactPath.getFileName() + ".metadata")));
+
+        String rootPage = content(pypiSimpleIndex.getRootPage(repository));
+        assertTrue(rootPage.contains("<a href=\"psit-package/\">psit_package</a>"));
+
+        PypiSimplePage projectPage = pypiSimpleIndex.getProjectPage(repository, "Psit.Package");
+        String content = content(projectPage);
+        String sha256 = new String(Files.readAllBytes(artifactPath.resolveSibling(artifactPath.getFileName() +
+                                                                                  ".sha256")),
+                                   StandardCharsets.UTF_8).trim();
+        assertTrue(content.contains("<a href=\"../../psit_package/1.0.0/psit_package-1.0.0-py3-none-any.whl" +
+                                    "#sha256=" + sha256 + "\" data-requires-python=\"&gt;=3.6\">" +
+                                    "psit_package-1.0.0-py3-none-any.whl</a>"));
+        assertTrue(content.contains("psit_package-1.0.1-py3-none-any.whl"));
+
+        // Served from memory until the project changes.
+        assertEquals(projectPage, pypiSimpleIndex.getProjectPage(repository, PROJECT));
+        assertNull(pypiSimpleIndex.getProjectPage(repository, "unknown"));
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testIncrementalUpdates(@PypiTestRepository(repositoryId = REPOSITORY_EVENTS)
+                                       Repository repository,
+                                       @PypiTestArtifact(repositoryId = REPOSITORY_EVENTS,
+                                                         id = PROJECT_EVENTS,
+                                                         versions = "1.0.0")
+                                       List<Path> artifactPaths,
+                                       @PypiTestArtifact(repositoryId = "",
+                                                         id = PROJECT_EVENTS,
+                                                         versions = "1.1.0")
+                                       List<Path> newArtifactPaths)
+            throws Exception
+    {
+        // Built from the database.
+        PypiSimplePage rootPage = pypiSimpleIndex.getRootPage(repository);
+        PypiSimplePage projectPage = pypiSimpleIndex.getProjectPage(repository, PROJECT_EVENTS);
+        assertTrue(content(projectPage).contains("psit_events-1.0.0-py3-none-any.whl"));
+        assertFalse(content(projectPage).contains("psit_events-1.1.0-py3-none-any.whl"));
+
+        RepositoryPath newPath = repositoryPathResolver.resolve(repository,
+                                                                "psit_events/1.1.0/psit_events-1.1.0-py3-none-any.whl");
+        try (InputStream is = Files.newInputStream(newArtifactPaths.get(0)))
+        {
+            artifactManagementService.validateAndStore(newPath, is);
+        }
+
+        PypiSimplePage updatedPage = pypiSimpleIndex.getProjectPage(repository, PROJECT_EVENTS);
+        assertNotEquals(projectPage.getETag(), updatedPage.getETag());
+        assertTrue(content(updatedPage).contains("psit_events-1.1.0-py3-none-any.whl#sha256="));
+        assertTrue(content(updatedPage).contains("data-requires-python=\"&gt;=3.6\""));
+        // The project was already listed.
+        assertEquals(rootPage.getETag(), pypiSimpleIndex.getRootPage(repository).getETag());
+
+        RepositoryPath path = (RepositoryPath) artifactPaths.get(0).normalize();
+        artifactManagementService.delete(path, true);
+
+        assertFalse(Files.exists(path.resolveSibling(path.getFileName() + ".metadata")));
+        assertFalse(content(pypiSimpleIndex.getProjectPage(repository, PROJECT_EVENTS)).contains(
+                "psit_events-1.0.0-py3-none-any.whl"));
+
+        artifactManagementService.delete(newPath, true);
+
+        assertNull(pypiSimpleIndex.getProjectPage(repository, PROJECT_EVENTS));
+        assertFalse(content(pypiSimpleIndex.getRootPage(repository)).contains("psit-events"));
+    }
+
+    private static String content(PypiSimplePage page)
+    {
+        return new String(page.getContent(), StandardCharsets.UTF_8);
+    }
+
+}
@@ -63,4 +63,17 @@ public class PypiMetadataParserTest
         assertTrue(testDao.getPlatform().isEmpty());
     }
 
+    @Test
+    public void testParseFileWithDescriptionBodyToPypiMetadataDto()
+            throws IllegalAccessException, IOException
+    {
+        PypiMetadataParser pypiMetadataParser = new PypiMetadataParser();
+        PypiPackageInfo testDao = pypiMetadataParser.parseMetadataFile(new FileInputStream("src/test/resources/org.carlspring.strongbox.util/metadata_wheel.xml"));
+
+        assertEquals(testDao.getName(), "hello-strongbox-pip");
+        assertEquals(testDao.getVersion(), "1.0.0");
+        assertEquals(testDao.getRequiresPython(), ">=3.6, <4");
+        assertEquals(testDao.getDescriptionContentType(), "text/markdown");
+    }
+
 }
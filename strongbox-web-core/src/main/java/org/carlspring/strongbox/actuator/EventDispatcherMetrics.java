@@ -0,0 +1,80 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.event.EventDispatcher;
+import org.carlspring.strongbox.event.EventListenerQueue;
+
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the depth, latency and counters of the async event listener queues (see {@link EventDispatcher}) with the
+ * `metrics` endpoint, tagged by the listener name.
+ */
+@Component
+public class EventDispatcherMetrics
+        implements MeterBinder
+{
+
+    private static final String PREFIX = "strongbox.events.";
+
+    @Inject
+    private EventDispatcher eventDispatcher;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        eventDispatcher.observeQueues(queue -> bindTo(registry, queue));
+    }
+
+    private void bindTo(MeterRegistry registry,
+                        EventListenerQueue queue)
+    {
+        Tags tags = Tags.of("listener", queue.getName());
+
+        Gauge.builder(PREFIX + "queue.depth", queue, EventListenerQueue::getDepth)
+             .tags(tags)
+             .register(registry);
+        Gauge.builder(PREFIX + "queue.capacity", queue, EventListenerQueue::getCapacity)
+             .tags(tags)
+             .register(registry);
+        TimeGauge.builder(PREFIX + "queue.oldest", queue, TimeUnit.NANOSECONDS,
+                          EventListenerQueue::getOldestEventAgeNanos)
+                 .tags(tags)
+                 .register(registry);
+
+        FunctionTimer.builder(PREFIX + "queue.latency", queue, EventListenerQueue::getStartedCount,
+                              EventListenerQueue::getQueueLatencyNanos, TimeUnit.NANOSECONDS)
+                     .tags(tags)
+                     .register(registry);
+        FunctionTimer.builder(PREFIX + "processing", queue, EventListenerQueue::getStartedCount,
+                              EventListenerQueue::getProcessingNanos, TimeUnit.NANOSECONDS)
+                     .tags(tags)
+                     .register(registry);
+
+        FunctionCounter.builder(PREFIX + "submitted", queue, EventListenerQueue::getSubmittedCount)
+                       .tags(tags)
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + "completed", queue, EventListenerQueue::getCompletedCount)
+                       .tags(tags)
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + "failed", queue, EventListenerQueue::getFailedCount)
+                       .tags(tags)
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + "dropped", queue, EventListenerQueue::getDroppedCount)
+                       .tags(tags)
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + "coalesced", queue, EventListenerQueue::getCoalescedCount)
+                       .tags(tags)
+                       .register(registry);
+    }
+
+}
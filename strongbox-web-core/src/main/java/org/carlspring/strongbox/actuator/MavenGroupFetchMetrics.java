@@ -0,0 +1,49 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.providers.io.MavenGroupRepositoryPathFetchExecutor;
+
+import javax.inject.Inject;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the state and counters of the Maven group member fetches (see
+ * {@link MavenGroupRepositoryPathFetchExecutor}) with the `metrics` endpoint.
+ */
+@Component
+public class MavenGroupFetchMetrics
+        implements MeterBinder
+{
+
+    private static final String PREFIX = "strongbox.maven.group.fetch.";
+
+    @Inject
+    private MavenGroupRepositoryPathFetchExecutor fetchExecutor;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder(PREFIX + "active", fetchExecutor, MavenGroupRepositoryPathFetchExecutor::getActiveCount)
+             .register(registry);
+        Gauge.builder(PREFIX + "queued", fetchExecutor, MavenGroupRepositoryPathFetchExecutor::getQueueSize)
+             .register(registry);
+
+        FunctionCounter.builder(PREFIX + "completed", fetchExecutor,
+                                MavenGroupRepositoryPathFetchExecutor::getCompletedCount)
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + "failed", fetchExecutor,
+                                MavenGroupRepositoryPathFetchExecutor::getFailedCount)
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + "timedOut", fetchExecutor,
+                                MavenGroupRepositoryPathFetchExecutor::getTimedOutCount)
+                       .register(registry);
+        FunctionCounter.builder(PREFIX + "rejected", fetchExecutor,
+                                MavenGroupRepositoryPathFetchExecutor::getRejectedCount)
+                       .register(registry);
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.repository.NpmRepositoryFeatures;
+
+import javax.inject.Inject;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the npm changes feed replication lag of the proxy repositories (see
+ * {@link NpmRepositoryFeatures#getChangesFeedReplicationLag(String, String)}) with the `metrics` endpoint, tagged by
+ * the storage and repository ids.
+ */
+@Component
+public class NpmChangesFeedMetrics
+        implements MeterBinder
+{
+
+    private static final String PREFIX = "strongbox.npm.changes.";
+
+    @Inject
+    private NpmRepositoryFeatures npmRepositoryFeatures;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        npmRepositoryFeatures.observeChangesFeedReplication((s, r) -> bindTo(registry, s, r));
+    }
+
+    private void bindTo(MeterRegistry registry,
+                        String storageId,
+                        String repositoryId)
+    {
+        Gauge.builder(PREFIX + "replicationLag", npmRepositoryFeatures,
+                      f -> getReplicationLag(f, storageId, repositoryId))
+             .tags("storage", storageId, "repository", repositoryId)
+             .register(registry);
+    }
+
+    private static double getReplicationLag(NpmRepositoryFeatures npmRepositoryFeatures,
+                                            String storageId,
+                                            String repositoryId)
+    {
+        Long lag = npmRepositoryFeatures.getChangesFeedReplicationLag(storageId, repositoryId);
+
+        return lag == null ? Double.NaN : lag;
+    }
+
+}
@@ -2,11 +2,15 @@ package org.carlspring.strongbox.controllers;
 
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
 import org.carlspring.strongbox.utils.ArtifactControllerHelper;
+import org.carlspring.strongbox.web.RepositoryPathRequestContext;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.io.InputStream;
 
 import org.springframework.http.HttpHeaders;
@@ -20,6 +24,35 @@ public abstract class BaseArtifactController
     @Inject
     protected ArtifactManagementService artifactManagementService;
 
+    /**
+     * Resolves the requested path through the repository provider, reusing the {@link RepositoryPathRequestContext} if
+     * the path has been resolved within the request already.
+     *
+     * @return `null` if the path was not found
+     */
+    protected RepositoryPath resolvePath(HttpServletRequest request,
+                                         Repository repository,
+                                         String path)
+            throws IOException
+    {
+        RepositoryPathRequestContext context = RepositoryPathRequestContext.lookup(request, repository, path);
+        if (context == null)
+        {
+            return artifactResolutionService.resolvePath(repository.getStorage().getId(), repository.getId(), path);
+        }
+        else if (context.isDirectory())
+        {
+            return null;
+        }
+        else if (!context.exists() && RepositoryTypeEnum.HOSTED.getType().equals(repository.getType()))
+        {
+            // There is nothing to fetch the missing path from.
+            return null;
+        }
+
+        return artifactResolutionService.resolvePath(context.getRepositoryPath());
+    }
+
     protected boolean provideArtifactDownloadResponse(HttpServletRequest request,
                                                       HttpServletResponse response,
                                                       HttpHeaders httpHeaders,
@@ -11,8 +11,10 @@ import org.carlspring.strongbox.web.RepositoryMapping;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.net.URL;
+import java.net.URLEncoder;
 import java.nio.file.Files;
 import java.util.Map;
 import java.util.Optional;
@@ -50,6 +52,10 @@ public class BrowseController
     // must be the same as @RequestMapping value on the class definition
     public final static String ROOT_CONTEXT = "/api/browse";
 
+    public final static int DEFAULT_PAGE_SIZE = 1000;
+
+    public final static int MAX_PAGE_SIZE = 10000;
+
     private volatile DirectoryListingService directoryListingService;
     
     public DirectoryListingService getDirectoryListingService()
@@ -152,7 +158,12 @@ public class BrowseController
                              MediaType.APPLICATION_JSON_VALUE })
     public Object repositoryContent(@RepositoryMapping Repository repository,
                                     @PathVariable("path") String rawPath,
+                                    @ApiParam(value = "The last entry name of the previous page")
+                                    @RequestParam(name = "cursor", required = false) String cursor,
+                                    @ApiParam(value = "The maximum number of entries to list")
+                                    @RequestParam(name = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
                                     HttpServletRequest request,
+                                    HttpServletResponse response,
                                     ModelMap model,
                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptHeader)
     {
@@ -178,11 +189,18 @@ public class BrowseController
                 return getNotFoundResponseEntity("Requested repository doesn't allow browsing.", acceptHeader);
             }
 
-            DirectoryListing directoryListing = getDirectoryListingService().fromRepositoryPath(repositoryPath);
+            int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+            DirectoryListing directoryListing = getDirectoryListingService().fromRepositoryPath(repositoryPath,
+                                                                                                StringUtils.trimToNull(cursor),
+                                                                                                pageSize);
 
             if (acceptHeader != null && acceptHeader.contains(MediaType.APPLICATION_JSON_VALUE))
             {
-                return ResponseEntity.ok(objectMapper.writer().writeValueAsString(directoryListing));
+                // Serialize straight into the response instead of buffering the whole listing as a String.
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writer().writeValue(response.getOutputStream(), directoryListing);
+
+                return null;
             }
             
             URL resourceUrl = RepositoryFiles.readResourceUrl(repositoryPath);
@@ -196,6 +214,14 @@ public class BrowseController
             model.addAttribute("directories", directoryListing.getDirectories());
             model.addAttribute("files", directoryListing.getFiles());
 
+            if (directoryListing.getNextCursor() != null)
+            {
+                model.addAttribute("nextUrl", String.format("%s/?cursor=%s&limit=%s",
+                                                            currentUrl,
+                                                            URLEncoder.encode(directoryListing.getNextCursor(), "UTF-8"),
+                                                            pageSize));
+            }
+
             return new ModelAndView("directoryListing", model);
         }
         catch (Exception e)
@@ -2,6 +2,8 @@ package org.carlspring.strongbox.controllers.aql;
 
 import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
 import org.carlspring.strongbox.controllers.BaseController;
+import org.carlspring.strongbox.data.criteria.PageToken;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.AqlSearchService;
@@ -11,6 +13,7 @@ import javax.inject.Inject;
 import java.io.IOException;
 
 import io.swagger.annotations.*;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -36,12 +39,27 @@ public class AqlController extends BaseController
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
     @PreAuthorize("hasAuthority('SEARCH_ARTIFACTS')")
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
-    public ResponseEntity search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query)
+    public ResponseEntity search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query,
+                                 @ApiParam(value = "The nextPageToken of the previous page") @RequestParam(name = "pageToken", required = false) String pageToken)
         throws IOException
     {
         AqlQueryParser parser = new AqlQueryParser(query);
         Selector<ArtifactEntry> selector = parser.parseQuery();
 
+        Paginator paginator = selector.getPaginator();
+        paginator.setKeyset(true);
+        if (StringUtils.isNotBlank(pageToken))
+        {
+            try
+            {
+                paginator.setPageToken(PageToken.decode(pageToken));
+            }
+            catch (IllegalArgumentException e)
+            {
+                return getBadRequestResponseEntity(e.getMessage(), MediaType.APPLICATION_JSON_VALUE);
+            }
+        }
+
         SearchResults result = aqlSearchService.search(selector);
 
         return ResponseEntity.ok(result);
@@ -68,7 +68,7 @@ public class MavenArtifactController
         logger.debug("Requested /{}/{}/{}.", storageId, repositoryId, artifactPath);
 
         artifactPath = correctIndexPathIfNecessary(repository, artifactPath);
-        RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, artifactPath);
+        RepositoryPath repositoryPath = resolvePath(request, repository, artifactPath);
         
         provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
     }
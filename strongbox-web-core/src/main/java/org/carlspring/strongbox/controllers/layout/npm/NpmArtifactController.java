@@ -30,11 +30,8 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.MediaType;
 import java.io.*;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.nio.file.StandardOpenOption;
-import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
@@ -46,11 +43,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
-import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
-import org.apache.commons.io.IOUtils;
-import org.javatuples.Pair;
+import org.apache.commons.io.output.TeeOutputStream;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -353,10 +346,9 @@ public class NpmArtifactController
         final String repositoryId = repository.getId();
 
         logger.info("npm publish request for {}/{}/{}", storageId, repositoryId, name);
-        Pair<PackageVersion, Path> packageEntry;
         try
         {
-            packageEntry = extractPackage(name, request.getInputStream());
+            publishPackage(repository, name, request.getInputStream());
         }
         catch (IllegalArgumentException e)
         {
@@ -364,67 +356,27 @@ public class NpmArtifactController
             return ResponseEntity.badRequest().build();
         }
 
-        PackageVersion packageJson = packageEntry.getValue0();
-        Path packageTgz = packageEntry.getValue1();
-
-        NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of(name, packageJson.getVersion());
-
-        storeNpmPackage(repository, coordinates, packageJson, packageTgz);
-
         return ResponseEntity.ok("");
     }
 
-    private void storeNpmPackage(Repository repository,
-                                 NpmArtifactCoordinates coordinates,
-                                 PackageVersion packageDef,
-                                 Path packageTgzTmp)
+    /**
+     * Parses the npm package source right from the request stream. The `versions` come before the `_attachments`, so
+     * the package path is resolved first and the package tarball is Base64 decoded straight into the repository,
+     * while its `package.json` is extracted in the same pass.
+     */
+    private void publishPackage(Repository repository,
+                                String packageName,
+                                ServletInputStream in)
         throws IOException,
                ProviderImplementationException,
-               NoSuchAlgorithmException,
                ArtifactCoordinatesValidationException
     {
-        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, coordinates);
-        try (InputStream is = new BufferedInputStream(Files.newInputStream(packageTgzTmp)))
-        {
-            artifactManagementService.validateAndStore(repositoryPath, is);
-        }
-
-        Path packageJsonTmp = extractPackageJson(packageTgzTmp);
-        RepositoryPath packageJsonPath = repositoryPathResolver.resolve(repository, repositoryPath.resolveSibling("package.json"));
-        try (InputStream is = new BufferedInputStream(Files.newInputStream(packageJsonTmp)))
-        {
-            artifactManagementService.validateAndStore(packageJsonPath, is);
-        }
-
-        String shasum = Optional.ofNullable(packageDef.getDist()).map(p -> p.getShasum()).orElse(null);
-        if (shasum == null)
-        {
-            logger.warn(String.format("No checksum provided for package [%s]", packageDef.getName()));
-            return;
-        }
-
-        String packageFileName = repositoryPath.getFileName().toString();
-        RepositoryPath checksumPath = repositoryPath.resolveSibling(packageFileName + ".sha1");
-        artifactManagementService.validateAndStore(checksumPath,
-                                                      new ByteArrayInputStream(shasum.getBytes("UTF-8")));
-
-        Files.delete(packageTgzTmp);
-        Files.delete(packageJsonTmp);
-    }
-
-    private Pair<PackageVersion, Path> extractPackage(String packageName,
-                                                      ServletInputStream in)
-        throws IOException
-    {
-        Path packageSourceTmp = Files.createTempFile("package", "source");
-        Files.copy(in, packageSourceTmp, StandardCopyOption.REPLACE_EXISTING);
-
         PackageVersion packageVersion = null;
-        Path packageTgzPath = null;
+        RepositoryPath repositoryPath = null;
+        String packageJsonSource = null;
 
         JsonFactory jfactory = new JsonFactory();
-        try (InputStream tmpIn = new BufferedInputStream(Files.newInputStream(packageSourceTmp));
-             JsonParser jp = jfactory.createParser(tmpIn);)
+        try (JsonParser jp = jfactory.createParser(in))
         {
             jp.setCodec(npmJacksonMapper);
 
@@ -450,6 +402,9 @@ public class NpmArtifactController
 
                     break;
                 case FIELD_NAME_ATTACHMENTS:
+                    Assert.notNull(packageVersion,
+                                   String.format("Failed to parse npm package source for [%s], versions should precede the attachments.",
+                                                 packageName));
                     Assert.isTrue(jp.nextToken() == JsonToken.START_OBJECT,
                                   String.format("Failed to parse npm package source for illegal type [%s] of attachment.",
                                                 jp.currentToken().name()));
@@ -458,7 +413,11 @@ public class NpmArtifactController
                     logger.info(String.format("Found npm package attachment [%s]", packageAttachmentName));
 
                     moveToAttachment(jp, packageAttachmentName);
-                    packageTgzPath = extractPackage(jp);
+
+                    NpmArtifactCoordinates coordinates = NpmArtifactCoordinates.of(packageName,
+                                                                                   packageVersion.getVersion());
+                    repositoryPath = repositoryPathResolver.resolve(repository, coordinates);
+                    packageJsonSource = storePackage(repositoryPath, jp);
 
                     jp.nextToken();
                     jp.nextToken();
@@ -468,50 +427,72 @@ public class NpmArtifactController
             }
         }
 
-        Files.delete(packageSourceTmp);
-
-        if (packageVersion == null || packageTgzPath == null)
+        if (repositoryPath == null)
         {
             throw new IllegalArgumentException(
                     String.format("Failed to parse npm package source for [%s], attachment not found", packageName));
         }
 
-        return Pair.with(packageVersion, packageTgzPath);
+        storePackageMetadata(repository, repositoryPath, packageVersion, packageJsonSource);
     }
 
-    private Path extractPackage(JsonParser jp)
-        throws IOException
+    /**
+     * @return the `package.json` source of the package tarball
+     */
+    private String storePackage(RepositoryPath repositoryPath,
+                                JsonParser jp)
+        throws IOException,
+               ProviderImplementationException,
+               ArtifactCoordinatesValidationException
     {
-        Path packageTgzTmp = Files.createTempFile("package", "tgz");
-        try (OutputStream packageTgzOut = new BufferedOutputStream(Files.newOutputStream(packageTgzTmp,
-                                                                                         StandardOpenOption.TRUNCATE_EXISTING)))
+        long[] packageSize = new long[1];
+        try (PackageJsonOutputStream packageJsonOut = new PackageJsonOutputStream())
         {
-            jp.readBinaryValue(packageTgzOut);
-        }
+            artifactManagementService.validateAndStore(repositoryPath, os -> {
+                packageSize[0] = jp.readBinaryValue(new TeeOutputStream(os, packageJsonOut));
+            });
 
-        long packageSize = Files.size(packageTgzTmp);
+            Assert.isTrue(FIELD_NAME_LENGTH.equals(jp.nextFieldName()), "Failed to validate package content length.");
+            jp.nextToken();
 
-        Assert.isTrue(FIELD_NAME_LENGTH.equals(jp.nextFieldName()), "Failed to validate package content length.");
-        jp.nextToken();
-
-        Assert.isTrue(packageSize == jp.getLongValue(), "Invalid package content length.");
-        jp.nextToken();
+            Assert.isTrue(packageSize[0] == jp.getLongValue(), "Invalid package content length.");
+            jp.nextToken();
 
-        return packageTgzTmp;
+            return packageJsonOut.getPackageJson();
+        }
     }
 
-    private Path extractPackageJson(Path packageTgzTmp)
-        throws IOException
+    private void storePackageMetadata(Repository repository,
+                                      RepositoryPath repositoryPath,
+                                      PackageVersion packageDef,
+                                      String packageJsonSource)
+        throws IOException,
+               ProviderImplementationException,
+               ArtifactCoordinatesValidationException
     {
-        String packageJsonSource;
-        try (InputStream packageTgzIn = new BufferedInputStream(Files.newInputStream(packageTgzTmp)))
+        if (packageJsonSource == null)
         {
-            packageJsonSource = extrectPackageJson(packageTgzIn);
+            logger.warn(String.format("No package.json found in package [%s]", packageDef.getName()));
+        }
+        else
+        {
+            RepositoryPath packageJsonPath = repositoryPathResolver.resolve(repository,
+                                                                            repositoryPath.resolveSibling("package.json"));
+            artifactManagementService.validateAndStore(packageJsonPath,
+                                                       new ByteArrayInputStream(packageJsonSource.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        String shasum = Optional.ofNullable(packageDef.getDist()).map(p -> p.getShasum()).orElse(null);
+        if (shasum == null)
+        {
+            logger.warn(String.format("No checksum provided for package [%s]", packageDef.getName()));
+            return;
         }
-        Path packageJsonTmp = Files.createTempFile("package", "json");
-        Files.write(packageJsonTmp, packageJsonSource.getBytes("UTF-8"), StandardOpenOption.TRUNCATE_EXISTING);
 
-        return packageJsonTmp;
+        String packageFileName = repositoryPath.getFileName().toString();
+        RepositoryPath checksumPath = repositoryPath.resolveSibling(packageFileName + ".sha1");
+        artifactManagementService.validateAndStore(checksumPath,
+                                                      new ByteArrayInputStream(shasum.getBytes(StandardCharsets.UTF_8)));
     }
 
     private void moveToAttachment(JsonParser jp,
@@ -556,27 +537,4 @@ public class NpmArtifactController
         return packageVersion;
     }
 
-    private String extrectPackageJson(InputStream in)
-        throws IOException
-    {
-        GzipCompressorInputStream gzipIn = new GzipCompressorInputStream(in);
-        try (TarArchiveInputStream tarIn = new TarArchiveInputStream(gzipIn))
-        {
-            TarArchiveEntry entry;
-
-            while ((entry = (TarArchiveEntry) tarIn.getNextEntry()) != null)
-            {
-                if (!entry.getName().endsWith("package.json"))
-                {
-                    continue;
-                }
-                StringWriter writer = new StringWriter();
-                IOUtils.copy(tarIn, writer, "UTF-8");
-                return writer.toString();
-            }
-            
-            return null;
-        }
-    }
-    
 }
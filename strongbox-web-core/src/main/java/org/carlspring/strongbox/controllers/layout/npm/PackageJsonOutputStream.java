@@ -0,0 +1,269 @@
+package org.carlspring.strongbox.controllers.layout.npm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+
+/**
+ * Extracts the `package.json` from the npm package tarball which is written into it, so that the tarball can be
+ * stored and inspected in a single pass.
+ * <p>
+ * The tarball is inflated and its entries are read as the bytes arrive, everything after the `package.json` is
+ * ignored. A tarball which can't be read just has no `package.json`, it's up to the caller to reject it.
+ */
+class PackageJsonOutputStream
+        extends OutputStream
+{
+
+    private static final int GZIP_HEADER_LENGTH = 10;
+
+    private static final int FEXTRA = 4;
+
+    private static final int FNAME = 8;
+
+    private static final int FCOMMENT = 16;
+
+    private static final int FHCRC = 2;
+
+    private final ByteArrayOutputStream gzipHeader = new ByteArrayOutputStream();
+
+    private final byte[] inflated = new byte[8192];
+
+    private final byte[] tarHeader = new byte[TarConstants.DEFAULT_RCDSIZE];
+
+    private Inflater inflater;
+
+    private int tarHeaderLength;
+
+    private long entryRemaining;
+
+    private long entryDataRemaining;
+
+    private ByteArrayOutputStream packageJson;
+
+    private String result;
+
+    private boolean finished;
+
+    /**
+     * @return the `package.json` source, or null if there is no such entry in the tarball
+     */
+    public String getPackageJson()
+    {
+        return result;
+    }
+
+    @Override
+    public void write(int b)
+    {
+        write(new byte[]{ (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b,
+                      int off,
+                      int len)
+    {
+        if (finished)
+        {
+            return;
+        }
+
+        if (inflater != null)
+        {
+            inflate(b, off, len);
+            return;
+        }
+
+        gzipHeader.write(b, off, len);
+
+        byte[] buffered = gzipHeader.toByteArray();
+        int headerLength = gzipHeaderLength(buffered);
+        if (headerLength < 0)
+        {
+            return;
+        }
+
+        inflater = new Inflater(true);
+        inflate(buffered, headerLength, buffered.length - headerLength);
+    }
+
+    @Override
+    public void close()
+    {
+        finished = true;
+        if (inflater != null)
+        {
+            inflater.end();
+        }
+    }
+
+    private void inflate(byte[] b,
+                         int off,
+                         int len)
+    {
+        inflater.setInput(b, off, len);
+        try
+        {
+            int n;
+            while (!finished && (n = inflater.inflate(inflated)) > 0)
+            {
+                readTar(inflated, n);
+            }
+        }
+        catch (DataFormatException e)
+        {
+            finished = true;
+        }
+
+        if (inflater.finished() || inflater.needsDictionary())
+        {
+            finished = true;
+        }
+    }
+
+    private void readTar(byte[] b,
+                         int len)
+    {
+        int off = 0;
+        while (off < len && !finished)
+        {
+            if (entryRemaining > 0)
+            {
+                int n = (int) Math.min(len - off, entryRemaining);
+                int data = (int) Math.min(n, entryDataRemaining);
+                if (packageJson != null)
+                {
+                    packageJson.write(b, off, data);
+                }
+
+                entryDataRemaining -= data;
+                entryRemaining -= n;
+                off += n;
+
+                if (entryRemaining == 0 && packageJson != null)
+                {
+                    result = new String(packageJson.toByteArray(), StandardCharsets.UTF_8);
+                    finished = true;
+                }
+
+                continue;
+            }
+
+            int n = Math.min(len - off, tarHeader.length - tarHeaderLength);
+            System.arraycopy(b, off, tarHeader, tarHeaderLength, n);
+            tarHeaderLength += n;
+            off += n;
+
+            if (tarHeaderLength == tarHeader.length)
+            {
+                tarHeaderLength = 0;
+                readTarHeader();
+            }
+        }
+    }
+
+    private void readTarHeader()
+    {
+        boolean endOfArchive = true;
+        for (byte b : tarHeader)
+        {
+            if (b != 0)
+            {
+                endOfArchive = false;
+                break;
+            }
+        }
+        if (endOfArchive)
+        {
+            finished = true;
+            return;
+        }
+
+        TarArchiveEntry entry;
+        try
+        {
+            entry = new TarArchiveEntry(tarHeader);
+        }
+        catch (IllegalArgumentException e)
+        {
+            finished = true;
+            return;
+        }
+
+        entryDataRemaining = entry.getSize();
+        entryRemaining = (entryDataRemaining + tarHeader.length - 1) / tarHeader.length * tarHeader.length;
+
+        boolean regularFile = entry.isFile() && !entry.isPaxHeader() && !entry.isGlobalPaxHeader() &&
+                              !entry.isGNULongNameEntry() && !entry.isGNULongLinkEntry();
+        packageJson = regularFile && entry.getName().endsWith("package.json") ? new ByteArrayOutputStream() : null;
+
+        if (entryRemaining == 0 && packageJson != null)
+        {
+            result = "";
+            finished = true;
+        }
+    }
+
+    /**
+     * @return the length of the gzip header, or -1 if it's not complete yet
+     */
+    private int gzipHeaderLength(byte[] header)
+    {
+        if (header.length < GZIP_HEADER_LENGTH)
+        {
+            return -1;
+        }
+        if ((header[0] & 0xff) != 0x1f || (header[1] & 0xff) != 0x8b || header[2] != Inflater.DEFLATED)
+        {
+            // Not a gzip stream, there is nothing to extract.
+            finished = true;
+            return -1;
+        }
+
+        int flags = header[3];
+        int result = GZIP_HEADER_LENGTH;
+        if ((flags & FEXTRA) != 0)
+        {
+            if (header.length < result + 2)
+            {
+                return -1;
+            }
+            result += 2 + ((header[result] & 0xff) | (header[result + 1] & 0xff) << 8);
+        }
+        if ((flags & FNAME) != 0)
+        {
+            result = skipZeroTerminated(header, result);
+        }
+        if ((flags & FCOMMENT) != 0)
+        {
+            result = skipZeroTerminated(header, result);
+        }
+        if ((flags & FHCRC) != 0 && result >= 0)
+        {
+            result += 2;
+        }
+
+        return result >= 0 && result <= header.length ? result : -1;
+    }
+
+    private static int skipZeroTerminated(byte[] header,
+                                          int from)
+    {
+        for (int i = Math.max(from, 0); from >= 0 && i < header.length; i++)
+        {
+            if (header[i] == 0)
+            {
+                return i + 1;
+            }
+        }
+
+        return -1;
+    }
+
+}
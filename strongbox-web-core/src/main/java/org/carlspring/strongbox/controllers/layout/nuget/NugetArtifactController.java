@@ -6,6 +6,7 @@ import org.carlspring.strongbox.artifact.coordinates.PathNupkg;
 import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
 import org.carlspring.strongbox.controllers.BaseArtifactController;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.PageToken;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.domain.ArtifactEntry;
@@ -13,6 +14,9 @@ import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.io.ReplacingInputStream;
 import org.carlspring.strongbox.nuget.NugetSearchRequest;
 import org.carlspring.strongbox.nuget.filter.NugetODataFilterQueryParser;
+import org.carlspring.strongbox.nuget.search.IndexedNupkg;
+import org.carlspring.strongbox.nuget.search.NugetPackageDocument;
+import org.carlspring.strongbox.nuget.search.NugetSearchIndex;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.repository.RepositoryProvider;
 import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
@@ -30,7 +34,6 @@ import org.carlspring.strongbox.web.LayoutRequestMapping;
 import org.carlspring.strongbox.web.RepositoryMapping;
 
 import javax.inject.Inject;
-import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.MediaType;
@@ -38,23 +41,34 @@ import javax.xml.bind.JAXBException;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
-import org.apache.commons.fileupload.MultipartStream;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUpload;
+import org.apache.commons.fileupload.RequestContext;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.TeeInputStream;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
@@ -65,6 +79,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * This Controller used to handle Nuget requests.
@@ -78,6 +93,13 @@ public class NugetArtifactController
         extends BaseArtifactController
 {
 
+    private static final Pattern ORDER_PROPERTY_PATTERN = Pattern.compile("[\\w.]+");
+
+    /**
+     * The head of the pushed package which is kept in memory while the `.nuspec` is looked for.
+     */
+    private static final int PACKAGE_HEAD_LIMIT = 1024 * 1024;
+
     @Inject
     private ArtifactTagService artifactTagService;
 
@@ -87,6 +109,9 @@ public class NugetArtifactController
     @Inject
     private RepositorySearchEventListener repositorySearchEventListener;
 
+    @Inject
+    private NugetSearchIndex nugetSearchIndex;
+
     @DeleteMapping(path = { "{storageId}/{repositoryId}/{packageId}/{version}" })
     @PreAuthorize("hasAuthority('ARTIFACTS_DEPLOY')")
     public ResponseEntity deletePackage(@RequestHeader(name = "X-NuGet-ApiKey", required = false) String apiKey,
@@ -137,6 +162,13 @@ public class NugetArtifactController
         nugetSearchRequest.setTargetFramework(targetFramework);
         repositorySearchEventListener.setNugetSearchRequest(nugetSearchRequest);
 
+        if (nugetSearchIndex.supports(repository))
+        {
+            long count = nugetSearchIndex.count(repository, filter, normalizedSearchTerm);
+
+            return new ResponseEntity<>(String.valueOf(count), HttpStatus.OK);
+        }
+
         RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
         
         Predicate predicate = createSearchPredicate(filter, normalizedSearchTerm);
@@ -153,6 +185,7 @@ public class NugetArtifactController
                                             @RequestParam(name = "$orderby", required = false, defaultValue = "Id") String orderBy,
                                             @RequestParam(name = "$skip", required = false) Integer skip,
                                             @RequestParam(name = "$top", required = false) Integer top,
+                                            @RequestParam(name = "$skiptoken", required = false) String skipToken,
                                             @RequestParam(name = "searchTerm", required = false) String searchTerm,
                                             @RequestParam(name = "targetFramework", required = false) String targetFramework,
                                             HttpServletResponse response)
@@ -173,16 +206,43 @@ public class NugetArtifactController
                                    storageId,
                                    repositoryId);
 
+        Paginator paginator = new Paginator();
+        paginator.setSkip(skip);
+        paginator.setLimit(top);
+        paginator.setProperty(orderBy);
+        // The keyset pagination is only used when the client asks for it with the `$skiptoken` (an empty one starts
+        // from the first page), so that the plain searches keep their results and ordering. The page token can only
+        // follow a single property ordering.
+        paginator.setKeyset(skipToken != null &&
+                            (orderBy == null || ORDER_PROPERTY_PATTERN.matcher(orderBy).matches()));
+        if (paginator.isKeyset() && StringUtils.isNotBlank(skipToken))
+        {
+            try
+            {
+                paginator.setPageToken(PageToken.decode(skipToken));
+            }
+            catch (IllegalArgumentException e)
+            {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        }
+
         Collection<? extends Nupkg> files;
         files = getPackages(repository,
                             filter,
-                            orderBy,
                             normalizedSearchTerm,
                             targetFramework,
-                            skip,
-                            top);
+                            paginator);
 
         PackageFeed feed = transform(feedId, files);
+        if (paginator.getNextPageToken() != null)
+        {
+            feed.setNextLink(ServletUriComponentsBuilder.fromCurrentRequest()
+                                                        .replaceQueryParam("$skip")
+                                                        .replaceQueryParam("$skiptoken",
+                                                                           paginator.getNextPageToken().encode())
+                                                        .toUriString());
+        }
 
         response.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML);
         feed.writeXml(response.getOutputStream());
@@ -220,22 +280,33 @@ public class NugetArtifactController
     private void calculateFeedEntryProperties(PathNupkg nupkg,
                                               EntryProperties properties) throws IOException
     {
-        RepositoryPath path = nupkg.getPath();
-        ArtifactEntry artifactEntry = path.getArtifactEntry();
-
         properties.setId(nupkg.getId());
 
         properties.setReportAbuseUrl("");
 
-        properties.setDownloadCount(artifactEntry.getDownloadCount());
-        properties.setVersionDownloadCount(artifactEntry.getDownloadCount());
-
         properties.setRatingsCount(0);
         properties.setVersionRatingsCount(0);
 
         properties.setRating(Double.valueOf(0));
         properties.setVersionRating(Double.valueOf(0));
 
+        if (nupkg instanceof IndexedNupkg)
+        {
+            // Everything is known from the search index, there is no need to lookup the artifact entry.
+            NugetPackageDocument document = ((IndexedNupkg) nupkg).getDocument();
+
+            properties.setDownloadCount(document.getDownloadCount());
+            properties.setVersionDownloadCount(document.getDownloadCount());
+            properties.setIsLatestVersion(document.isLatestVersion());
+
+            return;
+        }
+
+        ArtifactEntry artifactEntry = nupkg.getPath().getArtifactEntry();
+
+        properties.setDownloadCount(artifactEntry.getDownloadCount());
+        properties.setVersionDownloadCount(artifactEntry.getDownloadCount());
+
         ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
         if (artifactEntry.getTagSet().contains(lastVersionTag))
         {
@@ -279,14 +350,23 @@ public class NugetArtifactController
         nugetSearchRequest.setFilter(String.format("Id eq '%s'", packageId));
         repositorySearchEventListener.setNugetSearchRequest(nugetSearchRequest);
 
-        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
+        Collection<? extends Nupkg> files;
+        if (nugetSearchIndex.supports(repository))
+        {
+            files = nugetSearchIndex.toNupkg(repository, nugetSearchIndex.findById(repository, normalisedPackageId));
+        }
+        else
+        {
+            RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
 
-        Paginator paginator = new Paginator();
-        paginator.setProperty("artifactCoordinates.coordinates.version");
+            Paginator paginator = new Paginator();
+            paginator.setProperty("artifactCoordinates.coordinates.version");
 
-        Predicate predicate = Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.id", normalisedPackageId));
+            Predicate predicate = Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.id",
+                                                                 normalisedPackageId));
 
-        Collection<? extends Nupkg> files = searchNupkg(storageId, repositoryId, provider, paginator, predicate);
+            files = searchNupkg(storageId, repositoryId, provider, paginator, predicate);
+        }
 
         String feedId = getFeedUri(((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest(),
                                    storageId,
@@ -300,24 +380,32 @@ public class NugetArtifactController
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
+    /**
+     * With the {@link Paginator#isKeyset()} pagination (requested with the `$skiptoken`), the
+     * {@link Paginator#getNextPageToken()} is set, if there can be a next page (it's never set for the repositories with
+     * the {@link NugetSearchIndex}, which are paged in memory).
+     */
     public Collection<? extends Nupkg> getPackages(Repository repository,
                                                    String filter,
-                                                   String orderBy,
                                                    String searchTerm,
                                                    String targetFramework,
-                                                   Integer skip,
-                                                   Integer top)
+                                                   Paginator paginator)
     {
+        if (nugetSearchIndex.supports(repository))
+        {
+            List<NugetPackageDocument> documents = nugetSearchIndex.search(repository, filter, searchTerm,
+                                                                           paginator.getProperty(),
+                                                                           paginator.getSkip(),
+                                                                           paginator.getLimit());
+
+            return nugetSearchIndex.toNupkg(repository, documents);
+        }
+
         final String storageId = repository.getStorage().getId();
         final String repositoryId = repository.getId();
 
         RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
 
-        Paginator paginator = new Paginator();
-        paginator.setSkip(skip);
-        paginator.setLimit(top);
-        paginator.setProperty(orderBy);
-
         Predicate rootPredicate = createSearchPredicate(filter, searchTerm);
 
         return searchNupkg(storageId, repositoryId, provider, paginator, rootPredicate);
@@ -419,22 +507,20 @@ public class NugetArtifactController
         logger.info("Nuget push request: storageId-[{}]; repositoryId-[{}]", storageId, repositoryId);
         String contentType = request.getHeader("content-type");
 
-        URI resourceUri;
-        try
+        String boundaryString = extractBoundary(contentType);
+        if (StringUtils.isEmpty(boundaryString))
         {
-            ServletInputStream is = request.getInputStream();
-            InputStream packagePartInputStream = extractPackageMultipartStream(extractBoundary(contentType), is);
-
-            if (packagePartInputStream == null)
-            {
-                logger.error(String.format("Failed to extract Nuget package from request: [%s]:[%s]",
-                                           storageId,
-                                           repositoryId));
+            logger.error(String.format("Failed to extract Nuget package from request: [%s]:[%s]",
+                                       storageId,
+                                       repositoryId));
 
-                return ResponseEntity.badRequest().build();
-            }
+            return ResponseEntity.badRequest().build();
+        }
 
-            resourceUri = storePackage(storageId, repositoryId, packagePartInputStream);
+        URI resourceUri;
+        try
+        {
+            resourceUri = storePackage(repository, contentType, request.getInputStream());
         }
         catch (Exception e)
         {
@@ -530,137 +616,185 @@ public class NugetArtifactController
         return boundaryString;
     }
 
-    private InputStream extractPackageMultipartStream(String boundaryString,
-                                                      ServletInputStream is)
-            throws IOException
-    {
-        if (StringUtils.isEmpty(boundaryString))
-        {
-            return null;
-        }
-
-        final Path packagePartFile = Files.createTempFile("nupkg", "part");
-        try (OutputStream packagePartOutputStream = new BufferedOutputStream(Files.newOutputStream(packagePartFile)))
-        {
-
-            writePackagePart(boundaryString, is, packagePartOutputStream);
-        }
-
-        return new BufferedInputStream(Files.newInputStream(packagePartFile));
-    }
-
-    private void writePackagePart(String boundaryString,
-                                  InputStream is,
-                                  OutputStream packagePartOutputStream)
-        throws IOException
+    /**
+     * Receives the package part of the push request in a single pass where it's possible: the multipart body is
+     * parsed right from the request stream, and the `.nuspec`, which NuGet writes as one of the first package
+     * entries, is read from the head of the package. Once the package path is known, the head and the rest of the
+     * package are stored straight into the repository, and hashed on the way.
+     * <p>
+     * The packages which don't have the `.nuspec` within the first {@link #PACKAGE_HEAD_LIMIT} bytes are received into
+     * a temporary file first, so that it can be located with the ZIP central directory.
+     */
+    private URI storePackage(Repository repository,
+                             String contentType,
+                             InputStream is)
+        throws Exception
     {
         // According to the specification, the final Boundary of MultipartStream should be prefixed with
         // `0x0D0x0A0x2D0x2D` characters, but seems that Nuget command line tool has broken Multipart Boundary format.
         // We need to fix missing starting byte of ending Mulipart boundary (0x0D), which is incorrectly generated by
         // NuGet `push` implementation.
-        byte[] boundary = boundaryString.getBytes();
         byte[] boundaryPrefixToFix = {0x00, 0x0A, 0x2D, 0x2D};
         byte[] boundaryPrefixTarget = {0x00, 0x0D, 0x0A, 0x2D, 0x2D};
 
-        byte[] replacementPattern = new byte[boundary.length + 4];
-        byte[] replacementTarget = new byte[boundary.length + 5];
+        InputStream replacingIs = new ReplacingInputStream(is, boundaryPrefixToFix, boundaryPrefixTarget);
 
-        System.arraycopy(boundaryPrefixToFix, 0, replacementPattern, 0, 4);
-        System.arraycopy(boundaryPrefixTarget, 0, replacementTarget, 0, 5);
+        FileItemIterator parts = new FileUpload().getItemIterator(new PushRequestContext(contentType, replacingIs));
+        FileItemStream packagePart = parts.hasNext() ? parts.next() : null;
 
-        System.arraycopy(boundary, 0, replacementPattern, 4, boundary.length);
-        System.arraycopy(boundary, 0, replacementTarget, 4, boundary.length);
-
-        Path streamContentPath = Files.createTempFile("boundaryString", "nupkg");
-        ReplacingInputStream replacingIs = new ReplacingInputStream(is, boundaryPrefixToFix, boundaryPrefixTarget);
-        long len = Files.copy(replacingIs, streamContentPath,
-                   StandardCopyOption.REPLACE_EXISTING);
-        System.out.println(len);
+        // Package Multipart Header should be like follows:
+        // Content-Disposition: form-data; name="package";
+        // filename="package"
+        // Content-Type: application/octet-stream
+        if (packagePart == null ||
+            !"package".equals(packagePart.getFieldName()) && !"package".equals(packagePart.getName()))
+        {
+            logger.error("Invalid package multipart format");
+            return null;
+        }
 
-        try (InputStream streamContentIs = new BufferedInputStream(Files.newInputStream(streamContentPath)))
+        MessageDigest messageDigest = MessageDigest.getInstance(MessageDigestAlgorithms.SHA_512);
+        try (InputStream packageIs = new DigestInputStream(packagePart.openStream(), messageDigest))
         {
-            MultipartStream multipartStream = new MultipartStream(streamContentIs, boundary, 4096, null);
-            multipartStream.skipPreamble();
-            String header = multipartStream.readHeaders();
-
-            // Package Multipart Header should be like follows:
-            // Content-Disposition: form-data; name="package";
-            // filename="package"
-            // Content-Type: application/octet-stream
-            if (!header.contains("package"))
+            ByteArrayOutputStream packageHead = new ByteArrayOutputStream();
+            BoundedInputStream boundedIs = new BoundedInputStream(packageIs, PACKAGE_HEAD_LIMIT);
+            boundedIs.setPropagateClose(false);
+
+            Nuspec nuspec = readNuspec(new TeeInputStream(boundedIs, packageHead));
+            InputStream packageContent = new SequenceInputStream(new ByteArrayInputStream(packageHead.toByteArray()),
+                                                                 packageIs);
+            if (nuspec != null)
             {
-                logger.error("Invalid package multipart format");
-                return;
+                return storePackage(repository, nuspec, packageContent, messageDigest);
             }
 
-            int contentLength = multipartStream.readBodyData(packagePartOutputStream);
-            logger.info(String.format("NuGet package content length [%s]", contentLength));
+            try (TempNupkgFile nupkgFile = new TempNupkgFile(packageContent);
+                 InputStream nupkgIs = new BufferedInputStream(nupkgFile.getStream()))
+            {
+                return storePackage(repository, nupkgFile.getNuspec(), nupkgIs, messageDigest);
+            }
         }
     }
 
-    private URI storePackage(String storageId,
-                             String repositoryId,
-                             InputStream is)
-        throws Exception
+    /**
+     * @return the `.nuspec` from the head of the package, or null if it's not there
+     */
+    private Nuspec readNuspec(InputStream packageHead)
     {
-        try (TempNupkgFile nupkgFile = new TempNupkgFile(is))
+        try
         {
-            Nuspec nuspec = nupkgFile.getNuspec();
-            if (nuspec == null)
+            ZipInputStream zipIs = new ZipInputStream(packageHead);
+
+            ZipEntry entry;
+            while ((entry = zipIs.getNextEntry()) != null)
             {
-                return null;
+                if (!entry.isDirectory() && entry.getName().endsWith(Nuspec.DEFAULT_FILE_EXTENSION))
+                {
+                    return Nuspec.parse(new CloseShieldInputStream(zipIs));
+                }
             }
+        }
+        catch (IOException | NugetFormatException e)
+        {
+            logger.debug("Nuget package head doesn't contain the .nuspec file.", e);
+        }
+
+        return null;
+    }
+
+    /**
+     * @param packageDigest the SHA-512 digest which gets the package bytes while the package content is read
+     */
+    private URI storePackage(Repository repository,
+                             Nuspec nuspec,
+                             InputStream packageContent,
+                             MessageDigest packageDigest)
+        throws Exception
+    {
+        if (nuspec == null)
+        {
+            return null;
+        }
 
-            String nuspecId = nuspec.getId();
+        String nuspecId = nuspec.getId();
 
-            SemanticVersion nuspecVersion = nuspec.getVersion();
-            String path = String.format("%s/%s/%s.%s.nupkg",
-                                        nuspecId,
-                                        nuspecVersion,
-                                        nuspecId,
-                                        nuspecVersion);
+        SemanticVersion nuspecVersion = nuspec.getVersion();
+        String path = String.format("%s/%s/%s.%s.nupkg",
+                                    nuspecId,
+                                    nuspecVersion,
+                                    nuspecId,
+                                    nuspecVersion);
 
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            artifactManagementService.validateAndStore(repositoryPath, nupkgFile.getStream());
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, path);
+        artifactManagementService.validateAndStore(repositoryPath, packageContent);
 
-            Path nuspecFile = Files.createTempFile(nuspec.getId(), "nuspec");
-            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(nuspecFile)))
-            {
-                nuspec.saveTo(outputStream);
-            }
-            path = String.format("%s/%s/%s.nuspec", nuspecId, nuspecVersion, nuspecId);
-            repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            try (InputStream bis = new BufferedInputStream(Files.newInputStream(nuspecFile)))
-            {
-                artifactManagementService.validateAndStore(repositoryPath, bis);
-            }
+        String hash = Base64.getEncoder().encodeToString(packageDigest.digest());
 
-            Path hashFile = Files.createTempFile(String.format("%s.%s", nuspecId, nuspecVersion),
-                                                "nupkg.sha512");
+        ByteArrayOutputStream nuspecContent = new ByteArrayOutputStream();
+        nuspec.saveTo(nuspecContent);
 
-            try (OutputStream bos = new BufferedOutputStream(Files.newOutputStream(hashFile)))
-            {
-                Writer writer = new OutputStreamWriter(bos);
-                writer.write(nupkgFile.getHash());
-                writer.flush();
-                bos.flush();
-            }
+        path = String.format("%s/%s/%s.nuspec", nuspecId, nuspecVersion, nuspecId);
+        repositoryPath = repositoryPathResolver.resolve(repository, path);
+        artifactManagementService.validateAndStore(repositoryPath,
+                                                   new ByteArrayInputStream(nuspecContent.toByteArray()));
 
-            path = String.format("%s/%s/%s.%s.nupkg.sha512",
-                                 nuspecId,
-                                 nuspecVersion,
-                                 nuspecId,
-                                 nuspecVersion);
-            repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
-            try (InputStream bis = new BufferedInputStream(Files.newInputStream(hashFile)))
-            {
-                artifactManagementService.validateAndStore(repositoryPath, bis);
-            }
-        }
+        path = String.format("%s/%s/%s.%s.nupkg.sha512",
+                             nuspecId,
+                             nuspecVersion,
+                             nuspecId,
+                             nuspecVersion);
+        repositoryPath = repositoryPathResolver.resolve(repository, path);
+        artifactManagementService.validateAndStore(repositoryPath,
+                                                   new ByteArrayInputStream(hash.getBytes(StandardCharsets.UTF_8)));
 
         return new URI("");
     }
 
+    /**
+     * The push request, with the fixed multipart body.
+     */
+    private static class PushRequestContext
+            implements RequestContext
+    {
+
+        private final String contentType;
+
+        private final InputStream inputStream;
+
+        private PushRequestContext(String contentType,
+                                   InputStream inputStream)
+        {
+            this.contentType = contentType;
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public String getCharacterEncoding()
+        {
+            return null;
+        }
+
+        @Override
+        public String getContentType()
+        {
+            return contentType;
+        }
+
+        @Override
+        @Deprecated
+        public int getContentLength()
+        {
+            return -1;
+        }
+
+        @Override
+        public InputStream getInputStream()
+        {
+            return inputStream;
+        }
+
+    }
+
     private String normaliseSearchTerm(String sourceValue)
     {
         if (sourceValue == null)
@@ -0,0 +1,146 @@
+package org.carlspring.strongbox.controllers.layout.pypi;
+
+import org.carlspring.strongbox.controllers.BaseArtifactController;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.PypiLayoutProvider;
+import org.carlspring.strongbox.pypi.simple.PypiSimpleIndex;
+import org.carlspring.strongbox.pypi.simple.PypiSimplePage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.web.LayoutRequestMapping;
+import org.carlspring.strongbox.web.RepositoryMapping;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.MediaType;
+import java.net.HttpURLConnection;
+import java.net.URI;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * This Controller is used to handle the PEP 503 simple repository API requests of the pip clients.
+ */
+@RestController
+@LayoutRequestMapping(PypiLayoutProvider.ALIAS)
+public class PypiArtifactController
+        extends BaseArtifactController
+{
+
+    @Inject
+    private PypiSimpleIndex pypiSimpleIndex;
+
+    @ApiOperation(value = "Used to list the projects of the repository")
+    @ApiResponses(value = { @ApiResponse(code = HttpURLConnection.HTTP_OK, message = "The request was successfull."),
+                            @ApiResponse(code = HttpURLConnection.HTTP_MOVED_PERM, message = "The URL has no trailing slash."),
+                            @ApiResponse(code = HttpURLConnection.HTTP_NOT_MODIFIED, message = "The page was not modified."),
+                            @ApiResponse(code = HttpURLConnection.HTTP_NOT_FOUND, message = "The repository has no simple index.") })
+    @PreAuthorize("hasAuthority('ARTIFACTS_RESOLVE')")
+    @RequestMapping(path = { "{storageId}/{repositoryId}/simple", "{storageId}/{repositoryId}/simple/" },
+                    method = { RequestMethod.GET, RequestMethod.HEAD },
+                    produces = MediaType.TEXT_HTML)
+    public ResponseEntity<byte[]> simpleIndex(@RepositoryMapping Repository repository,
+                                              HttpServletRequest request)
+    {
+        if (!pypiSimpleIndex.supports(repository))
+        {
+            return ResponseEntity.notFound().build();
+        }
+
+        // The project links of the page are relative to `simple/`.
+        String requestUri = request.getRequestURI();
+        if (!requestUri.endsWith("/"))
+        {
+            return redirect(requestUri + "/");
+        }
+
+        return toResponse(pypiSimpleIndex.getRootPage(repository));
+    }
+
+    @ApiOperation(value = "Used to list the distribution files of the project")
+    @ApiResponses(value = { @ApiResponse(code = HttpURLConnection.HTTP_OK, message = "The request was successfull."),
+                            @ApiResponse(code = HttpURLConnection.HTTP_MOVED_PERM, message = "The project name is not normalized, or the URL has no trailing slash."),
+                            @ApiResponse(code = HttpURLConnection.HTTP_NOT_MODIFIED, message = "The page was not modified."),
+                            @ApiResponse(code = HttpURLConnection.HTTP_NOT_FOUND, message = "The project was not found.") })
+    @PreAuthorize("hasAuthority('ARTIFACTS_RESOLVE')")
+    @RequestMapping(path = { "{storageId}/{repositoryId}/simple/{project}", "{storageId}/{repositoryId}/simple/{project}/" },
+                    method = { RequestMethod.GET, RequestMethod.HEAD },
+                    produces = MediaType.TEXT_HTML)
+    public ResponseEntity<byte[]> simpleProject(@RepositoryMapping Repository repository,
+                                                @ApiParam(value = "The project name", required = true)
+                                                @PathVariable(name = "project") String project,
+                                                HttpServletRequest request)
+    {
+        if (!pypiSimpleIndex.supports(repository))
+        {
+            return ResponseEntity.notFound().build();
+        }
+
+        // The distribution links of the page are relative to the canonical `simple/{project}/` URL.
+        String requestUri = request.getRequestURI();
+        String normalizedProject = PypiSimpleIndex.normalize(project);
+        if (!requestUri.endsWith("/") || !normalizedProject.equals(project))
+        {
+            String simpleUri = StringUtils.removeEnd(requestUri, "/");
+            simpleUri = simpleUri.substring(0, simpleUri.lastIndexOf('/') + 1);
+
+            return redirect(simpleUri + normalizedProject + "/");
+        }
+
+        PypiSimplePage page = pypiSimpleIndex.getProjectPage(repository, project);
+        if (page == null)
+        {
+            return ResponseEntity.notFound().build();
+        }
+
+        return toResponse(page);
+    }
+
+    @ApiOperation(value = "Used to download a distribution file")
+    @ApiResponses(value = { @ApiResponse(code = HttpURLConnection.HTTP_OK, message = "The request was successfull."),
+                            @ApiResponse(code = HttpURLConnection.HTTP_NOT_FOUND, message = "The requested path was not found.") })
+    @PreAuthorize("hasAuthority('ARTIFACTS_RESOLVE')")
+    @RequestMapping(path = "{storageId}/{repositoryId}/{path:.+}", method = { RequestMethod.GET, RequestMethod.HEAD })
+    public void download(@RepositoryMapping Repository repository,
+                         @PathVariable String path,
+                         @RequestHeader HttpHeaders httpHeaders,
+                         HttpServletRequest request,
+                         HttpServletResponse response)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        logger.debug("Requested /{}/{}/{}.", storageId, repositoryId, path);
+
+        RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, path);
+        provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
+    }
+
+    private ResponseEntity<byte[]> redirect(String location)
+    {
+        return ResponseEntity.status(HttpStatus.MOVED_PERMANENTLY)
+                             .location(URI.create(location))
+                             .build();
+    }
+
+    /**
+     * The `If-None-Match` revalidation is handled by Spring for the responses with an entity tag.
+     */
+    private ResponseEntity<byte[]> toResponse(PypiSimplePage page)
+    {
+        return ResponseEntity.ok()
+                             .eTag(page.getETag())
+                             .contentType(org.springframework.http.MediaType.TEXT_HTML)
+                             .body(page.getContent());
+    }
+
+}
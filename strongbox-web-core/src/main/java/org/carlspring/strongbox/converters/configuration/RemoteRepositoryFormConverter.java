@@ -26,6 +26,10 @@ public enum RemoteRepositoryFormConverter
         result.setPassword(source.getPassword());
         result.setChecksumPolicy(source.getChecksumPolicy());
         result.setCheckIntervalSeconds(source.getCheckIntervalSeconds());
+        if (source.getStaleWhileRevalidateSeconds() != null)
+        {
+            result.setStaleWhileRevalidateSeconds(source.getStaleWhileRevalidateSeconds());
+        }
         result.setAllowsDirectoryBrowsing(source.isAllowsDirectoryBrowsing());
         result.setAutoImportRemoteSSLCertificate(source.isAutoImportRemoteSSLCertificate());
         return result;
@@ -5,11 +5,12 @@ import org.carlspring.strongbox.artifact.MavenArtifactUtils;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.web.RepositoryPathRequestContext;
+import org.carlspring.strongbox.web.RepositoryPathRequestContext.RepositoryPathType;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
@@ -58,18 +59,28 @@ public class MavenArtifactRequestInterceptor
         {
             return true;
         }
-        final RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, artifactPath);
-        if (Files.exists(repositoryPath) && Files.isDirectory(repositoryPath))
+        // The path is resolved and stat-ed once here, and reused by the controller.
+        final RepositoryPathRequestContext context = RepositoryPathRequestContext.resolve(request,
+                                                                                          repositoryPathResolver,
+                                                                                          repository,
+                                                                                          artifactPath);
+        if (context.isDirectory())
         {
             response.sendError(BAD_REQUEST.value(), "The specified path is a directory!");
             return false;
         }
+        final RepositoryPath repositoryPath = context.getRepositoryPath();
         final String filename = repositoryPath.getFileName().toString();
         if (MAVEN_METADATA_XML.equals(filename) ||
             MAVEN_METADATA_XML_CHECKSUM_MD5.equals(filename) ||
-            MAVEN_METADATA_XML_CHECKSUM_SHA1.equals(filename) ||
-            filename.startsWith(IndexingContext.INDEX_FILE_PREFIX))
+            MAVEN_METADATA_XML_CHECKSUM_SHA1.equals(filename))
         {
+            context.setType(RepositoryPathType.METADATA);
+            return true;
+        }
+        if (filename.startsWith(IndexingContext.INDEX_FILE_PREFIX))
+        {
+            context.setType(RepositoryPathType.INDEX);
             return true;
         }
         boolean isValidGavPath = MavenArtifactUtils.isGAV(repositoryPath);
@@ -103,6 +114,7 @@ public class MavenArtifactRequestInterceptor
                                "The specified path is invalid. Maven artifact type not recognized.");
             return false;
         }
+        context.setType(RepositoryPathType.ARTIFACT);
 
         return true;
     }
@@ -18,6 +18,19 @@ public interface DirectoryListingService
 
     DirectoryListing fromRepositoryPath(RepositoryPath path)
         throws IOException;
+
+    /**
+     * Lists a single page of the directory content, sorted by name.
+     *
+     * @param path   the directory to list
+     * @param cursor the last name of the previous page, or {@code null} for the first page
+     * @param limit  the page size, a non positive value lists the whole directory
+     * @return the page, with {@link DirectoryListing#getNextCursor()} set if there are more entries
+     */
+    DirectoryListing fromRepositoryPath(RepositoryPath path,
+                                        String cursor,
+                                        int limit)
+        throws IOException;
     
     DirectoryListing fromPath(Path root, Path path)
             throws IOException;
@@ -3,21 +3,21 @@ package org.carlspring.strongbox.services;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.PriorityQueue;
 
 import org.apache.commons.lang.StringUtils;
 import org.carlspring.strongbox.domain.DirectoryListing;
 import org.carlspring.strongbox.domain.FileContent;
-import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -79,83 +79,136 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
     public DirectoryListing fromRepositoryPath(RepositoryPath path)
         throws IOException
     {
-        return fromPath(path);
+        return fromPath(path, null, 0);
     }
 
-    private DirectoryListing fromPath(Path path)
+    @Override
+    public DirectoryListing fromRepositoryPath(RepositoryPath path,
+                                               String cursor,
+                                               int limit)
+        throws IOException
+    {
+        return fromPath(path, cursor, limit);
+    }
+
+    private DirectoryListing fromPath(Path path,
+                                      String cursor,
+                                      int limit)
         throws IOException
     {
         path = path.normalize();
 
         DirectoryListing directoryListing = new DirectoryListing();
 
-        Map<String, List<FileContent>> content = generateDirectoryListing(path);
+        List<Path> contentPaths = listPage(path, cursor, limit);
+        if (limit > 0 && contentPaths.size() > limit)
+        {
+            contentPaths = contentPaths.subList(0, limit);
+            directoryListing.setNextCursor(contentPaths.get(limit - 1).getFileName().toString());
+        }
 
-        directoryListing.setDirectories(content.get("directories"));
-        directoryListing.setFiles(content.get("files"));
+        for (Path contentPath : contentPaths)
+        {
+            // Only the basic attributes are needed here, the repository level ones
+            // (like `strongbox:*`) would lookup the artifact entry for every file.
+            BasicFileAttributes fileAttributes = Files.readAttributes(contentPath, BasicFileAttributes.class);
+
+            FileContent file = createFileContent(contentPath, fileAttributes);
+            if (fileAttributes.isDirectory())
+            {
+                directoryListing.getDirectories().add(file);
+            }
+            else
+            {
+                directoryListing.getFiles().add(file);
+            }
+        }
 
         return directoryListing;
     }
 
-    private Map<String, List<FileContent>> generateDirectoryListing(Path path)
+    /**
+     * Scans the directory and keeps only the (at most `limit + 1`) first entries
+     * following the `cursor` in file name order, so that the memory needed
+     * doesn't depend on the directory size. The extra entry tells whether there
+     * is a next page.
+     */
+    private List<Path> listPage(Path path,
+                                String cursor,
+                                int limit)
         throws IOException
     {
-        List<FileContent> directories = new ArrayList<>();
-        List<FileContent> files = new ArrayList<>();
+        Comparator<Path> byName = Comparator.comparing((Path p) -> p.getFileName().toString());
+        PriorityQueue<Path> page = new PriorityQueue<>(byName.reversed());
 
-        List<Path> contentPaths;
-        try (Stream<Path> pathStream = Files.list(path))
-        {
-            contentPaths = pathStream
-                                   .filter(p -> !p.toFile().getName().startsWith("."))
-                                   .filter(p -> {
-                                       try
-                                       {
-                                           return !Files.isHidden(p);
-                                       }
-                                       catch (IOException e)
-                                       {
-                                           logger.debug("Error accessing path {}", p);
-                                           return false;
-                                       }
-                                   })
-                                   .sorted()
-                                   .collect(Collectors.toList());
-        }
+        DirectoryStream.Filter<Path> filter = p -> {
+            String name = p.getFileName().toString();
+            if (name.startsWith(".") || cursor != null && name.compareTo(cursor) <= 0)
+            {
+                return false;
+            }
 
-        for (Path contentPath : contentPaths)
-        {
-            FileContent file = new FileContent(contentPath.getFileName().toString());
+            try
+            {
+                return !Files.isHidden(p);
+            }
+            catch (IOException e)
+            {
+                logger.debug("Error accessing path {}", p);
+                return false;
+            }
+        };
 
-            Map<String, Object> fileAttributes = Files.readAttributes(contentPath, "*");
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(path, filter))
+        {
+            for (Path contentPath : directoryStream)
+            {
+                page.add(contentPath);
+                if (limit > 0 && page.size() > limit + 1)
+                {
+                    page.poll();
+                }
+            }
+        }
 
-            file.setStorageId((String) fileAttributes.get(RepositoryFileAttributeType.STORAGE_ID.getName()));
-            file.setRepositoryId((String) fileAttributes.get(RepositoryFileAttributeType.REPOSITORY_ID.getName()));
+        List<Path> result = new ArrayList<>(page);
+        result.sort(byName);
 
-            file.setArtifactPath((String) fileAttributes.get("artifactPath"));
+        return result;
+    }
 
-            if (Boolean.TRUE.equals(fileAttributes.get("isDirectory")))
-            {
-                file.setUrl(calculateDirectoryUrl(file));
+    private FileContent createFileContent(Path contentPath,
+                                          BasicFileAttributes fileAttributes)
+        throws IOException
+    {
+        FileContent file = new FileContent(contentPath.getFileName().toString());
 
-                directories.add(file);
+        RepositoryPath repositoryPath = contentPath instanceof RepositoryPath ? (RepositoryPath) contentPath : null;
+        if (repositoryPath != null)
+        {
+            Repository repository = repositoryPath.getRepository();
 
-                continue;
-            }
+            file.setStorageId(repository.getStorage().getId());
+            file.setRepositoryId(repository.getId());
+            file.setArtifactPath(RepositoryFiles.relativizePath(repositoryPath));
+        }
 
-            file.setUrl((URL) fileAttributes.get(RepositoryFileAttributeType.RESOURCE_URL.getName()));
+        if (fileAttributes.isDirectory())
+        {
+            file.setUrl(calculateDirectoryUrl(file));
 
-            file.setLastModified(new Date(((FileTime) fileAttributes.get("lastModifiedTime")).toMillis()));
-            file.setSize((Long) fileAttributes.get("size"));
+            return file;
+        }
 
-            files.add(file);
+        if (repositoryPath != null)
+        {
+            file.setUrl(RepositoryFiles.readResourceUrl(repositoryPath));
         }
 
-        Map<String, List<FileContent>> listing = new HashMap<>();
-        listing.put("directories", directories);
-        listing.put("files", files);
+        file.setLastModified(new Date(fileAttributes.lastModifiedTime().toMillis()));
+        file.setSize(fileAttributes.size());
 
-        return listing;
+        return file;
     }
 
     /**
@@ -185,7 +238,7 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
             throw new RuntimeException(message);
         }
 
-        return fromPath(path);
+        return fromPath(path, null, 0);
     }
 
     private URL calculateDirectoryUrl(FileContent file)
@@ -13,6 +13,7 @@ import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -144,12 +145,28 @@ public class ArtifactControllerHelper
                                               RepositoryPath path)
         throws IOException
     {
-        if (path == null || !Files.exists(path) || Files.isDirectory(path))
+        if (path == null)
+        {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        // Attributes are read once, instead of checking existence and type of the path separately.
+        RepositoryFileAttributes fileAttributes;
+        try
+        {
+            fileAttributes = Files.readAttributes(path, RepositoryFileAttributes.class);
+        }
+        catch (NoSuchFileException e)
+        {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (fileAttributes.isDirectory())
         {
             response.setStatus(HttpStatus.NOT_FOUND.value());
             return;
         }
-        RepositoryFileAttributes fileAttributes = Files.readAttributes(path, RepositoryFileAttributes.class);
 
         response.setHeader("Content-Length", String.valueOf(fileAttributes.size()));
         response.setHeader("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(
@@ -14,6 +14,8 @@ public final class Constants
 
     public static final String REPOSITORY_REQUEST_ATTRIBUTE = Constants.class.getName() + ".repository";
 
+    public static final String REPOSITORY_PATH_REQUEST_ATTRIBUTE = Constants.class.getName() + ".repositoryPath";
+
     public static final String STORAGE_NOT_FOUND_REQUEST_ATTRIBUTE = Constants.class.getName() + ".storageNotFound";
 
     public static final String REPOSITORY_NOT_FOUND_REQUEST_ATTRIBUTE =
@@ -0,0 +1,166 @@
+package org.carlspring.strongbox.web;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+import static org.carlspring.strongbox.web.Constants.REPOSITORY_PATH_REQUEST_ATTRIBUTE;
+
+/**
+ * The {@link RepositoryPath} of the artifact request, which is resolved, stat-ed and classified once (see
+ * {@link #resolve(HttpServletRequest, RepositoryPathResolver, Repository, String)}), and then shared within the
+ * request by the interceptors and the controllers.
+ * <p>
+ * Note that the file attributes reflect the state of the path before the request was handled, so they can't be used
+ * once the path has been fetched from the remote or stored.
+ *
+ * @see org.carlspring.strongbox.interceptors.MavenArtifactRequestInterceptor
+ */
+public class RepositoryPathRequestContext
+{
+
+    private final String storageId;
+
+    private final String repositoryId;
+
+    private final String path;
+
+    private final RepositoryPath repositoryPath;
+
+    private final BasicFileAttributes attributes;
+
+    private RepositoryPathType type = RepositoryPathType.UNKNOWN;
+
+    private RepositoryPathRequestContext(Repository repository,
+                                         String path,
+                                         RepositoryPath repositoryPath,
+                                         BasicFileAttributes attributes)
+    {
+        this.storageId = repository.getStorage().getId();
+        this.repositoryId = repository.getId();
+        this.path = path;
+        this.repositoryPath = repositoryPath;
+        this.attributes = attributes;
+
+        if (attributes != null && attributes.isDirectory())
+        {
+            type = RepositoryPathType.DIRECTORY;
+        }
+    }
+
+    /**
+     * @return the context of the current request, if the same path has been resolved already, or the new one
+     * @throws IOException if the attributes of an existing path can't be read
+     */
+    public static RepositoryPathRequestContext resolve(HttpServletRequest request,
+                                                       RepositoryPathResolver repositoryPathResolver,
+                                                       Repository repository,
+                                                       String path)
+            throws IOException
+    {
+        RepositoryPathRequestContext context = lookup(request, repository, path);
+        if (context != null)
+        {
+            return context;
+        }
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, path);
+        context = new RepositoryPathRequestContext(repository, path, repositoryPath, readAttributes(repositoryPath));
+        request.setAttribute(REPOSITORY_PATH_REQUEST_ATTRIBUTE, context);
+
+        return context;
+    }
+
+    /**
+     * @return the context of the current request, or `null` if the given path hasn't been resolved within it
+     */
+    public static RepositoryPathRequestContext lookup(HttpServletRequest request,
+                                                      Repository repository,
+                                                      String path)
+    {
+        Object context = request.getAttribute(REPOSITORY_PATH_REQUEST_ATTRIBUTE);
+        if (!(context instanceof RepositoryPathRequestContext))
+        {
+            return null;
+        }
+
+        RepositoryPathRequestContext result = (RepositoryPathRequestContext) context;
+
+        return result.storageId.equals(repository.getStorage().getId())
+                && result.repositoryId.equals(repository.getId())
+                && Objects.equals(result.path, path) ? result : null;
+    }
+
+    private static BasicFileAttributes readAttributes(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        // Single stat instead of `Files.exists()` followed by `Files.isDirectory()`.
+        try
+        {
+            return Files.readAttributes(repositoryPath, BasicFileAttributes.class);
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+    }
+
+    public RepositoryPath getRepositoryPath()
+    {
+        return repositoryPath;
+    }
+
+    /**
+     * @return the attributes of the path, or `null` if it doesn't exist
+     */
+    public BasicFileAttributes getAttributes()
+    {
+        return attributes;
+    }
+
+    public boolean exists()
+    {
+        return attributes != null;
+    }
+
+    public boolean isDirectory()
+    {
+        return type == RepositoryPathType.DIRECTORY;
+    }
+
+    public RepositoryPathType getType()
+    {
+        return type;
+    }
+
+    public void setType(RepositoryPathType type)
+    {
+        this.type = type;
+    }
+
+    /**
+     * Classification of the requested path, which is done by the layout specific interceptors.
+     */
+    public enum RepositoryPathType
+    {
+
+        DIRECTORY,
+
+        METADATA,
+
+        INDEX,
+
+        ARTIFACT,
+
+        UNKNOWN
+
+    }
+
+}
@@ -29,6 +29,7 @@ import static org.carlspring.strongbox.rest.client.RestAssuredArtifactClient.OK;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -42,6 +43,8 @@ public class BrowseControllerTest
 
     private static final String REPOSITORY = "browsing-test-repository";
 
+    private static final String REPOSITORY_PAGINATION = "browsing-test-pagination";
+
     @Override
     @BeforeEach
     public void init()
@@ -194,6 +197,62 @@ public class BrowseControllerTest
         assertTrue(htmlResponse.contains(link), "Expected to have found [ " + link + " ] in the response html");
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testRepositoryContentsPagination(@MavenRepository(repositoryId = REPOSITORY_PAGINATION)
+                                                 Repository repository,
+                                                 @MavenTestArtifact(repositoryId = REPOSITORY_PAGINATION,
+                                                                    id = "org.carlspring.strongbox.browsing:test-paging",
+                                                                    versions = { "1.0" })
+                                                 List<Path> artifactsPaths)
+            throws IOException
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        String url = getContextBaseUrl() + "/{storageId}/{repositoryId}/{artifactPath}";
+
+        RepositoryPath artifactParentPath = (RepositoryPath) artifactsPaths.get(0).normalize().getParent();
+        String artifactParentPathStr = RepositoryFiles.relativizePath(artifactParentPath);
+
+        DirectoryListing firstPage = given().accept(MediaType.APPLICATION_JSON_VALUE)
+                                            .params("limit", 4)
+                                            .when()
+                                            .get(url, storageId, repositoryId, artifactParentPathStr)
+                                            .prettyPeek()
+                                            .as(DirectoryListing.class);
+
+        assertEquals(4, firstPage.getFiles().size(), "Invalid page size");
+        assertEquals("test-paging-1.0.jar", firstPage.getFiles().get(0).getName());
+        assertNotNull(firstPage.getNextCursor(), "Next page cursor expected");
+        assertEquals(firstPage.getFiles().get(3).getName(), firstPage.getNextCursor());
+
+        DirectoryListing lastPage = given().accept(MediaType.APPLICATION_JSON_VALUE)
+                                           .params("limit", 4, "cursor", firstPage.getNextCursor())
+                                           .when()
+                                           .get(url, storageId, repositoryId, artifactParentPathStr)
+                                           .prettyPeek()
+                                           .as(DirectoryListing.class);
+
+        assertEquals(2, lastPage.getFiles().size(), "Invalid page size");
+        assertTrue(lastPage.getFiles()
+                           .stream()
+                           .allMatch(f -> f.getName().compareTo(firstPage.getNextCursor()) > 0),
+                   "Pages should not overlap");
+        assertNull(lastPage.getNextCursor(), "Last page should not have a cursor");
+
+        String htmlResponse = given().accept(MediaType.TEXT_HTML_VALUE)
+                                     .params("limit", 4)
+                                     .when()
+                                     .get(url + "/", storageId, repositoryId, artifactParentPathStr)
+                                     .prettyPeek()
+                                     .asString();
+
+        assertTrue(htmlResponse.contains("cursor=" + firstPage.getNextCursor()),
+                   "Expected to have found the next page link in the response html");
+    }
+
     @Test
     public void testRepositoryContentsWithRepositoryNotFound()
     {
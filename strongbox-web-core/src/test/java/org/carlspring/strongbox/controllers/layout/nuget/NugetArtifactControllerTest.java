@@ -14,13 +14,16 @@ import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecution
 import org.carlspring.strongbox.testing.artifact.NugetTestArtifact;
 import org.carlspring.strongbox.testing.repository.NugetRepository;
 import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Group;
 
 import javax.inject.Inject;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -56,6 +59,12 @@ public class NugetArtifactControllerTest extends NugetRestAssuredBaseTest
 
     private static final String REPOSITORY_RELEASES_1 = "nuget-test-releases";
 
+    private static final String REPOSITORY_KEYSET_1 = "nuget-test-keyset-1";
+
+    private static final String REPOSITORY_KEYSET_2 = "nuget-test-keyset-2";
+
+    private static final String REPOSITORY_KEYSET_GROUP = "nuget-test-keyset-group";
+
     @Inject
     private ArtifactEntryService artifactEntryService;
 
@@ -315,6 +324,81 @@ public class NugetArtifactControllerTest extends NugetRestAssuredBaseTest
                .body("feed.entry[0].title", equalTo(coordinates.getId()));
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testGroupPackageSearchWithSkipToken(@NugetRepository(storageId = STORAGE_ID,
+                                                                     repositoryId = REPOSITORY_KEYSET_1)
+                                                    Repository repository1,
+                                                    @NugetTestArtifact(storageId = STORAGE_ID,
+                                                                       repositoryId = REPOSITORY_KEYSET_1,
+                                                                       id = "Org.Carlspring.Strongbox.Nuget.Test.Keyset",
+                                                                       versions = { "1.0.0",
+                                                                                    "1.0.1",
+                                                                                    "1.0.2" })
+                                                    List<Path> packagePaths1,
+                                                    @NugetRepository(storageId = STORAGE_ID,
+                                                                     repositoryId = REPOSITORY_KEYSET_2)
+                                                    Repository repository2,
+                                                    @NugetTestArtifact(storageId = STORAGE_ID,
+                                                                       repositoryId = REPOSITORY_KEYSET_2,
+                                                                       id = "Org.Carlspring.Strongbox.Nuget.Test.Keyset",
+                                                                       versions = { "1.0.1",
+                                                                                    "1.0.2",
+                                                                                    "1.0.3" })
+                                                    List<Path> packagePaths2,
+                                                    @Group(repositories = { REPOSITORY_KEYSET_1,
+                                                                            REPOSITORY_KEYSET_2 })
+                                                    @NugetRepository(storageId = STORAGE_ID,
+                                                                     repositoryId = REPOSITORY_KEYSET_GROUP)
+                                                    Repository repositoryGroup)
+    {
+        final String storageId = repositoryGroup.getStorage().getId();
+        final String repositoryId = repositoryGroup.getId();
+
+        String url = getContextBaseUrl() +
+                     "/storages/{storageId}/{repositoryId}/Search()?$top={top}&searchTerm={searchTerm}&targetFramework=";
+
+        // Without the `$skiptoken` the search is paged by offset, as before.
+        PackageFeed feed = given().header(HttpHeaders.USER_AGENT, "NuGet/*")
+                                  .when()
+                                  .get(url, storageId, repositoryId, 2, "Test.Keyset")
+                                  .then()
+                                  .statusCode(HttpStatus.OK.value())
+                                  .extract()
+                                  .as(PackageFeed.class);
+        assertEquals(2, feed.getEntries().size());
+        assertNull(feed.getNextLink());
+
+        // The empty `$skiptoken` starts from the first page, and the next pages are requested by the `next` links.
+        List<String> versions = new ArrayList<>();
+        String nextLink = getContextBaseUrl() + String.format("/storages/%s/%s/Search()?$top=2&$skiptoken=" +
+                                                              "&searchTerm=Test.Keyset&targetFramework=",
+                                                              storageId, repositoryId);
+        for (int i = 0; nextLink != null && i < 10; i++)
+        {
+            feed = given().header(HttpHeaders.USER_AGENT, "NuGet/*")
+                          .when()
+                          .get(nextLink)
+                          .then()
+                          .statusCode(HttpStatus.OK.value())
+                          .extract()
+                          .as(PackageFeed.class);
+            feed.getEntries().forEach(e -> versions.add(e.getProperties().getVersion().toString()));
+            nextLink = feed.getNextLink();
+        }
+
+        // The packages, which are present within both members, are listed once.
+        assertEquals(4, versions.size());
+        assertEquals(new HashSet<>(versions).size(), versions.size());
+
+        given().header(HttpHeaders.USER_AGENT, "NuGet/*")
+               .when()
+               .get(url + "&$skiptoken={skipToken}", storageId, repositoryId, 2, "Test.Keyset", "not-a-token")
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
     @Test
@@ -0,0 +1,114 @@
+package org.carlspring.strongbox.controllers.layout.pypi;
+
+import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.rest.common.PypiRestAssuredBaseTest;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.PypiTestArtifact;
+import org.carlspring.strongbox.testing.repository.PypiTestRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+
+@IntegrationTest
+public class PypiArtifactControllerTest
+        extends PypiRestAssuredBaseTest
+{
+
+    private static final String REPOSITORY_RELEASES = "pact-releases";
+
+    private static final String PROJECT = "pact_package";
+
+    @Override
+    @BeforeEach
+    public void init()
+            throws Exception
+    {
+        super.init();
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testSimpleIndex(@PypiTestRepository(repositoryId = REPOSITORY_RELEASES)
+                                Repository repository,
+                                @PypiTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                  id = PROJECT,
+                                                  versions = "1.0.0")
+                                Path artifactPath)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        final String simplePath = String.format("/storages/%s/%s/simple/", storageId, repositoryId);
+
+        // The relative links only resolve from the canonical URLs.
+        given().when()
+               .get(getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/simple", storageId, repositoryId)
+               .then()
+               .statusCode(HttpStatus.MOVED_PERMANENTLY.value())
+               .header(HttpHeaders.LOCATION, equalTo(simplePath));
+
+        given().when()
+               .get(getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/simple/{project}",
+                    storageId, repositoryId, "pact-package")
+               .then()
+               .statusCode(HttpStatus.MOVED_PERMANENTLY.value())
+               .header(HttpHeaders.LOCATION, equalTo(simplePath + "pact-package/"));
+
+        given().when()
+               .get(getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/simple/{project}/",
+                    storageId, repositoryId, "Pact.Package")
+               .then()
+               .statusCode(HttpStatus.MOVED_PERMANENTLY.value())
+               .header(HttpHeaders.LOCATION, equalTo(simplePath + "pact-package/"));
+
+        given().when()
+               .get(getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/simple/", storageId, repositoryId)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body(containsString("<a href=\"pact-package/\">pact_package</a>"));
+
+        String eTag = given().when()
+                             .get(getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/simple/{project}/",
+                                  storageId, repositoryId, "pact-package")
+                             .then()
+                             .statusCode(HttpStatus.OK.value())
+                             .body(containsString("href=\"../../pact_package/1.0.0/pact_package-1.0.0-py3-none-any.whl#sha256="))
+                             .body(containsString("data-requires-python=\"&gt;=3.6\""))
+                             .extract()
+                             .header(HttpHeaders.ETAG);
+
+        given().header(HttpHeaders.IF_NONE_MATCH, eTag)
+               .when()
+               .get(getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/simple/{project}/",
+                    storageId, repositoryId, "pact-package")
+               .then()
+               .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        given().when()
+               .get(getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/simple/{project}/",
+                    storageId, repositoryId, "unknown")
+               .then()
+               .statusCode(HttpStatus.NOT_FOUND.value());
+
+        // The link of the project page, resolved against `simple/pact-package/`.
+        given().when()
+               .get(getContextBaseUrl() + "/storages/{storageId}/{repositoryId}/" +
+                    "pact_package/1.0.0/pact_package-1.0.0-py3-none-any.whl", storageId, repositoryId)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .header(HttpHeaders.CONTENT_LENGTH, equalTo(String.valueOf(Files.size(artifactPath))));
+    }
+
+}
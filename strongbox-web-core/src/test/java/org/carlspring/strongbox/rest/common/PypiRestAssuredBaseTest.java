@@ -0,0 +1,54 @@
+package org.carlspring.strongbox.rest.common;
+
+import java.util.Collection;
+
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.rest.client.RestAssuredArtifactClient;
+import org.carlspring.strongbox.users.domain.Privileges;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.context.WebApplicationContext;
+
+public abstract class PypiRestAssuredBaseTest
+{
+
+    /**
+     * Share logger instance across all tests.
+     */
+    protected final Logger logger = LoggerFactory.getLogger(getClass().getName());
+
+    @Inject
+    protected WebApplicationContext context;
+
+    @Inject
+    protected RestAssuredArtifactClient client;
+
+    @Value("${strongbox.url}")
+    private String contextBaseUrl;
+
+    public void init()
+            throws Exception
+    {
+        client.setUserAgent("pip/*");
+        client.setContextBaseUrl(contextBaseUrl);
+    }
+
+    public String getContextBaseUrl()
+    {
+        return contextBaseUrl;
+    }
+
+    public void setContextBaseUrl(String contextBaseUrl)
+    {
+        this.contextBaseUrl = contextBaseUrl;
+    }
+
+    protected Collection<? extends GrantedAuthority> provideAuthorities()
+    {
+        return Privileges.all();
+    }
+
+}
@@ -29,6 +29,9 @@ public class RemoteRepositoryForm
     @PositiveOrZero(message = "A checkIntervalSeconds must be positive or zero.")
     private Integer checkIntervalSeconds;
 
+    @PositiveOrZero(message = "A staleWhileRevalidateSeconds must be positive or zero.")
+    private Integer staleWhileRevalidateSeconds;
+
     private boolean allowsDirectoryBrowsing = true;
 
     private boolean autoImportRemoteSSLCertificate;
@@ -83,6 +86,16 @@ public class RemoteRepositoryForm
         this.checkIntervalSeconds = checkIntervalSeconds;
     }
 
+    public Integer getStaleWhileRevalidateSeconds()
+    {
+        return staleWhileRevalidateSeconds;
+    }
+
+    public void setStaleWhileRevalidateSeconds(Integer staleWhileRevalidateSeconds)
+    {
+        this.staleWhileRevalidateSeconds = staleWhileRevalidateSeconds;
+    }
+
     public boolean isAllowsDirectoryBrowsing()
     {
         return allowsDirectoryBrowsing;